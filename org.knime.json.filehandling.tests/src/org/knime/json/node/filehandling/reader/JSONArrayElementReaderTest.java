@@ -0,0 +1,115 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+
+package org.knime.json.node.filehandling.reader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link JSONArrayElementReader}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class JSONArrayElementReaderTest {
+
+    private static List<String> read(final String json, final String path) throws IOException {
+        final List<String> elements = new ArrayList<>();
+        final var in = new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+        try (var reader = new JSONArrayElementReader(in, JSONArrayElementReader.parsePath(path).get())) {
+            String element;
+            while ((element = reader.next()) != null) {
+                elements.add(element);
+            }
+        }
+        return elements;
+    }
+
+    @Test
+    void testParsePath() {
+        assertThat(JSONArrayElementReader.parsePath("$[*]")).hasValueSatisfying(n -> assertThat(n).isEmpty());
+        assertThat(JSONArrayElementReader.parsePath("$.data['the items'][*]"))
+            .hasValueSatisfying(n -> assertThat(n).containsExactly("data", "the items"));
+        assertThat(JSONArrayElementReader.parsePath("$..items[*]")).isEmpty();
+        assertThat(JSONArrayElementReader.parsePath("$.items[0]")).isEmpty();
+        assertThat(JSONArrayElementReader.parsePath("$.items[*].id")).isEmpty();
+    }
+
+    @Test
+    void testRootArray() throws IOException {
+        assertThat(read("[1, {\"a\": [true, null]}, \"x\\\"y\", 1.5e3]", "$[*]")) //
+            .containsExactly("1", "{\"a\":[true,null]}", "\"x\\\"y\"", "1500.0");
+        assertThat(read("{\"a\": [1]}", "$[*]")).isEmpty();
+    }
+
+    @Test
+    void testSkip() throws IOException {
+        final var in = new ByteArrayInputStream("{\"a\": [1, {\"b\": [2]}, [3]]}".getBytes(StandardCharsets.UTF_8));
+        try (var reader = new JSONArrayElementReader(in, JSONArrayElementReader.parsePath("$.a[*]").get())) {
+            assertThat(reader.skip()).isTrue();
+            assertThat(reader.next()).isEqualTo("{\"b\":[2]}");
+            assertThat(reader.skip()).isTrue();
+            assertThat(reader.skip()).isFalse();
+            assertThat(reader.next()).isNull();
+        }
+    }
+
+    @Test
+    void testNestedArray() throws IOException {
+        final String json = "{\"items\": [1, 2], \"data\": {\"items\": [[3]], \"x\": {\"items\": [4]}}, "
+            + "\"data\": {\"items\": {\"y\": 5}}, \"items\": [6]}";
+        assertThat(read(json, "$.items[*]")).containsExactly("1", "2", "6");
+        assertThat(read(json, "$.data.items[*]")).containsExactly("[3]");
+        assertThat(read("[{\"items\": [1]}]", "$.items[*]")).isEmpty();
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+
+package org.knime.json.node.filehandling.reader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.knime.core.data.DataValue;
+import org.knime.core.data.json.JSONCellFactory;
+import org.knime.filehandling.core.node.table.reader.config.DefaultTableReadConfig;
+import org.knime.filehandling.core.node.table.reader.randomaccess.RandomAccessible;
+
+/**
+ * Tests for {@link JSONConcatenatedRead}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class JSONConcatenatedReadTest {
+
+    @TempDir
+    Path m_tempDir;
+
+    private List<DataValue> readAll(final String content, final long skip) throws IOException {
+        final var file = Files.writeString(m_tempDir.resolve("test.json"), content);
+        final var config = new DefaultTableReadConfig<>(new JSONReaderConfig());
+        config.getReaderSpecificConfig().setJsonReadMode(JSONReadMode.CONCATENATED);
+        config.getReaderSpecificConfig().setAllowComments(true);
+        config.setSkipRows(skip > 0);
+        config.setNumRowsToSkip(skip);
+        final List<DataValue> values = new ArrayList<>();
+        try (var read = new JSONConcatenatedRead(file, config, null)) {
+            RandomAccessible<DataValue> row;
+            while ((row = read.next()) != null) {
+                values.add(row.get(0));
+            }
+            assertThat(read.getProgress()).isEqualTo(Files.size(file));
+        }
+        return values;
+    }
+
+    @Test
+    void testConcatenatedValues() throws IOException {
+        assertThat(readAll("\uFEFF{\"a\": 1}{\"b\": [1, 2]}\n\"s\" // comment\n3 [true]", 0)).containsExactly(
+            JSONCellFactory.create("{\"a\": 1}", false), JSONCellFactory.create("{\"b\": [1, 2]}", false),
+            JSONCellFactory.create("\"s\"", false), JSONCellFactory.create("3", false),
+            JSONCellFactory.create("[true]", false));
+        assertThat(readAll(" \n", 0)).isEmpty();
+    }
+
+    @Test
+    void testSkip() throws IOException {
+        assertThat(readAll("{\"a\": 1} {\"b\": 2} {\"c\": 3}", 2))
+            .containsExactly(JSONCellFactory.create("{\"c\": 3}", false));
+    }
+
+    @Test
+    void testNumbers() throws IOException {
+        final var numbers = "[0.10000000000000000000000000000001, 1e400, -1E400, 100.0, 12345678901234567890123]";
+        final var values = readAll(numbers + " 1.50", 0);
+        assertThat(values).containsExactly(JSONCellFactory.create(numbers, false),
+            JSONCellFactory.create("1.50", false));
+        // a round trip through doubles would give these values
+        assertThat(values.get(0)).isNotEqualTo(
+            JSONCellFactory.create("[0.1, \"Infinity\", \"-Infinity\", 100.0, 1.2345678901234568E22]", false));
+        assertThat(values.get(0).toString()).doesNotContain("Infinity");
+    }
+
+    @Test
+    void testInvalidValue() {
+        assertThatThrownBy(() -> readAll("{\"a\": 1} {\"b\": }", 0)).isInstanceOf(IOException.class);
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+
+package org.knime.json.node.filehandling.reader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.knime.core.data.DataValue;
+import org.knime.core.data.json.JSONCellFactory;
+import org.knime.filehandling.core.node.table.reader.config.DefaultTableReadConfig;
+import org.knime.filehandling.core.node.table.reader.randomaccess.RandomAccessible;
+import org.knime.filehandling.core.node.table.reader.read.Read;
+
+/**
+ * Tests for {@link JSONFilePrefetcher}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class JSONFilePrefetcherTest {
+
+    @TempDir
+    Path m_tempDir;
+
+    private List<Path> writeFiles(final int count) throws IOException {
+        final List<Path> files = new ArrayList<>();
+        for (var i = 0; i < count; i++) {
+            files.add(Files.writeString(m_tempDir.resolve("file" + i + ".jsonl"),
+                "{\"file\": " + i + ", \"line\": 0}\n{\"file\": " + i + ", \"line\": 1}\n"));
+        }
+        return files;
+    }
+
+    private static JSONFilePrefetcher<Path> createPrefetcher(final List<Path> files) {
+        final var config = new DefaultTableReadConfig<>(new JSONReaderConfig());
+        config.getReaderSpecificConfig().setJsonReadMode(JSONReadMode.JSON_LINES);
+        return new JSONFilePrefetcher<>(files, path -> new JSONLinesRead(path, config, null), 3);
+    }
+
+    private static List<DataValue> readAll(final Read<DataValue> read) throws IOException {
+        final List<DataValue> values = new ArrayList<>();
+        RandomAccessible<DataValue> row;
+        while ((row = read.next()) != null) {
+            values.add(row.get(0));
+        }
+        return values;
+    }
+
+    @Test
+    void testTakeInOrder() throws IOException {
+        final List<Path> files = writeFiles(20);
+        try (var prefetcher = createPrefetcher(files)) {
+            for (var i = 0; i < files.size(); i++) {
+                try (var read = prefetcher.take(files.get(i))) {
+                    assertThat(readAll(read)).containsExactly(
+                        JSONCellFactory.create("{\"file\": " + i + ", \"line\": 0}", false),
+                        JSONCellFactory.create("{\"file\": " + i + ", \"line\": 1}", false));
+                    assertThat(read.getProgress()).isEqualTo(Files.size(files.get(i)));
+                }
+            }
+            assertThat(prefetcher.take(files.get(0))).isNull();
+            assertThat(prefetcher.take(m_tempDir.resolve("unknown.jsonl"))).isNull();
+        }
+    }
+
+    @Test
+    void testFailureIsThrownByTake() throws IOException {
+        final List<Path> files = writeFiles(5);
+        Files.writeString(files.get(2), "not json\n");
+        try (var prefetcher = createPrefetcher(files)) {
+            assertThat(prefetcher.take(files.get(0))).isNotNull();
+            assertThat(prefetcher.take(files.get(1))).isNotNull();
+            assertThatThrownBy(() -> prefetcher.take(files.get(2))).isInstanceOf(IOException.class)
+                .hasMessageContaining("line 1");
+            assertThat(prefetcher.take(files.get(3))).isNotNull();
+        }
+    }
+}
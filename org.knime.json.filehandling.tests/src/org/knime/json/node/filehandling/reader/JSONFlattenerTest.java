@@ -0,0 +1,162 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+
+package org.knime.json.node.filehandling.reader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.knime.core.data.DataType;
+import org.knime.core.data.def.BooleanCell;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.data.json.JSONCell;
+import org.knime.json.node.profile.JSONStructureProfile;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Tests for {@link JSONFlattener}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class JSONFlattenerTest {
+
+    private static final List<String> SAMPLE = List.of( //
+        "{\"a\": 1, \"b\": {\"c\": \"x\", \"d\": true}}", //
+        "{\"a\": 2.5, \"e\": null, \"f\": [1, 2]}", //
+        "{\"a\": 3, \"b\": {\"c\": 5}}");
+
+    private static List<String> names(final JSONFlattener flattener) {
+        final var spec = flattener.getSpec();
+        final List<String> names = new ArrayList<>();
+        for (var i = 0; i < spec.size(); i++) {
+            names.add(spec.getColumnSpec(i).getName().orElseThrow());
+        }
+        return names;
+    }
+
+    private static List<DataType> types(final JSONFlattener flattener) {
+        final var spec = flattener.getSpec();
+        final List<DataType> types = new ArrayList<>();
+        for (var i = 0; i < spec.size(); i++) {
+            types.add(spec.getColumnSpec(i).getType());
+        }
+        return types;
+    }
+
+    @Test
+    void testInfer() throws IOException {
+        final var flattener = JSONFlattener.infer(SAMPLE, false, null);
+        assertThat(names(flattener)).containsExactly("$['a']", "$['b']['c']", "$['b']['d']", "$['e']");
+        assertThat(types(flattener)).containsExactly(DoubleCell.TYPE, StringCell.TYPE, BooleanCell.TYPE,
+            StringCell.TYPE);
+
+        final var remainder = JSONFlattener.infer(SAMPLE, false, "Unmatched values");
+        assertThat(names(remainder)).containsExactly("$['a']", "$['b']['c']", "$['b']['d']", "$['e']", "Unmatched values");
+        assertThat(types(remainder)).endsWith(JSONCell.TYPE);
+    }
+
+    @Test
+    void testDerive() throws IOException {
+        final var profile = new JSONStructureProfile();
+        final var mapper = new ObjectMapper();
+        for (final String record : SAMPLE) {
+            profile.update(mapper.readTree(record));
+        }
+        final var flattener = JSONFlattener.derive(profile, false, "Unmatched values");
+        assertThat(names(flattener)).containsExactly("$['a']", "$['b']['c']", "$['b']['d']", "$['e']", "Unmatched values");
+        assertThat(types(flattener)).startsWith(DoubleCell.TYPE).contains(BooleanCell.TYPE);
+        final var cells = flattener.flatten("{\"a\": 1, \"b\": {\"d\": false}, \"f\": [3]}");
+        assertThat(cells).startsWith(new DoubleCell(1), null, BooleanCell.FALSE, null);
+        assertThat(cells[4].toString()).isEqualTo("{\"$['f']\":[3]}");
+    }
+
+    @Test
+    void testUniqueNames() throws IOException {
+        // keys with dots do not collide with the nested keys, only the remainder column needs a unique name
+        final var flattener =
+            JSONFlattener.infer(List.of("{\"a.b\": 1, \"a\": {\"b\": 2}}"), false, "$['a']['b']");
+        assertThat(names(flattener)).containsExactly("$['a.b']", "$['a']['b']", "$['a']['b'] (#1)");
+        assertThat(types(flattener)).startsWith(IntCell.TYPE, IntCell.TYPE);
+    }
+
+    @Test
+    void testFlatten() throws IOException {
+        final var flattener = JSONFlattener.infer(SAMPLE, false, null);
+        assertThat(flattener.flatten("{\"b\": {\"c\": 7}, \"a\": 7, \"x\": {\"y\": 1}}")) //
+            .containsExactly(new DoubleCell(7), new StringCell("7"), null, null);
+        assertThat(flattener.flatten("{\"b\": {\"d\": \"no\"}, \"e\": false}")) //
+            .containsExactly(null, null, null, new StringCell("false"));
+        assertThat(flattener.flatten("[1]")).containsOnlyNulls();
+    }
+
+    @Test
+    void testRemainder() throws IOException {
+        final var flattener = JSONFlattener.infer(SAMPLE, false, "Unmatched values");
+        final var cells = flattener.flatten("{\"a\": 1, \"b\": {\"d\": \"no\"}, \"f\": [1, {\"g\": 2}]}");
+        assertThat(cells).startsWith(new DoubleCell(1), null, null, null);
+        assertThat(cells[4].toString()).isEqualTo("{\"$['b']['d']\":\"no\",\"$['f']\":[1,{\"g\":2}]}");
+        assertThat(flattener.flatten("{\"a\": 1}")[4]).isNull();
+        assertThat(flattener.flatten("\"text\"")[4].toString()).isEqualTo("{\"$\":\"text\"}");
+    }
+
+    @Test
+    void testInvalid() throws IOException {
+        final var flattener = JSONFlattener.infer(SAMPLE, false, null);
+        assertThatThrownBy(() -> flattener.flatten("{\"a\": ")).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> flattener.flatten("{} {}")).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> flattener.flatten("// c\n{}")).isInstanceOf(IOException.class);
+        assertThat(JSONFlattener.infer(SAMPLE, true, null).flatten("// c\n{\"a\": 2}")[0])
+            .isEqualTo(new DoubleCell(2));
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+
+package org.knime.json.node.filehandling.reader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.knime.core.data.DataValue;
+import org.knime.core.data.MissingCell;
+import org.knime.core.data.json.JSONCellFactory;
+import org.knime.filehandling.core.node.table.reader.config.DefaultTableReadConfig;
+import org.knime.filehandling.core.node.table.reader.randomaccess.RandomAccessible;
+
+/**
+ * Tests for {@link JSONLinesRead}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class JSONLinesReadTest {
+
+    private static final String CONTENT = "{\"a\": 1}\n\n[1, 2]\r\nnot json\n\"last\"";
+
+    @TempDir
+    Path m_tempDir;
+
+    private List<DataValue> readAll(final JSONLinesErrorPolicy policy) throws IOException {
+        return readAll(createConfig(policy));
+    }
+
+    private static DefaultTableReadConfig<JSONReaderConfig> createConfig(final JSONLinesErrorPolicy policy) {
+        final var config = new DefaultTableReadConfig<>(new JSONReaderConfig());
+        config.getReaderSpecificConfig().setJsonReadMode(JSONReadMode.JSON_LINES);
+        config.getReaderSpecificConfig().setLinesErrorPolicy(policy);
+        return config;
+    }
+
+    private List<DataValue> readAll(final DefaultTableReadConfig<JSONReaderConfig> config) throws IOException {
+        final var file = Files.writeString(m_tempDir.resolve("test.jsonl"), CONTENT);
+        final List<DataValue> values = new ArrayList<>();
+        try (var read = new JSONLinesRead(file, config, null)) {
+            RandomAccessible<DataValue> row;
+            while ((row = read.next()) != null) {
+                values.add(row.get(0));
+            }
+            if (!config.limitRows()) {
+                assertThat(read.getProgress()).isEqualTo(Files.size(file));
+            }
+        }
+        return values;
+    }
+
+    private List<DataValue> readAll(final JSONLinesErrorPolicy policy, final long skip, final long limit)
+        throws IOException {
+        final var config = createConfig(policy);
+        config.setSkipRows(true);
+        config.setNumRowsToSkip(skip);
+        config.setLimitRows(true);
+        config.setMaxRows(limit);
+        return readAll(config);
+    }
+
+    @Test
+    void testSkipAndLimit() throws IOException {
+        // the invalid line is a row unless it is skipped by the policy, skipped rows are not parsed
+        final var missing = readAll(JSONLinesErrorPolicy.MISSING, 2, 1);
+        assertThat(missing).hasSize(1);
+        assertThat(((MissingCell)missing.get(0)).getError()).startsWith("Invalid JSON in line 4");
+        assertThat(readAll(JSONLinesErrorPolicy.FAIL, 3, 5)).containsExactly(JSONCellFactory.create("\"last\"", false));
+        assertThat(readAll(JSONLinesErrorPolicy.SKIP, 2, 5)).containsExactly(JSONCellFactory.create("\"last\"", false));
+        assertThat(readAll(JSONLinesErrorPolicy.SKIP, 0, 2)).containsExactly(
+            JSONCellFactory.create("{\"a\": 1}", false), JSONCellFactory.create("[1, 2]", false));
+        assertThat(readAll(JSONLinesErrorPolicy.FAIL, 10, 5)).isEmpty();
+    }
+
+    @Test
+    void testSkipInvalidLines() throws IOException {
+        assertThat(readAll(JSONLinesErrorPolicy.SKIP)).containsExactly(JSONCellFactory.create("{\"a\": 1}", false),
+            JSONCellFactory.create("[1, 2]", false), JSONCellFactory.create("\"last\"", false));
+    }
+
+    @Test
+    void testMissingForInvalidLines() throws IOException {
+        final var values = readAll(JSONLinesErrorPolicy.MISSING);
+        assertThat(values).hasSize(4);
+        assertThat(values.get(2)).isInstanceOf(MissingCell.class);
+        assertThat(((MissingCell)values.get(2)).getError()).startsWith("Invalid JSON in line 4");
+    }
+
+    @Test
+    void testFailOnInvalidLines() {
+        assertThatThrownBy(() -> readAll(JSONLinesErrorPolicy.FAIL)).isInstanceOf(IOException.class)
+            .hasMessageStartingWith("Invalid JSON in line 4");
+    }
+
+}
@@ -0,0 +1,159 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+
+package org.knime.json.node.filehandling.reader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.knime.core.data.DataValue;
+import org.knime.core.data.json.JSONCellFactory;
+import org.knime.filehandling.core.node.table.reader.config.DefaultTableReadConfig;
+import org.knime.filehandling.core.node.table.reader.randomaccess.RandomAccessible;
+
+/**
+ * Tests for {@link JSONMultiPathRead}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class JSONMultiPathReadTest {
+
+    @TempDir
+    Path m_tempDir;
+
+    private List<List<DataValue>> readAll(final String content, final long skip, final String jsonPath,
+        final String... additionalJSONPaths) throws IOException {
+        final var file = Files.writeString(m_tempDir.resolve("test.json"), content);
+        final var config = new DefaultTableReadConfig<>(new JSONReaderConfig());
+        config.getReaderSpecificConfig().setUseJSONPath(true);
+        config.getReaderSpecificConfig().setJSONPath(jsonPath);
+        config.getReaderSpecificConfig().setAdditionalJSONPaths(
+            Arrays.stream(additionalJSONPaths).map(p -> "column " + p).toArray(String[]::new), additionalJSONPaths);
+        config.setSkipRows(skip > 0);
+        config.setNumRowsToSkip(skip);
+        final List<List<DataValue>> rows = new ArrayList<>();
+        try (var read = new JSONMultiPathRead(file, config)) {
+            RandomAccessible<DataValue> row;
+            while ((row = read.next()) != null) {
+                assertThat(row.size()).isEqualTo(additionalJSONPaths.length + 1);
+                final List<DataValue> values = new ArrayList<>();
+                for (var i = 0; i < row.size(); i++) {
+                    values.add(row.get(i));
+                }
+                rows.add(values);
+            }
+        }
+        return rows;
+    }
+
+    private static DataValue json(final String json) {
+        return JSONCellFactory.create(json);
+    }
+
+    @Test
+    void testMatchesAreZipped() throws IOException {
+        // the matches of $.b are all found before the first match of $.a
+        final var rows = readAll("{\"b\": [\"x\", \"y\"], \"c\": {\"d\": true}, \"a\": [1, 2, 3]}", 0, "$.a[*]",
+            "$.b[*]", "$.c.d");
+        assertThat(rows).containsExactly(Arrays.asList(json("1"), json("\"x\""), json("true")),
+            Arrays.asList(json("2"), json("\"y\""), null), Arrays.asList(json("3"), null, null));
+    }
+
+    @Test
+    void testUnequalCardinality() throws IOException {
+        // $.b is only found after all matches of $.a, which are spilled beyond the limit
+        final var count = 3 * JSONMultiPathRead.MAX_BUFFERED_MATCHES;
+        final var values = IntStream.range(0, count).mapToObj(Integer::toString).collect(Collectors.joining(","));
+        final var rows = readAll("{\"a\": [" + values + "], \"b\": \"x\"}", 0, "$.a[*]", "$.b");
+        assertThat(rows).hasSize(count);
+        for (var i = 0; i < count; i++) {
+            assertThat(rows.get(i)).containsExactly(json(Integer.toString(i)), i == 0 ? json("\"x\"") : null);
+        }
+    }
+
+    @Test
+    void testSeparateArraysPerField() throws IOException {
+        // all matches of $.names are found before the first match of $.ages
+        final var count = 2 * JSONMultiPathRead.MAX_BUFFERED_MATCHES + 100;
+        final var names =
+            IntStream.range(0, count).mapToObj(i -> "\"n" + i + "\"").collect(Collectors.joining(","));
+        final var ages = IntStream.range(0, count).mapToObj(Integer::toString).collect(Collectors.joining(","));
+        final var rows = readAll("{\"names\": [" + names + "], \"ages\": [" + ages + "]}", 1, "$.names[*]",
+            "$.ages[*]");
+        assertThat(rows).hasSize(count - 1);
+        for (var i = 1; i < count; i++) {
+            assertThat(rows.get(i - 1)).containsExactly(json("\"n" + i + "\""), json(Integer.toString(i)));
+        }
+    }
+
+    @Test
+    void testSkip() throws IOException {
+        assertThat(readAll("{\"a\": [1, 2, 3], \"b\": [\"x\", \"y\"]}", 1, "$.a[*]", "$.b[*]"))
+            .containsExactly(Arrays.asList(json("2"), json("\"y\"")), Arrays.asList(json("3"), null));
+    }
+
+    @Test
+    void testNoMatches() throws IOException {
+        assertThat(readAll("{\"a\": []}", 0, "$.a[*]", "$.b")).isEmpty();
+    }
+
+    @Test
+    void testInvalidPath() {
+        assertThatThrownBy(() -> readAll("{}", 0, "$.a", "$.[")).isInstanceOf(IOException.class)
+            .hasMessage("Invalid JSON Path $.[");
+    }
+}
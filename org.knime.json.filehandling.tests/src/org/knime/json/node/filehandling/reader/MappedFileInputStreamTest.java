@@ -0,0 +1,105 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+
+package org.knime.json.node.filehandling.reader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for {@link MappedFileInputStream}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class MappedFileInputStreamTest {
+
+    @TempDir
+    Path m_tempDir;
+
+    @Test
+    void testReadAcrossSegments() throws IOException {
+        final var bytes = new byte[100];
+        for (var i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte)(i * 7);
+        }
+        final var file = Files.write(m_tempDir.resolve("test.bin"), bytes);
+        for (final int start : new int[]{0, 3, 99, 100}) {
+            try (var in = new MappedFileInputStream(FileChannel.open(file), start, 8)) {
+                final var out = new ByteArrayOutputStream();
+                final int first = in.read();
+                if (first >= 0) {
+                    out.write(first);
+                }
+                final var buffer = new byte[13];
+                int n;
+                while ((n = in.read(buffer, 0, buffer.length)) >= 0) {
+                    out.write(buffer, 0, n);
+                    assertThat(in.getPosition()).isEqualTo(start + out.size());
+                }
+                assertThat(in.read()).isEqualTo(-1);
+                assertThat(out.toByteArray()).isEqualTo(Arrays.copyOfRange(bytes, start, bytes.length));
+            }
+        }
+    }
+
+    @Test
+    void testEmptyFile() throws IOException {
+        final var file = Files.write(m_tempDir.resolve("empty.bin"), new byte[0]);
+        try (var in = new MappedFileInputStream(FileChannel.open(file), 0, MappedFileInputStream.SEGMENT_SIZE)) {
+            assertThat(in.read(new byte[4], 0, 4)).isEqualTo(-1);
+            assertThat(in.getPosition()).isZero();
+        }
+    }
+}
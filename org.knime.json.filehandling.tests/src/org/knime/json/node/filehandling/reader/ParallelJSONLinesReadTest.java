@@ -0,0 +1,118 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+
+package org.knime.json.node.filehandling.reader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.knime.core.data.DataValue;
+import org.knime.core.data.MissingCell;
+import org.knime.filehandling.core.node.table.reader.config.DefaultTableReadConfig;
+import org.knime.filehandling.core.node.table.reader.randomaccess.RandomAccessible;
+import org.knime.filehandling.core.node.table.reader.read.Read;
+
+/**
+ * Tests for {@link ParallelJSONLinesRead}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class ParallelJSONLinesReadTest {
+
+    @TempDir
+    Path m_tempDir;
+
+    /**
+     * Checks that the rows (including the line numbers of the invalid lines) are the same as the sequential ones, also
+     * when lines cross the chunk boundaries.
+     */
+    @Test
+    void testSameAsSequential() throws IOException {
+        final var file = m_tempDir.resolve("test.jsonl");
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (var i = 0; i < 60_000; i++) {
+                if (i % 1_000 == 0) {
+                    writer.write("{invalid\n\n");
+                }
+                writer.write("{\"id\": " + i + ", \"text\": \"" + "é".repeat(i % 37) + "\"}");
+                writer.write(i % 3 == 0 ? "\r\n" : "\n");
+            }
+        }
+        assertThat(Files.size(file)).isGreaterThan(2L * ParallelJSONLinesRead.CHUNK_SIZE);
+        final var config = new DefaultTableReadConfig<>(new JSONReaderConfig());
+        config.getReaderSpecificConfig().setJsonReadMode(JSONReadMode.JSON_LINES);
+        config.getReaderSpecificConfig().setLinesErrorPolicy(JSONLinesErrorPolicy.MISSING);
+        final List<Object> expected;
+        try (var read = new JSONLinesRead(file, config, null)) {
+            expected = readAll(read);
+        }
+        try (var read = new ParallelJSONLinesRead(file, config, null, 4)) {
+            assertThat(readAll(read)).containsExactlyElementsOf(expected);
+            assertThat(read.getProgress()).isEqualTo(Files.size(file));
+        }
+    }
+
+    /** The missing cells are represented by their error message, so the line numbers are compared too. */
+    private static List<Object> readAll(final Read<DataValue> read) throws IOException {
+        final List<Object> values = new ArrayList<>();
+        RandomAccessible<DataValue> row;
+        while ((row = read.next()) != null) {
+            final DataValue value = row.get(0);
+            values.add(value instanceof MissingCell ? ((MissingCell)value).getError() : value);
+        }
+        return values;
+    }
+
+}
@@ -0,0 +1,96 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+
+package org.knime.json.node.filehandling.writer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.StringValue;
+import org.knime.core.data.json.JSONCellFactory;
+import org.knime.core.data.json.JSONValue;
+import org.knime.filehandling.core.defaultnodesettings.filechooser.writer.FileOverwritePolicy;
+
+/**
+ * Tests for {@link JSONMultiFileWriterCellFactory}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class JSONMultiFileWriterCellFactoryTest {
+
+    private static String write(final DataCell cell) throws IOException {
+        final var factory = new JSONMultiFileWriterCellFactory(new DataColumnSpec[0], 0, FileOverwritePolicy.FAIL);
+        final var out = new ByteArrayOutputStream();
+        factory.writeFile(out, (JSONValue)cell);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testWritesStoredJSON() throws IOException {
+        final var cell = JSONCellFactory.create("{\"a\": [1, 2.5, \"\u00e4\"], \"b\": null}", false);
+        assertThat(write(cell)).isEqualTo(((StringValue)cell).getStringValue());
+    }
+
+    @Test
+    void testWritesUnvalidatedJSON() throws IOException {
+        // like the cells read back from a table, the text is stored as given
+        final var json = "{\"a\":[1,2.50,1e2,\"\u00e4\"],\"b\":{\"c\":null,\"d\":{}}}";
+        final var validated = JSONCellFactory.create(json, false);
+        assertThat(write(JSONCellFactory.create(json))).isEqualTo(((StringValue)validated).getStringValue());
+    }
+
+    @Test
+    void testFormatDoesNotDependOnStoredText() throws IOException {
+        final var json = "{\"a\":[1,2.5,\"\u00e4\"],\"b\":{\"c\":null}}";
+        assertThat(write(JSONCellFactory.create(json))).isEqualTo(write(JSONCellFactory.create(json, false)));
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+
+package org.knime.json.node.filehandling.reader;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Streams the elements of an array selected by a simple JSONPath (like {@code $[*]}, {@code $.items[*]} or
+ * {@code $.data['items'][*]}) with a Jackson parser. The tokens of each element are copied to their text
+ * representation, no intermediate tree is built and the text is not parsed again.
+ * <p>
+ * Like with JsonSurfer, every field matching the path is considered (also duplicate keys), values of other kinds than
+ * the path expects are ignored.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class JSONArrayElementReader implements Closeable {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final Pattern SIMPLE_PATH =
+        Pattern.compile("\\$((?:\\.[A-Za-z_][A-Za-z0-9_]*|\\['[^'\\\\]*'\\])*)\\[\\*\\]");
+
+    private static final Pattern STEP = Pattern.compile("\\.([A-Za-z_][A-Za-z0-9_]*)|\\['([^'\\\\]*)'\\]");
+
+    private final JsonParser m_parser;
+
+    private final String[] m_names;
+
+    private final StringWriter m_text = new StringWriter();
+
+    private final JsonGenerator m_generator;
+
+    /** The number of matched names of the objects the parser is in, {@code -1} before the root value. */
+    private int m_depth = -1;
+
+    private boolean m_inArray;
+
+    private boolean m_done;
+
+    /**
+     * @param in the JSON input
+     * @param names the field names leading to the array, see {@link #parsePath(String)}
+     * @throws IOException if the parser cannot be created
+     */
+    JSONArrayElementReader(final InputStream in, final String[] names) throws IOException {
+        m_parser = JSON_FACTORY.createParser(in);
+        m_names = names.clone();
+        m_generator = JSON_FACTORY.createGenerator(m_text);
+        // every element is a root value of the generator, these must not be separated by spaces
+        m_generator.setRootValueSeparator(null);
+    }
+
+    /**
+     * Parses the simple JSONPaths supported by this class.
+     *
+     * @param jsonPath a JSONPath
+     * @return the names of the fields leading to the array (empty for {@code $[*]}), or empty if the path is not a
+     *         simple path to all elements of an array
+     */
+    static Optional<String[]> parsePath(final String jsonPath) {
+        final String path = jsonPath.trim();
+        final Matcher matcher = SIMPLE_PATH.matcher(path);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        final List<String> names = new ArrayList<>();
+        final Matcher step = STEP.matcher(matcher.group(1));
+        while (step.find()) {
+            names.add(step.group(1) != null ? step.group(1) : step.group(2));
+        }
+        return Optional.of(names.toArray(String[]::new));
+    }
+
+    /**
+     * @return the text of the next array element or {@code null} if there are no more elements
+     * @throws IOException if the input is not valid JSON
+     */
+    String next() throws IOException {
+        return advance() ? copyElement() : null;
+    }
+
+    /**
+     * Skips the next array element without copying it.
+     *
+     * @return whether there was an element to skip
+     * @throws IOException if the input is not valid JSON
+     */
+    boolean skip() throws IOException {
+        if (advance()) {
+            m_parser.skipChildren();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return whether the parser is at the first token of the next array element
+     */
+    private boolean advance() throws IOException {
+        while (!m_done) {
+            final JsonToken token = m_parser.nextToken();
+            if (token == null) {
+                m_done = true;
+            } else if (m_inArray) {
+                if (token != JsonToken.END_ARRAY) {
+                    return true;
+                }
+                m_inArray = false;
+                m_done = m_names.length == 0;
+            } else if (m_depth < 0) {
+                m_done = !startRoot(token);
+            } else if (token == JsonToken.END_OBJECT) {
+                m_depth--;
+                m_done = m_depth < 0;
+            } else {
+                // a field of an object on the path
+                final boolean matches = m_names[m_depth].equals(m_parser.currentName());
+                final JsonToken value = m_parser.nextToken();
+                if (matches && m_depth == m_names.length - 1 && value == JsonToken.START_ARRAY) {
+                    m_inArray = true;
+                } else if (matches && m_depth < m_names.length - 1 && value == JsonToken.START_OBJECT) {
+                    m_depth++;
+                } else {
+                    m_parser.skipChildren();
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return whether the root value can contain the array
+     */
+    private boolean startRoot(final JsonToken token) {
+        if (m_names.length == 0 && token == JsonToken.START_ARRAY) {
+            m_inArray = true;
+            return true;
+        } else if (m_names.length > 0 && token == JsonToken.START_OBJECT) {
+            m_depth = 0;
+            return true;
+        }
+        return false;
+    }
+
+    private String copyElement() throws IOException {
+        m_text.getBuffer().setLength(0);
+        m_generator.copyCurrentStructure(m_parser);
+        m_generator.flush();
+        return m_text.toString();
+    }
+
+    @Override
+    public void close() throws IOException {
+        m_parser.close();
+    }
+}
@@ -50,13 +50,21 @@
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
 
 import org.knime.core.data.DataValue;
 import org.knime.core.data.json.JSONCellFactory;
 import org.knime.core.node.NodeLogger;
+import org.knime.filehandling.core.connections.FSCategory;
+import org.knime.filehandling.core.connections.FSPath;
 import org.knime.filehandling.core.node.table.reader.config.TableReadConfig;
 import org.knime.filehandling.core.node.table.reader.randomaccess.RandomAccessible;
 import org.knime.filehandling.core.node.table.reader.read.Read;
@@ -64,6 +72,9 @@
 
 /**
  * Class for the JSON reader which implements {@link Read} which reads the JSON as a single cell (blob).
+ * <p>
+ * Local uncompressed UTF-8 files are memory-mapped and parsed from their bytes, which avoids decoding the whole file
+ * to characters before parsing it.
  *
  * @author Moditha Hewasinghage, KNIME GmbH, Berlin, Germany
  */
@@ -71,8 +82,14 @@ final class JSONBlobRead extends JSONRead {
 
     private static final NodeLogger LOGGER = NodeLogger.getLogger(JSONBlobRead.class);
 
+    private static final byte[] UTF8_BOM = {(byte)0xEF, (byte)0xBB, (byte)0xBF};
+
+    /** The reader of the decoded file, {@code null} if the file is memory-mapped. */
     private final BufferedReader m_reader;
 
+    /** The bytes of the memory-mapped file, {@code null} if the file is read with {@link #m_reader}. */
+    private final MappedFileInputStream m_mapped;
+
     private final boolean m_allowComments;
 
     /**
@@ -80,30 +97,88 @@ final class JSONBlobRead extends JSONRead {
      *
      * @param path the {@link Path} to the file
      * @param config the {@link TableReadConfig} of the node
+     * @param flattener the columns to extract from the file, {@code null} to read it to a single JSON column
      * @throws IOException
      */
-    JSONBlobRead(final Path path, final TableReadConfig<JSONReaderConfig> config) throws IOException {
-        super(path, config);
-        final Charset charset = StandardCharsets.UTF_8;
-        m_reader = BomEncodingUtils.createBufferedReader(m_compressionAwareStream, charset);
+    JSONBlobRead(final Path path, final TableReadConfig<JSONReaderConfig> config, final JSONFlattener flattener)
+        throws IOException {
+        super(path, config, flattener);
+        m_mapped = openMapped(path);
+        if (m_mapped == null) {
+            final Charset charset = StandardCharsets.UTF_8;
+            m_reader = BomEncodingUtils.createBufferedReader(m_compressionAwareStream, charset);
+        } else {
+            m_reader = null;
+        }
         m_allowComments = m_jsonReaderConfig.allowComments();
         m_linesRead = 0;
     }
 
+    /**
+     * Memory-maps a local file if it is neither compressed nor in an encoding other than UTF-8 (detected from its first
+     * bytes).
+     *
+     * @return the bytes of the file after the BOM, or {@code null} if the file has to be decoded by a reader
+     */
+    @SuppressWarnings("resource") // the channel is closed with the returned stream
+    private static MappedFileInputStream openMapped(final Path path) throws IOException {
+        if (!(path instanceof FSPath fsPath) || fsPath.toFSLocation().getFSCategory() != FSCategory.LOCAL
+            || path.getFileName().toString().endsWith(".gz")) {
+            return null;
+        }
+        final SeekableByteChannel channel = Files.newByteChannel(path);
+        final ByteBuffer head = ByteBuffer.allocate(UTF8_BOM.length);
+        while (head.hasRemaining() && channel.read(head) > 0) {
+            // read the first bytes
+        }
+        // gzip and UTF-16/32 (with or without BOM) do not start like a JSON in UTF-8
+        if (!(channel instanceof FileChannel fileChannel) || head.position() == 0
+            || !ParallelJSONLinesRead.isJSONStart(head.get(0))) {
+            channel.close();
+            return null;
+        }
+        final long start = Arrays.equals(head.array(), UTF8_BOM) ? UTF8_BOM.length : 0;
+        return new MappedFileInputStream(fileChannel, start, MappedFileInputStream.SEGMENT_SIZE);
+    }
+
+    @Override
+    protected boolean skipRow() {
+        // the file is not parsed at all when its single row is skipped
+        m_linesRead++;
+        return m_linesRead == 1;
+    }
+
     @Override
-    public RandomAccessible<DataValue> next() throws IOException {
+    protected RandomAccessible<DataValue> readRow() throws IOException {
         m_linesRead++;
         if (m_linesRead > 1) {
             return null;
+        } else if (m_mapped != null) {
+            return m_flattener != null ? createRandomAccessible(m_flattener.flatten(m_mapped))
+                : createRandomAccessible(JSONCellFactory.create(m_mapped, m_allowComments));
+        } else if (m_flattener != null) {
+            final var text = new StringWriter();
+            m_reader.transferTo(text);
+            return createRandomAccessible(m_flattener.flatten(text.toString()));
         } else {
             return createRandomAccessible(JSONCellFactory.create(m_reader, m_allowComments));
         }
     }
 
+    @Override
+    public long getProgress() {
+        return m_mapped == null ? super.getProgress() : m_mapped.getPosition();
+    }
+
     @Override
     public void close() throws IOException {
         try {
-            m_reader.close();
+            if (m_mapped != null) {
+                m_mapped.close();
+                m_compressionAwareStream.close();
+            } else {
+                m_reader.close();
+            }
         } catch (IOException e) {
             LOGGER.error("Something went wrong while closing the BufferedReader. "
                 + "For further details please have a look into the log.", e);
@@ -0,0 +1,168 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+
+package org.knime.json.node.filehandling.reader;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Path;
+
+import org.knime.core.data.DataValue;
+import org.knime.core.data.json.JSONCellFactory;
+import org.knime.core.node.NodeLogger;
+import org.knime.filehandling.core.node.table.reader.config.TableReadConfig;
+import org.knime.filehandling.core.node.table.reader.randomaccess.RandomAccessible;
+import org.knime.filehandling.core.node.table.reader.read.Read;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Class for the JSON reader which implements {@link Read} for the {@link JSONReadMode#CONCATENATED} mode: every
+ * top-level value of a stream of concatenated JSON values (with or without whitespace between them) is a row. The
+ * tokens of the values are copied one after another from the bytes of the file to the text of the row, so only a
+ * single value is in memory at a time, and the numbers keep their original text (precision and range).
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class JSONConcatenatedRead extends JSONRead {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(JSONConcatenatedRead.class);
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    private final JsonParser m_parser;
+
+    /**
+     * Constructor.
+     *
+     * @param path the {@link Path} to the file
+     * @param config the {@link TableReadConfig} of the node
+     * @param flattener the columns to extract from the values, {@code null} to read them to a single JSON column
+     * @throws IOException
+     */
+    JSONConcatenatedRead(final Path path, final TableReadConfig<JSONReaderConfig> config,
+        final JSONFlattener flattener) throws IOException {
+        super(path, config, flattener);
+        // the encoding (and a BOM) is detected by the parser from the bytes
+        m_parser = FACTORY.createParser(m_compressionAwareStream);
+        if (m_jsonReaderConfig.allowComments()) {
+            m_parser.enable(JsonParser.Feature.ALLOW_COMMENTS);
+            m_parser.enable(JsonParser.Feature.ALLOW_YAML_COMMENTS);
+        }
+        m_linesRead = 0;
+    }
+
+    @Override
+    protected RandomAccessible<DataValue> readRow() throws IOException {
+        if (m_parser.nextToken() == null) {
+            return null;
+        }
+        m_linesRead++;
+        final StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = FACTORY.createGenerator(writer)) {
+            copyValue(m_parser, generator);
+        }
+        final String json = writer.toString();
+        return m_flattener == null ? createRandomAccessible(JSONCellFactory.create(json))
+            : createRandomAccessible(m_flattener.flatten(json));
+    }
+
+    /**
+     * Copies the value starting at the current token of {@code parser}, the numbers are written with their original
+     * text (parsing them to {@code double}s would lose precision, and turn too large ones to {@code Infinity}).
+     *
+     * @param parser positioned at the first token of a value
+     * @param generator the output
+     * @throws IOException if the value cannot be read or written
+     */
+    private static void copyValue(final JsonParser parser, final JsonGenerator generator) throws IOException {
+        int depth = 0;
+        JsonToken token = parser.currentToken();
+        while (true) {
+            if (token == null) {
+                throw new IOException("Unexpected end of the JSON value");
+            }
+            if (token.isNumeric()) {
+                generator.writeNumber(parser.getText());
+            } else {
+                generator.copyCurrentEvent(parser);
+            }
+            if (token.isStructStart()) {
+                depth++;
+            } else if (token.isStructEnd()) {
+                depth--;
+            }
+            if (depth == 0) {
+                return;
+            }
+            token = parser.nextToken();
+        }
+    }
+
+    @Override
+    protected boolean skipRow() throws IOException {
+        if (m_parser.nextToken() == null) {
+            return false;
+        }
+        m_linesRead++;
+        m_parser.skipChildren();
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            m_parser.close();
+        } catch (IOException e) {
+            LOGGER.error("Something went wrong while closing the JSON parser. "
+                + "For further details please have a look into the log.", e);
+        }
+    }
+
+}
@@ -0,0 +1,225 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+
+package org.knime.json.node.filehandling.reader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.knime.core.data.DataValue;
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.util.ThreadPool;
+import org.knime.core.util.ThreadUtils;
+import org.knime.filehandling.core.node.table.reader.randomaccess.RandomAccessible;
+import org.knime.filehandling.core.node.table.reader.read.Read;
+
+/**
+ * Reads the files of a multi-file input concurrently ahead of the (sequential) reading of the table reader framework.
+ * The files are read in the order of the input, at most twice the concurrency level of files are read or buffered at
+ * the same time. The framework takes the buffered rows with {@link #take(Path)} in its own order, so the output rows
+ * do not depend on which file finished first.
+ * <p>
+ * Files larger than {@link #MAX_FILE_SIZE} are not buffered, they are read as usual when their turn comes.
+ *
+ * @param <P> the type of the paths
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class JSONFilePrefetcher<P extends Path> implements AutoCloseable {
+
+    /** The maximal size of a file that is read ahead, the rows of larger files are not buffered. */
+    static final long MAX_FILE_SIZE = 4L << 20;
+
+    /**
+     * Opens the (undecorated) read of a file.
+     *
+     * @param <P> the type of the paths
+     */
+    @FunctionalInterface
+    interface ReadOpener<P> {
+        /**
+         * @param path the file to read
+         * @return the read of the file
+         * @throws IOException if the file cannot be opened
+         */
+        Read<DataValue> open(P path) throws IOException;
+    }
+
+    private final Iterator<P> m_paths;
+
+    private final ReadOpener<P> m_opener;
+
+    private final ThreadPool m_pool;
+
+    private final int m_maxPending;
+
+    private final Map<P, Future<Read<DataValue>>> m_pending = new HashMap<>();
+
+    /**
+     * @param paths the files in the order they are going to be taken
+     * @param opener opens the read of a file
+     * @param concurrency the number of files read at the same time
+     */
+    JSONFilePrefetcher(final Iterable<P> paths, final ReadOpener<P> opener, final int concurrency) {
+        m_paths = paths.iterator();
+        m_opener = opener;
+        m_pool = KNIMEConstants.GLOBAL_THREAD_POOL.createSubPool(concurrency);
+        m_maxPending = 2 * concurrency;
+        fill();
+    }
+
+    private void fill() {
+        while (m_pending.size() < m_maxPending && m_paths.hasNext()) {
+            final P path = m_paths.next();
+            m_pending.put(path, m_pool.enqueue(ThreadUtils.callableWithContext(() -> prefetch(path))));
+        }
+    }
+
+    private Read<DataValue> prefetch(final P path) throws IOException {
+        final long size = Files.size(path);
+        if (size > MAX_FILE_SIZE) {
+            return null;
+        }
+        final List<RandomAccessible<DataValue>> rows = new ArrayList<>();
+        try (Read<DataValue> read = m_opener.open(path)) {
+            RandomAccessible<DataValue> row;
+            while ((row = read.next()) != null) {
+                rows.add(row);
+            }
+        }
+        return new BufferedRead(rows, size);
+    }
+
+    /**
+     * Takes the buffered rows of a file, waiting for its read to finish, and starts reading the next files.
+     *
+     * @param path the file
+     * @return the read of the buffered rows, or {@code null} if the file was not read ahead (it is unknown or too
+     *         large)
+     * @throws IOException if the file could not be read
+     */
+    synchronized Read<DataValue> take(final P path) throws IOException {
+        final Future<Read<DataValue>> future = m_pending.remove(path);
+        fill();
+        if (future == null) {
+            return null;
+        }
+        final Callable<Read<DataValue>> get = future::get;
+        final ThreadPool current = ThreadPool.currentPool();
+        try {
+            // do not count the waiting thread as running, so the workers can use its slot in the pool
+            return current == null ? get.call() : current.runInvisible(get);
+        } catch (Exception e) { // NOSONAR the exceptions of the task are unwrapped below
+            Throwable cause = e;
+            while (cause instanceof ExecutionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            if (cause instanceof IOException) {
+                throw (IOException)cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
+            }
+            throw new IOException(cause.getMessage(), cause);
+        }
+    }
+
+    /** Cancels the reads of the files that were not taken. */
+    @Override
+    public synchronized void close() {
+        for (final Future<Read<DataValue>> future : m_pending.values()) {
+            future.cancel(true);
+        }
+        m_pending.clear();
+    }
+
+    /** The buffered rows of a file. */
+    private static final class BufferedRead implements Read<DataValue> {
+
+        private final List<RandomAccessible<DataValue>> m_rows;
+
+        private final long m_size;
+
+        private int m_index;
+
+        BufferedRead(final List<RandomAccessible<DataValue>> rows, final long size) {
+            m_rows = rows;
+            m_size = size;
+        }
+
+        @Override
+        public RandomAccessible<DataValue> next() {
+            return m_index < m_rows.size() ? m_rows.get(m_index++) : null;
+        }
+
+        @Override
+        public OptionalLong getMaxProgress() {
+            return OptionalLong.of(m_size);
+        }
+
+        @Override
+        public long getProgress() {
+            return m_rows.isEmpty() ? m_size : (m_size * m_index / m_rows.size());
+        }
+
+        @Override
+        public void close() {
+            // nothing to close, the file was closed when it was buffered
+        }
+    }
+}
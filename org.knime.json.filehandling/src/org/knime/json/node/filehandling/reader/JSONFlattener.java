@@ -0,0 +1,461 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+
+package org.knime.json.node.filehandling.reader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataType;
+import org.knime.core.data.def.BooleanCell;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.LongCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.data.json.JSONCell;
+import org.knime.core.data.json.JSONCellFactory;
+import org.knime.filehandling.core.node.table.reader.spec.TypedReaderTableSpec;
+import org.knime.json.node.jsonpath.util.OutputKind;
+import org.knime.json.node.jsonpath.util.PathTrie.Path;
+import org.knime.json.node.profile.JSONStructureProfile;
+import org.knime.json.node.profile.JSONStructureProfile.KindVariant;
+import org.knime.json.node.profile.JSONStructureProfile.PathProfile;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonParser.NumberType;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Extracts the scalar leaves of JSON objects to typed columns. The columns and their types are inferred from a sample
+ * of records ({@link #infer(List, boolean, String)}) or derived from a {@link JSONStructureProfile}
+ * ({@link #derive(JSONStructureProfile, boolean, String)}), afterwards the records are streamed with a Jackson parser
+ * and the scalar tokens are written to the cells directly ({@link #flatten(String)}).
+ * <p>
+ * Only the paths through objects are columns (named by their paths like {@code $['a']['b']}, so keys containing dots
+ * cannot collide with nested keys), arrays and the values that do not fit the type of their column (or are not
+ * covered by any column) are collected to an optional remainder column. It contains a JSON object with the paths
+ * of these values as keys (like {@code $['a']['b']}), similar to the unmatched values of the JSON to Table node.
+ * <p>
+ * Instances are immutable, {@link #flatten(String)} can be called concurrently.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class JSONFlattener {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final String ROOT_PATH = "$";
+
+    /** The types of the leaf columns, ordered from the most specific to the most general one. */
+    private enum Kind {
+            BOOLEAN(BooleanCell.TYPE), INT(IntCell.TYPE), LONG(LongCell.TYPE), DOUBLE(DoubleCell.TYPE),
+            STRING(StringCell.TYPE);
+
+        private final DataType m_type;
+
+        Kind(final DataType type) {
+            m_type = type;
+        }
+
+        private static Kind of(final JsonParser parser, final JsonToken token) throws IOException {
+            switch (token) {
+                case VALUE_TRUE:
+                case VALUE_FALSE:
+                    return BOOLEAN;
+                case VALUE_NUMBER_INT:
+                    final NumberType numberType = parser.getNumberType();
+                    return numberType == NumberType.INT ? INT : (numberType == NumberType.LONG ? LONG : STRING);
+                case VALUE_NUMBER_FLOAT:
+                    return DOUBLE;
+                default:
+                    return STRING;
+            }
+        }
+
+        /**
+         * @return the kind of the values of {@code kind}, {@code null} if only {@code null}s were found
+         */
+        private static Kind of(final OutputKind kind) {
+            if (kind.getType() == null) {
+                return null;
+            }
+            switch (kind.getType()) {
+                case Boolean:
+                    return BOOLEAN;
+                case Integer:
+                    return INT;
+                case Long:
+                    return LONG;
+                case Double:
+                    return DOUBLE;
+                default:
+                    return STRING;
+            }
+        }
+
+        private Kind merge(final Kind other) {
+            if (other == null || other == this) {
+                return this;
+            }
+            final boolean numbers = this != BOOLEAN && this != STRING && other != BOOLEAN && other != STRING;
+            return numbers ? (compareTo(other) > 0 ? this : other) : STRING;
+        }
+
+        /**
+         * @return the cell for the current scalar token or {@code null} if it does not fit the kind
+         */
+        private DataCell convert(final JsonParser parser, final JsonToken token) throws IOException {
+            switch (this) {
+                case BOOLEAN:
+                    return token.isBoolean() ? BooleanCell.get(token == JsonToken.VALUE_TRUE) : null;
+                case INT:
+                    return token == JsonToken.VALUE_NUMBER_INT && parser.getNumberType() == NumberType.INT
+                        ? new IntCell(parser.getIntValue()) : null;
+                case LONG:
+                    return token == JsonToken.VALUE_NUMBER_INT && parser.getNumberType() != NumberType.BIG_INTEGER
+                        ? new LongCell(parser.getLongValue()) : null;
+                case DOUBLE:
+                    return token.isNumeric() ? new DoubleCell(parser.getDoubleValue()) : null;
+                default:
+                    return token.isScalarValue() ? new StringCell(parser.getText()) : null;
+            }
+        }
+    }
+
+    /** A step of the paths, either a leaf column, an object with columns below or both. */
+    private static final class Step {
+        private final Map<String, Step> m_children = new LinkedHashMap<>();
+
+        private final List<String> m_names;
+
+        private int m_column = -1;
+
+        private Kind m_kind;
+
+        /** Whether a scalar (possibly {@code null}) was found at this path in the sample. */
+        private boolean m_leaf;
+
+        Step(final List<String> names) {
+            m_names = names;
+        }
+
+        Step child(final String name) {
+            return m_children.computeIfAbsent(name, n -> {
+                final List<String> names = new ArrayList<>(m_names);
+                names.add(n);
+                return new Step(names);
+            });
+        }
+    }
+
+    private final Step m_root;
+
+    private final List<String> m_columnNames;
+
+    private final List<DataType> m_columnTypes;
+
+    private final boolean m_allowComments;
+
+    private final boolean m_remainder;
+
+    private JSONFlattener(final Step root, final List<Step> leaves, final boolean allowComments,
+        final String remainderColumnName) {
+        m_root = root;
+        m_allowComments = allowComments;
+        m_remainder = remainderColumnName != null;
+        m_columnNames = new ArrayList<>();
+        m_columnTypes = new ArrayList<>();
+        final Set<String> usedNames = new HashSet<>();
+        for (final Step leaf : leaves) {
+            leaf.m_column = m_columnNames.size();
+            m_columnNames.add(uniqueName(path(leaf.m_names), usedNames));
+            m_columnTypes.add((leaf.m_kind == null ? Kind.STRING : leaf.m_kind).m_type);
+        }
+        if (m_remainder) {
+            m_columnNames.add(uniqueName(remainderColumnName, usedNames));
+            m_columnTypes.add(JSONCell.TYPE);
+        }
+    }
+
+    /** The path of a leaf in the form of the keys of the remainder column (like {@code $['a']['b']}). */
+    private static String path(final List<String> names) {
+        final var path = new StringBuilder(ROOT_PATH);
+        for (final String name : names) {
+            path.append("['").append(name).append("']");
+        }
+        return path.toString();
+    }
+
+    private static String uniqueName(final String name, final Set<String> usedNames) {
+        String unique = name;
+        for (var i = 1; !usedNames.add(unique); i++) {
+            unique = name + " (#" + i + ")";
+        }
+        return unique;
+    }
+
+    /**
+     * Infers the columns from the scalar leaves of the sample records, in the order of their first occurrence.
+     *
+     * @param sample the texts of the sample records
+     * @param allowComments whether the records might contain comments
+     * @param remainderColumnName the name of the column for the values not covered by the columns, or {@code null}
+     *            if these values should be dropped
+     * @return the flattener for the inferred columns
+     * @throws IOException if a sample record is not valid JSON
+     */
+    static JSONFlattener infer(final List<String> sample, final boolean allowComments,
+        final String remainderColumnName) throws IOException {
+        final var root = new Step(List.of());
+        final List<Step> leaves = new ArrayList<>();
+        for (final String record : sample) {
+            try (JsonParser parser = configure(JSON_FACTORY.createParser(record), allowComments)) {
+                if (parser.nextToken() == JsonToken.START_OBJECT) {
+                    inferObject(parser, root, leaves);
+                }
+            }
+        }
+        return new JSONFlattener(root, leaves, allowComments, remainderColumnName);
+    }
+
+    /**
+     * Derives the columns from the scalar leaves of a structure profile instead of reading a sample, in the order of
+     * their first occurrence in the profiled documents. Only the paths through objects are columns, the paths below
+     * arrays are not expanded (their values are collected to the remainder column).
+     *
+     * @param profile the structure profile of the records
+     * @param allowComments whether the records might contain comments
+     * @param remainderColumnName the name of the column for the values not covered by the columns, or {@code null}
+     *            if these values should be dropped
+     * @return the flattener for the derived columns
+     */
+    static JSONFlattener derive(final JSONStructureProfile profile, final boolean allowComments,
+        final String remainderColumnName) {
+        final var root = new Step(List.of());
+        final List<Step> leaves = new ArrayList<>();
+        final List<PathProfile> paths = new ArrayList<>(profile.getPaths());
+        paths.sort(Comparator.comparingLong(PathProfile::getLeafSequence));
+        for (final PathProfile pathProfile : paths) {
+            final Path path = pathProfile.getPath();
+            final List<String> keys = path.getLeadingKeys();
+            if (keys.size() < path.getDepth() || pathProfile.getLeafSequence() < 0) {
+                // below an array or never a leaf
+                continue;
+            }
+            var step = root;
+            for (final String key : keys) {
+                step = step.child(key);
+            }
+            step.m_leaf = true;
+            step.m_kind = Kind.of(pathProfile.getLeaves().getKind(KindVariant.ARRAYS_AS_JSON));
+            leaves.add(step);
+        }
+        return new JSONFlattener(root, leaves, allowComments, remainderColumnName);
+    }
+
+    private static void inferObject(final JsonParser parser, final Step step, final List<Step> leaves)
+        throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final Step child = step.child(parser.currentName());
+            final JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_OBJECT) {
+                inferObject(parser, child, leaves);
+            } else if (token == JsonToken.START_ARRAY) {
+                parser.skipChildren();
+            } else {
+                if (!child.m_leaf) {
+                    child.m_leaf = true;
+                    leaves.add(child);
+                }
+                if (token != JsonToken.VALUE_NULL) {
+                    child.m_kind = Kind.of(parser, token).merge(child.m_kind);
+                }
+            }
+        }
+    }
+
+    private static JsonParser configure(final JsonParser parser, final boolean allowComments) {
+        if (allowComments) {
+            parser.enable(JsonParser.Feature.ALLOW_COMMENTS);
+            parser.enable(JsonParser.Feature.ALLOW_YAML_COMMENTS);
+        }
+        return parser;
+    }
+
+    /**
+     * @return the spec of the columns, including the remainder column
+     */
+    TypedReaderTableSpec<DataType> getSpec() {
+        final var hasTypes = new Boolean[m_columnTypes.size()];
+        Arrays.fill(hasTypes, Boolean.TRUE);
+        return TypedReaderTableSpec.create(m_columnNames, m_columnTypes, Arrays.asList(hasTypes));
+    }
+
+    /**
+     * @param cell a cell
+     * @return a row with {@code cell} in every column (used for the missing cells of invalid records)
+     */
+    DataCell[] fill(final DataCell cell) {
+        final var cells = new DataCell[m_columnNames.size()];
+        Arrays.fill(cells, cell);
+        return cells;
+    }
+
+    /**
+     * Streams a record to the cells of the columns.
+     *
+     * @param json the text of a record
+     * @return the cells, {@code null} for the missing values
+     * @throws IOException if the record is not valid JSON
+     */
+    DataCell[] flatten(final String json) throws IOException {
+        return flatten(JSON_FACTORY.createParser(json));
+    }
+
+    /**
+     * Streams a record from its (UTF-8 encoded) bytes to the cells of the columns.
+     *
+     * @param json the bytes of a record, closed when the record is read
+     * @return the cells, {@code null} for the missing values
+     * @throws IOException if the record is not valid JSON
+     */
+    DataCell[] flatten(final InputStream json) throws IOException {
+        return flatten(JSON_FACTORY.createParser(json));
+    }
+
+    private DataCell[] flatten(final JsonParser jsonParser) throws IOException {
+        final var cells = new DataCell[m_columnNames.size()];
+        final var remainder = m_remainder ? new Remainder() : null;
+        try (JsonParser parser = configure(jsonParser, m_allowComments)) {
+            final JsonToken token = parser.nextToken();
+            if (token == null) {
+                throw new IOException("No JSON value found");
+            }
+            if (token == JsonToken.START_OBJECT) {
+                flattenObject(parser, m_root, ROOT_PATH, cells, remainder);
+            } else {
+                unmatched(parser, ROOT_PATH, remainder);
+            }
+            if (parser.nextToken() != null) {
+                throw new IOException("Expected end of input, but there was content after the JSON value");
+            }
+        }
+        if (remainder != null) {
+            cells[cells.length - 1] = remainder.toCell();
+        }
+        return cells;
+    }
+
+    private static void flattenObject(final JsonParser parser, final Step step, final String path,
+        final DataCell[] cells, final Remainder remainder) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String name = parser.currentName();
+            final Step child = step == null ? null : step.m_children.get(name);
+            final JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_OBJECT && child != null && !child.m_children.isEmpty()) {
+                flattenObject(parser, child, path + "['" + name + "']", cells, remainder);
+            } else if (token == JsonToken.VALUE_NULL && child != null && child.m_column >= 0) {
+                cells[child.m_column] = null;
+            } else {
+                final DataCell cell = child == null || child.m_column < 0 || token.isStructStart() ? null
+                    : child.m_kind == null ? Kind.STRING.convert(parser, token)
+                        : child.m_kind.convert(parser, token);
+                if (cell != null) {
+                    cells[child.m_column] = cell;
+                } else {
+                    unmatched(parser, path + "['" + name + "']", remainder);
+                }
+            }
+        }
+    }
+
+    private static void unmatched(final JsonParser parser, final String path, final Remainder remainder)
+        throws IOException {
+        if (remainder == null) {
+            parser.skipChildren();
+        } else {
+            remainder.add(parser, path);
+        }
+    }
+
+    /** The JSON object of the values not covered by the columns, written when the first value is found. */
+    private static final class Remainder {
+        private StringWriter m_text;
+
+        private JsonGenerator m_generator;
+
+        void add(final JsonParser parser, final String path) throws IOException {
+            if (m_generator == null) {
+                m_text = new StringWriter();
+                m_generator = JSON_FACTORY.createGenerator(m_text);
+                m_generator.writeStartObject();
+            }
+            m_generator.writeFieldName(path);
+            m_generator.copyCurrentStructure(parser);
+        }
+
+        DataCell toCell() throws IOException {
+            if (m_generator == null) {
+                return null;
+            }
+            m_generator.writeEndObject();
+            m_generator.close();
+            return JSONCellFactory.create(m_text.toString());
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+
+package org.knime.json.node.filehandling.reader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataValue;
+import org.knime.core.data.MissingCell;
+import org.knime.core.data.json.JSONCellFactory;
+import org.knime.core.node.NodeLogger;
+import org.knime.filehandling.core.node.table.reader.config.TableReadConfig;
+import org.knime.filehandling.core.node.table.reader.randomaccess.RandomAccessible;
+import org.knime.filehandling.core.node.table.reader.read.Read;
+import org.knime.filehandling.core.util.BomEncodingUtils;
+
+/**
+ * Class for the JSON reader which implements {@link Read} which reads one JSON value per line (JSON Lines/NDJSON).
+ * The file is streamed, only the current line is kept in memory. Blank lines are ignored, lines that are not valid
+ * JSON are handled according to the {@link JSONLinesErrorPolicy}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class JSONLinesRead extends JSONRead {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(JSONLinesRead.class);
+
+    private final BufferedReader m_reader;
+
+    private final boolean m_allowComments;
+
+    private final JSONLinesErrorPolicy m_errorPolicy;
+
+    /**
+     * Constructor.
+     *
+     * @param path the {@link Path} to the file
+     * @param config the {@link TableReadConfig} of the node
+     * @param flattener the columns to extract from the lines, {@code null} to read them to a single JSON column
+     * @throws IOException
+     */
+    JSONLinesRead(final Path path, final TableReadConfig<JSONReaderConfig> config, final JSONFlattener flattener)
+        throws IOException {
+        super(path, config, flattener);
+        m_reader = BomEncodingUtils.createBufferedReader(m_compressionAwareStream, StandardCharsets.UTF_8);
+        m_allowComments = m_jsonReaderConfig.allowComments();
+        m_errorPolicy = m_jsonReaderConfig.getLinesErrorPolicy();
+        m_linesRead = 0;
+    }
+
+    @Override
+    protected boolean skipRow() throws IOException {
+        if (m_errorPolicy == JSONLinesErrorPolicy.SKIP) {
+            // only parsing tells whether a line is a row
+            return readRow() != null;
+        }
+        String line;
+        while ((line = m_reader.readLine()) != null) {
+            m_linesRead++;
+            if (!line.isBlank()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected RandomAccessible<DataValue> readRow() throws IOException {
+        String line;
+        while ((line = m_reader.readLine()) != null) {
+            m_linesRead++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                return m_flattener == null ? createRandomAccessible(JSONCellFactory.create(line, m_allowComments))
+                    : createRandomAccessible(m_flattener.flatten(line));
+            } catch (IOException e) {
+                final DataCell errorCell = handleInvalidLine(m_errorPolicy, m_linesRead, e);
+                if (errorCell != null) {
+                    return createRandomAccessible(m_flattener == null ? errorCell : m_flattener.fill(errorCell));
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param errorPolicy the handling of invalid lines
+     * @param lineNumber the number of the invalid line in the file (starting from {@code 1})
+     * @param e the parse error of the line
+     * @return the cell representing the line or {@code null} if the line should be skipped
+     * @throws IOException if the {@link JSONLinesErrorPolicy#FAIL} policy is selected
+     */
+    static DataCell handleInvalidLine(final JSONLinesErrorPolicy errorPolicy, final long lineNumber,
+        final IOException e) throws IOException {
+        final String message = "Invalid JSON in line " + lineNumber + ": " + e.getMessage();
+        switch (errorPolicy) {
+            case SKIP:
+                LOGGER.debug(message, e);
+                return null;
+            case MISSING:
+                return new MissingCell(message);
+            case FAIL:
+            default:
+                throw new IOException(message, e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            m_reader.close();
+        } catch (IOException e) {
+            LOGGER.error("Something went wrong while closing the BufferedReader. "
+                + "For further details please have a look into the log.", e);
+        }
+    }
+
+}
@@ -0,0 +1,290 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+
+package org.knime.json.node.filehandling.reader;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+import org.jsfr.json.JsonSurfer;
+import org.jsfr.json.JsonSurferJackson;
+import org.jsfr.json.ResumableParser;
+import org.jsfr.json.SurfingConfiguration;
+import org.jsfr.json.compiler.JsonPathCompiler;
+import org.knime.core.data.DataValue;
+import org.knime.core.data.json.JSONCellFactory;
+import org.knime.filehandling.core.node.table.reader.config.TableReadConfig;
+import org.knime.core.util.FileUtil;
+import org.knime.filehandling.core.node.table.reader.randomaccess.RandomAccessible;
+
+/**
+ * Reads the matches of several JSONPaths to one column each, evaluating all of them in a single pass over the file.
+ * <p>
+ * The k-th row contains the k-th match of every path (a missing value if a path has fewer matches). The parser is
+ * paused after each match, so only the matches of paths that are ahead of the others are buffered. At most
+ * {@value #MAX_BUFFERED_MATCHES} matches are kept in memory per path, the further ones are spilled to a temporary
+ * file (like for separate arrays per field, where all matches of the first array are found before the first match of
+ * the second one).
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class JSONMultiPathRead extends JSONRead {
+
+    private static final JsonSurfer SURFER = JsonSurferJackson.INSTANCE;
+
+    /**
+     * The number of matches of a single path that are kept in memory while waiting for the matches of the other paths.
+     */
+    static final int MAX_BUFFERED_MATCHES = 1024;
+
+    /** The matches found by the last step of the parser, one deque per path. */
+    private final List<Deque<Object>> m_found = new ArrayList<>();
+
+    /** The matches not yet read to a row, one queue per path. */
+    private final List<MatchQueue> m_matches = new ArrayList<>();
+
+    private final ResumableParser m_parser;
+
+    private boolean m_started;
+
+    private boolean m_paused;
+
+    private boolean m_finished;
+
+    /**
+     * Constructor.
+     *
+     * @param path the {@link Path} to the file
+     * @param config the {@link TableReadConfig} of the node
+     * @throws IOException if the file cannot be opened or a JSONPath is invalid
+     */
+    JSONMultiPathRead(final Path path, final TableReadConfig<JSONReaderConfig> config) throws IOException {
+        super(path, config, null);
+        final List<String> jsonPaths = new ArrayList<>();
+        jsonPaths.add(m_jsonReaderConfig.getJSONPath());
+        jsonPaths.addAll(List.of(m_jsonReaderConfig.getAdditionalJSONPaths()));
+        final SurfingConfiguration.Builder builder = SURFER.configBuilder();
+        for (final String jsonPath : jsonPaths) {
+            final Deque<Object> found = new ArrayDeque<>();
+            m_found.add(found);
+            m_matches.add(new MatchQueue());
+            try {
+                builder.bind(JsonPathCompiler.compile(jsonPath), (value, context) -> {
+                    found.add(value);
+                    m_paused = true;
+                    context.pause();
+                });
+            } catch (ParseCancellationException e) {// Invalid JSON Path
+                throw new IOException("Invalid JSON Path " + jsonPath, e);
+            }
+        }
+        m_parser = SURFER.createResumableParser(m_compressionAwareStream, builder.build());
+    }
+
+    @Override
+    protected RandomAccessible<DataValue> readRow() throws IOException {
+        if (!nextMatches()) {
+            return null;
+        }
+        m_linesRead++;
+        final DataValue[] cells = new DataValue[m_matches.size()];
+        for (var i = 0; i < cells.length; i++) {
+            final String match = m_matches.get(i).poll();
+            cells[i] = match == null ? null : JSONCellFactory.create(match);
+        }
+        return createRandomAccessible(cells);
+    }
+
+    @Override
+    protected boolean skipRow() throws IOException {
+        if (!nextMatches()) {
+            return false;
+        }
+        m_linesRead++;
+        for (final MatchQueue matches : m_matches) {
+            matches.poll();
+        }
+        return true;
+    }
+
+    /**
+     * Parses until every path has a match or the end of the file is reached.
+     *
+     * @return whether there is at least one match for the next row
+     * @throws IOException if a match cannot be spilled to or read from a temporary file
+     */
+    private boolean nextMatches() throws IOException {
+        while (!m_finished && m_matches.stream().anyMatch(MatchQueue::isEmpty)) {
+            m_paused = false;
+            if (m_started) {
+                m_parser.resume();
+            } else {
+                m_started = true;
+                m_parser.parse();
+            }
+            // the parser only returns without being paused by a match at the end of the file
+            m_finished = !m_paused;
+            for (var i = 0; i < m_found.size(); i++) {
+                for (Object match = m_found.get(i).poll(); match != null; match = m_found.get(i).poll()) {
+                    m_matches.get(i).add(match.toString());
+                }
+            }
+        }
+        return m_matches.stream().anyMatch(matches -> !matches.isEmpty());
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            for (final MatchQueue matches : m_matches) {
+                matches.close();
+            }
+        } finally {
+            m_compressionAwareStream.close();
+        }
+    }
+
+    /**
+     * The texts of the matches of a path, the first {@link #MAX_BUFFERED_MATCHES} ones are kept in memory, the
+     * further ones are written to temporary files (one match per line, as the texts of the matches do not contain line
+     * breaks). A file is read once the matches before it are polled, the matches found meanwhile go to the next file.
+     */
+    private static final class MatchQueue implements Closeable {
+        private final Deque<String> m_memory = new ArrayDeque<>();
+
+        private File m_writeFile;
+
+        private BufferedWriter m_writer;
+
+        private long m_written;
+
+        private File m_readFile;
+
+        private BufferedReader m_reader;
+
+        private long m_unread;
+
+        void add(final String match) throws IOException {
+            if (m_writer == null && m_reader == null && m_memory.size() < MAX_BUFFERED_MATCHES) {
+                m_memory.add(match);
+                return;
+            }
+            if (m_writer == null) {
+                m_writeFile = FileUtil.createTempFile("json-matches", ".txt");
+                m_writer = Files.newBufferedWriter(m_writeFile.toPath(), StandardCharsets.UTF_8);
+            }
+            m_writer.write(match);
+            m_writer.newLine();
+            m_written++;
+        }
+
+        boolean isEmpty() {
+            return m_memory.isEmpty() && m_unread == 0 && m_written == 0;
+        }
+
+        /**
+         * @return the oldest match, {@code null} if there is none
+         */
+        String poll() throws IOException {
+            if (!m_memory.isEmpty()) {
+                return m_memory.poll();
+            }
+            if (m_unread == 0 && m_written > 0) {
+                closeReader();
+                m_writer.close();
+                m_writer = null;
+                m_readFile = m_writeFile;
+                m_writeFile = null;
+                m_reader = Files.newBufferedReader(m_readFile.toPath(), StandardCharsets.UTF_8);
+                m_unread = m_written;
+                m_written = 0;
+            }
+            if (m_unread == 0) {
+                return null;
+            }
+            final String match = m_reader.readLine();
+            if (match == null) {
+                throw new IOException("The temporary file of the buffered matches is truncated");
+            }
+            if (--m_unread == 0) {
+                closeReader();
+            }
+            return match;
+        }
+
+        private void closeReader() throws IOException {
+            if (m_reader != null) {
+                m_reader.close();
+                m_reader = null;
+                Files.deleteIfExists(m_readFile.toPath());
+                m_readFile = null;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            closeReader();
+            if (m_writer != null) {
+                m_writer.close();
+                m_writer = null;
+                Files.deleteIfExists(m_writeFile.toPath());
+                m_writeFile = null;
+            }
+        }
+    }
+
+}
@@ -62,6 +62,7 @@
 import org.knime.filehandling.core.node.table.reader.PreviewRowIterator;
 import org.knime.filehandling.core.node.table.reader.SourceGroup;
 import org.knime.filehandling.core.node.table.reader.config.MultiTableReadConfig;
+import org.knime.filehandling.core.node.table.reader.config.TableReadConfig;
 import org.knime.filehandling.core.node.table.reader.config.tablespec.TableSpecConfig;
 import org.knime.filehandling.core.node.table.reader.selector.RawSpec;
 import org.knime.filehandling.core.node.table.reader.selector.TableTransformation;
@@ -71,6 +72,9 @@
 /**
  * Custom implementation of a {@link MultiTableReadFactory} with the purpose of being able to fail execution if no rows
  * were produced when reading in JSON files (which can happen e.g. if the JSON Path expression does not match).
+ * <p>
+ * When multiple files are read, they are read ahead concurrently by a {@link JSONFilePrefetcher} while the rows are
+ * written in the order of the files.
  *
  * @author Moditha Hewasinghage, KNIME GmbH, Berlin, Germany
  *
@@ -79,6 +83,9 @@ final class JSONMultiTableReadFactory implements MultiTableReadFactory<FSPath, J
 
     private final MultiTableReadFactory<FSPath, JSONReaderConfig, DataType> m_defaultFactory;
 
+    /** The reader used by the default factory, {@code null} if the files cannot be read ahead. */
+    private final JSONReader m_reader;
+
     private static IllegalArgumentException createNoRowsException() {
         return new IllegalArgumentException("Nothing found for JSON Path ");
     }
@@ -88,13 +95,13 @@ public StagedMultiTableRead<FSPath, DataType> create(final SourceGroup<FSPath> s
         final MultiTableReadConfig<JSONReaderConfig, DataType> config, final ExecutionMonitor exec) throws IOException {
 
         final var defaultRead = m_defaultFactory.create(sourceGroup, config, exec);
-        return new JSONStagedMultiTableRead(defaultRead,
-            config.getTableReadConfig().getReaderSpecificConfig());
+        return new JSONStagedMultiTableRead(defaultRead, config.getTableReadConfig(), m_reader);
     }
 
-    JSONMultiTableReadFactory(
-        final MultiTableReadFactory<FSPath, JSONReaderConfig, DataType> multiTableReadFactory) {
+    JSONMultiTableReadFactory(final MultiTableReadFactory<FSPath, JSONReaderConfig, DataType> multiTableReadFactory,
+        final JSONReader reader) {
         m_defaultFactory = multiTableReadFactory;
+        m_reader = reader;
     }
 
     @Override
@@ -102,8 +109,7 @@ public StagedMultiTableRead<FSPath, DataType> createFromConfig(final SourceGroup
         final MultiTableReadConfig<JSONReaderConfig, DataType> config) {
 
         final var defaultRead = m_defaultFactory.createFromConfig(sourceGroup, config);
-        return new JSONStagedMultiTableRead(defaultRead,
-            config.getTableReadConfig().getReaderSpecificConfig());
+        return new JSONStagedMultiTableRead(defaultRead, config.getTableReadConfig(), m_reader);
     }
 
     @Override
@@ -119,18 +125,21 @@ private static final class JSONStagedMultiTableRead implements StagedMultiTableR
 
         private final StagedMultiTableRead<FSPath, DataType> m_stagedMutltiTableRead;
 
-        private final JSONReaderConfig m_config;
+        private final TableReadConfig<JSONReaderConfig> m_config;
+
+        private final JSONReader m_reader;
 
         JSONStagedMultiTableRead(final StagedMultiTableRead<FSPath, DataType> stagedMutltiTableRead,
-            final JSONReaderConfig config) {
+            final TableReadConfig<JSONReaderConfig> config, final JSONReader reader) {
             m_stagedMutltiTableRead = stagedMutltiTableRead;
             m_config = config;
+            m_reader = reader;
         }
 
         @Override
         public MultiTableRead<DataType> withoutTransformation(final SourceGroup<FSPath> sourceGroup) {
             final MultiTableRead<DataType> multiTableRead = m_stagedMutltiTableRead.withoutTransformation(sourceGroup);
-            return new JSONMultiTableRead(multiTableRead, m_config);
+            return new JSONMultiTableRead(multiTableRead, m_config, sourceGroup, m_reader);
         }
 
         @Override
@@ -138,7 +147,7 @@ public MultiTableRead<DataType> withTransformation(final SourceGroup<FSPath> sou
             final TableTransformation<DataType> selectorModel) {
             final MultiTableRead<DataType> multiTableRead =
                 m_stagedMutltiTableRead.withTransformation(sourceGroup, selectorModel);
-            return new JSONMultiTableRead(multiTableRead, m_config);
+            return new JSONMultiTableRead(multiTableRead, m_config, sourceGroup, m_reader);
         }
 
         @Override
@@ -159,9 +168,20 @@ private static final class JSONMultiTableRead implements MultiTableRead<DataType
 
         private final JSONReaderConfig m_config;
 
-        JSONMultiTableRead(final MultiTableRead<DataType> multiTableRead, final JSONReaderConfig config) {
+        private final TableReadConfig<JSONReaderConfig> m_tableReadConfig;
+
+        private final SourceGroup<FSPath> m_sourceGroup;
+
+        private final JSONReader m_reader;
+
+        JSONMultiTableRead(final MultiTableRead<DataType> multiTableRead,
+            final TableReadConfig<JSONReaderConfig> config, final SourceGroup<FSPath> sourceGroup,
+            final JSONReader reader) {
             m_multiTableRead = multiTableRead;
-            m_config = config;
+            m_tableReadConfig = config;
+            m_config = config.getReaderSpecificConfig();
+            m_sourceGroup = sourceGroup;
+            m_reader = reader;
         }
 
         @Override
@@ -177,7 +197,7 @@ public TableSpecConfig<DataType> getTableSpecConfig() {
         @Override
         public PreviewRowIterator createPreviewIterator() {
             final PreviewRowIterator previewRowIterator = m_multiTableRead.createPreviewIterator();
-            if (m_config.failIfNotFound()) {
+            if (failIfEmpty()) {
                 return new NonEmptyPreviewIterator(previewRowIterator);
             }
             return previewRowIterator;
@@ -186,7 +206,23 @@ public PreviewRowIterator createPreviewIterator() {
         @Override
         public void fillRowOutput(final RowOutput output, final ExecutionMonitor exec, final FileStoreFactory fsFactory)
             throws Exception {
-            if (m_config.failIfNotFound()) {
+            final int concurrency = m_config.getConcurrentFiles();
+            if (m_reader == null || concurrency < 2 || m_sourceGroup.size() < 2) {
+                fill(output, exec, fsFactory);
+                return;
+            }
+            try (var prefetcher = new JSONFilePrefetcher<FSPath>(m_sourceGroup,
+                path -> m_reader.createRead(path, m_tableReadConfig, false), concurrency)) {
+                m_reader.setPrefetcher(prefetcher);
+                fill(output, exec, fsFactory);
+            } finally {
+                m_reader.setPrefetcher(null);
+            }
+        }
+
+        private void fill(final RowOutput output, final ExecutionMonitor exec, final FileStoreFactory fsFactory)
+            throws Exception {
+            if (failIfEmpty()) {
                 final CountingRowOutput countingRowOutput = new CountingRowOutput(output);
                 m_multiTableRead.fillRowOutput(countingRowOutput, exec, fsFactory);
                 if (countingRowOutput.getRowCount() == 0) {
@@ -197,6 +233,11 @@ public void fillRowOutput(final RowOutput output, final ExecutionMonitor exec, f
             }
         }
 
+        /** Only the legacy mode has a JSON Path, an empty file is a valid result in the other modes. */
+        private boolean failIfEmpty() {
+            return m_config.failIfNotFound() && m_config.getJsonReadMode() == JSONReadMode.LEGACY;
+        }
+
     }
 
     private static final class CountingRowOutput extends RowOutput {
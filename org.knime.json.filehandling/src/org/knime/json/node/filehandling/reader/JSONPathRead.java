@@ -51,6 +51,7 @@
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.Iterator;
+import java.util.Optional;
 
 import org.antlr.v4.runtime.misc.ParseCancellationException;
 import org.jsfr.json.JsonSurfer;
@@ -75,31 +76,63 @@ final class JSONPathRead extends JSONRead {
 
     private Iterator<Object> m_iterator;
 
+    /** Used instead of the {@link #m_iterator} for simple paths to array elements, like {@code $[*]}. */
+    private JSONArrayElementReader m_arrayElements;
+
     /**
      * Constructor.
      *
      * @param path the {@link Path} to the file
      * @param config the {@link TableReadConfig} of the node
+     * @param flattener the columns to extract from the matches, {@code null} to read them to a single JSON column
      * @throws IOException
      */
-    JSONPathRead(final Path path, final TableReadConfig<JSONReaderConfig> config) throws IOException {
-        super(path, config);
+    JSONPathRead(final Path path, final TableReadConfig<JSONReaderConfig> config, final JSONFlattener flattener)
+        throws IOException {
+        super(path, config, flattener);
         m_jsonPath = m_jsonReaderConfig.getJSONPath();
         m_linesRead = 0;
         initializeParser();
     }
 
     @Override
-    public RandomAccessible<DataValue> next() throws IOException {
+    protected boolean skipRow() throws IOException {
+        m_linesRead++;
+        if (m_arrayElements != null) {
+            return m_arrayElements.skip();
+        } else if (m_iterator != null && m_iterator.hasNext()) {
+            m_iterator.next();
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    protected RandomAccessible<DataValue> readRow() throws IOException {
         m_linesRead++;
         RandomAccessible<DataValue> dataValue = null;
-        if (m_iterator != null && m_iterator.hasNext()) {
-            dataValue = createRandomAccessible(JSONCellFactory.create(m_iterator.next().toString()));
+        if (m_arrayElements != null) {
+            final String element = m_arrayElements.next();
+            if (element != null) {
+                dataValue = toRow(element);
+            }
+        } else if (m_iterator != null && m_iterator.hasNext()) {
+            dataValue = toRow(m_iterator.next().toString());
         }
         return dataValue;
     }
 
+    private RandomAccessible<DataValue> toRow(final String json) throws IOException {
+        return m_flattener == null ? createRandomAccessible(JSONCellFactory.create(json))
+            : createRandomAccessible(m_flattener.flatten(json));
+    }
+
     private void initializeParser() throws IOException {
+        final Optional<String[]> arrayPath = JSONArrayElementReader.parsePath(m_jsonPath);
+        if (arrayPath.isPresent()) {
+            m_arrayElements = new JSONArrayElementReader(m_compressionAwareStream, arrayPath.get());
+            return;
+        }
         try {
             m_iterator = m_surfer.iterator(m_compressionAwareStream, JsonPathCompiler.compile(m_jsonPath));
         } catch (ParseCancellationException e) {// Invalid JSON Path
@@ -62,6 +62,9 @@
 
 /**
  * Common Class for JSON Reading
+ * <p>
+ * The rows to skip and the limit of the {@link TableReadConfig} are applied here, so the skipped rows are consumed by
+ * {@link #skipRow()} without creating their cells and no more rows are read once the limit is reached.
  *
  * @author Moditha Hewasinghage, KNIME GmbH, Berlin, Germany
  */
@@ -79,15 +82,22 @@ abstract class JSONRead implements Read<DataValue> {
 
     protected final boolean m_limitRows;
 
+    /** Extracts the columns of the records, {@code null} if the records are read to a single JSON column. */
+    protected final JSONFlattener m_flattener;
+
     protected final long m_maxRows;
 
+    private long m_rowsToSkip;
+
+    private long m_rowsReturned;
+
     /**
      * Creates a {@link RandomAccessible} with a row id and a line.
      *
-     * @param line the content of a line
+     * @param line the content of a line (or the cells of its columns)
      * @return a {@link RandomAccessible}
      */
-    protected static RandomAccessible<DataValue> createRandomAccessible(final DataValue line) {
+    protected static RandomAccessible<DataValue> createRandomAccessible(final DataValue... line) {
         return RandomAccessibleUtils.createFromArray(line);
     }
 
@@ -95,20 +105,57 @@ protected static RandomAccessible<DataValue> createRandomAccessible(final DataVa
      *
      * @param path
      * @param config
+     * @param flattener the columns to extract from the records, {@code null} to read them to a single JSON column
      * @throws IOException
      */
-    public JSONRead(final Path path, final TableReadConfig<JSONReaderConfig> config) throws IOException {
+    public JSONRead(final Path path, final TableReadConfig<JSONReaderConfig> config, final JSONFlattener flattener)
+        throws IOException {
         m_config = config;
+        m_flattener = flattener;
         m_jsonReaderConfig = m_config.getReaderSpecificConfig();
 
         m_size = Files.size(path);
 
         m_limitRows = m_config.limitRows();
         m_maxRows = m_config.getMaxRows();
+        m_rowsToSkip = m_config.skipRows() ? m_config.getNumRowsToSkip() : 0;
 
         m_compressionAwareStream = new CompressionAwareCountingInputStream(path);
     }
 
+    @Override
+    public final RandomAccessible<DataValue> next() throws IOException {
+        while (m_rowsToSkip > 0) {
+            m_rowsToSkip--;
+            if (!skipRow()) {
+                m_rowsToSkip = 0;
+                return null;
+            }
+        }
+        if (m_limitRows && m_rowsReturned >= m_maxRows) {
+            return null;
+        }
+        final RandomAccessible<DataValue> row = readRow();
+        if (row != null) {
+            m_rowsReturned++;
+        }
+        return row;
+    }
+
+    /**
+     * @return the next row or {@code null} if there are no more rows
+     * @throws IOException if the row cannot be read
+     */
+    protected abstract RandomAccessible<DataValue> readRow() throws IOException;
+
+    /**
+     * Consumes the next row without creating its cells (the row is counted like by {@link #readRow()}).
+     *
+     * @return whether there was a row to skip
+     * @throws IOException if the input cannot be read
+     */
+    protected abstract boolean skipRow() throws IOException;
+
     @Override
     public OptionalLong getMaxProgress() {
         return OptionalLong.of(m_size);
@@ -49,6 +49,7 @@
 package org.knime.json.node.filehandling.reader;
 
 import org.knime.core.node.util.ButtonGroupEnumInterface;
+import org.knime.node.parameters.widget.choices.Label;
 
 /**
  * Enum for JSON read modes
@@ -57,7 +58,15 @@
  */
 enum JSONReadMode implements ButtonGroupEnumInterface {
 
-        LEGACY("Simple/JSON Path"); //
+        @Label(value = "Simple/JSON Path", description = "Reads each file as a single JSON value, optionally "
+            + "selecting parts of it with a JSONPath.")
+        LEGACY("Simple/JSON Path"), //
+        @Label(value = "JSON Lines", description = "Reads each line of the files as a separate JSON value "
+            + "(also known as NDJSON), one row per line.")
+        JSON_LINES("JSON Lines"), //
+        @Label(value = "Concatenated JSON", description = "Reads every top-level value of files with JSON values "
+            + "written one after another (without an enclosing array and with or without separators) as a row.")
+        CONCATENATED("Concatenated JSON"); //
 //        STREAMING("Autodetect"); //NOSONAR for future reference
 
     private final String m_label;
@@ -49,18 +49,27 @@
 package org.knime.json.node.filehandling.reader;
 
 import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.knime.core.data.DataType;
 import org.knime.core.data.DataValue;
 import org.knime.core.data.json.JSONCell;
+import org.knime.core.data.json.JSONValue;
 import org.knime.core.node.ExecutionMonitor;
 import org.knime.filehandling.core.connections.FSPath;
 import org.knime.filehandling.core.node.table.reader.TableReader;
 import org.knime.filehandling.core.node.table.reader.config.TableReadConfig;
+import org.knime.filehandling.core.node.table.reader.randomaccess.RandomAccessible;
 import org.knime.filehandling.core.node.table.reader.read.Read;
 import org.knime.filehandling.core.node.table.reader.read.ReadUtils;
 import org.knime.filehandling.core.node.table.reader.spec.TypedReaderTableSpec;
+import org.knime.json.node.profile.JSONStructureProfile;
 
 /**
  * Reader for the JSON reader node.
@@ -69,28 +78,172 @@
  */
 final class JSONReader implements TableReader<JSONReaderConfig, DataType, DataValue> {
 
+    /** The profile of the records to derive the extracted columns from, {@code null} to infer them from a sample. */
+    private final JSONStructureProfile m_profile;
+
+    /** Reads the files of a multi-file input ahead while the table is written, {@code null} if not active. */
+    private volatile JSONFilePrefetcher<FSPath> m_prefetcher;
+
+    /**
+     * The flatteners inferred by {@link #readSpec}, taken by the next read of the same file (so the sample of a file
+     * is not read twice). They are soft references, as a folder might contain very many files.
+     */
+    private final Map<FSPath, SoftReference<InferredFlattener>> m_inferred = new ConcurrentHashMap<>();
+
+    /** A flattener with the settings it was inferred with. */
+    private record InferredFlattener(List<Object> settings, JSONFlattener flattener) {
+    }
+
+    /** Creates a reader inferring the extracted columns from the first records of each file. */
+    JSONReader() {
+        this(null);
+    }
+
+    /**
+     * @param profile the profile of the records to derive the extracted columns from instead of reading a sample of
+     *            each file (the columns are the same for every file), {@code null} to infer them from the sample
+     */
+    JSONReader(final JSONStructureProfile profile) {
+        m_profile = profile;
+    }
+
     @SuppressWarnings("resource") // closing the read is the responsibility of the caller
     @Override
     public Read<DataValue> read(final FSPath path, final TableReadConfig<JSONReaderConfig> config)
         throws IOException {
+        final JSONFilePrefetcher<FSPath> prefetcher = m_prefetcher;
+        final Read<DataValue> prefetched = prefetcher == null ? null : prefetcher.take(path);
+        // the prefetched rows were read by a JSONRead, so they are already skipped and limited
+        return prefetched != null ? prefetched : decorateForReading(createRead(path, config, true), config);
+    }
+
+    /**
+     * @param prefetcher the files read ahead by {@link #read(FSPath, TableReadConfig)}, {@code null} to read every
+     *            file when it is requested
+     */
+    void setPrefetcher(final JSONFilePrefetcher<FSPath> prefetcher) {
+        m_prefetcher = prefetcher;
+    }
+
+    /**
+     * Creates the undecorated read of a file, inferring the columns to extract first (if enabled).
+     *
+     * @param path the file to read
+     * @param config the {@link TableReadConfig} used
+     * @param parallel whether a large JSON Lines file may be parsed in parallel chunks (unless the rows are limited)
+     * @return the read of the file
+     * @throws IOException if the file cannot be read
+     */
+    Read<DataValue> createRead(final FSPath path, final TableReadConfig<JSONReaderConfig> config,
+        final boolean parallel) throws IOException {
+        final JSONFlattener flattener =
+            extractColumns(config.getReaderSpecificConfig()) ? takeFlattener(path, config) : null;
+        return createRead(path, config, flattener, parallel);
+    }
+
+    /**
+     * @return the flattener inferred for the file by {@link #readSpec} with the same settings, or a newly inferred one
+     */
+    private JSONFlattener takeFlattener(final FSPath path, final TableReadConfig<JSONReaderConfig> config)
+        throws IOException {
+        final SoftReference<InferredFlattener> reference = m_inferred.remove(path);
+        final InferredFlattener inferred = reference == null ? null : reference.get();
+        if (inferred != null && inferred.settings().equals(inferenceSettings(config))) {
+            return inferred.flattener();
+        }
+        return inferFlattener(path, config);
+    }
+
+    /** The settings that determine the sample of the file and the inferred columns. */
+    private static List<Object> inferenceSettings(final TableReadConfig<JSONReaderConfig> config) {
+        final JSONReaderConfig jsonReaderConfig = config.getReaderSpecificConfig();
+        return Arrays.asList(jsonReaderConfig.getJsonReadMode(), jsonReaderConfig.allowComments(),
+            jsonReaderConfig.useJSONPath(), jsonReaderConfig.getJSONPath(), jsonReaderConfig.getLinesErrorPolicy(),
+            jsonReaderConfig.getColumnsSampleSize(), jsonReaderConfig.remainderColumn(),
+            jsonReaderConfig.getRemainderColumnName(), config.skipRows(), config.getNumRowsToSkip(),
+            config.limitRows(), config.getMaxRows());
+    }
+
+    /** The matches of additional JSONPaths are read to their own columns, they are not extracted. */
+    private static boolean extractColumns(final JSONReaderConfig jsonReaderConfig) {
+        return jsonReaderConfig.extractColumns() && !readsAdditionalJSONPaths(jsonReaderConfig);
+    }
+
+    private static boolean readsAdditionalJSONPaths(final JSONReaderConfig jsonReaderConfig) {
+        return jsonReaderConfig.getJsonReadMode() == JSONReadMode.LEGACY && jsonReaderConfig.useJSONPath()
+            && jsonReaderConfig.getAdditionalJSONPaths().length > 0;
+    }
+
+    @SuppressWarnings("resource") // closing the read is the responsibility of the caller
+    private static Read<DataValue> createRead(final FSPath path, final TableReadConfig<JSONReaderConfig> config,
+        final JSONFlattener flattener, final boolean parallel) throws IOException {
         final JSONReaderConfig jsonReaderConfig = config.getReaderSpecificConfig();
-        if (jsonReaderConfig.useJSONPath()) {
-            return decorateForReading(new JSONPathRead(path, config), config);
+        if (jsonReaderConfig.getJsonReadMode() == JSONReadMode.JSON_LINES) {
+            // a limited read (like a preview) stops early: it is a JSONRead creating only the cells of the kept
+            // rows, the chunks parsed ahead by the workers would be wasted
+            if (parallel && !config.limitRows() && ParallelJSONLinesRead.isApplicable(path)) {
+                return new ParallelJSONLinesRead(path, config, flattener, ParallelJSONLinesRead.defaultWorkers());
+            }
+            return new JSONLinesRead(path, config, flattener);
+        } else if (jsonReaderConfig.getJsonReadMode() == JSONReadMode.CONCATENATED) {
+            return new JSONConcatenatedRead(path, config, flattener);
+        } else if (readsAdditionalJSONPaths(jsonReaderConfig)) {
+            return new JSONMultiPathRead(path, config);
+        } else if (jsonReaderConfig.useJSONPath()) {
+            return new JSONPathRead(path, config, flattener);
         } else {
-            return decorateForReading(new JSONBlobRead(path, config), config);
+            return new JSONBlobRead(path, config, flattener);
         }
     }
 
+    /**
+     * Infers the columns to extract from the first records of the file (as the spec of the file might have been read
+     * before, the inference has to be deterministic), or derives them from the profile if there is one.
+     */
+    private JSONFlattener inferFlattener(final FSPath path, final TableReadConfig<JSONReaderConfig> config)
+        throws IOException {
+        final JSONReaderConfig jsonReaderConfig = config.getReaderSpecificConfig();
+        if (m_profile != null) {
+            return JSONFlattener.derive(m_profile, jsonReaderConfig.allowComments(),
+                jsonReaderConfig.remainderColumn() ? jsonReaderConfig.getRemainderColumnName() : null);
+        }
+        final List<String> sample = new ArrayList<>();
+        try (Read<DataValue> read = createRead(path, config, null, false)) {
+            RandomAccessible<DataValue> record;
+            while (sample.size() < jsonReaderConfig.getColumnsSampleSize() && (record = read.next()) != null) {
+                final DataValue value = record.get(0);
+                if (value instanceof JSONValue) {
+                    sample.add(value.toString());
+                }
+            }
+        }
+        return JSONFlattener.infer(sample, jsonReaderConfig.allowComments(),
+            jsonReaderConfig.remainderColumn() ? jsonReaderConfig.getRemainderColumnName() : null);
+    }
+
     @Override
     public TypedReaderTableSpec<DataType> readSpec(final FSPath path, final TableReadConfig<JSONReaderConfig> config,
         final ExecutionMonitor exec) throws IOException {
-        final String colName = config.getReaderSpecificConfig().getColumnName();
-        return TypedReaderTableSpec.create(Collections.singleton(colName), Collections.singleton(JSONCell.TYPE),
-            Collections.singleton(Boolean.TRUE));
+        final JSONReaderConfig jsonReaderConfig = config.getReaderSpecificConfig();
+        if (extractColumns(jsonReaderConfig)) {
+            final JSONFlattener flattener = inferFlattener(path, config);
+            if (m_profile == null) {
+                m_inferred.put(path,
+                    new SoftReference<>(new InferredFlattener(inferenceSettings(config), flattener)));
+            }
+            return flattener.getSpec();
+        }
+        final List<String> colNames = new ArrayList<>();
+        colNames.add(jsonReaderConfig.getColumnName());
+        if (readsAdditionalJSONPaths(jsonReaderConfig)) {
+            colNames.addAll(List.of(jsonReaderConfig.getAdditionalColumnNames()));
+        }
+        return TypedReaderTableSpec.create(colNames, Collections.nCopies(colNames.size(), JSONCell.TYPE),
+            Collections.nCopies(colNames.size(), Boolean.TRUE));
     }
 
     /**
-     * Creates a decorated {@link Read} from {@link JSONRead}, taking into account how many rows should be skipped or
+     * Creates a decorated {@link Read} from a JSON {@link Read}, taking into account how many rows should be skipped or
      * what is the maximum number of rows to read.
      *
      * @param path the path of the file to read
@@ -99,8 +252,12 @@ public TypedReaderTableSpec<DataType> readSpec(final FSPath path, final TableRea
      * @throws IOException if a stream can not be created from the provided file.
      */
     @SuppressWarnings("resource") // closing the read is the responsibility of the caller
-    private static Read<DataValue> decorateForReading(final JSONRead read,
+    private static Read<DataValue> decorateForReading(final Read<DataValue> read,
         final TableReadConfig<JSONReaderConfig> config) {
+        if (read instanceof JSONRead) {
+            // skips and limits the rows itself, without creating the cells of the skipped rows
+            return read;
+        }
         Read<DataValue> filtered = read;
         final boolean skipRows = config.skipRows();
         if (skipRows) {
@@ -72,6 +72,22 @@ public final class JSONReaderConfig implements ReaderSpecificConfig<JSONReaderCo
 
     private String m_jsonPath = "$";
 
+    private String[] m_additionalColumnNames = new String[0];
+
+    private String[] m_additionalJSONPaths = new String[0];
+
+    private JSONLinesErrorPolicy m_linesErrorPolicy = JSONLinesErrorPolicy.FAIL;
+
+    private boolean m_extractColumns = false;
+
+    private int m_columnsSampleSize = 1000;
+
+    private boolean m_remainderColumn = false;
+
+    private String m_remainderColumnName = "Unmatched values";
+
+    private int m_concurrentFiles = 4;
+
     /**
      * Constructor.
      */
@@ -88,6 +104,13 @@ private JSONReaderConfig(final JSONReaderConfig toCopy) {
         setFailIfNotFound(toCopy.failIfNotFound());
         setJSONPath(toCopy.getJSONPath());
         setUseJSONPath(toCopy.useJSONPath());
+        setAdditionalJSONPaths(toCopy.getAdditionalColumnNames(), toCopy.getAdditionalJSONPaths());
+        setLinesErrorPolicy(toCopy.getLinesErrorPolicy());
+        setExtractColumns(toCopy.extractColumns());
+        setColumnsSampleSize(toCopy.getColumnsSampleSize());
+        setRemainderColumn(toCopy.remainderColumn());
+        setRemainderColumnName(toCopy.getRemainderColumnName());
+        setConcurrentFiles(toCopy.getConcurrentFiles());
     }
 
     @Override
@@ -165,6 +188,30 @@ public void setJSONPath(final String jSONPath) {
         m_jsonPath = jSONPath;
     }
 
+    /**
+     * @return the names of the columns of the {@link #getAdditionalJSONPaths() additional JSONPaths}
+     */
+    String[] getAdditionalColumnNames() {
+        return m_additionalColumnNames;
+    }
+
+    /**
+     * @return the JSONPaths whose matches are read to further columns in the same pass as the {@link #getJSONPath()
+     *         JSONPath}
+     */
+    String[] getAdditionalJSONPaths() {
+        return m_additionalJSONPaths;
+    }
+
+    /**
+     * @param columnNames the names of the columns of the additional JSONPaths
+     * @param jsonPaths the additional JSONPaths (of the same length as the column names)
+     */
+    void setAdditionalJSONPaths(final String[] columnNames, final String[] jsonPaths) {
+        m_additionalColumnNames = columnNames;
+        m_additionalJSONPaths = jsonPaths;
+    }
+
     /**
      * @return the failIfNotFound
      */
@@ -178,4 +225,88 @@ public boolean failIfNotFound() {
     public void setFailIfNotFound(final boolean failIfNotFound) {
         m_failIfNotFound = failIfNotFound;
     }
+
+    /**
+     * @return the handling of invalid lines in the {@link JSONReadMode#JSON_LINES} mode
+     */
+    JSONLinesErrorPolicy getLinesErrorPolicy() {
+        return m_linesErrorPolicy;
+    }
+
+    /**
+     * @param linesErrorPolicy the handling of invalid lines in the {@link JSONReadMode#JSON_LINES} mode
+     */
+    void setLinesErrorPolicy(final JSONLinesErrorPolicy linesErrorPolicy) {
+        m_linesErrorPolicy = linesErrorPolicy;
+    }
+
+    /**
+     * @return whether the scalar leaves of the records are extracted to typed columns (instead of a single JSON column)
+     */
+    boolean extractColumns() {
+        return m_extractColumns;
+    }
+
+    /**
+     * @param extractColumns whether the scalar leaves of the records are extracted to typed columns
+     */
+    void setExtractColumns(final boolean extractColumns) {
+        m_extractColumns = extractColumns;
+    }
+
+    /**
+     * @return the number of records the extracted columns are inferred from
+     */
+    int getColumnsSampleSize() {
+        return m_columnsSampleSize;
+    }
+
+    /**
+     * @param columnsSampleSize the number of records the extracted columns are inferred from
+     */
+    void setColumnsSampleSize(final int columnsSampleSize) {
+        m_columnsSampleSize = columnsSampleSize;
+    }
+
+    /**
+     * @return whether the values not covered by the extracted columns are collected to a JSON column
+     */
+    boolean remainderColumn() {
+        return m_remainderColumn;
+    }
+
+    /**
+     * @param remainderColumn whether the values not covered by the extracted columns are collected to a JSON column
+     */
+    void setRemainderColumn(final boolean remainderColumn) {
+        m_remainderColumn = remainderColumn;
+    }
+
+    /**
+     * @return the name of the column of the values not covered by the extracted columns
+     */
+    String getRemainderColumnName() {
+        return m_remainderColumnName;
+    }
+
+    /**
+     * @param remainderColumnName the name of the column of the values not covered by the extracted columns
+     */
+    void setRemainderColumnName(final String remainderColumnName) {
+        m_remainderColumnName = remainderColumnName;
+    }
+
+    /**
+     * @return the number of files of a multi-file input that are read concurrently (1 to read them one after another)
+     */
+    int getConcurrentFiles() {
+        return m_concurrentFiles;
+    }
+
+    /**
+     * @param concurrentFiles the number of files of a multi-file input that are read concurrently
+     */
+    void setConcurrentFiles(final int concurrentFiles) {
+        m_concurrentFiles = concurrentFiles;
+    }
 }
@@ -97,6 +97,28 @@
 
     static final String DEFAULT_JSON_PATH = "$";
 
+    static final String CFG_ADDITIONAL_COLUMN_NAMES = "additional_column_names";
+
+    static final String CFG_ADDITIONAL_JSON_PATHS = "additional_json_paths";
+
+    static final String CFG_LINES_ERROR_POLICY = "lines_error_policy";
+
+    static final String CFG_EXTRACT_COLUMNS = "extract_columns";
+
+    static final String CFG_COLUMNS_SAMPLE_SIZE = "columns_sample_size";
+
+    static final int DEFAULT_COLUMNS_SAMPLE_SIZE = 1000;
+
+    static final String CFG_REMAINDER_COLUMN = "remainder_column";
+
+    static final String CFG_REMAINDER_COLUMN_NAME = "remainder_column_name";
+
+    static final String DEFAULT_REMAINDER_COLUMN_NAME = "Unmatched values";
+
+    static final String CFG_CONCURRENT_FILES = "concurrent_files";
+
+    static final int DEFAULT_CONCURRENT_FILES = 4;
+
     static final String CFG_LIMIT_ROWS_TAB = "limit_rows";
 
     static final String CFG_MAX_ROWS = "max_rows";
@@ -132,6 +154,14 @@ private static void saveConfigIDSettingsTab(final JSONMultiTableReadConfig confi
         settings.addString(CFG_JSON_PATH, cc.getJSONPath());
         settings.addBoolean(CFG_FAIL_IF_NOT_FOUND, cc.failIfNotFound());
         settings.addBoolean(CFG_ALLOW_COMMENTS, cc.allowComments());
+        if (cc.getAdditionalJSONPaths().length > 0) {
+            // only added when set, so the ids of the configurations with a single JSONPath do not change
+            saveAdditionalJSONPaths(cc, settings);
+        }
+        if (cc.extractColumns()) {
+            // only added when enabled, so the ids of the configurations without extracted columns do not change
+            saveExtractColumns(cc, settings);
+        }
     }
 
     private static void saveConfigIDLimitRowsTab(final JSONMultiTableReadConfig config,
@@ -162,6 +192,10 @@ private static void loadSettingsTabInDialog(final JSONMultiTableReadConfig confi
         jsonReaderCfg.setFailIfNotFound(settings.getBoolean(CFG_FAIL_IF_NOT_FOUND, false));
         jsonReaderCfg.setJSONPath(settings.getString(CFG_JSON_PATH, DEFAULT_JSON_PATH));
         jsonReaderCfg.setUseJSONPath(settings.getBoolean(CFG_USE_PATH, false));
+        loadAdditionalJSONPaths(jsonReaderCfg, settings);
+        jsonReaderCfg.setLinesErrorPolicy(loadLinesErrorPolicy(settings));
+        loadExtractColumns(jsonReaderCfg, settings);
+        jsonReaderCfg.setConcurrentFiles(settings.getInt(CFG_CONCURRENT_FILES, DEFAULT_CONCURRENT_FILES));
 
         config.setAppendItemIdentifierColumn(
             settings.getBoolean(CFG_APPEND_PATH_COLUMN, config.appendItemIdentifierColumn()));
@@ -209,10 +243,48 @@ private static void loadSettingsTabInModel(final JSONMultiTableReadConfig config
         jsonReaderCfg.setFailIfNotFound(settings.getBoolean(CFG_FAIL_IF_NOT_FOUND));
         jsonReaderCfg.setJSONPath(settings.getString(CFG_JSON_PATH));
         jsonReaderCfg.setUseJSONPath(settings.getBoolean(CFG_USE_PATH));
+        loadAdditionalJSONPaths(jsonReaderCfg, settings);
+        jsonReaderCfg.setLinesErrorPolicy(loadLinesErrorPolicy(settings));
+        loadExtractColumns(jsonReaderCfg, settings);
+        jsonReaderCfg.setConcurrentFiles(settings.getInt(CFG_CONCURRENT_FILES, DEFAULT_CONCURRENT_FILES));
         config.setAppendItemIdentifierColumn(settings.getBoolean(CFG_APPEND_PATH_COLUMN));
         config.setItemIdentifierColumnName(settings.getString(CFG_PATH_COLUMN_NAME));
     }
 
+    /** The error policy is not present in settings stored before the JSON Lines mode was added. */
+    private static JSONLinesErrorPolicy loadLinesErrorPolicy(final NodeSettingsRO settings) {
+        return JSONLinesErrorPolicy
+            .valueOf(settings.getString(CFG_LINES_ERROR_POLICY, JSONLinesErrorPolicy.FAIL.name()));
+    }
+
+    /** The additional JSONPaths are not present in settings stored before they were added. */
+    private static void loadAdditionalJSONPaths(final JSONReaderConfig jsonReaderCfg, final NodeSettingsRO settings) {
+        jsonReaderCfg.setAdditionalJSONPaths(settings.getStringArray(CFG_ADDITIONAL_COLUMN_NAMES, new String[0]),
+            settings.getStringArray(CFG_ADDITIONAL_JSON_PATHS, new String[0]));
+    }
+
+    private static void saveAdditionalJSONPaths(final JSONReaderConfig jsonReaderCfg,
+        final NodeSettingsWO settings) {
+        settings.addStringArray(CFG_ADDITIONAL_COLUMN_NAMES, jsonReaderCfg.getAdditionalColumnNames());
+        settings.addStringArray(CFG_ADDITIONAL_JSON_PATHS, jsonReaderCfg.getAdditionalJSONPaths());
+    }
+
+    /** The extracted columns are not present in settings stored before they were added. */
+    private static void loadExtractColumns(final JSONReaderConfig jsonReaderCfg, final NodeSettingsRO settings) {
+        jsonReaderCfg.setExtractColumns(settings.getBoolean(CFG_EXTRACT_COLUMNS, false));
+        jsonReaderCfg.setColumnsSampleSize(settings.getInt(CFG_COLUMNS_SAMPLE_SIZE, DEFAULT_COLUMNS_SAMPLE_SIZE));
+        jsonReaderCfg.setRemainderColumn(settings.getBoolean(CFG_REMAINDER_COLUMN, false));
+        jsonReaderCfg
+            .setRemainderColumnName(settings.getString(CFG_REMAINDER_COLUMN_NAME, DEFAULT_REMAINDER_COLUMN_NAME));
+    }
+
+    private static void saveExtractColumns(final JSONReaderConfig jsonReaderCfg, final NodeSettingsWO settings) {
+        settings.addBoolean(CFG_EXTRACT_COLUMNS, jsonReaderCfg.extractColumns());
+        settings.addInt(CFG_COLUMNS_SAMPLE_SIZE, jsonReaderCfg.getColumnsSampleSize());
+        settings.addBoolean(CFG_REMAINDER_COLUMN, jsonReaderCfg.remainderColumn());
+        settings.addString(CFG_REMAINDER_COLUMN_NAME, jsonReaderCfg.getRemainderColumnName());
+    }
+
     @Override
     public void saveInModel(final JSONMultiTableReadConfig config, final NodeSettingsWO settings) {
         saveSettingsTab(config, SettingsUtils.getOrAdd(settings, SettingsUtils.CFG_SETTINGS_TAB));
@@ -236,8 +308,12 @@ private static void saveSettingsTab(final JSONMultiTableReadConfig config, final
         settings.addString(CFG_COLUMN_NAME, jsonReaderCfg.getColumnName());
         settings.addBoolean(CFG_USE_PATH, jsonReaderCfg.useJSONPath());
         settings.addString(CFG_JSON_PATH, jsonReaderCfg.getJSONPath());
+        saveAdditionalJSONPaths(jsonReaderCfg, settings);
         settings.addBoolean(CFG_FAIL_IF_NOT_FOUND, jsonReaderCfg.failIfNotFound());
         settings.addBoolean(CFG_ALLOW_COMMENTS, jsonReaderCfg.allowComments());
+        settings.addString(CFG_LINES_ERROR_POLICY, jsonReaderCfg.getLinesErrorPolicy().name());
+        saveExtractColumns(jsonReaderCfg, settings);
+        settings.addInt(CFG_CONCURRENT_FILES, jsonReaderCfg.getConcurrentFiles());
         settings.addBoolean(CFG_APPEND_PATH_COLUMN, config.appendItemIdentifierColumn());
         settings.addString(CFG_PATH_COLUMN_NAME, config.getItemIdentifierColumnName());
     }
@@ -262,6 +338,10 @@ private static void validateSettingsTab(final NodeSettingsRO settings) throws In
         settings.getBoolean(CFG_FAIL_IF_NOT_FOUND);
         settings.getBoolean(CFG_USE_PATH);
         settings.getString(CFG_JSON_PATH);
+        if (settings.getStringArray(CFG_ADDITIONAL_COLUMN_NAMES, new String[0]).length != settings
+            .getStringArray(CFG_ADDITIONAL_JSON_PATHS, new String[0]).length) {
+            throw new InvalidSettingsException("Each additional JSONPath needs exactly one column name.");
+        }
         settings.getBoolean(CFG_APPEND_PATH_COLUMN);
         settings.getString(CFG_PATH_COLUMN_NAME);
     }
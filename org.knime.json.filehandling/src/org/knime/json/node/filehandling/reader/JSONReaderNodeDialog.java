@@ -390,7 +390,6 @@ protected JSONMultiTableReadConfig loadSettings(final NodeSettingsRO settings, f
      * @param config the {@link LineReaderConfig2}
      */
     private void saveJsonReaderSettings(final JSONReaderConfig config) {
-        config.setJsonReadMode(getJsonReadMode());
         config.setAllowComments(m_allowComments.isSelected());
         config.setColumnName(m_columnName.getText());
         config.setJSONPath(m_jsonPath.getText());
@@ -398,10 +397,6 @@ private void saveJsonReaderSettings(final JSONReaderConfig config) {
         config.setFailIfNotFound(m_failIfNotFound.isSelected());
     }
 
-    private static JSONReadMode getJsonReadMode() {
-        return JSONReadMode.LEGACY;
-    }
-
     @Override
     protected JSONMultiTableReadConfig getConfig() throws InvalidSettingsException {
         saveTableReadSettings(m_config.getTableReadConfig());
@@ -54,10 +54,17 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
 
 import org.knime.base.node.io.filehandling.webui.reader2.MultiFileSelectionParameters;
 import org.knime.core.data.DataType;
 import org.knime.core.data.DataValue;
+import org.knime.core.data.def.BooleanCell;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.LongCell;
+import org.knime.core.data.def.StringCell;
 import org.knime.core.data.json.JSONCell;
 import org.knime.core.node.NodeDescription;
 import org.knime.core.node.NodeDialogPane;
@@ -100,11 +107,24 @@
 public final class JSONReaderNodeFactory extends AbstractTableReaderNodeFactory<JSONReaderConfig, DataType, DataValue>
     implements NodeDialogFactory, KaiNodeInterfaceFactory {
 
+    /**
+     * The JSON type accepts everything, the types of the extracted columns are widened from int over long and double
+     * to string (booleans only to string) when the files disagree.
+     */
     private static final TypeHierarchy<DataType, DataType> TYPE_HIERARCHY =
-        TreeTypeHierarchy.builder(createTypeTester(JSONCell.TYPE)).build();
+        TreeTypeHierarchy.builder(createTypeTester(JSONCell.TYPE, s -> true))
+            .addType(JSONCell.TYPE, createTypeTester(StringCell.TYPE, Set.of(StringCell.TYPE, BooleanCell.TYPE,
+                IntCell.TYPE, LongCell.TYPE, DoubleCell.TYPE)::contains))
+            .addType(StringCell.TYPE,
+                createTypeTester(DoubleCell.TYPE, Set.of(DoubleCell.TYPE, LongCell.TYPE, IntCell.TYPE)::contains))
+            .addType(DoubleCell.TYPE, createTypeTester(LongCell.TYPE, Set.of(LongCell.TYPE, IntCell.TYPE)::contains))
+            .addType(LongCell.TYPE, createTypeTester(IntCell.TYPE, IntCell.TYPE::equals))
+            .addType(StringCell.TYPE, createTypeTester(BooleanCell.TYPE, BooleanCell.TYPE::equals))
+            .build();
 
-    private static TypeTester<DataType, DataType> createTypeTester(final DataType type) {
-        return TypeTester.createTypeTester(type, s -> true);
+    private static TypeTester<DataType, DataType> createTypeTester(final DataType type,
+        final Predicate<DataType> predicate) {
+        return TypeTester.createTypeTester(type, predicate);
     }
 
     @Override
@@ -112,7 +132,9 @@ private static TypeTester<DataType, DataType> createTypeTester(final DataType ty
         createMultiTableReadFactory(final GenericTableReader<FSPath, JSONReaderConfig, DataType, DataValue> reader) {
         final MultiTableReadFactory<FSPath, JSONReaderConfig, DataType> multiTableReadFactory =
             super.createMultiTableReadFactory(reader);
-        return new JSONMultiTableReadFactory(multiTableReadFactory);
+        // the files of a folder can only be read ahead by the reader of this node
+        return new JSONMultiTableReadFactory(multiTableReadFactory,
+            reader instanceof JSONReader jsonReader ? jsonReader : null);
     }
 
     @Override
@@ -172,7 +194,16 @@ protected JSONMultiTableReadConfig createConfig(final NodeCreationConfiguration
 
     private static final String FULL_DESCRIPTION =
         """
-                <p> This node reads the .json file and parses it as JSON value. </p> <p> <i>This node can access a
+                <p> This node reads the .json file and parses it as JSON value. </p> <p> In the <i>JSON Lines</i>
+                    read mode every line of the file is parsed as a separate JSON value (also known as NDJSON), which
+                    allows streaming large files with one row per line. The <i>Concatenated JSON</i> read mode
+                    streams files of JSON values written one after another without an enclosing array, one row per
+                    top-level value. </p> <p> Several JSONPaths can be read to separate columns in a single pass
+                    over each file by adding <i>Additional JSONPaths</i>. </p> <p> With <i>Extract columns</i> the
+                    scalar values of the read JSON values are written to typed columns (boolean, integer, long,
+                    double or string) named by their paths. The columns are inferred from the first records, values
+                    of other paths can be collected to a JSON column of unmatched values. </p> <p> <i>This node can
+                    access a
                     variety of different</i> <a
                     href="https://docs.knime.com/2021-06/analytics_platform_file_handling_guide/index.html#analytics-platform-file-systems"><i>file
                     systems.</i></a> <i>More information about file handling in KNIME can be found in the official</i> <a
@@ -46,6 +46,7 @@
 
 package org.knime.json.node.filehandling.reader;
 
+import java.util.Arrays;
 import java.util.Optional;
 
 import org.knime.base.node.io.filehandling.webui.reader2.AppendFilePathColumnParameters;
@@ -62,6 +63,7 @@
 import org.knime.filehandling.core.util.SettingsUtils;
 import org.knime.node.parameters.NodeParameters;
 import org.knime.node.parameters.Widget;
+import org.knime.node.parameters.array.ArrayWidget;
 import org.knime.node.parameters.layout.Before;
 import org.knime.node.parameters.layout.Inside;
 import org.knime.node.parameters.layout.Layout;
@@ -73,8 +75,14 @@
 import org.knime.node.parameters.persistence.legacy.LegacyMultiFileSelection;
 import org.knime.node.parameters.updates.Effect;
 import org.knime.node.parameters.updates.Effect.EffectType;
+import org.knime.node.parameters.updates.EffectPredicate;
+import org.knime.node.parameters.updates.EffectPredicateProvider;
+import org.knime.node.parameters.updates.ParameterReference;
 import org.knime.node.parameters.updates.ValueReference;
 import org.knime.node.parameters.updates.util.BooleanReference;
+import org.knime.node.parameters.widget.choices.ValueSwitchWidget;
+import org.knime.node.parameters.widget.number.NumberInputWidget;
+import org.knime.node.parameters.widget.number.NumberInputWidgetValidation.MinValidation.IsPositiveIntegerValidation;
 import org.knime.node.parameters.widget.text.TextInputWidget;
 import org.knime.node.parameters.widget.text.util.ColumnNameValidationUtils.ColumnNameValidation;
 
@@ -89,21 +97,17 @@
 @Layout(ReaderLayout.class)
 class JSONReaderNodeParameters implements NodeParameters {
 
-    // Legacy option kept for compatibility
-    @Persist(configKey = JSONReaderMultiTableReadConfigSerializer.CFG_READ_MODE)
-    @PersistWithin(SettingsUtils.CFG_SETTINGS_TAB)
-    JSONReadMode m_readMode = JSONReadMode.LEGACY;
-
     @PersistWithin(SettingsUtils.CFG_SETTINGS_TAB)
     @Persist(configKey = "file_selection")
     @MultiFileSelectionWidget({MultiFileSelectionMode.FILE, MultiFileSelectionMode.FILES_IN_FOLDERS})
-    @FileReaderWidget(fileExtensions = {"json", "json.gz"})
+    @FileReaderWidget(fileExtensions = {"json", "json.gz", "jsonl", "jsonl.gz", "ndjson", "ndjson.gz"})
     LegacyMultiFileSelection m_fileSelection = new LegacyMultiFileSelection(MultiFileSelectionMode.FILE);
 
     @PersistWithin(SettingsUtils.CFG_SETTINGS_TAB)
     @Persist(configKey = JSONReaderMultiTableReadConfigSerializer.CFG_COLUMN_NAME)
     @Widget(title = "Output column name", description = "Name of the output column.")
     @TextInputWidget(patternValidation = ColumnNameValidation.class)
+    @Effect(predicate = ExtractColumns.class, type = EffectType.HIDE)
     String m_outputColumnName = JSONReaderMultiTableReadConfigSerializer.DEFAULT_COLUMN_NAME;
 
     @Section(title = "JSON Options")
@@ -113,11 +117,46 @@ class JSONReaderNodeParameters implements NodeParameters {
     interface JSONOptionsSection {
     }
 
+    @Persist(configKey = JSONReaderMultiTableReadConfigSerializer.CFG_READ_MODE)
+    @PersistWithin(SettingsUtils.CFG_SETTINGS_TAB)
+    @Widget(title = "Read mode", description = "Whether each file contains a single JSON value, one JSON value "
+        + "per line (JSON Lines, also known as NDJSON) or JSON values written one after another (concatenated JSON).")
+    @ValueSwitchWidget
+    @ValueReference(ReadModeRef.class)
+    @Layout(JSONOptionsSection.class)
+    JSONReadMode m_readMode = JSONReadMode.LEGACY;
+
+    static final class ReadModeRef implements ParameterReference<JSONReadMode> {
+    }
+
+    static final class IsJSONLines implements EffectPredicateProvider {
+        @Override
+        public EffectPredicate init(final PredicateInitializer i) {
+            return i.getEnum(ReadModeRef.class).isOneOf(JSONReadMode.JSON_LINES);
+        }
+    }
+
+    static final class IsLegacy implements EffectPredicateProvider {
+        @Override
+        public EffectPredicate init(final PredicateInitializer i) {
+            return i.getEnum(ReadModeRef.class).isOneOf(JSONReadMode.LEGACY);
+        }
+    }
+
+    static final class IsSelectWithJSONPath implements EffectPredicateProvider {
+        @Override
+        public EffectPredicate init(final PredicateInitializer i) {
+            return i.getBoolean(UseJSONPath.class).isTrue()
+                .and(i.getEnum(ReadModeRef.class).isOneOf(JSONReadMode.LEGACY));
+        }
+    }
+
     @PersistWithin(SettingsUtils.CFG_SETTINGS_TAB)
     @Persist(configKey = JSONReaderMultiTableReadConfigSerializer.CFG_USE_PATH)
     @Widget(title = "Select with JSONPath",
         description = "Enable JSONPath filtering to extract a specific part of the read JSON.")
     @ValueReference(UseJSONPath.class)
+    @Effect(predicate = IsLegacy.class, type = EffectType.SHOW)
     @Layout(JSONOptionsSection.class)
     boolean m_useJSONPath;
 
@@ -130,7 +169,7 @@ static final class UseJSONPath implements BooleanReference {
             When selected, <tt>/*</tt> ... <tt>*/</tt> and the line comments <tt>//</tt>, <tt>#</tt>
             are interpreted as comments and get ignored instead of causing errors.
             """)
-    @Effect(predicate = UseJSONPath.class, type = EffectType.DISABLE)
+    @Effect(predicate = IsSelectWithJSONPath.class, type = EffectType.DISABLE)
     @Layout(JSONOptionsSection.class)
     boolean m_allowComments;
 
@@ -141,20 +180,130 @@ static final class UseJSONPath implements BooleanReference {
             <a href="http://goessner.net/articles/JsonPath/">JSONPath</a> preferably with a single result.
             (For multiple results new rows will be created from them.)
             """)
-    @Effect(predicate = UseJSONPath.class, type = EffectType.SHOW)
+    @Effect(predicate = IsSelectWithJSONPath.class, type = EffectType.SHOW)
     @Layout(JSONOptionsSection.class)
     String m_jsonPath = JSONReaderMultiTableReadConfigSerializer.DEFAULT_JSON_PATH;
 
+    @PersistWithin(SettingsUtils.CFG_SETTINGS_TAB)
+    @Persistor(AdditionalJSONPathsPersistor.class)
+    @Widget(title = "Additional JSONPaths", description = """
+            Further JSONPaths whose matches are read to their own JSON columns. All paths (including the one above)
+            are evaluated in a single pass over each file. The n-th row contains the n-th match of every path, or a
+            missing value if a path has fewer matches. When a path is far ahead of another one (like for separate
+            arrays per field), its pending matches are buffered in a temporary file instead of the memory. Columns are
+            not extracted when additional paths are set.
+            """)
+    @ArrayWidget(addButtonText = "Add JSONPath", elementTitle = "JSONPath")
+    @Effect(predicate = IsSelectWithJSONPath.class, type = EffectType.SHOW)
+    @Layout(JSONOptionsSection.class)
+    AdditionalJSONPath[] m_additionalJSONPaths = new AdditionalJSONPath[0];
+
+    static final class AdditionalJSONPath implements NodeParameters {
+
+        AdditionalJSONPath() {
+            // called by the framework
+        }
+
+        private AdditionalJSONPath(final String columnName, final String jsonPath) {
+            m_columnName = columnName;
+            m_jsonPath = jsonPath;
+        }
+
+        @Widget(title = "Output column name", description = "The name of the column of the matches.")
+        @TextInputWidget(patternValidation = ColumnNameValidation.class)
+        String m_columnName = "";
+
+        @Widget(title = "JSONPath", description = "The JSONPath selecting the values of the column.")
+        String m_jsonPath = JSONReaderMultiTableReadConfigSerializer.DEFAULT_JSON_PATH;
+    }
+
     @PersistWithin(SettingsUtils.CFG_SETTINGS_TAB)
     @Persist(configKey = JSONReaderMultiTableReadConfigSerializer.CFG_FAIL_IF_NOT_FOUND)
     @Widget(title = "Fail if path not found", description = """
             If checked, execution will fail if no such part found.
             If unchecked and not found, the result will be an empty file.
             """)
-    @Effect(predicate = UseJSONPath.class, type = EffectType.SHOW)
+    @Effect(predicate = IsSelectWithJSONPath.class, type = EffectType.SHOW)
     @Layout(JSONOptionsSection.class)
     boolean m_failIfNotFound;
 
+    @PersistWithin(SettingsUtils.CFG_SETTINGS_TAB)
+    @Persist(configKey = JSONReaderMultiTableReadConfigSerializer.CFG_LINES_ERROR_POLICY)
+    @Widget(title = "Invalid lines", description = """
+            How lines that are not valid JSON are handled: fail the execution, skip the line, or output a
+            missing value whose error message describes the problem. Blank lines are always ignored.
+            """)
+    @ValueSwitchWidget
+    @Effect(predicate = IsJSONLines.class, type = EffectType.SHOW)
+    @Layout(JSONOptionsSection.class)
+    JSONLinesErrorPolicy m_linesErrorPolicy = JSONLinesErrorPolicy.FAIL;
+
+    @PersistWithin(SettingsUtils.CFG_SETTINGS_TAB)
+    @Persist(configKey = JSONReaderMultiTableReadConfigSerializer.CFG_EXTRACT_COLUMNS)
+    @Widget(title = "Extract columns", description = """
+            When selected, the scalar values (booleans, numbers and strings) of the read JSON values are written to
+            typed columns named by their paths (like <tt>$['a']['b']</tt>) instead of a single JSON column. Arrays are
+            not expanded, they are kept as JSON values.
+            """)
+    @ValueReference(ExtractColumns.class)
+    @Layout(JSONOptionsSection.class)
+    boolean m_extractColumns;
+
+    static final class ExtractColumns implements BooleanReference {
+    }
+
+    static final class CollectRemainder implements BooleanReference {
+    }
+
+    static final class IsCollectRemainder implements EffectPredicateProvider {
+        @Override
+        public EffectPredicate init(final PredicateInitializer i) {
+            return i.getBoolean(ExtractColumns.class).isTrue().and(i.getBoolean(CollectRemainder.class).isTrue());
+        }
+    }
+
+    @PersistWithin(SettingsUtils.CFG_SETTINGS_TAB)
+    @Persist(configKey = JSONReaderMultiTableReadConfigSerializer.CFG_COLUMNS_SAMPLE_SIZE)
+    @Widget(title = "Number of records for column inference", description = """
+            The columns and their types are inferred from this many JSON values at the start of each file.
+            Values of paths not present in these records are not extracted.
+            """)
+    @NumberInputWidget(minValidation = IsPositiveIntegerValidation.class)
+    @Effect(predicate = ExtractColumns.class, type = EffectType.SHOW)
+    @Layout(JSONOptionsSection.class)
+    int m_columnsSampleSize = JSONReaderMultiTableReadConfigSerializer.DEFAULT_COLUMNS_SAMPLE_SIZE;
+
+    @PersistWithin(SettingsUtils.CFG_SETTINGS_TAB)
+    @Persist(configKey = JSONReaderMultiTableReadConfigSerializer.CFG_REMAINDER_COLUMN)
+    @Widget(title = "Collect unmatched values to column", description = """
+            When selected, the values not covered by the inferred columns (for example paths that appear only after
+            the inferred records, or values of a different type) are collected to a JSON column. The JSON object has
+            the paths of these values as keys. When not selected, such values are ignored.
+            """)
+    @ValueReference(CollectRemainder.class)
+    @Effect(predicate = ExtractColumns.class, type = EffectType.SHOW)
+    @Layout(JSONOptionsSection.class)
+    boolean m_remainderColumn;
+
+    @PersistWithin(SettingsUtils.CFG_SETTINGS_TAB)
+    @Persist(configKey = JSONReaderMultiTableReadConfigSerializer.CFG_REMAINDER_COLUMN_NAME)
+    @Widget(title = "Unmatched values column name", description = "Name of the column of the unmatched values.")
+    @TextInputWidget(patternValidation = ColumnNameValidation.class)
+    @Effect(predicate = IsCollectRemainder.class, type = EffectType.SHOW)
+    @Layout(JSONOptionsSection.class)
+    String m_remainderColumnName = JSONReaderMultiTableReadConfigSerializer.DEFAULT_REMAINDER_COLUMN_NAME;
+
+    @PersistWithin(SettingsUtils.CFG_SETTINGS_TAB)
+    @Persist(configKey = JSONReaderMultiTableReadConfigSerializer.CFG_CONCURRENT_FILES)
+    @Widget(title = "Number of files read concurrently", description = """
+            When reading multiple files (for example the files in a folder), this many files are opened and parsed
+            at the same time ahead of writing the output, which hides the latency of remote file systems. The rows
+            are always output in the order of the files. Use 1 to read the files one after another.
+            """, advanced = true)
+    @NumberInputWidget(minValidation = IsPositiveIntegerValidation.class)
+    @Layout(ReaderLayout.MultipleFileHandling.class)
+    int m_concurrentFiles = JSONReaderMultiTableReadConfigSerializer.DEFAULT_CONCURRENT_FILES;
+
     @PersistWithin(SettingsUtils.CFG_SETTINGS_TAB)
     @Persistor(AppendFilePathColumnPersistor.class)
     AppendFilePathColumnParameters m_appendFilePathColumnParameters = new AppendFilePathColumnParameters();
@@ -201,6 +350,36 @@ public String[][] getConfigPaths() {
         }
     }
 
+    static final class AdditionalJSONPathsPersistor implements NodeParametersPersistor<AdditionalJSONPath[]> {
+
+        @Override
+        public AdditionalJSONPath[] load(final NodeSettingsRO nodeSettings) throws InvalidSettingsException {
+            final String[] columnNames = nodeSettings
+                .getStringArray(JSONReaderMultiTableReadConfigSerializer.CFG_ADDITIONAL_COLUMN_NAMES, new String[0]);
+            final String[] jsonPaths = nodeSettings
+                .getStringArray(JSONReaderMultiTableReadConfigSerializer.CFG_ADDITIONAL_JSON_PATHS, new String[0]);
+            final var additionalJSONPaths = new AdditionalJSONPath[Math.min(columnNames.length, jsonPaths.length)];
+            for (var i = 0; i < additionalJSONPaths.length; i++) {
+                additionalJSONPaths[i] = new AdditionalJSONPath(columnNames[i], jsonPaths[i]);
+            }
+            return additionalJSONPaths;
+        }
+
+        @Override
+        public void save(final AdditionalJSONPath[] param, final NodeSettingsWO nodeSettings) {
+            nodeSettings.addStringArray(JSONReaderMultiTableReadConfigSerializer.CFG_ADDITIONAL_COLUMN_NAMES,
+                Arrays.stream(param).map(p -> p.m_columnName).toArray(String[]::new));
+            nodeSettings.addStringArray(JSONReaderMultiTableReadConfigSerializer.CFG_ADDITIONAL_JSON_PATHS,
+                Arrays.stream(param).map(p -> p.m_jsonPath).toArray(String[]::new));
+        }
+
+        @Override
+        public String[][] getConfigPaths() {
+            return new String[][]{{JSONReaderMultiTableReadConfigSerializer.CFG_ADDITIONAL_COLUMN_NAMES},
+                {JSONReaderMultiTableReadConfigSerializer.CFG_ADDITIONAL_JSON_PATHS}};
+        }
+    }
+
     static final class SkipFirstDataRowsPersistor implements NodeParametersPersistor<SkipFirstDataRowsParameters> {
 
         @Override
@@ -0,0 +1,145 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+
+package org.knime.json.node.filehandling.reader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.Objects;
+
+/**
+ * An {@link InputStream} of the bytes of a file that is memory-mapped in segments (a single mapping is limited to
+ * {@link Integer#MAX_VALUE} bytes). Reading from it neither copies the file to a stream buffer nor decodes it, so a
+ * byte-based parser can read the mapped pages directly.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class MappedFileInputStream extends InputStream {
+
+    /** The size of the mapped segments. */
+    static final int SEGMENT_SIZE = 1 << 30;
+
+    private final FileChannel m_channel;
+
+    private final long m_size;
+
+    private final int m_segmentSize;
+
+    private long m_segmentStart;
+
+    private MappedByteBuffer m_segment;
+
+    /**
+     * @param channel the channel of the file, closed with this stream
+     * @param start the position of the first byte to read
+     * @param segmentSize the maximal size of a mapped segment
+     * @throws IOException if the size of the file cannot be determined
+     */
+    MappedFileInputStream(final FileChannel channel, final long start, final int segmentSize) throws IOException {
+        m_channel = channel;
+        m_size = channel.size();
+        m_segmentStart = start;
+        m_segmentSize = segmentSize;
+    }
+
+    /**
+     * @return whether there are bytes left, maps the next segment if the current one is exhausted
+     */
+    private boolean hasRemaining() throws IOException {
+        if (m_segment != null) {
+            if (m_segment.hasRemaining()) {
+                return true;
+            }
+            m_segmentStart += m_segment.capacity();
+            m_segment = null;
+        }
+        if (m_segmentStart >= m_size) {
+            return false;
+        }
+        m_segment = m_channel.map(MapMode.READ_ONLY, m_segmentStart, Math.min(m_segmentSize, m_size - m_segmentStart));
+        return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+        return hasRemaining() ? (m_segment.get() & 0xFF) : -1;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, b.length);
+        if (len == 0) {
+            return 0;
+        }
+        if (!hasRemaining()) {
+            return -1;
+        }
+        final int n = Math.min(len, m_segment.remaining());
+        m_segment.get(b, off, n);
+        return n;
+    }
+
+    @Override
+    public int available() {
+        return m_segment == null ? 0 : m_segment.remaining();
+    }
+
+    /**
+     * @return the position of the next byte in the file
+     */
+    long getPosition() {
+        return m_segmentStart + (m_segment == null ? 0 : m_segment.position());
+    }
+
+    @Override
+    public void close() throws IOException {
+        m_segment = null;
+        m_channel.close();
+    }
+}
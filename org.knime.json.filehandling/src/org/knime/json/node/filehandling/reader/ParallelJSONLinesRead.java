@@ -0,0 +1,400 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+
+package org.knime.json.node.filehandling.reader;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataValue;
+import org.knime.core.data.json.JSONCellFactory;
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.util.ThreadPool;
+import org.knime.core.util.ThreadUtils;
+import org.knime.filehandling.core.connections.FSCategory;
+import org.knime.filehandling.core.connections.FSPath;
+import org.knime.filehandling.core.node.table.reader.config.TableReadConfig;
+import org.knime.filehandling.core.node.table.reader.randomaccess.RandomAccessible;
+import org.knime.filehandling.core.node.table.reader.randomaccess.RandomAccessibleUtils;
+import org.knime.filehandling.core.node.table.reader.read.Read;
+
+/**
+ * {@link Read} for the {@link JSONReadMode#JSON_LINES} mode that parses large uncompressed local files with multiple
+ * workers. The file is split to chunks of {@link #CHUNK_SIZE} bytes, a chunk owns the lines starting within its byte
+ * range (the last one may end in the next chunk), so the chunks can be parsed independently. The parsed chunks are
+ * returned in file order, hence the rows (and their row ids) are the same as with {@link JSONLinesRead}.
+ * <p>
+ * The number of chunks parsed or waiting is bounded by twice the number of workers, so the memory use does not depend
+ * on the size of the file.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class ParallelJSONLinesRead implements Read<DataValue> {
+    /** The number of bytes parsed by a single task. */
+    static final int CHUNK_SIZE = 1 << 20;
+
+    private static final byte[] UTF8_BOM = {(byte)0xEF, (byte)0xBB, (byte)0xBF};
+
+    private final Path m_path;
+
+    private final long m_size;
+
+    private final boolean m_allowComments;
+
+    private final JSONLinesErrorPolicy m_errorPolicy;
+
+    private final JSONFlattener m_flattener;
+
+    private final ThreadPool m_pool;
+
+    private final int m_maxPending;
+
+    private final Deque<Future<ParsedChunk>> m_pending = new ArrayDeque<>();
+
+    /** The start of the next chunk to submit. */
+    private long m_nextStart;
+
+    private ParsedChunk m_current;
+
+    private int m_currentIndex;
+
+    /** The number of lines in the chunks before the current one. */
+    private long m_linesBefore;
+
+    private long m_progress;
+
+    /**
+     * Constructor.
+     *
+     * @param path the {@link Path} to the file
+     * @param config the {@link TableReadConfig} of the node
+     * @param flattener the columns to extract from the lines, {@code null} to read them to a single JSON column
+     * @param workers the number of workers parsing the chunks
+     * @throws IOException if the size of the file cannot be determined
+     */
+    ParallelJSONLinesRead(final Path path, final TableReadConfig<JSONReaderConfig> config,
+        final JSONFlattener flattener, final int workers) throws IOException {
+        m_path = path;
+        m_size = Files.size(path);
+        m_allowComments = config.getReaderSpecificConfig().allowComments();
+        m_errorPolicy = config.getReaderSpecificConfig().getLinesErrorPolicy();
+        m_flattener = flattener;
+        m_pool = KNIMEConstants.GLOBAL_THREAD_POOL.createSubPool(workers);
+        m_maxPending = 2 * workers;
+    }
+
+    /**
+     * The system property setting the number of workers. Parallel parsing is not enabled by default: no speedup was
+     * measured yet (only on a single core), so it is opt-in until a multi-core measurement shows one.
+     */
+    static final String WORKERS_PROPERTY = "org.knime.json.reader.jsonlinesworkers";
+
+    /**
+     * @return the default number of workers: the value of the {@value #WORKERS_PROPERTY} system property, {@code 1}
+     *         (no parallel parsing) if it is not set
+     */
+    static int defaultWorkers() {
+        return Math.max(1, Integer.getInteger(WORKERS_PROPERTY, 1));
+    }
+
+    /**
+     * Checks whether the file can be split to chunks: it has to be on the local file system, uncompressed (the first
+     * byte has to be a possible start of a JSON text) and larger than two chunks.
+     *
+     * @param path the file to read
+     * @return whether the file should be read with a {@link ParallelJSONLinesRead}
+     * @throws IOException if the file cannot be read
+     */
+    static boolean isApplicable(final FSPath path) throws IOException {
+        if (defaultWorkers() < 2 || path.toFSLocation().getFSCategory() != FSCategory.LOCAL
+            || Files.size(path) < 2L * CHUNK_SIZE) {
+            return false;
+        }
+        try (SeekableByteChannel channel = Files.newByteChannel(path)) {
+            final ByteBuffer first = ByteBuffer.allocate(1);
+            return channel.read(first) == 1 && isJSONStart(first.get(0));
+        }
+    }
+
+    /**
+     * @param b the first byte of a file
+     * @return whether a UTF-8 encoded (uncompressed) JSON can start with this byte (including a BOM)
+     */
+    static boolean isJSONStart(final byte b) {
+        switch (b) {
+            case '{', '[', '"', '-', 't', 'f', 'n', ' ', '\t', '\r', '\n', '/', '#', (byte)0xEF:
+                return true;
+            default:
+                return b >= '0' && b <= '9';
+        }
+    }
+
+    @Override
+    public RandomAccessible<DataValue> next() throws IOException {
+        while (true) {
+            while (m_current == null || m_currentIndex == m_current.m_lines.size()) {
+                if (m_current != null) {
+                    m_linesBefore += m_current.m_lineCount;
+                    m_progress = m_current.m_end;
+                    m_current = null;
+                }
+                submitChunks();
+                if (m_pending.isEmpty()) {
+                    return null;
+                }
+                m_current = takeOldest();
+                m_currentIndex = 0;
+            }
+            final ParsedLine line = m_current.m_lines.get(m_currentIndex++);
+            if (line.m_values != null) {
+                return RandomAccessibleUtils.createFromArray(line.m_values);
+            }
+            final DataCell errorCell =
+                JSONLinesRead.handleInvalidLine(m_errorPolicy, m_linesBefore + line.m_number, line.m_error);
+            if (errorCell != null) {
+                return RandomAccessibleUtils
+                    .createFromArray(m_flattener == null ? new DataCell[]{errorCell} : m_flattener.fill(errorCell));
+            }
+        }
+    }
+
+    private void submitChunks() {
+        while (m_pending.size() < m_maxPending && m_nextStart < m_size) {
+            final long start = m_nextStart;
+            final long end = Math.min(m_size, start + CHUNK_SIZE);
+            m_nextStart = end;
+            m_pending.addLast(m_pool.enqueue(ThreadUtils.callableWithContext(() -> parse(start, end))));
+        }
+    }
+
+    private ParsedChunk takeOldest() throws IOException {
+        final Future<ParsedChunk> future = m_pending.removeFirst();
+        final Callable<ParsedChunk> get = future::get;
+        final ThreadPool current = ThreadPool.currentPool();
+        try {
+            // do not count the waiting thread as running, so the workers can use its slot in the pool
+            return current == null ? get.call() : current.runInvisible(get);
+        } catch (Exception e) { // NOSONAR the exceptions of the task are unwrapped below
+            cancel();
+            Throwable cause = e;
+            while (cause instanceof ExecutionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            if (cause instanceof IOException) {
+                throw (IOException)cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
+            }
+            throw new IOException(cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * Parses the lines starting in the {@code [start, end)} byte range of the file.
+     */
+    private ParsedChunk parse(final long start, final long end) throws IOException {
+        final ParsedChunk chunk = new ParsedChunk(end, m_allowComments, m_flattener);
+        try (SeekableByteChannel channel = Files.newByteChannel(m_path)) {
+            // the byte before the range tells whether a line starts at the beginning of the range
+            final long offset = start == 0 ? 0 : (start - 1);
+            final byte[] bytes = readFully(channel.position(offset), (int)(end - offset));
+            int pos = start == 0 ? skipBom(bytes) : (indexOfNewLine(bytes, 0, bytes.length) + 1);
+            // without a new line no line starts in the range (pos is 0)
+            while ((start == 0 || pos > 0) && pos < bytes.length) {
+                final int newLine = indexOfNewLine(bytes, pos, bytes.length);
+                if (newLine >= 0) {
+                    chunk.add(bytes, pos, newLine - pos);
+                    pos = newLine + 1;
+                } else {
+                    // the last line continues in the next chunk
+                    final byte[] line = readLineRest(channel, bytes, pos);
+                    chunk.add(line, 0, line.length);
+                    pos = bytes.length;
+                }
+            }
+        }
+        return chunk;
+    }
+
+    private static int skipBom(final byte[] bytes) {
+        for (var i = 0; i < UTF8_BOM.length; i++) {
+            if (i >= bytes.length || bytes[i] != UTF8_BOM[i]) {
+                return 0;
+            }
+        }
+        return UTF8_BOM.length;
+    }
+
+    private static int indexOfNewLine(final byte[] bytes, final int from, final int to) {
+        for (var i = from; i < to; i++) {
+            if (bytes[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static byte[] readFully(final SeekableByteChannel channel, final int length) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+            // keep reading
+        }
+        return buffer.hasRemaining() ? ByteBuffer.allocate(buffer.position()).put(buffer.flip()).array()
+            : buffer.array();
+    }
+
+    /**
+     * Reads the part of the line after the chunk until the next new line (or the end of the file).
+     */
+    private static byte[] readLineRest(final SeekableByteChannel channel, final byte[] bytes, final int from)
+        throws IOException {
+        final var line = new ByteArrayOutputStream();
+        line.write(bytes, from, bytes.length - from);
+        final ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+        while (channel.read(buffer.clear()) > 0) {
+            final int newLine = indexOfNewLine(buffer.array(), 0, buffer.position());
+            line.write(buffer.array(), 0, newLine >= 0 ? newLine : buffer.position());
+            if (newLine >= 0) {
+                break;
+            }
+        }
+        return line.toByteArray();
+    }
+
+    @Override
+    public OptionalLong getMaxProgress() {
+        return OptionalLong.of(m_size);
+    }
+
+    @Override
+    public long getProgress() {
+        return m_progress;
+    }
+
+    @Override
+    public void close() throws IOException {
+        cancel();
+    }
+
+    private void cancel() {
+        for (final Future<ParsedChunk> future : m_pending) {
+            future.cancel(true);
+        }
+        m_pending.clear();
+        m_nextStart = m_size;
+    }
+
+    /** The lines starting in a chunk of the file. */
+    private static final class ParsedChunk {
+        private final long m_end;
+
+        private final boolean m_allowComments;
+
+        private final JSONFlattener m_flattener;
+
+        private final List<ParsedLine> m_lines = new ArrayList<>();
+
+        /** The number of lines including the blank ones. */
+        private long m_lineCount;
+
+        ParsedChunk(final long end, final boolean allowComments, final JSONFlattener flattener) {
+            m_end = end;
+            m_allowComments = allowComments;
+            m_flattener = flattener;
+        }
+
+        void add(final byte[] bytes, final int from, final int length) {
+            m_lineCount++;
+            // the line separator might be \r\n
+            final int trimmed = length > 0 && bytes[from + length - 1] == '\r' ? (length - 1) : length;
+            final var line = new String(bytes, from, trimmed, StandardCharsets.UTF_8);
+            if (line.isBlank()) {
+                return;
+            }
+            try {
+                final DataValue[] values = m_flattener == null
+                    ? new DataValue[]{JSONCellFactory.create(line, m_allowComments)} : m_flattener.flatten(line);
+                m_lines.add(new ParsedLine(m_lineCount, values, null));
+            } catch (IOException e) {
+                m_lines.add(new ParsedLine(m_lineCount, null, e));
+            }
+        }
+    }
+
+    /** A non-blank line, either the values of its row or the reason why it is invalid. */
+    private static final class ParsedLine {
+        /** The number of the line within the chunk, starting from {@code 1}. */
+        private final long m_number;
+
+        private final DataValue[] m_values;
+
+        private final IOException m_error;
+
+        ParsedLine(final long number, final DataValue[] values, final IOException error) {
+            m_number = number;
+            m_values = values;
+            m_error = error;
+        }
+    }
+}
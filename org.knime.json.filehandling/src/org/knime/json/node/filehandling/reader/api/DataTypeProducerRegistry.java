@@ -48,6 +48,7 @@
  */
 package org.knime.json.node.filehandling.reader.api;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -59,6 +60,10 @@
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataType;
 import org.knime.core.data.DataValue;
+import org.knime.core.data.DoubleValue;
+import org.knime.core.data.LongValue;
+import org.knime.core.data.MissingValue;
+import org.knime.core.data.StringValue;
 import org.knime.core.data.collection.ListCell;
 import org.knime.core.data.convert.datacell.JavaToDataCellConverter;
 import org.knime.core.data.convert.datacell.JavaToDataCellConverterFactory;
@@ -73,7 +78,13 @@
 import org.knime.core.data.convert.map.ProducerRegistry;
 import org.knime.core.data.convert.map.ProductionPath;
 import org.knime.core.data.convert.util.SerializeUtil;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.LongCell;
+import org.knime.core.data.def.StringCell;
 import org.knime.core.data.filestore.FileStoreFactory;
+import org.knime.core.data.json.JSONCell;
+import org.knime.core.data.json.JSONCellFactory;
+import org.knime.core.data.json.JSONValue;
 import org.knime.core.node.InvalidSettingsException;
 import org.knime.core.node.NodeSettingsRO;
 import org.knime.core.node.NodeSettingsWO;
@@ -86,6 +97,8 @@
 import org.knime.filehandling.core.node.table.reader.config.tablespec.ProductionPathSerializer;
 import org.knime.json.node.filehandling.reader.JSONReaderConfig;
 
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
 /**
  * ProducerRegistry implementation.
  *
@@ -256,7 +269,11 @@ public String getIdentifier() {
                 public DataCell produceCellValue(final JSONReadAdapter source,
                     final ReadAdapterParams<JSONReadAdapter, JSONReaderConfig> params)
                     throws MappingException {
-                    return (DataCell)source.get(params);
+                    try {
+                        return (DataCell)coerce(source.get(params), m_type);
+                    } catch (IOException e) {
+                        throw new MappingException(e);
+                    }
                 }
             };
         }
@@ -362,7 +379,9 @@ public D produceCellValue(final JSONReadAdapter source,
                     throws MappingException {
                     final DataValue value = source.get(params);
                     try {
-                        return value == null ? null : m_converter.convert(value);
+                        // invalid JSON Lines are read as missing cells
+                        return value == null || value instanceof MissingValue ? null
+                            : m_converter.convert(coerce(value, m_sourceType));
                     } catch (Exception e) {
                         throw new MappingException(e);
                     }
@@ -400,6 +419,34 @@ private static void register(final Set<String> registered, final DataType source
         }
     }
 
+    /**
+     * Widens the value of a single file to the type of the column that was merged from the types of all files (see
+     * the type hierarchy of the extracted columns).
+     *
+     * @param value the read value, might be {@code null} or missing
+     * @param type the type of the column
+     * @return the value of the given type or the value itself if it already has that type (or is missing)
+     * @throws IOException if the JSON value could not be created
+     */
+    private static DataValue coerce(final DataValue value, final DataType type) throws IOException {
+        if (value == null || value instanceof MissingValue || type == null
+            || (value instanceof DataCell cell && cell.getType().equals(type))) {
+            return value;
+        }
+        if (LongCell.TYPE.equals(type) && value instanceof LongValue longValue) {
+            return new LongCell(longValue.getLongValue());
+        } else if (DoubleCell.TYPE.equals(type) && value instanceof DoubleValue doubleValue) {
+            return new DoubleCell(doubleValue.getDoubleValue());
+        } else if (StringCell.TYPE.equals(type) && !(value instanceof StringValue)) {
+            return new StringCell(value.toString());
+        } else if (JSONCell.TYPE.equals(type) && !(value instanceof JSONValue)) {
+            return JSONCellFactory.create(value instanceof StringValue stringValue
+                ? ('"' + new String(JsonStringEncoder.getInstance().quoteAsString(stringValue.getStringValue())) + '"')
+                : value.toString());
+        }
+        return value;
+    }
+
     private DataTypeProducerRegistry() {
         // singleton
     }
@@ -52,11 +52,13 @@
 import java.io.OutputStream;
 
 import org.knime.core.data.DataColumnSpec;
-import org.knime.core.data.json.JSONCellWriter;
-import org.knime.core.data.json.JSONCellWriterFactory;
 import org.knime.core.data.json.JSONValue;
 import org.knime.filehandling.core.defaultnodesettings.filechooser.writer.FileOverwritePolicy;
 import org.knime.filehandling.core.node.table.writer.AbstractMultiTableWriterCellFactory;
+import org.knime.json.node.util.StreamedJSONCells;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
  *
@@ -64,6 +66,9 @@
  */
 final class JSONMultiFileWriterCellFactory extends AbstractMultiTableWriterCellFactory<JSONValue> {
 
+    /** Creates the generators configured like the writer of the JSON cells. */
+    private static final ObjectMapper MAPPER = StreamedJSONCells.newMapper();
+
     /**
      * @param outputColumnsSpecs
      * @param sourceColumnIndex
@@ -74,10 +79,14 @@ final class JSONMultiFileWriterCellFactory extends AbstractMultiTableWriterCellF
         super(outputColumnsSpecs, sourceColumnIndex, overwritePolicy);
     }
 
+    /**
+     * The tokens of the text of the JSON value are copied to the file (see {@link StreamedJSONCells#writeValue}),
+     * instead of parsing it to a tree and serializing that again, formatted like the JSON cell writer does.
+     */
     @Override
     protected void writeFile(final OutputStream outputStream, final JSONValue value) throws IOException {
-        try (JSONCellWriter jsonCellWriter = JSONCellWriterFactory.getInstance().create(outputStream)) {
-            jsonCellWriter.write(value);
+        try (outputStream; JsonGenerator generator = MAPPER.createGenerator(outputStream)) {
+            StreamedJSONCells.writeValue(generator, value);
         }
     }
 
@@ -0,0 +1,121 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+
+package org.knime.core.data.json;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+/**
+ * Testcases for {@link JSONPathIndex}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class TestJSONPathIndex {
+
+    /**
+     * Every present path (and its prefixes) has to be reported as possibly present.
+     */
+    @Test
+    public void testPresentPaths() {
+        final JSONPathIndex index =
+            JSONPathIndex.create("{\"a\":{\"b\":[1,{\"c\":true}]},\"d\":null,\"e\":{}}");
+        assertTrue(index.hasObjectRoot());
+        assertTrue(index.mightContain(Collections.emptyList()));
+        assertTrue(index.mightContain(Arrays.asList("a")));
+        assertTrue(index.mightContain(Arrays.asList("a", "b")));
+        assertTrue(index.mightContain(Arrays.asList("a", "b", null)));
+        assertTrue(index.mightContain(Arrays.asList("a", "b", null, "c")));
+        assertTrue(index.mightContain(Arrays.asList("d")));
+        assertTrue(index.mightContainObject(Arrays.asList("a")));
+        assertTrue(index.mightContainObject(Arrays.asList("e")));
+        assertTrue(index.mightContainObject(Arrays.asList("a", "b", null)));
+    }
+
+    /**
+     * Absent paths are (with this small number of entries) reported as absent.
+     */
+    @Test
+    public void testAbsentPaths() {
+        final JSONPathIndex index = JSONPathIndex.create("{\"a\":{\"b\":[1,{\"c\":true}]},\"d\":null}");
+        assertFalse(index.mightContain(Arrays.asList("b")));
+        assertFalse(index.mightContain(Arrays.asList("a", "c")));
+        assertFalse(index.mightContain(Arrays.asList("a", "b", "c")));
+        assertFalse(index.mightContainObject(Arrays.asList("d")));
+        assertFalse(index.mightContainObject(Arrays.asList("a", "b")));
+        assertFalse(JSONPathIndex.create("[{\"a\":1}]").hasObjectRoot());
+        assertFalse(JSONPathIndex.create("[{\"a\":1}]").mightContain(Arrays.asList("a")));
+    }
+
+    /**
+     * Invalid JSON might contain anything.
+     */
+    @Test
+    public void testInvalid() {
+        final JSONPathIndex index = JSONPathIndex.create("{\"a\":");
+        assertFalse(index.hasObjectRoot());
+        assertTrue(index.mightContain(Arrays.asList("b")));
+    }
+
+    /**
+     * Cells are indexed from their text.
+     *
+     * @throws IOException Should not happen.
+     */
+    @Test
+    public void testCell() throws IOException {
+        final JSONPathIndex index = JSONPathIndex.of((JSONValue)JSONCellFactory.create("{\"a\":1}", false));
+        assertTrue(index.hasObjectRoot());
+        assertTrue(index.mightContain(Arrays.asList("a")));
+        assertFalse(index.mightContain(Arrays.asList("b")));
+    }
+}
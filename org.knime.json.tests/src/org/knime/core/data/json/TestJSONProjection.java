@@ -0,0 +1,129 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+
+package org.knime.core.data.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Testcases for {@link JSONProjection}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class TestJSONProjection {
+    private static final String DOCUMENT =
+        "{\"a\":{\"b\":[1,{\"c\":true}],\"x\":{\"y\":2}},\"d\":null,\"e\":5,\"f\":1.50}";
+
+    @SafeVarargs
+    private static JSONProjection projection(final List<String>... prefixes) {
+        return JSONProjection.of(Arrays.asList(prefixes)).get();
+    }
+
+    /**
+     * Only the objects on the prefixes and the values at their ends are kept.
+     *
+     * @throws IOException Should not happen.
+     */
+    @Test
+    public void testProjectText() throws IOException {
+        final JSONProjection projection = projection(Arrays.asList("a", "b"), Arrays.asList("f"));
+        assertEquals(JacksonConversions.getInstance().newMapper().readTree("{\"a\":{\"b\":[1,{\"c\":true}]},\"f\":1.50}"),
+            projection.project(DOCUMENT));
+    }
+
+    /**
+     * The projection of the text and of the parsed value are the same.
+     *
+     * @throws IOException Should not happen.
+     */
+    @Test
+    public void testProjectParsedValue() throws IOException {
+        final JSONProjection projection = projection(Arrays.asList("a", "x"), Arrays.asList("e"), Arrays.asList("z"));
+        final JSONValue parsed = (JSONValue)JSONCellFactory.create(DOCUMENT, true);
+        final JSONValue notParsed = (JSONValue)JSONCellFactory.create(DOCUMENT, false);
+        assertEquals(projection.project(DOCUMENT), projection.project(parsed));
+        assertEquals(projection.project(DOCUMENT), projection.project(notParsed));
+    }
+
+    /**
+     * Values that are not objects are kept completely, a shorter prefix keeps the whole subtree.
+     *
+     * @throws IOException Should not happen.
+     */
+    @Test
+    public void testNotObjects() throws IOException {
+        assertEquals("[1,2]", projection(Arrays.asList("a")).project("[1,2]").toString());
+        assertEquals("{\"e\":5}", projection(Arrays.asList("e", "g")).project(DOCUMENT).toString());
+        assertEquals("{\"a\":{\"b\":[1,{\"c\":true}],\"x\":{\"y\":2}}}",
+            projection(Arrays.asList("a", "b"), Arrays.asList("a")).project(DOCUMENT).toString());
+    }
+
+    /**
+     * No projection when the whole value is needed, the last result is reused for the same value.
+     *
+     * @throws IOException Should not happen.
+     */
+    @Test
+    public void testWholeAndCached() throws IOException {
+        assertFalse(JSONProjection.of(Collections.emptyList()).isPresent());
+        assertFalse(JSONProjection.of(Arrays.asList(Arrays.asList("a"), Collections.emptyList())).isPresent());
+        final JSONProjection projection = projection(Arrays.asList("a"));
+        final JSONValue value = (JSONValue)JSONCellFactory.create(DOCUMENT, false);
+        final JsonNode first = projection.project(value);
+        assertSame(first, projection.project(value));
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+
+package org.knime.json.node.filter;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+
+import org.junit.Test;
+import org.knime.json.node.filter.JSONRowFilterSettings.Operator;
+
+/**
+ * Tests for {@link StreamingJsonPredicate}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class StreamingJsonPredicateTest {
+    /**
+     * Tests equality on a definite JSONPath, the evaluation stops before the (invalid) rest of the input.
+     *
+     * @throws IOException Should not happen.
+     */
+    @Test
+    public void testDefinitePathStopsEarly() throws IOException {
+        final StreamingJsonPredicate predicate =
+            StreamingJsonPredicate.forJsonPath("$.level", Operator.EQUALS, "\"ERROR\"");
+        assertTrue(predicate.isStreaming());
+        assertTrue(predicate.test("{\"a\":{\"level\":1},\"level\":\"ERROR\", not json"));
+        assertFalse(predicate.test("{\"level\":\"INFO\", not json"));
+        assertFalse(predicate.test("{\"a\":1}"));
+    }
+
+    /**
+     * Tests that wildcards match when any selected value satisfies the condition.
+     *
+     * @throws IOException Should not happen.
+     */
+    @Test
+    public void testWildcard() throws IOException {
+        final StreamingJsonPredicate predicate =
+            StreamingJsonPredicate.forJsonPath("$.items[*].id", Operator.GREATER_THAN, "5");
+        assertTrue(predicate.test("{\"items\":[{\"id\":1,\"x\":[1,2]},{\"q\":{},\"id\":7}],\"z\":1}"));
+        assertFalse(predicate.test("{\"items\":[{\"id\":1,\"x\":[1,2]},{\"q\":{},\"id\":\"7\"}]}"));
+        assertFalse(predicate.test("{\"items\":[]}"));
+        final StreamingJsonPredicate nested = StreamingJsonPredicate.forJsonPath("$[*].a.b", Operator.EQUALS, "1");
+        assertTrue(nested.test("[{\"a\":{\"c\":[1],\"b\":2,\"d\":3}},{\"a\":{\"b\":1}}]"));
+    }
+
+    /**
+     * Tests JSON Pointers, including escapes and numeric comparison.
+     *
+     * @throws IOException Should not happen.
+     */
+    @Test
+    public void testPointer() throws IOException {
+        final StreamingJsonPredicate exists = StreamingJsonPredicate.forPointer("/a~1b/0", Operator.EXISTS, null);
+        assertTrue(exists.test("{\"a/b\":[null]}"));
+        assertFalse(exists.test("{\"a/b\":[]}"));
+        assertTrue(StreamingJsonPredicate.forPointer("/n", Operator.EQUALS, "1.0").test("{\"n\":1}"));
+        assertTrue(StreamingJsonPredicate.forPointer("/s", Operator.LESS_THAN, "b").test("{\"s\":\"a\"}"));
+        assertFalse(StreamingJsonPredicate.forPointer("/s", Operator.GREATER_THAN, "1").test("{\"s\":\"a\"}"));
+    }
+
+    /**
+     * Tests the fallback for JSONPaths not supported on the token stream.
+     *
+     * @throws IOException Should not happen.
+     */
+    @Test
+    public void testFallback() throws IOException {
+        final StreamingJsonPredicate predicate =
+            StreamingJsonPredicate.forJsonPath("$..level", Operator.EQUALS, "\"ERROR\"");
+        assertFalse(predicate.isStreaming());
+        assertTrue(predicate.test("{\"a\":{\"b\":[{\"level\":\"ERROR\"}]}}"));
+        assertFalse(predicate.test("{\"a\":{\"b\":[{\"level\":\"INFO\"}]}}"));
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+
+package org.knime.json.node.fromtable;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+import org.junit.Test;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.def.BooleanCell;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.data.json.JacksonConversions;
+import org.knime.core.util.JsonUtil;
+import org.knime.json.util.JSR353Util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsonp.JSONPModule;
+
+import jakarta.json.JsonObjectBuilder;
+
+/**
+ * Tests for {@link CompiledRowSerializer}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class CompiledRowSerializerTest {
+    private static final ObjectMapper MAPPER =
+        JacksonConversions.getInstance().newMapper().registerModule(new JSONPModule(JsonUtil.getProvider()));
+
+    private static final String[] COLUMNS = {"a.x", "a.y", "b", "c"};
+
+    private static final DataRow ROW = new DefaultRow("Row0", new StringCell("s"), new DoubleCell(1.5),
+        BooleanCell.TRUE, DataType.getMissingCell());
+
+    private static DataTableSpec spec() {
+        return new DataTableSpec(new DataColumnSpecCreator(COLUMNS[0], StringCell.TYPE).createSpec(),
+            new DataColumnSpecCreator(COLUMNS[1], DoubleCell.TYPE).createSpec(),
+            new DataColumnSpecCreator(COLUMNS[2], BooleanCell.TYPE).createSpec(),
+            new DataColumnSpecCreator(COLUMNS[3], IntCell.TYPE).createSpec());
+    }
+
+    private static String serialize(final CompiledRowSerializer serializer) throws IOException {
+        final StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = MAPPER.createGenerator(writer)) {
+            serializer.write(ROW, generator);
+        }
+        return writer.toString();
+    }
+
+    private static void add(final JsonObjectBuilder builder, final String key, final DataCell cell)
+        throws IOException {
+        JSR353Util.fromCell(key, cell, builder);
+    }
+
+    /**
+     * Column names as keys, missing values as {@code null}, the row key replaces the value with the same key.
+     *
+     * @throws IOException Should not happen.
+     */
+    @Test
+    public void testSimple() throws IOException {
+        final int[] indices = {0, 1, 2, 3};
+        final CompiledRowSerializer serializer =
+            new CompiledRowSerializer(MAPPER, COLUMNS, indices, null, false, false, "b");
+        final JsonObjectBuilder expected = JsonUtil.getProvider().createObjectBuilder();
+        for (int i = 0; i < COLUMNS.length; i++) {
+            add(expected, COLUMNS[i], ROW.getCell(i));
+        }
+        expected.add("b", "Row0");
+        assertEquals(MAPPER.writeValueAsString(expected.build()), serialize(serializer));
+    }
+
+    /**
+     * Hierarchical column names, omitted missing values, booleans as numbers and the row key as the last value.
+     *
+     * @throws IOException Should not happen.
+     */
+    @Test
+    public void testHierarchical() throws IOException {
+        final int[] indices = new int[COLUMNS.length];
+        final Map<String, List<String>> keys = new LinkedHashMap<>();
+        final SortedMap<List<String>, Integer> keysSplit = TableToJsonNodeModel.createListKeySortedMap();
+        final Map<String, Object> structure = new LinkedHashMap<>();
+        TableToJsonNodeModel.fillStructures(spec(), ".", COLUMNS, indices, keys, keysSplit, structure);
+        final CompiledRowSerializer serializer =
+            new CompiledRowSerializer(MAPPER, COLUMNS, indices, structure, true, true, "key");
+        final JsonObjectBuilder nested = JsonUtil.getProvider().createObjectBuilder();
+        add(nested, "x", ROW.getCell(0));
+        add(nested, "y", ROW.getCell(1));
+        final JsonObjectBuilder expected = JsonUtil.getProvider().createObjectBuilder().add("a", nested);
+        add(expected, "b", new IntCell(1));
+        expected.add("key", "Row0");
+        assertEquals(MAPPER.writeValueAsString(expected.build()), serialize(serializer));
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+
+package org.knime.json.node.fromtable;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Test;
+import org.knime.core.data.json.JacksonConversions;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Tests for {@link JsonArraySpill}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class JsonArraySpillTest {
+    private static final ObjectMapper MAPPER = JacksonConversions.getInstance().newMapper()
+        .configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false)
+        .configure(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT, false);
+
+    /**
+     * The spilled arrays are pretty printed the same way as the whole value.
+     *
+     * @throws IOException Should not happen.
+     */
+    @Test
+    public void testSameAsWholeValue() throws IOException {
+        final JsonNode expected = MAPPER.readTree("{\"a\": [1, {\"b\": [2, {\"c\": null}]}, \"x\"],"
+            + " \"n\": {\"e\": [], \"f\": [{\"g\": 1.5}, [true]]}}");
+        final File dir = Files.createTempDirectory("spill").toFile();
+        try (JsonArraySpill a = new JsonArraySpill(MAPPER, new File(dir, "a.json"), 1);
+                JsonArraySpill e = new JsonArraySpill(MAPPER, new File(dir, "e.json"), 2);
+                JsonArraySpill f = new JsonArraySpill(MAPPER, new File(dir, "f.json"), 2)) {
+            for (JsonNode element : expected.get("a")) {
+                a.write(element);
+            }
+            for (JsonNode element : expected.get("n").get("f")) {
+                f.write(element);
+            }
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (JsonGenerator generator = MAPPER.createGenerator(out)) {
+                generator.writeStartObject();
+                generator.writeFieldName("a");
+                a.transferTo(generator, out);
+                generator.writeFieldName("n");
+                generator.writeStartObject();
+                generator.writeFieldName("e");
+                e.transferTo(generator, out);
+                generator.writeFieldName("f");
+                f.transferTo(generator, out);
+                generator.writeEndObject();
+                generator.writeEndObject();
+            }
+            assertEquals(MAPPER.writeValueAsString(expected), new String(out.toByteArray(), StandardCharsets.UTF_8));
+        } finally {
+            for (File file : dir.listFiles()) {
+                Files.delete(file.toPath());
+            }
+            Files.delete(dir.toPath());
+        }
+    }
+}
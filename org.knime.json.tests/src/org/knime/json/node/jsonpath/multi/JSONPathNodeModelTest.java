@@ -0,0 +1,126 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+
+package org.knime.json.node.jsonpath.multi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+
+import org.junit.Test;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.MissingValue;
+import org.knime.core.data.container.CellFactory;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.json.JSONCell;
+import org.knime.core.data.json.JSONCellFactory;
+import org.knime.core.data.json.JSONPathIndex;
+import org.knime.core.data.json.JSONValue;
+import org.knime.json.util.OutputType;
+
+/**
+ * Testcases for the cells created by {@link JSONPathNodeModel}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class JSONPathNodeModelTest {
+
+    /**
+     * Values without the first key of the path get the error message of the JSONPath implementation.
+     *
+     * @throws IOException Should not happen.
+     */
+    @Test
+    public void testMissingPropertyMessage() throws IOException {
+        final CellFactory factory = createFactory("$.a.b");
+        assertEquals("Missing property in path $['a']", error(factory, json("{\"x\":1}")));
+        assertEquals("Missing property in path $['a']", error(factory, json("{\"y\":[1,2]}")));
+        // other misses are left to the JSONPath implementation
+        assertTrue(error(factory, json("{\"a\":\"s\"}"))
+            .startsWith("Expected to find an object with property ['b'] in path $['a']"));
+    }
+
+    /**
+     * The results are the same once the {@link JSONPathIndex} is used for a sparse path.
+     *
+     * @throws IOException Should not happen.
+     */
+    @Test
+    public void testSparsePath() throws IOException {
+        final CellFactory factory = createFactory("$.a");
+        for (int i = 0; i < 200; i++) {
+            assertEquals("Missing property in path $['a']", error(factory, json("{\"x\":" + i + "}")));
+            if (i % 10 == 0) {
+                final DataCell cell =
+                    factory.getCells(new DefaultRow("Row0", (DataCell)json("{\"a\":{\"b\":1}}")))[0];
+                assertEquals(1, ((JSONValue)cell).getJsonValue().asJsonObject().getInt("b"));
+            }
+        }
+        // not an object, so not skipped by the index
+        assertTrue(factory.getCells(new DefaultRow("Row0", (DataCell)json("[1]")))[0].isMissing());
+    }
+
+    private static CellFactory createFactory(final String path) {
+        final SingleSetting setting = new SingleSetting();
+        setting.setJsonPath(path);
+        setting.setResultIsList(false);
+        setting.setReturnType(OutputType.Json);
+        return new JSONPathNodeModel().createCellFactory(setting,
+            new DataColumnSpecCreator("result", JSONCell.TYPE).createSpec(), 0);
+    }
+
+    private static JSONValue json(final String json) throws IOException {
+        return (JSONValue)JSONCellFactory.create(json, false);
+    }
+
+    private static String error(final CellFactory factory, final JSONValue value) {
+        final DataCell cell = factory.getCells(new DefaultRow("Row0", (DataCell)value))[0];
+        assertTrue(cell.isMissing());
+        return ((MissingValue)cell).getError();
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+
+package org.knime.json.node.jsonpath.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.TreeSet;
+
+import org.junit.Test;
+import org.knime.json.node.jsonpath.util.PathTrie.Path;
+
+/**
+ * Tests for {@link PathTrie}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class PathTrieTest {
+    /**
+     * Interning the same path twice gives the same instance, its string form is the canonical path.
+     */
+    @Test
+    public void testIntern() {
+        final PathTrie trie = new PathTrie();
+        final Path path = trie.intern("$['store']['book'][0]['isbn']");
+        assertSame(path, trie.intern("$['store']['book'][0]['isbn']"));
+        assertSame(trie.root(), trie.intern("$"));
+        assertEquals("$['store']['book'][0]['isbn']", path.toString());
+        assertEquals("$", trie.root().toString());
+        assertEquals(4, path.getDepth());
+        assertEquals(5, trie.size());
+        assertEquals(Arrays.asList("store", "book"), path.getLeadingKeys());
+    }
+
+    /**
+     * Commas in keys are escaped in the string form.
+     */
+    @Test
+    public void testEscapedCommas() {
+        final Path path = new PathTrie().intern("$['a,b'][1]");
+        assertEquals("a,b", path.getParent().getKey());
+        assertEquals(JsonPathUtils.escapeCommas("$['a,b'][1]"), path.toString());
+    }
+
+    /**
+     * Keys are parsed as JSONPath steps, so they can contain brackets.
+     */
+    @Test
+    public void testBracketsInKeys() {
+        final PathTrie trie = new PathTrie();
+        final Path path = trie.intern("$['x][y']['z']");
+        assertEquals("x][y", path.getParent().getKey());
+        assertEquals(2, path.getDepth());
+        assertSame(path, trie.intern("$['x][y']").key("z"));
+        assertEquals(3, trie.size());
+    }
+
+    /**
+     * The order is the same as of {@link SimplePathParser.Path}.
+     */
+    @Test
+    public void testOrder() {
+        final PathTrie trie = new PathTrie();
+        final String[] paths = {"$['b']", "$[2]", "$['a'][10]", "$['a']", "$[*]", "$['a'][2]", "$['a']['z']"};
+        final TreeSet<Path> interned = new TreeSet<>();
+        final TreeSet<SimplePathParser.Path> parsed = new TreeSet<>();
+        for (final String path : paths) {
+            interned.add(trie.intern(path));
+            parsed.add(new SimplePathParser.Path(path));
+        }
+        assertEquals(parsed.toString(), interned.toString());
+    }
+
+    /**
+     * Star replacements and prefix checks.
+     */
+    @Test
+    public void testStarsAndPrefixes() {
+        final PathTrie trie = new PathTrie();
+        final Path path = trie.intern("$['a'][1]['b'][2]['c']");
+        assertSame(trie.intern("$['a'][1]['b'][*]['c']"), path.lastIndexToStar());
+        assertSame(trie.intern("$['a'][1]['b'][*]"), path.getParent().replaceLastWithStar());
+        assertTrue(path.getParent().replaceLastWithStar().isStar());
+        assertTrue(path.startsWith(trie.intern("$['a'][1]")));
+        assertTrue(path.startsWith(trie.root()));
+        assertFalse(path.startsWith(trie.intern("$['a'][0]")));
+        assertFalse(trie.intern("$['a']").startsWith(path));
+    }
+}
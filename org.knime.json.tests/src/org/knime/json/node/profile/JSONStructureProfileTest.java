@@ -0,0 +1,152 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+
+package org.knime.json.node.profile;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.knime.core.data.json.JacksonConversions;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.ModelContent;
+import org.knime.json.node.jsonpath.util.OutputKind;
+import org.knime.json.node.profile.JSONStructureProfile.KindVariant;
+import org.knime.json.node.profile.JSONStructureProfile.PathProfile;
+import org.knime.json.util.OutputType;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Tests for {@link JSONStructureProfile}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class JSONStructureProfileTest {
+    private static final ObjectMapper MAPPER = JacksonConversions.getInstance().newMapper();
+
+    private static JSONStructureProfile profile(final String... documents) throws IOException {
+        final JSONStructureProfile profile = new JSONStructureProfile();
+        for (final String document : documents) {
+            profile.update(MAPPER.readTree(document));
+        }
+        return profile;
+    }
+
+    private static List<String> describe(final JSONStructureProfile profile) {
+        final List<String> ret = new ArrayList<>();
+        for (final PathProfile path : profile.getPaths()) {
+            final OutputKind kind = path.getValues().getKind(KindVariant.COLLECTIONS);
+            ret.add(path.getPath() + " " + path.getCount() + "/" + path.getLeaves().getCount() + " "
+                + (kind.isSingle() ? "" : "List:") + kind.getType() + " " + path.getMinLength() + ".."
+                + path.getMaxLength());
+        }
+        return ret;
+    }
+
+    /**
+     * Paths are in {@code $..*} order, with the number of documents, the merged kinds and the array lengths.
+     *
+     * @throws IOException Should not happen.
+     */
+    @Test
+    public void testUpdate() throws IOException {
+        final JSONStructureProfile profile = profile("{\"a\":[1,2,3],\"b\":{\"c\":\"x\"}}", "{\"a\":[5],\"d\":null}");
+        assertEquals(2, profile.getDocumentCount());
+        assertEquals(List.of("$['a'] 2/0 List:Integer 1..3", "$['b'] 1/0 Json -1..-1", "$['a'][*] 4/4 Integer -1..-1",
+            "$['b']['c'] 1/1 String -1..-1", "$['d'] 1/1 null -1..-1"), describe(profile));
+        assertEquals(new OutputKind(true, OutputType.Json),
+            profile.getRoot().getValues().getKind(KindVariant.COLLECTIONS));
+        assertEquals(new OutputKind(true, OutputType.Json),
+            profile.getPaths().iterator().next().getValues().getKind(KindVariant.ARRAYS_AS_JSON));
+    }
+
+    /**
+     * The elements of the arrays share their paths, so the profile does not grow with the length of the arrays.
+     *
+     * @throws IOException Should not happen.
+     */
+    @Test
+    public void testLongArrays() throws IOException {
+        final StringBuilder document = new StringBuilder("{\"a\":[");
+        for (int i = 0; i < 1000; i++) {
+            document.append(i == 0 ? "" : ",").append("{\"x\":").append(i).append(",\"y\":[");
+            for (int j = 0; j < i % 3; j++) {
+                document.append(j == 0 ? "" : ",").append(i);
+            }
+            document.append("]}");
+        }
+        final JSONStructureProfile profile = profile(document.append("]}").toString());
+        assertEquals(List.of("$['a'] 1/0 List:Json 1000..1000", "$['a'][*] 1000/0 Json -1..-1",
+            "$['a'][*]['x'] 1000/1000 Integer -1..-1", "$['a'][*]['y'] 1000/334 List:Integer 0..2",
+            "$['a'][*]['y'][*] 999/999 Integer -1..-1"), describe(profile));
+        assertEquals(6, profile.getTrie().size());
+    }
+
+    /**
+     * The profile can be saved and loaded.
+     *
+     * @throws IOException Should not happen.
+     * @throws InvalidSettingsException Should not happen.
+     */
+    @Test
+    public void testSaveLoad() throws IOException, InvalidSettingsException {
+        final JSONStructureProfile profile =
+            profile("{\"a,]['b\":[{\"x\":1},[true]],\"c\":{}}", "[\"s\",{\"y\":[]}]", "3");
+        final ModelContent content = new ModelContent("profile");
+        profile.save(content);
+        final JSONStructureProfile loaded = JSONStructureProfile.load(content);
+        assertEquals(profile.getDocumentCount(), loaded.getDocumentCount());
+        assertEquals(describe(profile), describe(loaded));
+        final List<Long> sequences = new ArrayList<>(), loadedSequences = new ArrayList<>();
+        profile.getPaths().forEach(p -> sequences.add(p.getSequence() * 31 + p.getLeafSequence()));
+        loaded.getPaths().forEach(p -> loadedSequences.add(p.getSequence() * 31 + p.getLeafSequence()));
+        assertEquals(sequences, loadedSequences);
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+
+package org.knime.json.node.tojson;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.DoubleValue;
+import org.knime.core.data.LongValue;
+import org.knime.core.data.StringValue;
+import org.knime.core.data.collection.CollectionCellFactory;
+import org.knime.core.data.collection.CollectionDataValue;
+import org.knime.core.data.collection.ListCell;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.LongCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.data.json.JSONCellFactory;
+import org.knime.core.data.json.JSONValue;
+import org.knime.core.data.json.JacksonConversions;
+import org.knime.core.data.vector.bytevector.ByteVectorValue;
+import org.knime.core.data.vector.bytevector.DenseByteVectorCell;
+import org.knime.core.data.vector.bytevector.DenseByteVectorCellFactory;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.util.filter.NameFilterConfiguration.EnforceOption;
+import org.knime.json.node.jsonpath.util.JsonPathUtils;
+import org.knime.json.util.RootKeyType;
+
+import com.fasterxml.jackson.core.Base64Variants;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.fge.jackson.JacksonUtils;
+
+import jakarta.json.JsonObject;
+
+/**
+ * Tests for {@link ColumnsToJsonCellFactory}, comparing its output with the conversion of a Jackson tree to JSR-353
+ * used before.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class ColumnsToJsonCellFactoryTest {
+    private static final JsonNodeFactory JSON_FACTORY = JacksonUtils.nodeFactory();
+
+    private static final String[] COLUMNS = {"d", "s", "i", "v", "l"};
+
+    /** The keys of the columns, {@code x} is used twice. */
+    private static final String[] KEYS = {"x", "y", "x", "bytes", "list"};
+
+    private static final double[] DOUBLES =
+        {0.1, 1e20, 1e-7, 100.0, -0.0, 3.0, 123456789.123, Double.MAX_VALUE, Double.MIN_VALUE};
+
+    private static DataTableSpec spec() {
+        return new DataTableSpec(new DataColumnSpecCreator(COLUMNS[0], DoubleCell.TYPE).createSpec(),
+            new DataColumnSpecCreator(COLUMNS[1], StringCell.TYPE).createSpec(),
+            new DataColumnSpecCreator(COLUMNS[2], LongCell.TYPE).createSpec(),
+            new DataColumnSpecCreator(COLUMNS[3], DenseByteVectorCell.TYPE).createSpec(),
+            new DataColumnSpecCreator(COLUMNS[4], ListCell.getCollectionType(DoubleCell.TYPE)).createSpec());
+    }
+
+    private static ColumnsToJsonSettings settings() {
+        final ColumnsToJsonSettings settings = new ColumnsToJsonSettings();
+        settings.setRootKeyType(RootKeyType.Unnamed);
+        settings.setOutputColumnName("json");
+        settings.setDataBoundKeyNames(KEYS);
+        settings.setDataBoundKeyColumns(COLUMNS);
+        settings.getDataBoundColumnsAutoConfiguration().loadDefaults(new String[0], COLUMNS,
+            EnforceOption.EnforceInclusion);
+        // replaces the value of the column s
+        settings.setKeyNames(new String[]{"y"});
+        settings.setKeyValues(new String[]{"constant"});
+        return settings;
+    }
+
+    private static List<DataRow> rows() {
+        final List<DataRow> rows = new ArrayList<>();
+        for (int i = 0; i < DOUBLES.length; i++) {
+            final DenseByteVectorCellFactory bytes = new DenseByteVectorCellFactory(i + 1);
+            for (int j = 0; j <= i; j++) {
+                bytes.setValue(j, (j * 37 + i) % 256);
+            }
+            final List<DataCell> list = new ArrayList<>();
+            list.add(new DoubleCell(DOUBLES[i]));
+            list.add(DataType.getMissingCell());
+            list.add(new DoubleCell(DOUBLES[DOUBLES.length - 1 - i]));
+            rows.add(new DefaultRow("Row" + i, new DoubleCell(DOUBLES[i]), new StringCell("s" + i),
+                i == 0 ? DataType.getMissingCell() : new LongCell(Long.MAX_VALUE - i), bytes.createDataCell(),
+                CollectionCellFactory.createListCell(list)));
+        }
+        return rows;
+    }
+
+    /**
+     * The output of the conversion used before: the values set in an {@link ObjectNode} converted to JSR-353.
+     */
+    private static JSONValue expected(final DataRow row) throws IOException {
+        final ObjectNode json = JSON_FACTORY.objectNode();
+        for (int i = 0; i < COLUMNS.length; i++) {
+            final DataCell cell = row.getCell(i);
+            if (cell.isMissing()) {
+                json.set(KEYS[i], JSON_FACTORY.nullNode());
+            } else if (cell instanceof CollectionDataValue cdv) {
+                final ArrayNode array = json.putArray(KEYS[i]);
+                for (final DataCell element : cdv) {
+                    if (element.isMissing()) {
+                        array.addNull();
+                    } else {
+                        array.add(((DoubleValue)element).getDoubleValue());
+                    }
+                }
+            } else if (cell instanceof ByteVectorValue bvv) {
+                json.put(KEYS[i], JsonPathUtils.toBytes(bvv));
+            } else if (cell instanceof LongValue lv) {
+                json.put(KEYS[i], lv.getLongValue());
+            } else if (cell instanceof DoubleValue dv) {
+                json.put(KEYS[i], dv.getDoubleValue());
+            } else {
+                json.put(KEYS[i], ((StringValue)cell).getStringValue());
+            }
+        }
+        json.put("y", "constant");
+        return (JSONValue)JSONCellFactory.create(JacksonConversions.getInstance().toJSR353(json));
+    }
+
+    /**
+     * Duplicate keys, doubles and binaries give the same JSON values as before.
+     *
+     * @throws IOException Should not happen.
+     * @throws InvalidSettingsException Should not happen.
+     */
+    @Test
+    public void testSameAsTree() throws IOException, InvalidSettingsException {
+        final ColumnsToJsonCellFactory factory = new ColumnsToJsonCellFactory(spec(), settings());
+        for (final DataRow row : rows()) {
+            final JsonObject actual = ((JSONValue)factory.getCell(row)).getJsonValue().asJsonObject();
+            assertEquals(row.getKey().getString(), expected(row).getJsonValue(), actual);
+            // the x key keeps the position of its first occurrence
+            assertEquals(List.of("x", "y", "bytes", "list"), new ArrayList<>(actual.keySet()));
+            // binaries are Base64 encoded the same way as by JSR353Util
+            final byte[] bytes = JsonPathUtils.toBytes((ByteVectorValue)row.getCell(3));
+            assertEquals(Base64Variants.getDefaultVariant().encode(bytes), actual.getString("bytes"));
+        }
+    }
+
+    /**
+     * Rows processed concurrently give the same cells as processed one by one.
+     *
+     * @throws InvalidSettingsException Should not happen.
+     */
+    @Test
+    public void testConcurrent() throws InvalidSettingsException {
+        final ColumnsToJsonCellFactory factory = new ColumnsToJsonCellFactory(spec(), settings());
+        final List<DataRow> rows = rows();
+        final List<String> sequential = rows.stream().map(row -> factory.getCell(row).toString())
+            .collect(Collectors.toList());
+        for (int repeat = 0; repeat < 10; repeat++) {
+            assertEquals(sequential, IntStream.range(0, rows.size()).parallel()
+                .mapToObj(i -> factory.getCell(rows.get(i)).toString()).collect(Collectors.toList()));
+        }
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+
+package org.knime.json.node.totable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+import org.knime.core.data.BooleanValue;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DoubleValue;
+import org.knime.core.data.IntValue;
+import org.knime.core.data.MissingCell;
+import org.knime.core.data.StringValue;
+import org.knime.core.data.collection.CollectionDataValue;
+import org.knime.core.data.json.JSONCellFactory;
+import org.knime.core.data.json.JSONValue;
+import org.knime.json.node.jsonpath.util.OutputKind;
+import org.knime.json.node.jsonpath.util.PathTrie.Path;
+import org.knime.json.node.totable.CompiledColumns.Unmatched;
+
+/**
+ * Tests for {@link CompiledColumns}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class CompiledColumnsTest {
+    private static JSONValue json(final String document) throws IOException {
+        return (JSONValue)JSONCellFactory.create(document, false);
+    }
+
+    private static Map<Path, OutputKind> kinds(final ArrayHandling arrayHandling, final String... documents)
+        throws IOException {
+        final JSONToTableSettings settings = new JSONToTableSettings();
+        settings.setExpansion(Expansion.OnlyLeaves);
+        settings.setArrayHandling(arrayHandling);
+        final SchemaInference inference = new SchemaInference(settings, warning -> {});
+        for (final String document : documents) {
+            inference.update(json(document));
+        }
+        return inference.getKinds();
+    }
+
+    /**
+     * The values found by the walk, and the missing values with the JSONPath errors.
+     *
+     * @throws IOException Should not happen.
+     */
+    @Test
+    public void testLeaves() throws IOException {
+        final String first = "{\"a\":{\"b\":[1,{\"c\":true}]},\"d\":null,\"e\":5}";
+        final CompiledColumns columns = new CompiledColumns(
+            kinds(ArrayHandling.GenerateColumns, first, "{\"a\":{\"b\":[3]},\"e\":1.5,\"g\":\"s\"}"), false,
+            Unmatched.IGNORE);
+        final DataCell[] cells = columns.getCells(json(first));
+        // $['d'], $['e'], $['a']['b'][0], $['a']['b'][1]['c'], $['g']
+        assertEquals(5, cells.length);
+        assertEquals(5.0, ((DoubleValue)cells[1]).getDoubleValue(), 0);
+        assertEquals(1, ((IntValue)cells[2]).getIntValue());
+        assertTrue(((BooleanValue)cells[3]).getBooleanValue());
+        assertEquals("No results for path: $['g']", ((MissingCell)cells[4]).getError());
+
+        final DataCell[] other = columns.getCells(json("{\"a\":{\"b\":7},\"e\":2}"));
+        assertTrue(other[2].isMissing());
+        assertTrue(other[3].isMissing());
+        assertEquals(2.0, ((DoubleValue)other[1]).getDoubleValue(), 0);
+    }
+
+    /**
+     * Arrays are collected to collection cells.
+     *
+     * @throws IOException Should not happen.
+     */
+    @Test
+    public void testCollections() throws IOException {
+        final CompiledColumns columns =
+            new CompiledColumns(kinds(ArrayHandling.GenerateCollectionCells, "{\"a\":[1,2,3],\"b\":\"x\"}"), false,
+                Unmatched.IGNORE);
+        final DataCell[] cells = columns.getCells(json("{\"a\":[4,5],\"b\":\"y\"}"));
+        assertEquals(2, ((CollectionDataValue)cells[0]).size());
+        assertEquals("y", ((StringValue)cells[1]).getStringValue());
+        assertEquals(0, ((CollectionDataValue)columns.getCells(json("{\"a\":[]}"))[0]).size());
+    }
+
+    /**
+     * The values not covered by the columns are collected by their paths.
+     *
+     * @throws IOException Should not happen.
+     */
+    @Test
+    public void testUnmatched() throws IOException {
+        final CompiledColumns columns = new CompiledColumns(
+            kinds(ArrayHandling.GenerateCollectionCells, "{\"a\":1,\"b\":{\"c\":2}}"), false,
+            Unmatched.COLLECT);
+        final DataCell[] cells = columns.getCells(json("{\"a\":3,\"b\":{\"c\":4,\"d\":5},\"e\":[1],\"f\":null}"));
+        assertEquals(3, cells.length);
+        assertEquals(4, ((IntValue)cells[1]).getIntValue());
+        assertEquals(Set.of("$['b']['d']", "$['e']"),
+            ((JSONValue)cells[2]).getJsonValue().asJsonObject().keySet());
+        assertTrue(columns.getCells(json("{\"a\":3,\"b\":{}}"))[2].isMissing());
+    }
+
+    /**
+     * Without an unmatched column, the values not covered by the columns are only detected.
+     *
+     * @throws IOException Should not happen.
+     */
+    @Test
+    public void testDetectUnmatched() throws IOException {
+        final CompiledColumns columns = new CompiledColumns(
+            kinds(ArrayHandling.GenerateCollectionCells, "{\"a\":1,\"b\":{\"c\":2}}"), false, Unmatched.DETECT);
+        final DataCell[] cells = columns.getCells(json("{\"a\":3,\"b\":{\"c\":4,\"d\":5},\"f\":null}"));
+        assertEquals(3, cells.length);
+        assertTrue(((BooleanValue)cells[2]).getBooleanValue());
+        assertTrue(columns.getCells(json("{\"a\":3,\"b\":{},\"f\":null}"))[2].isMissing());
+    }
+
+    /**
+     * The missing values have the error of the first missing key, also when the result for objects without the
+     * first key is reused.
+     *
+     * @throws IOException Should not happen.
+     */
+    @Test
+    public void testMissingKeys() throws IOException {
+        final CompiledColumns columns =
+            new CompiledColumns(kinds(ArrayHandling.GenerateColumns, "{\"a\":{\"b\":1}}"), false, Unmatched.IGNORE);
+        assertEquals(2, ((IntValue)columns.getCells(json("{\"a\":{\"b\":2}}"))[0]).getIntValue());
+
+        assertEquals("No results for path: $['a']['b']",
+            ((MissingCell)columns.getCells(json("{\"a\":{}}"))[0]).getError());
+        assertEquals("Missing property in path $['a']",
+            ((MissingCell)columns.getCells(json("{\"e\":2}"))[0]).getError());
+
+        assertEquals("Missing property in path $['a']",
+            ((MissingCell)columns.getCells(json("{\"e\":3}"))[0]).getError());
+        assertEquals(2, ((IntValue)columns.getCells(json("{\"a\":{\"b\":2}}"))[0]).getIntValue());
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+
+package org.knime.json.node.totable;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Random;
+
+import org.junit.Test;
+import org.knime.core.data.json.JSONCellFactory;
+import org.knime.core.data.json.JSONValue;
+import org.knime.json.node.jsonpath.util.OutputKind;
+import org.knime.json.node.jsonpath.util.PathTrie.Path;
+
+/**
+ * Tests for {@link ParallelSchemaInference}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class ParallelSchemaInferenceTest {
+    private static final String[] VALUES = {"1", "2.5", "12345678901", "\"s\"", "true", "null", "{}", "[]"};
+
+    private static List<JSONValue> documents(final int count) throws IOException {
+        final Random random = new Random(42);
+        final List<JSONValue> ret = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final StringBuilder sb = new StringBuilder("{");
+            final int fields = 1 + random.nextInt(4);
+            for (int f = 0; f < fields; f++) {
+                if (f > 0) {
+                    sb.append(',');
+                }
+                sb.append("\"k").append(random.nextInt(12)).append("\":");
+                switch (random.nextInt(3)) {
+                    case 0:
+                        sb.append(VALUES[random.nextInt(VALUES.length)]);
+                        break;
+                    case 1:
+                        sb.append('[').append(VALUES[random.nextInt(VALUES.length)]).append(',')
+                            .append(VALUES[random.nextInt(VALUES.length)]).append(']');
+                        break;
+                    default:
+                        sb.append("{\"n").append(random.nextInt(3)).append("\":")
+                            .append(VALUES[random.nextInt(VALUES.length)]).append('}');
+                }
+            }
+            ret.add((JSONValue)JSONCellFactory.create(sb.append('}').toString(), false));
+        }
+        return ret;
+    }
+
+    private static List<String> infer(final JSONToTableSettings settings, final List<JSONValue> documents,
+        final int workers) throws IOException {
+        final ParallelSchemaInference inference =
+            new ParallelSchemaInference(new SchemaInference(settings, warning -> {}), workers);
+        for (final JSONValue document : documents) {
+            inference.add(document);
+        }
+        final List<String> ret = new ArrayList<>();
+        for (final Entry<Path, OutputKind> entry : inference.finish().getKinds().entrySet()) {
+            ret.add(entry.getKey() + "=" + entry.getValue());
+        }
+        return ret;
+    }
+
+    /**
+     * The parallel inference gives the same columns in the same order as the sequential one.
+     *
+     * @throws IOException Should not happen.
+     */
+    @Test
+    public void testSameAsSequential() throws IOException {
+        final List<JSONValue> documents = documents(10 * ParallelSchemaInference.CHUNK_SIZE + 17);
+        for (final ArrayHandling arrayHandling : ArrayHandling.values()) {
+            for (final Expansion expansion : Expansion.values()) {
+                final JSONToTableSettings settings = new JSONToTableSettings();
+                settings.setArrayHandling(arrayHandling);
+                settings.setExpansion(expansion);
+                final List<String> sequential = infer(settings, documents, 1);
+                assertEquals(arrayHandling + ", " + expansion, sequential, infer(settings, documents, 4));
+                assertEquals(arrayHandling + ", " + expansion, sequential, infer(settings, documents, 16));
+            }
+        }
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+
+package org.knime.json.node.totable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.junit.Test;
+import org.knime.core.data.json.JSONCellFactory;
+import org.knime.core.data.json.JSONValue;
+import org.knime.core.data.json.JacksonConversions;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.json.node.jsonpath.util.OutputKind;
+import org.knime.json.node.jsonpath.util.PathTrie;
+import org.knime.json.node.jsonpath.util.PathTrie.Path;
+import org.knime.json.node.profile.JSONStructureProfile;
+import org.knime.json.util.OutputType;
+
+/**
+ * Tests for {@link SchemaInference}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class SchemaInferenceTest {
+    private static List<String> infer(final JSONToTableSettings settings, final String... documents)
+        throws IOException {
+        final SchemaInference inference = new SchemaInference(settings, warning -> {});
+        for (final String document : documents) {
+            inference.update((JSONValue)JSONCellFactory.create(document, false));
+        }
+        return toStrings(inference.getKinds());
+    }
+
+    private static List<String> toStrings(final Map<Path, OutputKind> kinds) {
+        final List<String> ret = new ArrayList<>();
+        for (final Entry<Path, OutputKind> entry : kinds.entrySet()) {
+            ret.add(entry.getKey() + "=" + (entry.getValue().isSingle() ? "" : "List:") + entry.getValue().getType());
+        }
+        return ret;
+    }
+
+    /**
+     * Leaves are found in the order of the {@code $..*} query, types are merged over the documents.
+     *
+     * @throws IOException Should not happen.
+     */
+    @Test
+    public void testLeaves() throws IOException {
+        final JSONToTableSettings settings = new JSONToTableSettings();
+        settings.setExpansion(Expansion.OnlyLeaves);
+        settings.setArrayHandling(ArrayHandling.GenerateColumns);
+        assertEquals(
+            List.of("$['d']=null", "$['e']=Double", "$['a']['b'][0]=Integer", "$['a']['b'][1]['c']=Boolean",
+                "$['a']['x']['y']=Integer", "$['g']=String"),
+            infer(settings, "{\"a\":{\"b\":[1,{\"c\":true}],\"x\":{\"y\":2}},\"d\":null,\"e\":5}",
+                "{\"a\":{\"b\":[3]},\"e\":1.5,\"g\":\"s\"}"));
+    }
+
+    /**
+     * Arrays are collected to a single column.
+     *
+     * @throws IOException Should not happen.
+     */
+    @Test
+    public void testCollections() throws IOException {
+        final JSONToTableSettings settings = new JSONToTableSettings();
+        settings.setExpansion(Expansion.OnlyLeaves);
+        settings.setArrayHandling(ArrayHandling.GenerateCollectionCells);
+        assertEquals(List.of("$['a'][*]=List:Integer", "$['b']=String"),
+            infer(settings, "{\"a\":[1,2,3],\"b\":\"x\"}", "{\"a\":[4]}"));
+    }
+
+    /**
+     * Documents without children give the root column.
+     *
+     * @throws IOException Should not happen.
+     */
+    @Test
+    public void testRoot() throws IOException {
+        final Map<Path, OutputKind> kinds;
+        final SchemaInference inference = new SchemaInference(new JSONToTableSettings(), warning -> {});
+        inference.update((JSONValue)JSONCellFactory.create("{}", false));
+        kinds = inference.getKinds();
+        assertEquals(1, kinds.size());
+        final Entry<Path, OutputKind> root = kinds.entrySet().iterator().next();
+        assertEquals("$", root.getKey().toString());
+        assertEquals(OutputType.Json, root.getValue().getType());
+    }
+
+    /**
+     * The inferred columns can be fixed in the settings.
+     *
+     * @throws IOException Should not happen.
+     * @throws InvalidSettingsException Should not happen.
+     */
+    @Test
+    public void testFixedColumns() throws IOException, InvalidSettingsException {
+        final JSONToTableSettings settings = new JSONToTableSettings();
+        final SchemaInference inference = new SchemaInference(settings, warning -> {});
+        inference.update((JSONValue)JSONCellFactory.create("{\"a,b\":[1,2],\"c\":{\"d\":null,\"e\":\"x\"}}", false));
+        final Map<Path, OutputKind> kinds = inference.getKinds();
+        settings.setFixedColumns(kinds);
+        final Map<Path, OutputKind> fixed = settings.getFixedColumns(new PathTrie());
+        assertEquals(kinds.toString(), fixed.toString());
+        assertEquals(new ArrayList<>(kinds.values()), new ArrayList<>(fixed.values()));
+    }
+
+    private static JSONStructureProfile profile(final String... documents) throws IOException {
+        final JSONStructureProfile profile = new JSONStructureProfile();
+        for (final String document : documents) {
+            profile.update(JacksonConversions.getInstance().newMapper().readTree(document));
+        }
+        return profile;
+    }
+
+    /**
+     * The columns derived from a structure profile are the same as the inferred ones for every setting when the
+     * elements of the arrays have the same structure.
+     *
+     * @throws IOException Should not happen.
+     */
+    @Test
+    public void testProfile() throws IOException {
+        final String[] documents =
+            {"{\"a\":{\"b\":[{\"c\":true},{\"c\":false}],\"x\":{\"y\":2}},\"d\":null,\"e\":5}",
+                "{\"a\":{\"b\":[{\"c\":true}]},\"e\":1.5,\"g\":\"s\"}", "[[1,2],[3,4]]", "{}", "2"};
+        final JSONStructureProfile profile = profile(documents);
+        final JSONToTableSettings settings = new JSONToTableSettings();
+        for (final ArrayHandling arrayHandling : ArrayHandling.values()) {
+            for (final Expansion expansion : Expansion.values()) {
+                for (final boolean omitNestedObjects : new boolean[]{false, true}) {
+                    for (int upTo = 1; upTo <= 3; upTo++) {
+                        settings.setArrayHandling(arrayHandling);
+                        settings.setExpansion(expansion);
+                        settings.setOmitNestedObjects(omitNestedObjects);
+                        settings.setUpToNLevel(upTo);
+                        assertEquals(arrayHandling + " " + expansion + " " + omitNestedObjects + " " + upTo,
+                            infer(settings, documents), toStrings(SchemaInference.kindsOf(profile, settings)));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The profile merges the elements of the arrays, so the columns derived from it cover the inferred ones even when
+     * the elements differ.
+     *
+     * @throws IOException Should not happen.
+     */
+    @Test
+    public void testProfileMergesElements() throws IOException {
+        final String[] documents = {"{\"a\":{\"b\":[1,{\"c\":true}],\"x\":{\"y\":2}},\"d\":null,\"e\":5}",
+            "{\"a\":{\"b\":[3,[]]},\"e\":1.5,\"g\":\"s\"}", "[1,{\"h\":[{},\"t\"]}]", "{}", "2"};
+        final JSONStructureProfile profile = profile(documents);
+        final JSONToTableSettings settings = new JSONToTableSettings();
+        for (final ArrayHandling arrayHandling : ArrayHandling.values()) {
+            for (final Expansion expansion : Expansion.values()) {
+                settings.setArrayHandling(arrayHandling);
+                settings.setExpansion(expansion);
+                final List<String> inferred = new ArrayList<>();
+                infer(settings, documents).forEach(column -> inferred.add(column.substring(0, column.indexOf('='))));
+                final List<String> profiled = new ArrayList<>();
+                SchemaInference.kindsOf(profile, settings).keySet().forEach(path -> profiled.add(path.toString()));
+                assertTrue(arrayHandling + " " + expansion + ": " + profiled + " " + inferred,
+                    profiled.containsAll(inferred));
+            }
+        }
+        settings.setArrayHandling(ArrayHandling.GenerateColumns);
+        settings.setExpansion(Expansion.OnlyLeaves);
+        // the elements of $['a']['b'] are merged, the object at index 1 is expected at index 0 too
+        assertTrue(SchemaInference.kindsOf(profile, settings).keySet().stream()
+            .anyMatch(path -> path.toString().equals("$['a']['b'][0]['c']")));
+    }
+}
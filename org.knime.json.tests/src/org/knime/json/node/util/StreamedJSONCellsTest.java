@@ -0,0 +1,130 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+
+package org.knime.json.node.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.junit.Test;
+import org.knime.core.data.StringValue;
+import org.knime.core.data.json.JSONCellFactory;
+import org.knime.core.data.json.JSONValue;
+import org.knime.core.util.JsonUtil;
+import org.knime.json.util.JSONUtil;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.json.JsonValue;
+
+/**
+ * Tests for {@link StreamedJSONCells}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class StreamedJSONCellsTest {
+    /**
+     * The copied cells are indented the same way as the values of a whole serialized value.
+     *
+     * @throws IOException Should not happen.
+     */
+    @Test
+    public void testWriteValue() throws IOException {
+        final JsonValue element = JSONUtil.parseJSONValue("{\"a\": [1, {\"b\": \"c\\nd\"}], \"e\": {}}");
+        final JsonValue whole = JsonUtil.getProvider().createObjectBuilder()
+            .add("x", JsonUtil.getProvider().createObjectBuilder().add("k", element))
+            .add("arr", JsonUtil.getProvider().createArrayBuilder().add(element).addNull()).build();
+        final String expected = ((StringValue)JSONCellFactory.create(whole)).getStringValue();
+
+        final ObjectMapper mapper = StreamedJSONCells.newMapper();
+        final JSONValue cell = (JSONValue)JSONCellFactory.create(element);
+        final StringWriter actual = new StringWriter();
+        try (JsonGenerator generator = mapper.createGenerator(actual)) {
+            generator.writeStartObject();
+            generator.writeFieldName("x");
+            generator.writeStartObject();
+            generator.writeFieldName("k");
+            StreamedJSONCells.writeValue(generator, cell);
+            generator.writeEndObject();
+            generator.writeFieldName("arr");
+            generator.writeStartArray();
+            StreamedJSONCells.writeValue(generator, cell);
+            generator.writeNull();
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+        assertEquals(expected, actual.toString());
+    }
+
+    /**
+     * The cells stored without validation (like the cells read back from a table) are written like the validated
+     * cells, with the numbers written by the JSON cell writer.
+     *
+     * @throws IOException Should not happen.
+     */
+    @Test
+    public void testWriteUnvalidatedValue() throws IOException {
+        final String json = "{\"a\":[1,{\"b\":\"c\"}],\"e\":{},\"f\":1.10e2}";
+        final JSONValue unvalidated = (JSONValue)JSONCellFactory.create(json);
+        final JSONValue validated = (JSONValue)JSONCellFactory.create(json, false);
+        assertEquals(writeNested(validated), writeNested(unvalidated));
+    }
+
+    private static String writeNested(final JSONValue value) throws IOException {
+        final ObjectMapper mapper = StreamedJSONCells.newMapper();
+        final StringWriter out = new StringWriter();
+        try (JsonGenerator generator = mapper.createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeFieldName("k");
+            StreamedJSONCells.writeValue(generator, value);
+            generator.writeEndObject();
+        }
+        return out.toString();
+    }
+}
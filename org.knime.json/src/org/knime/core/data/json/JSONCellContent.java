@@ -174,6 +174,14 @@ public final JsonValue getJsonValue() {
         return json;
     }
 
+    /**
+     * @return The {@link JsonValue} if it is in memory (not yet garbage collected), otherwise {@code null}. The
+     *         returned {@link JsonValue} must not be changed!
+     */
+    JsonValue getJsonValueIfParsed() {
+        return m_content.get();
+    }
+
     @Override
     public JSONCellContent getJSONCellContent() {
         return this;
@@ -0,0 +1,259 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+
+package org.knime.core.data.json;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * A compact index of the key paths present in a JSON value, backed by a bloom filter. It can tell for sure that a
+ * path is <em>not</em> present, so path evaluations can return their "not found" result without parsing the value.
+ * <p>
+ * Paths are given as lists of object keys, where {@code null} stands for "any element of an array" (array indices are
+ * not distinguished). The index is built by a single pass over the token stream of the JSON text, the document tree
+ * is not created. It is not cached with the values, so callers should only build it when skipping the evaluation of
+ * absent paths pays for that pass.
+ * <p>
+ * Instances are immutable and thread-safe.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ * @since 5.12
+ */
+public final class JSONPathIndex {
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    /** About 1% false positive probability. */
+    private static final int BITS_PER_ENTRY = 10;
+
+    private static final int HASH_FUNCTIONS = 7;
+
+    private static final long ROOT = 0x9E3779B97F4A7C15L;
+
+    private static final long ARRAY_ELEMENT = 0xC2B2AE3D27D4EB4FL;
+
+    private static final long OBJECT_MARKER = 0x165667B19E3779F9L;
+
+    /** The index of values that could not be read, everything might be present. */
+    private static final JSONPathIndex UNKNOWN = new JSONPathIndex(null, false);
+
+    /** {@code null} for {@link #UNKNOWN}. */
+    private final long[] m_bits;
+
+    private final boolean m_objectRoot;
+
+    private JSONPathIndex(final long[] bits, final boolean objectRoot) {
+        m_bits = bits;
+        m_objectRoot = objectRoot;
+    }
+
+    /**
+     * Indexes the text of a JSON value.
+     *
+     * @param value A JSON value.
+     * @return The index of {@code value}.
+     */
+    public static JSONPathIndex of(final JSONValue value) {
+        if (value instanceof JSONCellContentProvider) {
+            return create(((JSONCellContentProvider)value).getJSONCellContent().getStringValue());
+        }
+        return create(value.toString());
+    }
+
+    /**
+     * Indexes a JSON text. Only the first JSON value of {@code json} is read, invalid input results in an index that
+     * might contain every path.
+     *
+     * @param json A JSON text.
+     * @return The index of {@code json}.
+     */
+    static JSONPathIndex create(final String json) {
+        try (JsonParser parser = FACTORY.createParser(json)) {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                return UNKNOWN;
+            }
+            final boolean objectRoot = token == JsonToken.START_OBJECT;
+            long[] hashes = new long[16];
+            int size = 0;
+            long[] containers = new long[8];
+            boolean[] arrays = new boolean[8];
+            int depth = -1;
+            do {
+                if (token == JsonToken.FIELD_NAME) {
+                    // the value following the name is indexed
+                    continue;
+                }
+                if (token.isStructEnd()) {
+                    depth--;
+                    continue;
+                }
+                final long hash = depth < 0 ? ROOT
+                    : arrays[depth] ? arrayElement(containers[depth]) : child(containers[depth], parser.getCurrentName());
+                if (size + 2 > hashes.length) {
+                    hashes = Arrays.copyOf(hashes, hashes.length * 2);
+                }
+                hashes[size++] = hash;
+                if (token.isStructStart()) {
+                    if (token == JsonToken.START_OBJECT) {
+                        hashes[size++] = objectMarker(hash);
+                    }
+                    depth++;
+                    if (depth == containers.length) {
+                        containers = Arrays.copyOf(containers, depth * 2);
+                        arrays = Arrays.copyOf(arrays, depth * 2);
+                    }
+                    containers[depth] = hash;
+                    arrays[depth] = token == JsonToken.START_ARRAY;
+                }
+            } while (depth >= 0 && (token = parser.nextToken()) != null);
+            return new JSONPathIndex(toBloomFilter(hashes, size), objectRoot);
+        } catch (IOException e) {
+            return UNKNOWN;
+        }
+    }
+
+    private static long[] toBloomFilter(final long[] hashes, final int size) {
+        // repeated structures (like the elements of an array of records) produce the same hashes many times
+        Arrays.sort(hashes, 0, size);
+        int unique = 0;
+        for (int i = 0; i < size; i++) {
+            if (i == 0 || hashes[i] != hashes[i - 1]) {
+                unique++;
+            }
+        }
+        final long[] bits = new long[Math.max(1, (unique * BITS_PER_ENTRY + 63) / 64)];
+        for (int i = 0; i < size; i++) {
+            if (i == 0 || hashes[i] != hashes[i - 1]) {
+                final long nrBits = bits.length * 64L;
+                final int h1 = (int)hashes[i];
+                final int h2 = (int)(hashes[i] >>> 32);
+                for (int k = 1; k <= HASH_FUNCTIONS; k++) {
+                    final int bit = (int)Math.floorMod(h1 + (long)k * h2, nrBits);
+                    bits[bit >>> 6] |= 1L << bit;
+                }
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * @param path Object keys from the root, {@code null} for array elements.
+     * @return {@code false} if the value certainly has no value at {@code path}, {@code true} if it might have one.
+     */
+    public boolean mightContain(final List<String> path) {
+        return m_bits == null || contains(hash(path));
+    }
+
+    /**
+     * @param path Object keys from the root, {@code null} for array elements.
+     * @return {@code false} if the value certainly has no JSON object at {@code path}, {@code true} if it might have
+     *         one.
+     */
+    public boolean mightContainObject(final List<String> path) {
+        return m_bits == null || contains(objectMarker(hash(path)));
+    }
+
+    /**
+     * @return {@code true} iff the indexed value is certainly a JSON object (this is not subject to false positives).
+     */
+    public boolean hasObjectRoot() {
+        return m_objectRoot;
+    }
+
+    private boolean contains(final long hash) {
+        final long nrBits = m_bits.length * 64L;
+        final int h1 = (int)hash;
+        final int h2 = (int)(hash >>> 32);
+        for (int k = 1; k <= HASH_FUNCTIONS; k++) {
+            final int bit = (int)Math.floorMod(h1 + (long)k * h2, nrBits);
+            if ((m_bits[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long hash(final List<String> path) {
+        long hash = ROOT;
+        for (final String step : path) {
+            hash = step == null ? arrayElement(hash) : child(hash, step);
+        }
+        return hash;
+    }
+
+    private static long child(final long parent, final String key) {
+        long hash = parent;
+        for (int i = 0; i < key.length(); i++) {
+            hash = (hash ^ key.charAt(i)) * 0x100000001B3L;
+        }
+        return mix(hash ^ key.length());
+    }
+
+    private static long arrayElement(final long parent) {
+        return mix(parent ^ ARRAY_ELEMENT);
+    }
+
+    private static long objectMarker(final long hash) {
+        return mix(hash ^ OBJECT_MARKER);
+    }
+
+    /** The finalization step of MurmurHash3. */
+    private static long mix(final long hash) {
+        long h = hash;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+
+package org.knime.core.data.json;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import jakarta.json.JsonObject;
+import jakarta.json.JsonValue;
+
+/**
+ * Reads only the parts of JSON values that are reachable by a set of object key prefixes, so path evaluations that
+ * start with object keys do not need the whole document tree. The projected value keeps the objects on the prefixes
+ * with only the keys of the prefixes, the values at the end of the prefixes (and the values that are not objects
+ * on the way) are kept completely.
+ * <p>
+ * For {@link JSONValue}s backed by a {@link JSONCellContent} whose document tree is not in memory, the other subtrees
+ * are skipped on the token stream of the JSON text, without building them. The document tree of the cell is not
+ * created.
+ * <p>
+ * Instances are thread-safe. The last projected value is cached, so projections shared by the columns computed from
+ * the same row read each value only once.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ * @since 5.12
+ */
+public final class JSONProjection {
+    private static final JacksonConversions CONVERSIONS = JacksonConversions.getInstance();
+
+    /** Reads numbers the same way as {@link JacksonConversions#toJackson(JsonValue)} converts them. */
+    private static final ObjectMapper MAPPER = CONVERSIONS.newMapper();
+
+    /** The keys to keep, {@code null} keeps the whole value. */
+    private final Map<String, JSONProjection> m_children;
+
+    private volatile Projected m_last;
+
+    private JSONProjection(final Map<String, JSONProjection> children) {
+        m_children = children;
+    }
+
+    /**
+     * Creates the union of the key prefixes. A prefix of another prefix keeps the whole subtree.
+     *
+     * @param keyPrefixes The object keys from the root (not escaped) leading to the values that are needed.
+     * @return The projection, or {@link Optional#empty()} if there are no prefixes or a prefix is empty, so the whole
+     *         value is needed.
+     */
+    public static Optional<JSONProjection> of(final Collection<List<String>> keyPrefixes) {
+        if (keyPrefixes.isEmpty()) {
+            return Optional.empty();
+        }
+        final JSONProjection root = new JSONProjection(new HashMap<>());
+        for (final List<String> keys : keyPrefixes) {
+            if (keys.isEmpty()) {
+                return Optional.empty();
+            }
+            JSONProjection node = root;
+            for (int i = 0; i < keys.size() && node.m_children != null; i++) {
+                final boolean last = i == keys.size() - 1;
+                final JSONProjection child = node.m_children.get(keys.get(i));
+                if (child == null || last) {
+                    final JSONProjection created = new JSONProjection(last ? null : new HashMap<>());
+                    node.m_children.put(keys.get(i), created);
+                    node = created;
+                } else {
+                    node = child;
+                }
+            }
+        }
+        return Optional.of(root);
+    }
+
+    /**
+     * Projects {@code value}. The result must not be changed.
+     *
+     * @param value A JSON value.
+     * @return The projected value as a Jackson {@link JsonNode}.
+     * @throws IOException When the JSON text cannot be read.
+     */
+    public JsonNode project(final JSONValue value) throws IOException {
+        final Projected last = m_last;
+        if (last != null && last.m_value == value) {
+            return last.m_node;
+        }
+        final JsonNode node;
+        if (value instanceof JSONCellContentProvider) {
+            final JSONCellContent content = ((JSONCellContentProvider)value).getJSONCellContent();
+            final JsonValue tree = content.getJsonValueIfParsed();
+            node = tree == null ? project(content.getStringValue()) : project(tree);
+        } else {
+            node = project(value.getJsonValue());
+        }
+        m_last = new Projected(value, node);
+        return node;
+    }
+
+    /**
+     * @param json A JSON text.
+     * @return The projected value of {@code json}.
+     * @throws IOException When {@code json} is not valid.
+     */
+    JsonNode project(final String json) throws IOException {
+        try (final JsonParser parser = MAPPER.getFactory().createParser(json)) {
+            if (parser.nextToken() == null) {
+                throw new IOException("No JSON value");
+            }
+            return read(parser);
+        }
+    }
+
+    /**
+     * Reads the current value of {@code parser} (positioned at its first token).
+     */
+    private JsonNode read(final JsonParser parser) throws IOException {
+        if (m_children == null || parser.currentToken() != JsonToken.START_OBJECT) {
+            return MAPPER.readTree(parser);
+        }
+        final ObjectNode ret = MAPPER.getNodeFactory().objectNode();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String name = parser.currentName();
+            final JSONProjection child = m_children.get(name);
+            parser.nextToken();
+            if (child == null) {
+                parser.skipChildren();
+            } else {
+                ret.set(name, child.read(parser));
+            }
+        }
+        return ret;
+    }
+
+    private JsonNode project(final JsonValue value) {
+        if (m_children == null || !(value instanceof JsonObject)) {
+            return CONVERSIONS.toJackson(value);
+        }
+        final JsonObject object = (JsonObject)value;
+        final ObjectNode ret = MAPPER.getNodeFactory().objectNode();
+        for (final Entry<String, JSONProjection> entry : m_children.entrySet()) {
+            final JsonValue child = object.get(entry.getKey());
+            if (child != null) {
+                ret.set(entry.getKey(), entry.getValue().project(child));
+            }
+        }
+        return ret;
+    }
+
+    /** The last projected value and its projection. */
+    private static final class Projected {
+        private final JSONValue m_value;
+
+        private final JsonNode m_node;
+
+        Projected(final JSONValue value, final JsonNode node) {
+            m_value = value;
+            m_node = node;
+        }
+    }
+}
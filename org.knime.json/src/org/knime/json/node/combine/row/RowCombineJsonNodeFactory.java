@@ -73,7 +73,9 @@ public boolean hasDialog() {
               ],
               "custom key": "custom value"
             }</pre>
-            All columns and rows will be removed or collapsed to a single cell.
+            All columns and rows will be removed or collapsed to a single cell. The rows are written one by one,
+            without building the whole JSON value in memory first, but the text of the resulting cell is still held
+            in memory, so its size is limited by the available heap space.
             """;
     private static final List<PortDescription> INPUT_PORTS = List.of(
             fixedPort("Table with JSON", """
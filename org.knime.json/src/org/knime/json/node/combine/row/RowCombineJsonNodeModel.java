@@ -2,7 +2,11 @@
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 
 import org.knime.core.data.DataCell;
@@ -13,7 +17,6 @@
 import org.knime.core.data.StringValue;
 import org.knime.core.data.def.DefaultRow;
 import org.knime.core.data.json.JSONCell;
-import org.knime.core.data.json.JSONCellFactory;
 import org.knime.core.data.json.JSONValue;
 import org.knime.core.node.BufferedDataContainer;
 import org.knime.core.node.BufferedDataTable;
@@ -25,10 +28,10 @@
 import org.knime.core.node.NodeSettingsRO;
 import org.knime.core.node.NodeSettingsWO;
 import org.knime.core.node.util.CheckUtils;
-import org.knime.core.util.JsonUtil;
+import org.knime.json.node.util.StreamedJSONCells;
 
-import jakarta.json.JsonArrayBuilder;
-import jakarta.json.JsonObjectBuilder;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
  * This is the model implementation of RowCombineJson. Appends JSON values in the rows to a single JSON value.
@@ -36,6 +39,8 @@
  * @author Gabor Bakos
  */
 class RowCombineJsonNodeModel extends NodeModel {
+    private static final ObjectMapper MAPPER = StreamedJSONCells.newMapper();
+
     private final RowCombineJsonSettings m_settings = new RowCombineJsonSettings();
 
     /**
@@ -53,90 +58,133 @@ protected BufferedDataTable[] execute(final BufferedDataTable[] inData, final Ex
         throws Exception {
         BufferedDataTable table = inData[0];
         BufferedDataContainer container = exec.createDataContainer(configure(new DataTableSpec[]{table.getSpec()})[0]);
+        switch (m_settings.getObjectOrArray()) {
+            case Array:
+            case Object:
+                break;
+            default:
+                CheckUtils.checkState(false, "Not supported collection type: " + m_settings.getObjectOrArray());
+        }
+        final String[] keys = m_settings.getKeys();
+        final String[] values = m_settings.getValues();
+        final DataCell cell;
+        if (m_settings.isAddRootKey()) {
+            // the root key is the first, values with the same key replace the previous one
+            final Map<String, String> keyValues = new LinkedHashMap<>();
+            keyValues.put(m_settings.getRootKey(), null);
+            for (int i = 0; i < keys.length; ++i) {
+                keyValues.put(keys[i], values[i]);
+            }
+            final boolean rootReplaced = Arrays.asList(keys).contains(m_settings.getRootKey());
+            if (rootReplaced) {
+                // the rows are not written, but their keys are still checked
+                checkKeys(table, exec);
+            }
+            cell = StreamedJSONCells.create(MAPPER, (generator, out) -> {
+                generator.writeStartObject();
+                for (Entry<String, String> entry : keyValues.entrySet()) {
+                    generator.writeFieldName(entry.getKey());
+                    if (!rootReplaced && entry.getKey().equals(m_settings.getRootKey())) {
+                        writeRows(table, exec, generator);
+                    } else {
+                        generator.writeString(entry.getValue());
+                    }
+                }
+                generator.writeEndObject();
+            });
+        } else {
+            cell = StreamedJSONCells.create(MAPPER, (generator, out) -> writeRows(table, exec, generator));
+        }
+        container.addRowToTable(new DefaultRow(RowKey.createRowKey(1L), cell));
+        container.close();
+        return new BufferedDataTable[]{container.getTable()};
+    }
+
+    /**
+     * Checks the keys of the combined object (without writing the values).
+     *
+     * @param table The input table.
+     * @param exec The execution monitor.
+     * @throws CanceledExecutionException When cancelled.
+     */
+    private void checkKeys(final BufferedDataTable table, final ExecutionMonitor exec)
+        throws CanceledExecutionException {
+        if (m_settings.getObjectOrArray() == RowCombineSettings.ObjectOrArray.Array
+            || m_settings.isObjectKeyIsRowID()) {
+            return;
+        }
+        final int objectKeyIndex = table.getSpec().findColumnIndex(m_settings.getObjectKeyColumn());
+        final Set<String> processedKeys = new HashSet<>();
+        for (DataRow row : table) {
+            exec.checkCanceled();
+            objectKey(row, objectKeyIndex, processedKeys);
+        }
+    }
+
+    /**
+     * @param row A row of the input table.
+     * @param objectKeyIndex The index of the key column.
+     * @param processedKeys The keys of the previous rows, the key of {@code row} is added.
+     * @return The key of {@code row} in the combined object.
+     */
+    private String objectKey(final DataRow row, final int objectKeyIndex, final Set<String> processedKeys) {
+        CheckUtils.checkState(-1 != objectKeyIndex, "Not found column: " + m_settings.getObjectKeyColumn());
+        final DataCell cell2 = row.getCell(objectKeyIndex);
+        CheckUtils.checkState(!cell2.isMissing(), "Key cell is missing in row: " + row.getKey());
+        CheckUtils.checkState(cell2 instanceof StringValue,
+            "The value for key is not a String in row: " + row.getKey());
+        final StringValue sv = (StringValue)cell2;
+        CheckUtils.checkState(processedKeys.add(sv.getStringValue()),
+            "The value \"" + sv.getStringValue() + "\" for the key was already present in row: " + row.getKey());
+        return sv.getStringValue();
+    }
+
+    /**
+     * Writes the combined array or object of the JSON values. The JSON cells are copied token by token from their
+     * texts (see {@link StreamedJSONCells#writeValue}).
+     *
+     * @param table The input table.
+     * @param exec The execution monitor.
+     * @param generator The output.
+     * @throws IOException When writing fails.
+     * @throws CanceledExecutionException When cancelled.
+     */
+    private void writeRows(final BufferedDataTable table, final ExecutionMonitor exec, final JsonGenerator generator)
+        throws IOException, CanceledExecutionException {
         int counter = 0;
         final double all = table.size();
         final int idx = table.getSpec().findColumnIndex(m_settings.getInputColumn());
-        final JsonArrayBuilder builder = JsonUtil.getProvider().createArrayBuilder();
-        final JsonObjectBuilder innerObjectBuilder = JsonUtil.getProvider().createObjectBuilder();
-        final String[] keys = m_settings.getKeys();
-        final String[] values = m_settings.getValues();
         final int objectKeyIndex = table.getSpec().findColumnIndex(m_settings.getObjectKeyColumn());
+        // all keys are kept to find the duplicates (but not the values)
         final Set<String> processedKeys = new HashSet<>();
+        final boolean array = m_settings.getObjectOrArray() == RowCombineSettings.ObjectOrArray.Array;
+        if (array) {
+            generator.writeStartArray();
+        } else {
+            generator.writeStartObject();
+        }
         for (DataRow row : table) {
             exec.checkCanceled();
             exec.setProgress(counter++ / all, "Processing row: " + row.getKey().getString());
             DataCell cell = row.getCell(idx);
-            switch (m_settings.getObjectOrArray()) {
-                case Array:
-                    if (cell.isMissing() || !(cell instanceof JSONValue)) {
-                        builder.addNull();
-                    } else {
-                        builder.add(((JSONValue)cell).getJsonValue());
-                    }
-                    break;
-                case Object:
-                    if (m_settings.isObjectKeyIsRowID()) {
-                        if (cell.isMissing() || !(cell instanceof JSONValue)) {
-                            innerObjectBuilder.addNull(row.getKey().getString());
-                        } else {
-                            innerObjectBuilder.add(row.getKey().getString(), ((JSONValue)cell).getJsonValue());
-                        }
-                    } else {
-                        CheckUtils.checkState(-1 != objectKeyIndex,
-                            "Not found column: " + m_settings.getObjectKeyColumn());
-                        final DataCell cell2 = row.getCell(objectKeyIndex);
-                        CheckUtils.checkState(!cell2.isMissing(), "Key cell is missing in row: " + row.getKey());
-                        CheckUtils.checkState(cell2 instanceof StringValue,
-                            "The value for key is not a String in row: " + row.getKey());
-                        final StringValue sv = (StringValue)cell2;
-                        CheckUtils.checkState(
-                            processedKeys.add(sv.getStringValue()),
-                            "The value \"" + sv.getStringValue() + "\" for the key was already present in row: "
-                                + row.getKey());
-                        if (cell.isMissing() || !(cell instanceof JSONValue)) {
-                            innerObjectBuilder.addNull(sv.getStringValue());
-                        } else {
-                            innerObjectBuilder.add(sv.getStringValue(), ((JSONValue)cell).getJsonValue());
-                        }
-                    }
-                    break;
-                default:
-                    CheckUtils.checkState(false, "Not supported collection type: " + m_settings.getObjectOrArray());
+            if (!array) {
+                if (m_settings.isObjectKeyIsRowID()) {
+                    generator.writeFieldName(row.getKey().getString());
+                } else {
+                    generator.writeFieldName(objectKey(row, objectKeyIndex, processedKeys));
+                }
             }
-        }
-        final DataCell cell;
-        if (m_settings.isAddRootKey()) {
-            JsonObjectBuilder objectBuilder = JsonUtil.getProvider().createObjectBuilder();
-            switch (m_settings.getObjectOrArray()) {
-                case Array:
-                    objectBuilder.add(m_settings.getRootKey(), builder.build());
-                    break;
-                case Object:
-                    objectBuilder.add(m_settings.getRootKey(), innerObjectBuilder.build());
-                    break;
-                default:
-                    CheckUtils.checkState(false, "Not supported collection type: " + m_settings.getObjectOrArray());
+            if (cell.isMissing() || !(cell instanceof JSONValue)) {
+                generator.writeNull();
+            } else {
+                StreamedJSONCells.writeValue(generator, (JSONValue)cell);
             }
-            for (int i = 0; i < keys.length; ++i) {
-                objectBuilder.add(keys[i], values[i]);
-            }
-            cell = JSONCellFactory.create(objectBuilder.build());
+        }
+        if (array) {
+            generator.writeEndArray();
         } else {
-            switch (m_settings.getObjectOrArray()) {
-                case Array:
-                    cell = JSONCellFactory.create(builder.build());
-                    break;
-                case Object:
-                    cell = JSONCellFactory.create(innerObjectBuilder.build());
-                    break;
-                default:
-                    CheckUtils.checkState(false, "Not supported collection type: " + m_settings.getObjectOrArray());
-                    throw new IllegalStateException("To make the compiler happy");
-            }
+            generator.writeEndObject();
         }
-        container.addRowToTable(new DefaultRow(RowKey.createRowKey(1L), cell));
-        container.close();
-        return new BufferedDataTable[]{container.getTable()};
     }
 
     /**
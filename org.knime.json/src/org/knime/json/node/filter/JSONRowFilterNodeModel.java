@@ -0,0 +1,268 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+
+package org.knime.json.node.filter;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.json.JSONValue;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NodeModel;
+import org.knime.core.node.NodeSettingsRO;
+import org.knime.core.node.NodeSettingsWO;
+import org.knime.core.node.port.PortObjectSpec;
+import org.knime.core.node.streamable.BufferedDataTableRowOutput;
+import org.knime.core.node.streamable.DataTableRowInput;
+import org.knime.core.node.streamable.InputPortRole;
+import org.knime.core.node.streamable.OutputPortRole;
+import org.knime.core.node.streamable.PartitionInfo;
+import org.knime.core.node.streamable.PortInput;
+import org.knime.core.node.streamable.PortOutput;
+import org.knime.core.node.streamable.RowInput;
+import org.knime.core.node.streamable.RowOutput;
+import org.knime.core.node.streamable.StreamableOperator;
+import org.knime.json.node.util.RemoveOrAddColumnSettings;
+
+/**
+ * This is the model implementation of the JSON Row Filter node. Keeps or removes rows depending on a predicate on the
+ * selected JSON column, evaluated on the token stream of the stored JSON values.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class JSONRowFilterNodeModel extends NodeModel {
+    private final JSONRowFilterSettings m_settings = new JSONRowFilterSettings();
+
+    /**
+     * Constructor for the node model.
+     */
+    JSONRowFilterNodeModel() {
+        super(1, 1);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected DataTableSpec[] configure(final DataTableSpec[] inSpecs) throws InvalidSettingsException {
+        findInputColumn(inSpecs[0]);
+        m_settings.createPredicate();
+        return inSpecs;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected BufferedDataTable[] execute(final BufferedDataTable[] inData, final ExecutionContext exec)
+        throws Exception {
+        final BufferedDataTable in = inData[0];
+        final BufferedDataTableRowOutput output =
+            new BufferedDataTableRowOutput(exec.createDataContainer(in.getDataTableSpec()));
+        filter(new DataTableRowInput(in), output, in.size(), exec);
+        return new BufferedDataTable[]{output.getDataTable()};
+    }
+
+    /**
+     * Copies the rows satisfying the predicate (or not satisfying it when the matching rows are excluded).
+     *
+     * @param input The input rows.
+     * @param output The filtered rows.
+     * @param rowCount The number of input rows if known, {@code -1} otherwise.
+     * @param exec The execution context for progress and cancellation.
+     */
+    private void filter(final RowInput input, final RowOutput output, final long rowCount,
+        final ExecutionContext exec) throws InvalidSettingsException, InterruptedException,
+        CanceledExecutionException, IOException {
+        final int index = findInputColumn(input.getDataTableSpec());
+        final StreamingJsonPredicate predicate = m_settings.createPredicate();
+        final boolean includeMatching = m_settings.isIncludeMatching();
+        long rowIndex = 0;
+        DataRow row;
+        try {
+            while ((row = input.poll()) != null) {
+                exec.checkCanceled();
+                final long current = ++rowIndex;
+                if (rowCount > 0) {
+                    exec.setProgress(current / (double)rowCount, () -> "Filtering row " + current + "/" + rowCount);
+                } else {
+                    exec.setMessage(() -> "Filtering row " + current);
+                }
+                final boolean matches;
+                try {
+                    matches = predicate.test(row.getCell(index));
+                } catch (IOException e) {
+                    throw new IOException("Failed to read the JSON value in row: " + row.getKey() + "\n"
+                        + e.getMessage(), e);
+                }
+                if (matches == includeMatching) {
+                    output.push(row);
+                }
+            }
+        } finally {
+            input.close();
+        }
+        output.close();
+    }
+
+    /**
+     * Finds (or guesses) the selected JSON column.
+     *
+     * @param spec The input table spec.
+     * @return The index of the input column.
+     * @throws InvalidSettingsException No JSON column available.
+     */
+    private int findInputColumn(final DataTableSpec spec) throws InvalidSettingsException {
+        final String selected = m_settings.getInputColumn();
+        final DataColumnSpec selectedSpec = selected == null ? null : spec.getColumnSpec(selected);
+        if (selectedSpec != null && selectedSpec.getType().isCompatible(JSONValue.class)) {
+            return spec.findColumnIndex(selected);
+        }
+        if (selected != null && !selected.isEmpty()) {
+            throw new InvalidSettingsException("Selected input column \"" + selected + "\" is not available.");
+        }
+        for (int i = 0; i < spec.getNumColumns(); i++) {
+            if (spec.getColumnSpec(i).getType().isCompatible(JSONValue.class)) {
+                final String name = spec.getColumnSpec(i).getName();
+                m_settings.setInputColumn(name);
+                setWarningMessage("Auto guessing: using column \"" + name + "\".");
+                return i;
+            }
+        }
+        throw new InvalidSettingsException(
+            RemoveOrAddColumnSettings.NO_JSON_COLUMNS_USE_FOR_EXAMPLE_THE_STRING_TO_JSON_NODE_TO_CREATE_ONE);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public InputPortRole[] getInputPortRoles() {
+        return new InputPortRole[]{InputPortRole.DISTRIBUTED_STREAMABLE};
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public OutputPortRole[] getOutputPortRoles() {
+        return new OutputPortRole[]{OutputPortRole.DISTRIBUTED};
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public StreamableOperator createStreamableOperator(final PartitionInfo partitionInfo,
+        final PortObjectSpec[] inSpecs) throws InvalidSettingsException {
+        return new StreamableOperator() {
+            @Override
+            public void runFinal(final PortInput[] inputs, final PortOutput[] outputs, final ExecutionContext exec)
+                throws Exception {
+                filter((RowInput)inputs[0], (RowOutput)outputs[0], -1, exec);
+            }
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void reset() {
+        // No internal state
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void saveSettingsTo(final NodeSettingsWO settings) {
+        m_settings.saveSettings(settings);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void loadValidatedSettingsFrom(final NodeSettingsRO settings) throws InvalidSettingsException {
+        m_settings.loadSettingsModel(settings);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void validateSettings(final NodeSettingsRO settings) throws InvalidSettingsException {
+        final JSONRowFilterSettings toValidate = new JSONRowFilterSettings();
+        toValidate.loadSettingsModel(settings);
+        toValidate.createPredicate();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void loadInternals(final File internDir, final ExecutionMonitor exec)
+        throws IOException, CanceledExecutionException {
+        // No internal state
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void saveInternals(final File internDir, final ExecutionMonitor exec)
+        throws IOException, CanceledExecutionException {
+        // No internal state
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+
+package org.knime.json.node.filter;
+
+import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.json.JSONValue;
+import org.knime.json.node.filter.JSONRowFilterSettings.Operator;
+import org.knime.json.node.filter.JSONRowFilterSettings.PathKind;
+import org.knime.node.parameters.NodeParameters;
+import org.knime.node.parameters.NodeParametersInput;
+import org.knime.node.parameters.Widget;
+import org.knime.node.parameters.migration.LoadDefaultsForAbsentFields;
+import org.knime.node.parameters.persistence.Persist;
+import org.knime.node.parameters.updates.Effect;
+import org.knime.node.parameters.updates.Effect.EffectType;
+import org.knime.node.parameters.updates.EffectPredicate;
+import org.knime.node.parameters.updates.EffectPredicateProvider;
+import org.knime.node.parameters.updates.ParameterReference;
+import org.knime.node.parameters.updates.ValueReference;
+import org.knime.node.parameters.widget.choices.ChoicesProvider;
+import org.knime.node.parameters.widget.choices.ValueSwitchWidget;
+import org.knime.node.parameters.widget.choices.util.ColumnSelectionUtil;
+import org.knime.node.parameters.widget.choices.util.CompatibleColumnsProvider;
+import org.knime.node.parameters.widget.text.TextInputWidget;
+
+/**
+ * Node parameters for JSON Row Filter.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+@LoadDefaultsForAbsentFields
+@SuppressWarnings("restriction")
+final class JSONRowFilterNodeParameters implements NodeParameters {
+
+    JSONRowFilterNodeParameters() {
+    }
+
+    JSONRowFilterNodeParameters(final NodeParametersInput input) {
+        m_inputColumn = ColumnSelectionUtil.getFirstCompatibleColumnOfFirstPort(input, JSONValue.class)
+            .map(DataColumnSpec::getName).orElse("");
+    }
+
+    @Widget(title = "Input column", description = "The JSON column to filter on.")
+    @ChoicesProvider(JSONColumnsProvider.class)
+    @Persist(configKey = JSONRowFilterSettings.INPUT_COLUMN)
+    String m_inputColumn = "";
+
+    @Widget(title = "Path type", description = """
+            How the tested values are selected. JSONPaths built only from child, index and wildcard steps
+            (like <tt>$.a[0].b</tt> or <tt>$.items[*].id</tt>) and JSON Pointers are evaluated while reading the
+            JSON text, stopping as soon as the result is known. Other JSONPaths (deep scan, filters, ...) are
+            evaluated on the parsed JSON values.
+            """)
+    @ValueSwitchWidget
+    @Persist(configKey = JSONRowFilterSettings.PATH_KIND)
+    PathKind m_pathKind = JSONRowFilterSettings.DEFAULT_PATH_KIND;
+
+    @Widget(title = "Path", description = """
+            The JSONPath (for example <tt>$.level</tt>) or JSON Pointer (for example <tt>/level</tt>) selecting
+            the values to test.
+            """)
+    @TextInputWidget
+    @Persist(configKey = JSONRowFilterSettings.PATH)
+    String m_path = JSONRowFilterSettings.DEFAULT_PATH;
+
+    @Widget(title = "Condition", description = """
+            The condition a selected value has to satisfy. A row matches when at least one of the selected values
+            satisfies it. Ordering conditions compare numbers numerically and strings lexicographically, other
+            values never satisfy them.
+            """)
+    @Persist(configKey = JSONRowFilterSettings.OPERATOR)
+    @ValueReference(OperatorRef.class)
+    Operator m_operator = JSONRowFilterSettings.DEFAULT_OPERATOR;
+
+    @Widget(title = "Value", description = """
+            The value to compare with, as a JSON literal (<tt>"ERROR"</tt>, <tt>42</tt>, <tt>true</tt>,
+            <tt>null</tt>, ...). Text that is not valid JSON is compared as a JSON string.
+            """)
+    @TextInputWidget
+    @Persist(configKey = JSONRowFilterSettings.VALUE)
+    @Effect(predicate = IsExists.class, type = EffectType.HIDE)
+    String m_value = JSONRowFilterSettings.DEFAULT_VALUE;
+
+    @Widget(title = "Include matching rows", description = "If checked, the matching rows are kept, otherwise they "
+        + "are removed. Rows with missing values never match.")
+    @Persist(configKey = JSONRowFilterSettings.INCLUDE_MATCHING)
+    boolean m_includeMatching = JSONRowFilterSettings.DEFAULT_INCLUDE_MATCHING;
+
+    static final class OperatorRef implements ParameterReference<Operator> {
+    }
+
+    static final class IsExists implements EffectPredicateProvider {
+        @Override
+        public EffectPredicate init(final PredicateInitializer i) {
+            return i.getEnum(OperatorRef.class).isOneOf(Operator.EXISTS);
+        }
+    }
+
+    static final class JSONColumnsProvider extends CompatibleColumnsProvider {
+        JSONColumnsProvider() {
+            super(JSONValue.class);
+        }
+    }
+}
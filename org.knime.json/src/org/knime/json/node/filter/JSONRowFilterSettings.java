@@ -0,0 +1,230 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+
+package org.knime.json.node.filter;
+
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NodeSettingsRO;
+import org.knime.core.node.NodeSettingsWO;
+import org.knime.node.parameters.widget.choices.Label;
+
+/**
+ * Node settings for the JSON Row Filter node.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class JSONRowFilterSettings {
+    /** How the selected values are specified. */
+    enum PathKind {
+            /** JSONPath expression. */
+            @Label(value = "JSONPath", description = "The values are selected with a JSONPath expression.")
+            JSON_PATH,
+            /** JSON Pointer. */
+            @Label(value = "JSON Pointer", description = "The value is selected with a JSON Pointer.")
+            JSON_POINTER;
+    }
+
+    /** The comparison of the selected values with the reference value. */
+    enum Operator {
+            /** The path exists (any value, including {@code null}). */
+            @Label(value = "exists", description = "The path exists, regardless of its value.")
+            EXISTS,
+            /** Equal to the reference value. */
+            @Label(value = "=", description = "Equal to the value.")
+            EQUALS,
+            /** Not equal to the reference value. */
+            @Label(value = "≠", description = "Not equal to the value.")
+            NOT_EQUALS,
+            /** Less than the reference value (numbers or strings). */
+            @Label(value = "<", description = "Less than the value.")
+            LESS_THAN,
+            /** Less than or equal to the reference value (numbers or strings). */
+            @Label(value = "≤", description = "Less than or equal to the value.")
+            LESS_THAN_OR_EQUAL,
+            /** Greater than the reference value (numbers or strings). */
+            @Label(value = ">", description = "Greater than the value.")
+            GREATER_THAN,
+            /** Greater than or equal to the reference value (numbers or strings). */
+            @Label(value = "≥", description = "Greater than or equal to the value.")
+            GREATER_THAN_OR_EQUAL;
+    }
+
+    static final String INPUT_COLUMN = "input.column";
+
+    static final String PATH_KIND = "path.kind";
+
+    static final String PATH = "path";
+
+    static final String OPERATOR = "operator";
+
+    static final String VALUE = "value";
+
+    static final String INCLUDE_MATCHING = "include.matching";
+
+    static final PathKind DEFAULT_PATH_KIND = PathKind.JSON_PATH;
+
+    static final String DEFAULT_PATH = "$.level";
+
+    static final Operator DEFAULT_OPERATOR = Operator.EQUALS;
+
+    static final String DEFAULT_VALUE = "\"ERROR\"";
+
+    static final boolean DEFAULT_INCLUDE_MATCHING = true;
+
+    private String m_inputColumn = "";
+
+    private PathKind m_pathKind = DEFAULT_PATH_KIND;
+
+    private String m_path = DEFAULT_PATH;
+
+    private Operator m_operator = DEFAULT_OPERATOR;
+
+    private String m_value = DEFAULT_VALUE;
+
+    private boolean m_includeMatching = DEFAULT_INCLUDE_MATCHING;
+
+    /**
+     * @return the inputColumn
+     */
+    String getInputColumn() {
+        return m_inputColumn;
+    }
+
+    /**
+     * @param inputColumn the inputColumn to set
+     */
+    void setInputColumn(final String inputColumn) {
+        m_inputColumn = inputColumn;
+    }
+
+    /**
+     * @return the pathKind
+     */
+    PathKind getPathKind() {
+        return m_pathKind;
+    }
+
+    /**
+     * @return the path (JSONPath or JSON Pointer depending on {@link #getPathKind()})
+     */
+    String getPath() {
+        return m_path;
+    }
+
+    /**
+     * @return the operator
+     */
+    Operator getOperator() {
+        return m_operator;
+    }
+
+    /**
+     * @return the reference value
+     */
+    String getValue() {
+        return m_value;
+    }
+
+    /**
+     * @return {@code true} if the matching rows are kept, {@code false} if they are removed
+     */
+    boolean isIncludeMatching() {
+        return m_includeMatching;
+    }
+
+    /**
+     * Creates the predicate described by these settings.
+     *
+     * @return The {@link StreamingJsonPredicate}.
+     * @throws InvalidSettingsException When the path is invalid.
+     */
+    StreamingJsonPredicate createPredicate() throws InvalidSettingsException {
+        try {
+            return m_pathKind == PathKind.JSON_POINTER ? StreamingJsonPredicate.forPointer(m_path, m_operator, m_value)
+                : StreamingJsonPredicate.forJsonPath(m_path, m_operator, m_value);
+        } catch (RuntimeException e) {
+            throw new InvalidSettingsException("Invalid path: " + m_path + "\n" + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Called from model when settings are to be loaded.
+     *
+     * @param settings To load from
+     * @throws InvalidSettingsException If settings are invalid.
+     */
+    void loadSettingsModel(final NodeSettingsRO settings) throws InvalidSettingsException {
+        m_inputColumn = settings.getString(INPUT_COLUMN);
+        m_pathKind = toEnum(PathKind.class, settings.getString(PATH_KIND));
+        m_path = settings.getString(PATH);
+        m_operator = toEnum(Operator.class, settings.getString(OPERATOR));
+        m_value = settings.getString(VALUE);
+        m_includeMatching = settings.getBoolean(INCLUDE_MATCHING);
+    }
+
+    /**
+     * Called from model and dialog to save current settings.
+     *
+     * @param settings To save to.
+     */
+    void saveSettings(final NodeSettingsWO settings) {
+        settings.addString(INPUT_COLUMN, m_inputColumn);
+        settings.addString(PATH_KIND, m_pathKind.name());
+        settings.addString(PATH, m_path);
+        settings.addString(OPERATOR, m_operator.name());
+        settings.addString(VALUE, m_value);
+        settings.addBoolean(INCLUDE_MATCHING, m_includeMatching);
+    }
+
+    private static <E extends Enum<E>> E toEnum(final Class<E> cls, final String name)
+        throws InvalidSettingsException {
+        try {
+            return Enum.valueOf(cls, name);
+        } catch (RuntimeException e) {
+            throw new InvalidSettingsException("Invalid value: " + name, e);
+        }
+    }
+}
@@ -0,0 +1,358 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+
+package org.knime.json.node.filter;
+
+import java.io.IOException;
+import java.util.Optional;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.StringValue;
+import org.knime.core.data.json.JSONValue;
+import org.knime.core.data.json.JacksonConversions;
+import org.knime.json.node.filter.JSONRowFilterSettings.Operator;
+import org.knime.json.node.jsonpath.util.JsonPathUtils;
+import org.knime.json.node.jsonpath.util.TokenPath;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.github.fge.jackson.JacksonUtils;
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.Option;
+import com.jayway.jsonpath.spi.json.JacksonJsonNodeJsonProvider;
+import com.jayway.jsonpath.spi.mapper.JacksonMappingProvider;
+
+/**
+ * A predicate on JSON documents that is evaluated on the token stream of the stored JSON text. Subtrees that are not
+ * on the selected path are skipped on token level and the evaluation stops as soon as the result is decided, so the
+ * tree of the document is never built. Only the selected value itself is materialized (and only if it has to be
+ * compared).
+ * <p>
+ * A row matches when at least one of the selected values satisfies the {@link Operator}. JSONPaths outside the
+ * {@link TokenPath} subset (deep scan, filters, ...) are evaluated with Jayway JSONPath on the parsed document.
+ * <p>
+ * Instances are not thread-safe.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class StreamingJsonPredicate {
+    /** The state of a partial evaluation. */
+    private enum Result {
+            /** A selected value satisfied the operator, the whole predicate is {@code true}. */
+            MATCH,
+            /** No selected value can satisfy the operator any more, the whole predicate is {@code false}. */
+            NO_MATCH,
+            /** This subtree did not match, but other parts of the document might. */
+            CONTINUE;
+    }
+
+    private final ObjectMapper m_mapper;
+
+    private final JsonFactory m_factory;
+
+    private final TokenPath m_tokenPath;
+
+    private final JsonPath m_jsonPath;
+
+    private final Configuration m_jsonPathConfig;
+
+    private final Operator m_operator;
+
+    private final JsonNode m_value;
+
+    /**
+     * Creates a predicate from a JSON Pointer.
+     *
+     * @param pointer The JSON Pointer selecting the value to test.
+     * @param operator The comparison operator.
+     * @param value The value to compare with (a JSON literal, or a plain text which is used as a JSON string).
+     * @return The predicate.
+     * @throws IllegalArgumentException When {@code pointer} is invalid.
+     */
+    static StreamingJsonPredicate forPointer(final String pointer, final Operator operator,
+        final String value) {
+        return new StreamingJsonPredicate(TokenPath.fromPointer(pointer), null, operator, value);
+    }
+
+    /**
+     * Creates a predicate from a JSONPath. Simple paths (child, index and wildcard steps) are evaluated on the token
+     * stream, more complex ones fall back to Jayway JSONPath.
+     *
+     * @param jsonPath The JSONPath selecting the values to test.
+     * @param operator The comparison operator.
+     * @param value The value to compare with (a JSON literal, or a plain text which is used as a JSON string).
+     * @return The predicate.
+     * @throws RuntimeException When {@code jsonPath} is invalid.
+     */
+    static StreamingJsonPredicate forJsonPath(final String jsonPath, final Operator operator,
+        final String value) {
+        final Optional<TokenPath> tokenPath = TokenPath.fromJsonPath(jsonPath);
+        if (tokenPath.isPresent()) {
+            return new StreamingJsonPredicate(tokenPath.get(), null, operator, value);
+        }
+        // currently, a bug in the JsonPath library requires commas in quotes to be (un)escaped manually, see
+        // - AP-10014
+        // - https://github.com/json-path/JsonPath/issues/400
+        // - https://github.com/json-path/JsonPath/issues/487
+        return new StreamingJsonPredicate(null, JsonPath.compile(JsonPathUtils.escapeCommas(jsonPath)), operator,
+            value);
+    }
+
+    private StreamingJsonPredicate(final TokenPath tokenPath, final JsonPath jsonPath, final Operator operator,
+        final String value) {
+        m_mapper = JacksonUtils.newMapper();
+        m_factory = m_mapper.getFactory();
+        m_tokenPath = tokenPath;
+        m_jsonPath = jsonPath;
+        m_jsonPathConfig = jsonPath == null ? null
+            : Configuration.builder().jsonProvider(new JacksonJsonNodeJsonProvider(m_mapper))
+                .mappingProvider(new JacksonMappingProvider(m_mapper))
+                .options(Option.ALWAYS_RETURN_LIST, Option.SUPPRESS_EXCEPTIONS).build();
+        m_operator = operator;
+        m_value = operator == Operator.EXISTS ? null : parseValue(value);
+    }
+
+    /**
+     * @return {@code true} iff the predicate is evaluated on the token stream (without building the document tree).
+     */
+    boolean isStreaming() {
+        return m_tokenPath != null;
+    }
+
+    /**
+     * @return The {@link TokenPath} used for streaming evaluation, or {@link Optional#empty()} for the fallback.
+     */
+    Optional<TokenPath> getTokenPath() {
+        return Optional.ofNullable(m_tokenPath);
+    }
+
+    /**
+     * Tests a JSON cell.
+     *
+     * @param cell A {@link JSONValue} {@link DataCell}. Missing cells never match.
+     * @return Whether the predicate holds for {@code cell}.
+     * @throws IOException When the stored JSON cannot be read.
+     */
+    boolean test(final DataCell cell) throws IOException {
+        if (cell.isMissing() || !(cell instanceof JSONValue)) {
+            return false;
+        }
+        if (m_tokenPath == null) {
+            final JsonNode json = JacksonConversions.getInstance().toJackson(((JSONValue)cell).getJsonValue());
+            return testJsonPath(json);
+        }
+        // JSON cells keep their content as text, reading that avoids building the JsonValue tree
+        return test(cell instanceof StringValue ? ((StringValue)cell).getStringValue() : cell.toString());
+    }
+
+    /**
+     * Tests a JSON text.
+     *
+     * @param json A JSON document.
+     * @return Whether the predicate holds for {@code json}.
+     * @throws IOException When {@code json} is not valid JSON (as far as it was read).
+     */
+    boolean test(final String json) throws IOException {
+        if (m_tokenPath == null) {
+            return testJsonPath(m_mapper.readTree(json));
+        }
+        try (JsonParser parser = m_factory.createParser(json)) {
+            if (parser.nextToken() == null) {
+                return false;
+            }
+            return evaluate(parser, 0) == Result.MATCH;
+        }
+    }
+
+    private boolean testJsonPath(final JsonNode json) {
+        final Object read = m_jsonPath.read(json, m_jsonPathConfig);
+        if (read instanceof ArrayNode) {
+            for (final JsonNode value : (ArrayNode)read) {
+                if (testValue(value)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Evaluates the steps from {@code stepIndex} on the value at the current token. Unless the result is decided
+     * ({@link Result#MATCH} or {@link Result#NO_MATCH}), the parser is left on the last token of that value.
+     */
+    private Result evaluate(final JsonParser parser, final int stepIndex) throws IOException {
+        if (stepIndex == m_tokenPath.size()) {
+            return testCurrent(parser);
+        }
+        final TokenPath.Step step = m_tokenPath.getStep(stepIndex);
+        // Without a wildcard before this step, there is no other candidate: a failure here decides the whole test.
+        final Result notFound = stepIndex <= m_tokenPath.getFirstWildcard() ? Result.NO_MATCH : Result.CONTINUE;
+        final JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final boolean selected = step.matchesField(parser.getCurrentName());
+                parser.nextToken();
+                if (selected) {
+                    final Result result = evaluate(parser, stepIndex + 1);
+                    if (result != Result.CONTINUE) {
+                        return result;
+                    }
+                    if (!step.isWildcard()) {
+                        return skipRest(parser, notFound);
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return notFound;
+        }
+        if (token == JsonToken.START_ARRAY) {
+            int index = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                if (step.matchesIndex(index++)) {
+                    final Result result = evaluate(parser, stepIndex + 1);
+                    if (result != Result.CONTINUE) {
+                        return result;
+                    }
+                    if (!step.isWildcard()) {
+                        return skipRest(parser, notFound);
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return notFound;
+        }
+        // scalar value, the path continues below it
+        return notFound;
+    }
+
+    /**
+     * Skips the remaining content of the current container unless the evaluation is already decided.
+     */
+    private static Result skipRest(final JsonParser parser, final Result notFound) throws IOException {
+        if (notFound == Result.CONTINUE) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && !token.isStructEnd()) {
+                parser.skipChildren();
+            }
+        }
+        return notFound;
+    }
+
+    private Result testCurrent(final JsonParser parser) throws IOException {
+        if (m_operator == Operator.EXISTS) {
+            return Result.MATCH;
+        }
+        // only the selected value is materialized
+        final JsonNode value = m_mapper.readTree(parser);
+        return testValue(value) ? Result.MATCH : Result.CONTINUE;
+    }
+
+    private boolean testValue(final JsonNode value) {
+        switch (m_operator) {
+            case EXISTS:
+                return true;
+            case EQUALS:
+                return equal(value, m_value);
+            case NOT_EQUALS:
+                return !equal(value, m_value);
+            case LESS_THAN:
+                return comparable(value, m_value) && compare(value, m_value) < 0;
+            case LESS_THAN_OR_EQUAL:
+                return comparable(value, m_value) && compare(value, m_value) <= 0;
+            case GREATER_THAN:
+                return comparable(value, m_value) && compare(value, m_value) > 0;
+            case GREATER_THAN_OR_EQUAL:
+                return comparable(value, m_value) && compare(value, m_value) >= 0;
+            default:
+                throw new IllegalStateException("Unknown operator: " + m_operator);
+        }
+    }
+
+    private static boolean equal(final JsonNode value, final JsonNode expected) {
+        if (value.isNumber() && expected.isNumber()) {
+            return value.decimalValue().compareTo(expected.decimalValue()) == 0;
+        }
+        return value.equals(expected);
+    }
+
+    /**
+     * @return Whether the two values can be ordered (both numbers or both strings).
+     */
+    private static boolean comparable(final JsonNode value, final JsonNode expected) {
+        return (value.isNumber() && expected.isNumber()) || (value.isTextual() && expected.isTextual());
+    }
+
+    /**
+     * @return The comparison result of two {@link #comparable(JsonNode, JsonNode) comparable} values.
+     */
+    private static int compare(final JsonNode value, final JsonNode expected) {
+        if (value.isNumber()) {
+            return value.decimalValue().compareTo(expected.decimalValue());
+        }
+        return value.textValue().compareTo(expected.textValue());
+    }
+
+    private JsonNode parseValue(final String value) {
+        if (value == null) {
+            return TextNode.valueOf("");
+        }
+        try {
+            final JsonNode node = m_mapper.readTree(value);
+            return node == null || node.isMissingNode() ? TextNode.valueOf(value) : node;
+        } catch (IOException e) {
+            // not a JSON literal, compare as text
+            return TextNode.valueOf(value);
+        }
+    }
+}
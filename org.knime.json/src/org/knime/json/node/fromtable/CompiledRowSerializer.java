@@ -0,0 +1,266 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+
+package org.knime.json.node.fromtable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.knime.core.data.BooleanValue;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DoubleValue;
+import org.knime.core.data.LongValue;
+import org.knime.core.data.StringValue;
+import org.knime.core.data.blob.BinaryObjectDataValue;
+import org.knime.core.data.collection.CollectionDataValue;
+import org.knime.core.data.json.JSONValue;
+import org.knime.core.data.vector.bytevector.ByteVectorValue;
+import org.knime.core.node.NodeLogger;
+import org.knime.core.util.JsonUtil;
+import org.knime.core.util.Pair;
+import org.knime.json.node.jsonpath.util.JsonPathUtils;
+import org.knime.json.util.JSR353Util;
+
+import com.fasterxml.jackson.core.Base64Variants;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Writes the JSON object of a row with a {@link JsonGenerator}. The column name hierarchy is compiled once to a flat
+ * list of instructions (start of a nested object with its key, a column with its key and index, end of a nested
+ * object), so no intermediate JSON values are created for the rows. The result is the same as building the object
+ * with {@link JSR353Util#fromCell(String, DataCell, jakarta.json.JsonObjectBuilder)} and serializing it.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class CompiledRowSerializer {
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(CompiledRowSerializer.class);
+
+    private static final byte FIELD = 0, START = 1, END = 2;
+
+    private final ObjectMapper m_mapper;
+
+    private final byte[] m_ops;
+
+    /** The keys of {@link #FIELD}s and {@link #START}s. */
+    private final String[] m_keys;
+
+    /** The column index for {@link #FIELD}s, the position of the corresponding {@link #END} for {@link #START}s. */
+    private final int[] m_args;
+
+    private final boolean m_missingsOmitted;
+
+    private final boolean m_booleansAsNumbers;
+
+    private final String m_rowKeyKey;
+
+    /** The position of the top level instruction replaced by the row key (when they have the same key), or -1. */
+    private final int m_rowKeyOp;
+
+    /**
+     * @param mapper The {@link ObjectMapper} to serialize the JSON values of the cells.
+     * @param includes The included columns.
+     * @param indices The indices of {@code includes}.
+     * @param structure The column name hierarchy (as filled by {@code TableToJsonNodeModel.fillStructures}), or
+     *            {@code null} when the column names are used as keys.
+     * @param missingsOmitted Whether the missing values are omitted.
+     * @param booleansAsNumbers Whether the booleans are written as {@code 1}/{@code 0}.
+     * @param rowKeyKey The key of the row key (added as the last value of the object), or {@code null} when the row
+     *            key is not a value.
+     */
+    CompiledRowSerializer(final ObjectMapper mapper, final String[] includes, final int[] indices,
+        final Map<String, Object> structure, final boolean missingsOmitted, final boolean booleansAsNumbers,
+        final String rowKeyKey) {
+        m_mapper = mapper;
+        m_missingsOmitted = missingsOmitted;
+        m_booleansAsNumbers = booleansAsNumbers;
+        m_rowKeyKey = rowKeyKey;
+        final List<Byte> ops = new ArrayList<>();
+        final List<String> keys = new ArrayList<>();
+        final List<Integer> args = new ArrayList<>();
+        int rowKeyOp = -1;
+        if (structure == null) {
+            for (int i = 0; i < includes.length; i++) {
+                if (includes[i].equals(rowKeyKey)) {
+                    rowKeyOp = ops.size();
+                }
+                ops.add(FIELD);
+                keys.add(includes[i]);
+                args.add(indices[i]);
+            }
+        } else {
+            for (Entry<String, Object> entry : structure.entrySet()) {
+                if (entry.getKey().equals(rowKeyKey)) {
+                    rowKeyOp = ops.size();
+                }
+                compile(entry, ops, keys, args);
+            }
+        }
+        m_ops = new byte[ops.size()];
+        m_keys = keys.toArray(new String[0]);
+        m_args = new int[ops.size()];
+        for (int i = 0; i < m_ops.length; i++) {
+            m_ops[i] = ops.get(i);
+            m_args[i] = args.get(i);
+        }
+        m_rowKeyOp = rowKeyOp;
+    }
+
+    private static void compile(final Entry<String, Object> entry, final List<Byte> ops, final List<String> keys,
+        final List<Integer> args) {
+        final Object object = entry.getValue();
+        if (object instanceof Integer index) {
+            ops.add(FIELD);
+            keys.add(entry.getKey());
+            args.add(index);
+        } else {
+            // the column of a pair is not part of the object (it was added to the nested object after that was built)
+            final Object map = object instanceof Pair<?, ?> pair ? pair.getSecond() : object;
+            @SuppressWarnings("unchecked")
+            final Map<String, Object> casted = (Map<String, Object>)map;
+            final int start = ops.size();
+            ops.add(START);
+            keys.add(entry.getKey());
+            args.add(-1);
+            for (Entry<String, Object> nested : casted.entrySet()) {
+                compile(nested, ops, keys, args);
+            }
+            args.set(start, ops.size());
+            ops.add(END);
+            keys.add(null);
+            args.add(-1);
+        }
+    }
+
+    /**
+     * Writes the JSON object of {@code row}.
+     *
+     * @param row A row.
+     * @param generator The output.
+     * @throws IOException When writing fails.
+     */
+    void write(final DataRow row, final JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        boolean rowKeyWritten = m_rowKeyKey == null;
+        for (int i = 0; i < m_ops.length; i++) {
+            switch (m_ops[i]) {
+                case START:
+                    if (i == m_rowKeyOp) {
+                        generator.writeStringField(m_rowKeyKey, row.getKey().getString());
+                        rowKeyWritten = true;
+                        i = m_args[i];
+                    } else {
+                        generator.writeFieldName(m_keys[i]);
+                        generator.writeStartObject();
+                    }
+                    break;
+                case END:
+                    generator.writeEndObject();
+                    break;
+                default:
+                    final DataCell cell = row.getCell(m_args[i]);
+                    if (m_missingsOmitted && cell.isMissing()) {
+                        break;
+                    }
+                    if (i == m_rowKeyOp) {
+                        generator.writeStringField(m_rowKeyKey, row.getKey().getString());
+                        rowKeyWritten = true;
+                    } else {
+                        generator.writeFieldName(m_keys[i]);
+                        writeValue(cell, row, generator);
+                    }
+            }
+        }
+        if (!rowKeyWritten) {
+            generator.writeStringField(m_rowKeyKey, row.getKey().getString());
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * Writes the value of {@code cell} the same way as {@link JSR353Util#fromCell} adds it to an object.
+     */
+    private void writeValue(final DataCell cell, final DataRow row, final JsonGenerator generator)
+        throws IOException {
+        if (cell.isMissing()) {
+            generator.writeNull();
+        } else if (cell instanceof BooleanValue bv) {
+            if (m_booleansAsNumbers) {
+                generator.writeNumber(bv.getBooleanValue() ? 1 : 0);
+            } else {
+                generator.writeBoolean(bv.getBooleanValue());
+            }
+        } else if (cell instanceof LongValue lv) {
+            generator.writeNumber(lv.getLongValue());
+        } else if (cell instanceof DoubleValue dv) {
+            m_mapper.writeValue(generator, JsonUtil.getProvider().createValue(dv.getDoubleValue()));
+        } else if (cell instanceof JSONValue jv) {
+            m_mapper.writeValue(generator, jv.getJsonValue());
+        } else if (cell instanceof ByteVectorValue bvv) {
+            generator.writeString(Base64Variants.getDefaultVariant().encode(JsonPathUtils.toBytes(bvv)));
+        } else if (cell instanceof BinaryObjectDataValue bodv) {
+            final String encoded;
+            try {
+                encoded = Base64Variants.getDefaultVariant().encode(JsonPathUtils.toBytes(bodv));
+            } catch (IOException e) {
+                LOGGER.warn("Failed to read binary object data value (row: " + row.getKey() + ")", e);
+                generator.writeNull();
+                return;
+            }
+            generator.writeString(encoded);
+        } else if (cell instanceof StringValue sv) {
+            generator.writeString(sv.getStringValue());
+        } else if (cell instanceof CollectionDataValue cdv) {
+            m_mapper.writeValue(generator, JSR353Util.fromCollectionCell(cdv).build());
+        } else {
+            generator.writeNull();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+
+package org.knime.json.node.fromtable;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * A JSON array written to a temporary file, which can be transferred later to its place in the output (a value of an
+ * object nested at the given depth). The elements are pretty printed as if they were written at their final place,
+ * so the result is the same as serializing the whole JSON value at once.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class JsonArraySpill implements Closeable {
+    private final ObjectMapper m_mapper;
+
+    private final File m_file;
+
+    private final FileOutputStream m_fileOut;
+
+    private final JsonGenerator m_generator;
+
+    /** The position of the {@code [} in {@link #m_file}. */
+    private final long m_start;
+
+    /**
+     * @param mapper The {@link ObjectMapper} used for the output (with {@code AUTO_CLOSE_JSON_CONTENT} disabled).
+     * @param file The temporary file (overwritten, not deleted).
+     * @param depth The number of objects containing the array in the output.
+     * @throws IOException When the file cannot be written.
+     */
+    JsonArraySpill(final ObjectMapper mapper, final File file, final int depth) throws IOException {
+        m_mapper = mapper;
+        m_file = file;
+        m_fileOut = new FileOutputStream(file);
+        m_generator = mapper.createGenerator(new BufferedOutputStream(m_fileOut));
+        // the same nesting as in the output, so the pretty printer indents the elements the same way
+        for (int i = 0; i < depth; i++) {
+            m_generator.writeStartObject();
+            m_generator.writeFieldName("");
+        }
+        m_generator.writeStartArray();
+        m_generator.flush();
+        m_start = m_fileOut.getChannel().position() - 1;
+    }
+
+    /**
+     * @param value The next element of the array (serialized by the {@link ObjectMapper}).
+     * @throws IOException When the file cannot be written.
+     */
+    void write(final Object value) throws IOException {
+        m_mapper.writeValue(m_generator, value);
+    }
+
+    /**
+     * @param value The next element of the array.
+     * @throws IOException When the file cannot be written.
+     */
+    void writeString(final String value) throws IOException {
+        m_generator.writeString(value);
+    }
+
+    /**
+     * Finishes the array and writes it as the value of the field just written to {@code target}.
+     *
+     * @param target The output, it has to be created by the same {@link ObjectMapper} and its last token is a field
+     *            name at the depth of this array.
+     * @param targetStream The {@link OutputStream} of {@code target}.
+     * @throws IOException When reading the file or writing the output fails.
+     */
+    void transferTo(final JsonGenerator target, final OutputStream targetStream) throws IOException {
+        m_generator.writeEndArray();
+        close();
+        // writes the separator of the field name, the array is copied after that
+        target.writeRawValue("");
+        target.flush();
+        try (InputStream in = new FileInputStream(m_file)) {
+            in.skipNBytes(m_start);
+            in.transferTo(targetStream);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            m_generator.close();
+        } finally {
+            m_fileOut.close();
+        }
+    }
+}
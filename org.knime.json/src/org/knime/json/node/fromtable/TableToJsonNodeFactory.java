@@ -140,6 +140,9 @@ public NodeDescription createNodeDescription() {
                   "a.c" : [ "c0", "c1" ],
                   "d" : [ "d0", "d1" ]
                 }</pre>
+                In the row-oriented and column-oriented modes the rows are written one by one, without building the \
+                whole JSON value in memory first. The text of the resulting cell is still held in memory, so its size \
+                is limited by the available heap space.
                 """) //
             .modelSettingsClass(TableToJsonNodeParameters.class) //
             .nodeType(NodeType.Manipulator) //
@@ -1,11 +1,17 @@
 package org.knime.json.node.fromtable;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -14,7 +20,6 @@
 import java.util.TreeMap;
 import java.util.regex.Pattern;
 
-import org.knime.core.data.BooleanValue;
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataColumnSpecCreator;
 import org.knime.core.data.DataRow;
@@ -23,7 +28,6 @@
 import org.knime.core.data.container.ColumnRearranger;
 import org.knime.core.data.container.SingleCellFactory;
 import org.knime.core.data.def.DefaultRow;
-import org.knime.core.data.def.IntCell;
 import org.knime.core.data.json.JSONCell;
 import org.knime.core.data.json.JSONCellFactory;
 import org.knime.core.node.BufferedDataContainer;
@@ -37,13 +41,18 @@
 import org.knime.core.node.NodeSettingsRO;
 import org.knime.core.node.NodeSettingsWO;
 import org.knime.core.node.util.CheckUtils;
+import org.knime.core.util.FileUtil;
 import org.knime.core.util.JsonUtil;
 import org.knime.core.util.Pair;
+import org.knime.json.node.util.StreamedJSONCells;
 import org.knime.json.util.JSR353Util;
 import org.knime.node.parameters.widget.choices.Label;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import jakarta.json.JsonArrayBuilder;
-import jakarta.json.JsonObjectBuilder;
 import jakarta.json.JsonValue;
 
 /**
@@ -121,6 +130,9 @@ protected enum MissingValueHandling {
 
     private static final NodeLogger LOGGER = NodeLogger.getLogger(TableToJsonNodeModel.class);
 
+    /** Writes the JSON values (the output is the same as serializing the whole value at once). */
+    private static final ObjectMapper MAPPER = StreamedJSONCells.newMapper();
+
     private final TableToJsonSettings m_settings = new TableToJsonSettings();
 
     /**
@@ -158,20 +170,29 @@ protected BufferedDataTable[] execute(final BufferedDataTable[] inData, final Ex
      * @param data
      * @param exec
      * @throws InvalidSettingsException
+     * @throws IOException
+     * @throws CanceledExecutionException
      */
     private BufferedDataTable columnsOutside(final BufferedDataTable data, final ExecutionContext exec)
-        throws InvalidSettingsException {
+        throws InvalidSettingsException, IOException, CanceledExecutionException {
         BufferedDataContainer container = exec.createDataContainer(configure(new DataTableSpec[]{data.getSpec()})[0]);
-        container.addRowToTable(new DefaultRow(RowKey.createRowKey(1L), createCellColumnsOutside(data)));
+        container.addRowToTable(new DefaultRow(RowKey.createRowKey(1L), createCellColumnsOutside(data, exec)));
         container.close();
         return container.getTable();
     }
 
     /**
+     * Creates the column-oriented JSON value in a single pass over the rows: the arrays are written to temporary
+     * files, which are concatenated to the result in the end.
+     *
      * @param data
+     * @param exec
      * @return
+     * @throws IOException
+     * @throws CanceledExecutionException
      */
-    private DataCell createCellColumnsOutside(final BufferedDataTable data) {
+    private DataCell createCellColumnsOutside(final BufferedDataTable data, final ExecutionMonitor exec)
+        throws IOException, CanceledExecutionException {
         final String[] includes = m_settings.getSelectedColumns().applyTo(data.getSpec()).getIncludes();
         final int[] indices = new int[includes.length];
         Map<String, Object> structure = new LinkedHashMap<>();
@@ -179,20 +200,10 @@ private DataCell createCellColumnsOutside(final BufferedDataTable data) {
         SortedMap<List<String>, Integer> keysSplit = createListKeySortedMap();
         fillStructures(data.getSpec(), m_settings.getColumnNameSeparator(), includes, indices, keys, keysSplit,
             structure);
-        JsonObjectBuilder root = JsonUtil.getProvider().createObjectBuilder();
-        Map<String, JsonArrayBuilder> keysToArrays = new LinkedHashMap<>();
-        for (int i = 0; i < includes.length; i++) {
-            String colName = includes[i];
-            JsonArrayBuilder ab = JsonUtil.getProvider().createArrayBuilder();
-            keysToArrays.put(colName, ab);
-        }
         String key = m_settings.getRowKeyKey();
         switch (m_settings.getRowKey()) {
             case omit:
-                break;
             case asValue:
-                JsonArrayBuilder ab = JsonUtil.getProvider().createArrayBuilder();
-                keysToArrays.put(key, ab);
                 break;
             case asKey:
                 CheckUtils.checkState(false, "Row key as key is not allowed for the columns outside option.");
@@ -200,33 +211,110 @@ private DataCell createCellColumnsOutside(final BufferedDataTable data) {
             default:
                 CheckUtils.checkState(false, "Unsupported row key option: " + m_settings.getRowKey());
         }
-        for (DataRow dataRow : data) {
-            for (int i = 0; i < indices.length; i++) {
-                final int index = indices[i];
-                DataCell cell = dataRow.getCell(index);
-                try {
-                    JSR353Util.addToArrayFromCell(keysToArrays.get(includes[i]), cell);
-                } catch (IOException e) {
-                    LOGGER.warn("Failed to read binary object in row (" + dataRow.getKey() + "), replaced with null.",
-                        e);
-                    keysToArrays.get(includes[i]).addNull();
+        final boolean rowKeyAsValue = m_settings.getRowKey() == RowKeyOption.asValue;
+        // the keys of the result to the name of the array (column or row key) or to nested objects
+        final Map<String, Object/*Map<String, rec> | String*/> layout = new LinkedHashMap<>();
+        if (!m_settings.isColumnNamesAsPath()) {
+            for (String colName : includes) {
+                layout.put(colName, colName);
+            }
+            if (rowKeyAsValue) {
+                layout.put(key, key);
+            }
+        } else {
+            if (rowKeyAsValue) {
+                layout.put(key, key);
+            }
+            fillLayout(structure, layout, Collections.<String> emptyList());
+        }
+        final Map<String, Integer> columnIndices = new HashMap<>();
+        for (int i = 0; i < includes.length; i++) {
+            columnIndices.put(includes[i], indices[i]);
+        }
+        final File spillDir = FileUtil.createTempDir("table-to-json");
+        final List<JsonArraySpill> spills = new ArrayList<>();
+        try {
+            final List<String> arrayNames = new ArrayList<>();
+            createSpills(layout, 1, spillDir, arrayNames, spills);
+            final int[] arrayColumns = new int[spills.size()];
+            final boolean[] arrayRowKeys = new boolean[spills.size()];
+            for (int i = 0; i < arrayColumns.length; i++) {
+                final String name = arrayNames.get(i);
+                arrayColumns[i] = columnIndices.getOrDefault(name, -1);
+                arrayRowKeys[i] = rowKeyAsValue && key.equals(name);
+            }
+            final double rowCount = data.size();
+            long rowIndex = 0;
+            for (DataRow dataRow : data) {
+                exec.checkCanceled();
+                exec.setProgress(rowIndex++ / rowCount);
+                for (int i = 0; i < arrayColumns.length; i++) {
+                    if (arrayColumns[i] >= 0) {
+                        spills.get(i).write(arrayElement(dataRow, arrayColumns[i]));
+                    }
+                    if (arrayRowKeys[i]) {
+                        spills.get(i).writeString(dataRow.getKey().getString());
+                    }
                 }
             }
-            if (m_settings.getRowKey() == RowKeyOption.asValue) {
-                keysToArrays.get(key).add(dataRow.getKey().getString());
+            return StreamedJSONCells.create(MAPPER,
+                (generator, out) -> writeLayout(layout, generator, out, spills.iterator()));
+        } finally {
+            for (JsonArraySpill spill : spills) {
+                spill.close();
             }
+            FileUtil.deleteRecursively(spillDir);
         }
-        if (!m_settings.isColumnNamesAsPath()) {
-            for (Entry<String, JsonArrayBuilder> entry : keysToArrays.entrySet()) {
-                root.add(entry.getKey(), entry.getValue());
+    }
+
+    /**
+     * @param row A row.
+     * @param index The index of the column.
+     * @return The JSON value of the cell as an array element.
+     */
+    private static JsonValue arrayElement(final DataRow row, final int index) {
+        final JsonArrayBuilder element = JsonUtil.getProvider().createArrayBuilder();
+        try {
+            JSR353Util.addToArrayFromCell(element, row.getCell(index));
+        } catch (IOException e) {
+            LOGGER.warn("Failed to read binary object in row (" + row.getKey() + "), replaced with null.", e);
+            return JsonValue.NULL;
+        }
+        return element.build().get(0);
+    }
+
+    /**
+     * Creates the {@link JsonArraySpill}s for the arrays of {@code layout} in the order of
+     * {@link #writeLayout(Map, JsonGenerator, OutputStream, Iterator)}.
+     */
+    private static void createSpills(final Map<String, Object> layout, final int depth, final File spillDir,
+        final List<String> arrayNames, final List<JsonArraySpill> spills) throws IOException {
+        for (Object value : layout.values()) {
+            if (value instanceof Map<?, ?> map) {
+                @SuppressWarnings("unchecked")
+                Map<String, Object> casted = (Map<String, Object>)map;
+                createSpills(casted, depth + 1, spillDir, arrayNames, spills);
+            } else {
+                arrayNames.add((String)value);
+                spills.add(new JsonArraySpill(MAPPER, new File(spillDir, spills.size() + ".json"), depth));
             }
-        } else {
-            if (m_settings.getRowKey() == RowKeyOption.asValue) {
-                root.add(key, keysToArrays.get(key));
+        }
+    }
+
+    private static void writeLayout(final Map<String, Object> layout, final JsonGenerator generator,
+        final OutputStream out, final Iterator<JsonArraySpill> spills) throws IOException {
+        generator.writeStartObject();
+        for (Entry<String, Object> entry : layout.entrySet()) {
+            generator.writeFieldName(entry.getKey());
+            if (entry.getValue() instanceof Map<?, ?> map) {
+                @SuppressWarnings("unchecked")
+                Map<String, Object> casted = (Map<String, Object>)map;
+                writeLayout(casted, generator, out, spills);
+            } else {
+                spills.next().transferTo(generator, out);
             }
-            visitStructure(structure, root, keysToArrays, Collections.<String> emptyList());
         }
-        return JSONCellFactory.create(root.build());
+        generator.writeEndObject();
     }
 
     /**
@@ -252,90 +340,68 @@ private BufferedDataTable keepRows(final BufferedDataTable data, final Execution
      * @param exec
      * @return
      * @throws InvalidSettingsException
+     * @throws IOException
+     * @throws CanceledExecutionException
      */
     private BufferedDataTable rowsOutside(final BufferedDataTable data, final ExecutionContext exec)
-        throws InvalidSettingsException {
+        throws InvalidSettingsException, IOException, CanceledExecutionException {
         BufferedDataContainer container = exec.createDataContainer(configure(new DataTableSpec[]{data.getSpec()})[0]);
-        container.addRowToTable(new DefaultRow(RowKey.createRowKey(1L), createCellRowsOutside(data)));
+        container.addRowToTable(new DefaultRow(RowKey.createRowKey(1L), createCellRowsOutside(data, exec)));
         container.close();
         return container.getTable();
     }
 
     /**
+     * Creates the row-oriented JSON value, the rows are written one by one.
+     *
      * @param data
+     * @param exec
      * @return
+     * @throws IOException
+     * @throws CanceledExecutionException
      */
-    private DataCell createCellRowsOutside(final BufferedDataTable data) {
-        final String[] includes = m_settings.getSelectedColumns().applyTo(data.getSpec()).getIncludes();
-        final int[] indices = new int[includes.length];
-        final Map<String, List<String>> keys = new LinkedHashMap<>();
-        final SortedMap<List<String>, Integer> keysSplit = createListKeySortedMap();
-        final Map<String, Object> structure = new LinkedHashMap<>();
-        fillStructures(data.getSpec(), m_settings.getColumnNameSeparator(), includes, indices, keys, keysSplit,
-            structure);
-        if (m_settings.getRowKey() == RowKeyOption.asKey) {
-            JsonObjectBuilder root = JsonUtil.getProvider().createObjectBuilder();
+    private DataCell createCellRowsOutside(final BufferedDataTable data, final ExecutionMonitor exec)
+        throws IOException, CanceledExecutionException {
+        final CompiledRowSerializer serializer = createRowSerializer(data.getSpec());
+        final boolean asKey = m_settings.getRowKey() == RowKeyOption.asKey;
+        final double rowCount = data.size();
+        return StreamedJSONCells.create(MAPPER, (generator, out) -> {
+            if (asKey) {
+                generator.writeStartObject();
+            } else {
+                generator.writeStartArray();
+            }
+            long rowIndex = 0;
             for (DataRow dataRow : data) {
-                final JsonObjectBuilder row = visitRow(includes, indices, structure, dataRow);
-                root.add(dataRow.getKey().getString(), row);
+                exec.checkCanceled();
+                exec.setProgress(rowIndex++ / rowCount);
+                if (asKey) {
+                    generator.writeFieldName(dataRow.getKey().getString());
+                }
+                serializer.write(dataRow, generator);
             }
-            return JSONCellFactory.create(root.build());
-        }
-        final JsonArrayBuilder root = JsonUtil.getProvider().createArrayBuilder();
-        for (DataRow dataRow : data) {
-            final JsonObjectBuilder row = visitRow(includes, indices, structure, dataRow);
-            switch (m_settings.getRowKey()) {
-                case asValue:
-                    row.add(m_settings.getRowKeyKey(), dataRow.getKey().getString());
-                    break;
-                case omit:
-                    break;
-                case asKey:
-                    CheckUtils.checkState(false, "This case should be handled previously");
-                    break;
-                default:
-                    CheckUtils.checkState(false, "Unsupported row key option: " + m_settings.getRowKey());
+            if (asKey) {
+                generator.writeEndObject();
+            } else {
+                generator.writeEndArray();
             }
-            root.add(row);
-        }
-        return JSONCellFactory.create(root.build());
-    }
-
-    /**
-     * @param includes
-     * @param indices
-     * @param structure
-     * @param dataRow
-     * @return
-     */
-    JsonObjectBuilder visitRow(final String[] includes, final int[] indices, final Map<String, Object> structure,
-        final DataRow dataRow) {
-        JsonObjectBuilder row = JsonUtil.getProvider().createObjectBuilder();
-        if (m_settings.isColumnNamesAsPath()) {
-            visitStructure(structure, dataRow, row);
-        } else {
-            visitSimple(includes, indices, dataRow, row);
-        }
-        return row;
+        });
     }
 
     /**
-     * @param includes
-     * @param indices
-     * @param dataRow
-     * @param row
+     * @param spec The input table spec.
+     * @return The serializer of the row objects with the current settings.
      */
-    void visitSimple(final String[] includes, final int[] indices, final DataRow dataRow, final JsonObjectBuilder row) {
-        for (int i = 0; i < indices.length; i++) {
-            final int index = indices[i];
-            DataCell cell = dataRow.getCell(index);
-            try {
-                fromCell(row, includes[i], cell);
-            } catch (IOException e) {
-                LOGGER.warn("Failed to read binary object data value (row: " + dataRow.getKey() + ")", e);
-                row.addNull(includes[i]);
-            }
-        }
+    private CompiledRowSerializer createRowSerializer(final DataTableSpec spec) {
+        final String[] includes = m_settings.getSelectedColumns().applyTo(spec).getIncludes();
+        final int[] indices = new int[includes.length];
+        final Map<String, List<String>> keys = new LinkedHashMap<>();
+        final SortedMap<List<String>, Integer> keysSplit = createListKeySortedMap();
+        final Map<String, Object> structure = new LinkedHashMap<>();
+        fillStructures(spec, m_settings.getColumnNameSeparator(), includes, indices, keys, keysSplit, structure);
+        return new CompiledRowSerializer(MAPPER, includes, indices, m_settings.isColumnNamesAsPath() ? structure : null,
+            m_settings.isMissingsAreOmitted(), m_settings.isBooleansAsNumbers(),
+            m_settings.getRowKey() == RowKeyOption.asValue ? m_settings.getRowKeyKey() : null);
     }
 
     /**
@@ -364,50 +430,38 @@ protected DataTableSpec[] configure(final DataTableSpec[] inSpecs) throws Invali
      */
     private ColumnRearranger createRearranger(final DataTableSpec spec) {
         final ColumnRearranger rearranger = new ColumnRearranger(spec);
+        final CompiledRowSerializer serializer = createRowSerializer(spec);
+        final boolean asKey = m_settings.getRowKey() == RowKeyOption.asKey;
         rearranger.append(new SingleCellFactory(new DataColumnSpecCreator(DataTableSpec.getUniqueColumnName(
             rearranger.createSpec(), m_settings.getOutputColumnName()), JSONCell.TYPE).createSpec()) {
 
-            private final String[] m_includes = m_settings.getSelectedColumns().applyTo(spec).getIncludes();
-
-            private final int[] m_indices = new int[m_includes.length];
+            private final ByteArrayOutputStream m_buffer = new ByteArrayOutputStream();
 
-            private final Map<String, List<String>> m_keys = new LinkedHashMap<>();
-
-            private final SortedMap<List<String>, Integer> m_keysSplit = createListKeySortedMap();
-
-            private final Map<String, Object/*Map<String, rec> | Integer | Pair<Integer, Map<String, rec>*/>
-                m_structure = new LinkedHashMap<>();
-            {
-                fillStructures(spec, m_settings.getColumnNameSeparator(), m_includes, m_indices, m_keys, m_keysSplit,
-                    m_structure);
-            }
+            /** Reused for all rows, writes the values without separators. */
+            private JsonGenerator m_generator;
 
             @Override
             public DataCell getCell(final DataRow row) {
-                JsonValue value = createValue(row);
-                return JSONCellFactory.create(value);
-            }
-
-            private JsonValue createValue(final DataRow dataRow) {
-                JsonObjectBuilder root = JsonUtil.getProvider().createObjectBuilder();
-                if (m_settings.isColumnNamesAsPath()) {
-                    visitStructure(m_structure, dataRow, root);
-                } else {
-                    visitSimple(m_includes, m_indices, dataRow, root);
-                }
-                switch (m_settings.getRowKey()) {
-                    case omit:
-                        break;
-                    case asValue:
-                        root.add(m_settings.getRowKeyKey(), dataRow.getKey().getString());
-                        break;
-                    case asKey:
-                        return JsonUtil.getProvider().createObjectBuilder()
-                            .add(dataRow.getKey().getString(), root.build()).build();
-                    default:
-                        CheckUtils.checkState(false, "Unsupported row key option: " + m_settings.getRowKey());
+                try {
+                    if (m_generator == null) {
+                        m_generator = MAPPER.createGenerator(m_buffer)
+                            .setPrettyPrinter(new DefaultPrettyPrinter().withRootSeparator((String)null));
+                    }
+                    if (asKey) {
+                        m_generator.writeStartObject();
+                        m_generator.writeFieldName(row.getKey().getString());
+                    }
+                    serializer.write(row, m_generator);
+                    if (asKey) {
+                        m_generator.writeEndObject();
+                    }
+                    m_generator.flush();
+                    final String json = m_buffer.toString(StandardCharsets.UTF_8);
+                    m_buffer.reset();
+                    return JSONCellFactory.create(json);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
                 }
-                return root.build();
             }
         });
         if (m_settings.isRemoveSourceColumns()) {
@@ -525,85 +579,31 @@ public int compare(final List<String> o1, final List<String> o2) {
         });
     }
 
-    private void visitStructure(
-        final Map<String, Object/*Map<String, rec> | Integer | Pair<Integer, Map<String, rec>*/> structure,
-        final DataRow row, final JsonObjectBuilder root) {
-        for (Entry<String, Object> entry : structure.entrySet()) {
-            Object object = entry.getValue();
-            if (object instanceof Map<?, ?> map) {
-                @SuppressWarnings("unchecked")
-                Map<String, Object> casted = (Map<String, Object>)map;
-                JsonObjectBuilder newBuilder = JsonUtil.getProvider().createObjectBuilder();
-                visitStructure(casted, row, newBuilder);
-                root.add(entry.getKey(), newBuilder);
-            }
-            if (object instanceof Pair<?, ?> pair) {
-                Integer index = (Integer)pair.getFirst();
-                Map<?, ?> map = (Map<?, ?>)pair.getSecond();
-                @SuppressWarnings("unchecked")
-                Map<String, Object> casted = (Map<String, Object>)map;
-                JsonObjectBuilder newBuilder = JsonUtil.getProvider().createObjectBuilder();
-                visitStructure(casted, row, newBuilder);
-                root.add(entry.getKey(), newBuilder);
-                DataCell cell = row.getCell(index);
-                try {
-                    fromCell(newBuilder, entry.getKey(), cell);
-                } catch (IOException e) {
-                    LOGGER.warn("Failed to read binary object data value (row: " + row.getKey() + ")", e);
-                    newBuilder.addNull(entry.getKey());
-                }
-            }
-            if (object instanceof Integer index) {
-                DataCell cell = row.getCell(index);
-                try {
-                    fromCell(root, entry.getKey(), cell);
-                } catch (IOException e) {
-                    LOGGER.warn("Failed to read binary object data value (row: " + row.getKey() + ")", e);
-                    root.addNull(entry.getKey());
-                }
-            }
-        }
-    }
-
-    private static final IntCell TRUE = new IntCell(1);
-    private static final IntCell FALSE = new IntCell(0);
-
-    private void fromCell(final JsonObjectBuilder root, final String key, final DataCell cell)
-        throws IOException {
-        if (!m_settings.isMissingsAreOmitted() || !cell.isMissing()) {
-            if (m_settings.isBooleansAsNumbers() && (cell instanceof BooleanValue bool)) {
-                JSR353Util.fromCell(key, bool.getBooleanValue() ? TRUE : FALSE, root);
-            } else {
-                JSR353Util.fromCell(key, cell, root);
-            }
-        }
-    }
-
-    private void visitStructure(
+    /**
+     * Fills the layout of the column-oriented JSON value for hierarchical column names.
+     *
+     * @param structure The structure of the columns.
+     * @param layout The keys to the names of the arrays or to nested objects.
+     * @param currentKeys The keys of {@code structure}.
+     */
+    private void fillLayout(
         final Map<String, Object/*Map<String, rec> | Integer | Pair<Integer, Map<String, rec>*/> structure,
-        final JsonObjectBuilder root, final Map<String, JsonArrayBuilder> result, final List<String> currentKeys) {
+        final Map<String, Object/*Map<String, rec> | String*/> layout, final List<String> currentKeys) {
         for (Entry<String, Object> entry : structure.entrySet()) {
             Object object = entry.getValue();
             List<String> newCurrentKeys = new ArrayList<>(currentKeys);
             newCurrentKeys.add(entry.getKey());
-            if (object instanceof Map<?, ?> map) {
-                @SuppressWarnings("unchecked")
-                Map<String, Object> casted = (Map<String, Object>)map;
-                JsonObjectBuilder newBuilder = JsonUtil.getProvider().createObjectBuilder();
-                visitStructure(casted, newBuilder, result, newCurrentKeys);
-                root.add(entry.getKey(), newBuilder);
-            }
-            if (object instanceof Pair<?, ?> pair) {
-                Map<?, ?> map = (Map<?, ?>)pair.getSecond();
+            if (object instanceof Map<?, ?> || object instanceof Pair<?, ?>) {
+                // the column of a pair is not in the output (just like when the nested object was built before it)
+                Map<?, ?> map = object instanceof Pair<?, ?> pair ? (Map<?, ?>)pair.getSecond() : (Map<?, ?>)object;
                 @SuppressWarnings("unchecked")
                 Map<String, Object> casted = (Map<String, Object>)map;
-                JsonObjectBuilder newBuilder = JsonUtil.getProvider().createObjectBuilder();
-                visitStructure(casted, newBuilder, result, newCurrentKeys);
-                root.add(entry.getKey(), newBuilder);
-                newBuilder.add(entry.getKey(), result.get(join(newCurrentKeys)));
+                Map<String, Object> nested = new LinkedHashMap<>();
+                fillLayout(casted, nested, newCurrentKeys);
+                layout.put(entry.getKey(), nested);
             }
             if (object instanceof Integer) {
-                root.add(entry.getKey(), result.get(join(newCurrentKeys)));
+                layout.put(entry.getKey(), join(newCurrentKeys));
             }
         }
     }
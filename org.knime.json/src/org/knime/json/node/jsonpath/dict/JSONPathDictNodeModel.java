@@ -20,6 +20,7 @@
 import org.knime.core.data.collection.SetCell;
 import org.knime.core.data.container.ColumnRearranger;
 import org.knime.core.data.container.SingleCellFactory;
+import org.knime.core.data.json.JSONProjection;
 import org.knime.core.data.json.JSONValue;
 import org.knime.core.data.json.JacksonConversions;
 import org.knime.core.node.BufferedDataTable;
@@ -37,6 +38,7 @@
 import org.knime.json.node.util.ErrorHandling;
 import org.knime.json.util.OutputType;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.github.fge.jackson.JacksonUtils;
@@ -44,8 +46,6 @@
 import com.jayway.jsonpath.JsonPath;
 import com.jayway.jsonpath.Option;
 
-import jakarta.json.JsonValue;
-
 /**
  * This is the model implementation of JSONPathDict.
  * Collect parts of JSON documents based on JSONPath values specified in the second input port.
@@ -145,6 +145,7 @@ protected BufferedDataTable[] execute(final BufferedDataTable[] inData,
         double allDict = inData[DICT_TABLE].size(), allRows = inData[INPUT_TABLE].size();
         double fraction = allDict + allRows == 0 ? 1 : allDict / (allDict * (1 + allRows));
         ExecutionMonitor init = exec.createSubProgress(fraction);
+        final JSONProjection projection = createProjection(inData[DICT_TABLE], pathIdx);
         int i = 0;
         for (DataRow dictRow : inData[DICT_TABLE]) {
             init.checkCanceled();
@@ -205,15 +206,20 @@ public DataCell getCell(final DataRow row) {
                         DataCell cell = row.getCell(inputIdx);
                         if (cell instanceof JSONValue) {
                             JSONValue jsonCell = (JSONValue)cell;
-                            JsonValue jsonValue = jsonCell.getJsonValue();
                             Object readObject;
                             try {
-                                if (config.jsonProvider().getClass().getName().contains("JacksonJsonNode")) {
-                                    readObject = jsonPath.read(conv.toJackson(jsonValue), config);
+                                final boolean jackson =
+                                    config.jsonProvider().getClass().getName().contains("JacksonJsonNode");
+                                if (projection != null) {
+                                    final JsonNode projected = projection.project(jsonCell);
+                                    readObject = jackson ? jsonPath.read(projected, config)
+                                        : jsonPath.read(projected.toString(), config);
+                                } else if (jackson) {
+                                    readObject = jsonPath.read(conv.toJackson(jsonCell.getJsonValue()), config);
                                 } else {
-                                    readObject = jsonPath.read(jsonValue.toString(), config);
+                                    readObject = jsonPath.read(jsonCell.getJsonValue().toString(), config);
                                 }
-                            } catch (RuntimeException e) {
+                            } catch (RuntimeException | IOException e) {
                                 return new MissingCell(e.getMessage());
                             }
                             Iterable<?> read = config.jsonProvider().toIterable(readObject);
@@ -266,6 +272,24 @@ public DataCell getCell(final DataRow row) {
         return new BufferedDataTable[]{rest.createColumnRearrangeTable(inData[INPUT_TABLE], rearranger, exec)};
     }
 
+    /**
+     * @param dictTable The dictionary table.
+     * @param pathIdx The index of the path column.
+     * @return The parts of the input values needed by the paths of the dictionary, or {@code null} if the whole values
+     *         are needed.
+     */
+    private static JSONProjection createProjection(final BufferedDataTable dictTable, final int pathIdx) {
+        final List<List<String>> leadingKeys = new ArrayList<>();
+        for (DataRow dictRow : dictTable) {
+            final DataCell pathCell = dictRow.getCell(pathIdx);
+            if (!(pathCell instanceof StringValue)) {
+                return null;
+            }
+            leadingKeys.add(JsonPathUtils.leadingKeys(((StringValue)pathCell).getStringValue()));
+        }
+        return JSONProjection.of(leadingKeys).orElse(null);
+    }
+
     /**
      * @param type The single type definition as {@link String}.
      * @param rowIndex The row's position.
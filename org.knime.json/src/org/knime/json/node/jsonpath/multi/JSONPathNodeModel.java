@@ -51,7 +51,9 @@
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataColumnSpec;
@@ -72,9 +74,13 @@
 import org.knime.core.data.def.LongCell;
 import org.knime.core.data.def.StringCell;
 import org.knime.core.data.json.JSONCellFactory;
+import org.knime.core.data.json.JSONPathIndex;
+import org.knime.core.data.json.JSONProjection;
 import org.knime.core.data.json.JSONValue;
 import org.knime.core.data.json.JacksonConversions;
+import org.knime.core.node.BufferedDataTable;
 import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionContext;
 import org.knime.core.node.ExecutionMonitor;
 import org.knime.core.node.InvalidSettingsException;
 import org.knime.core.node.NodeLogger;
@@ -82,7 +88,9 @@
 import org.knime.core.node.NodeSettingsWO;
 import org.knime.core.node.streamable.simple.SimpleStreamableFunctionNodeModel;
 import org.knime.json.node.jsonpath.util.JsonPathUtils;
+import org.knime.json.node.jsonpath.util.TokenPath;
 import org.knime.json.node.util.ErrorHandling;
+import org.knime.json.node.util.PayloadAwareParallelism;
 import org.knime.json.util.OutputType;
 
 import com.fasterxml.jackson.core.Base64Variants;
@@ -106,6 +114,12 @@
 public class JSONPathNodeModel extends SimpleStreamableFunctionNodeModel {
     private static final NodeLogger LOGGER = NodeLogger.getLogger(JSONPathNodeModel.class);
 
+    /**
+     * The number of values of a column to evaluate before its path index is used. Building the index costs a pass
+     * over the text, so it is only used while at least half of the values lacked the first key of the path.
+     */
+    private static final int INDEX_SAMPLE_SIZE = 100;
+
     private final JSONPathSettings m_settings = new JSONPathSettings(LOGGER);
 
     /**
@@ -204,6 +218,29 @@ protected DataColumnSpec handleNonSetColumn(final DataTableSpec tableSpec) throw
      */
     @Override
     protected ColumnRearranger createColumnRearranger(final DataTableSpec inSpecs) throws InvalidSettingsException {
+        return createColumnRearranger(inSpecs, null);
+    }
+
+    /**
+     * {@inheritDoc} The number of rows in flight is adapted to the payload sizes of the input column (see
+     * {@link PayloadAwareParallelism}).
+     */
+    @Override
+    protected BufferedDataTable[] execute(final BufferedDataTable[] inData, final ExecutionContext exec)
+        throws Exception {
+        final BufferedDataTable table = inData[0];
+        final ColumnRearranger rearranger = createColumnRearranger(table.getDataTableSpec(), table);
+        return new BufferedDataTable[]{exec.createColumnRearrangeTable(table, rearranger, exec)};
+    }
+
+    /**
+     * @param inSpecs The input table spec.
+     * @param table The input table when executing (not streaming), otherwise {@code null}.
+     * @return The {@link ColumnRearranger}.
+     * @throws InvalidSettingsException Same as {@link #createColumnRearranger(DataTableSpec)}.
+     */
+    private ColumnRearranger createColumnRearranger(final DataTableSpec inSpecs, final BufferedDataTable table)
+        throws InvalidSettingsException {
         if (!m_settings.getOutputSettings().iterator().hasNext()) {
             throw new InvalidSettingsException("No JSON path was specified, please enter at least one expression!");
         }
@@ -213,13 +250,24 @@ protected ColumnRearranger createColumnRearranger(final DataTableSpec inSpecs) t
             input = handleNonSetColumn(inSpecs).getName();
         }
         final int inputIndex = inSpecs.findColumnIndex(input);
+        final PayloadAwareParallelism parallelism =
+            table == null ? null : PayloadAwareParallelism.sample(table, inputIndex);
+        // the values are read only up to the keys the paths start with, once per row for all paths
+        final List<List<String>> leadingKeys = new ArrayList<>();
+        for (SingleSetting setting : m_settings.getOutputSettings()) {
+            leadingKeys.add(JsonPathUtils.leadingKeys(setting.getJsonPath()));
+        }
+        final JSONProjection projection = JSONProjection.of(leadingKeys).orElse(null);
         int index = 0;
         for (SingleSetting setting : m_settings.getOutputSettings()) {
             String outputColName = DataTableSpec.getUniqueColumnName(ret.createSpec(), setting.getNewColumnName());
             DataColumnSpec output = createOutputSpec(outputColName, index++);
             CellFactory factory;
             try {
-                factory = createCellFactory(setting, output, inputIndex);
+                factory = createCellFactory(setting, output, inputIndex, projection);
+                if (parallelism != null) {
+                    parallelism.configure(factory);
+                }
                 ret.append(factory);
             } catch (RuntimeException e) {
                 throw new InvalidSettingsException(e);
@@ -239,6 +287,18 @@ protected ColumnRearranger createColumnRearranger(final DataTableSpec inSpecs) t
      */
     protected CellFactory createCellFactory(final SingleSetting setting, final DataColumnSpec output,
         final int inputIndex) {
+        return createCellFactory(setting, output, inputIndex, null);
+    }
+
+    /**
+     * @param setting The settings to generate a single column.
+     * @param output The output column's {@link DataColumnSpec}.
+     * @param inputIndex The input column's index.
+     * @param projection The parts of the input values needed by the paths, {@code null} for the whole values.
+     * @return The {@link CellFactory} generating the column.
+     */
+    private CellFactory createCellFactory(final SingleSetting setting, final DataColumnSpec output,
+        final int inputIndex, final JSONProjection projection) {
         final JacksonConversions conv = JacksonConversions.getInstance();
         Configuration jsonPathConfiguration =
             Configuration.builder().build();
@@ -250,6 +310,7 @@ protected CellFactory createCellFactory(final SingleSetting setting, final DataC
         options.add(Option.DEFAULT_PATH_LEAF_TO_NULL);
         final Configuration config = jsonPathConfiguration.setOptions(options.toArray(new Option[0]));
         final MappingProvider mappingProvider = config.mappingProvider();
+        final boolean jacksonProvider = config.jsonProvider().getClass().getName().contains("JacksonJsonNode");
 
         // currently, a bug in the JsonPath library requires commas in quotes to be (un)escaped manually, see
         // - AP-10014
@@ -257,69 +318,190 @@ protected CellFactory createCellFactory(final SingleSetting setting, final DataC
         // - https://github.com/json-path/JsonPath/issues/487
         final JsonPath jsonPath = JsonPath.compile(JsonPathUtils.escapeCommas(setting.getJsonPath()));
 
+        // definite paths of object keys only have the same result for all objects without their first key
+        final String firstKey = TokenPath.fromJsonPath(setting.getJsonPath())
+            .filter(path -> path.size() > 0 && path.getIndexSteps().size() == path.size()
+                && !path.getIndexSteps().contains(null))
+            .map(path -> path.getIndexSteps().get(0)).orElse(null);
+
         final OutputType returnType = setting.getReturnType();
         final boolean resultIsList = setting.isResultIsList();
         return new SingleCellFactory(true, output) {
             private Runnable m_setWarning =
                 () -> setWarningMessage("Large value cannot be stored in an integer column");
 
+            /** The number of values seen, with the misses below it decides whether the path index is used. */
+            private final LongAdder m_values = new LongAdder();
+
+            /** The number of values that were objects without the first key. */
+            private final LongAdder m_misses = new LongAdder();
+
+            /** The result for objects without the first key, created on first use. */
+            private volatile DataCell m_absentFirstKeyCell;
+
             @Override
             public DataCell getCell(final DataRow row) {
                 DataCell cell = row.getCell(inputIndex);
                 if (cell instanceof JSONValue) {
                     JSONValue jsonCell = (JSONValue)cell;
-                    JsonValue jsonValue = jsonCell.getJsonValue();
-                    Object readObject;
+                    if (firstKey != null && useIndex() && lacksFirstKey(JSONPathIndex.of(jsonCell))) {
+                        // sparse path, no need to parse the value
+                        count(true);
+                        return absentFirstKeyCell(row);
+                    }
+                    return evaluate(jsonCell, row);
+                }
+                return DataType.getMissingCell();
+            }
+
+            /**
+             * @return Whether enough of the values seen so far lacked the first key for the path index to pay off.
+             */
+            private boolean useIndex() {
+                final long values = m_values.sum();
+                return values >= INDEX_SAMPLE_SIZE && 2 * m_misses.sum() >= values;
+            }
+
+            /**
+             * Counts a value for the miss rate.
+             *
+             * @param miss Whether the value is an object without the first key.
+             */
+            private void count(final boolean miss) {
+                m_values.increment();
+                if (miss) {
+                    m_misses.increment();
+                }
+            }
+
+            /**
+             * @param jsonCell The input JSON value.
+             * @param row The input row.
+             * @return The result of the path on {@code jsonCell}.
+             */
+            private DataCell evaluate(final JSONValue jsonCell, final DataRow row) {
+                if (projection != null) {
+                    final JsonNode projected;
                     try {
-                        if (config.jsonProvider().getClass().getName().contains("JacksonJsonNode")) {
-                            readObject = jsonPath.read(conv.toJackson(jsonValue), config);
-                        } else {
-                            readObject = jsonPath.read(jsonValue.toString(), config);
-                        }
-                    } catch (RuntimeException e) {
+                        projected = projection.project(jsonCell);
+                    } catch (RuntimeException | IOException e) {
                         return new MissingCell(e.getMessage());
                     }
-                    Iterable<?> read = config.jsonProvider().toIterable(readObject);
-                    List<Object> values = new ArrayList<>();
-                    for (Object object : read) {
-                        values.add(object);
-                    }
-                    List<DataCell> cells = new ArrayList<>();
-                    if (setting.isReturnPaths() || (returnType == OutputType.String && resultIsList)) {
-                        for (Object v : values) {
-                            if (v != null) {
-                                cells.add(new StringCell(v.toString()));
-                            } else {
-                                cells.add(DataType.getMissingCell());
-                            }
+                    if (firstKey != null) {
+                        final boolean miss = projected.isObject() && !projected.has(firstKey);
+                        count(miss);
+                        if (miss) {
+                            return absentFirstKeyCell(row);
                         }
-                        return CollectionCellFactory.createListCell(cells);
                     }
-                    if (!resultIsList && values.size() > 1) {
-                        if (returnType == OutputType.Json) {
-                            JsonNodeFactory nodeFactory = JacksonUtils.nodeFactory();
-                            ArrayNode array = nodeFactory.arrayNode();
-                            for (Object value : values) {
-                                array.add(org.knime.json.node.jsonpath.JsonPathUtil.toJackson(
-                                    nodeFactory, value));
-                            }
-                            return convertObjectToReturnType(array);
-                        }
-                        throw new IllegalStateException("Expected at most one result, but got: " + values.size() + " ["
-                            + shorten(values.toString()) + "]" + "\n   in row: " + row.getKey());
+                    return evaluateDocument(jacksonProvider ? projected : projected.toString(), row);
+                }
+                final JsonValue jsonValue = jsonCell.getJsonValue();
+                if (firstKey != null) {
+                    final boolean miss = jsonValue.getValueType() == JsonValue.ValueType.OBJECT
+                        && !jsonValue.asJsonObject().containsKey(firstKey);
+                    count(miss);
+                    if (miss) {
+                        return absentFirstKeyCell(row);
+                    }
+                }
+                return evaluate(jsonValue, row);
+            }
+
+            /**
+             * @param index The {@link JSONPathIndex} of an input value.
+             * @return Whether the value is certainly an object without the first key of the path.
+             */
+            private boolean lacksFirstKey(final JSONPathIndex index) {
+                return index.hasObjectRoot() && !index.mightContain(Collections.singletonList(firstKey));
+            }
+
+            /**
+             * @param row The input row.
+             * @return The result of the path for objects without its first key (the same as the JSONPath
+             *         implementation gives for an empty object, including its error message).
+             */
+            private DataCell absentFirstKeyCell(final DataRow row) {
+                DataCell absent = m_absentFirstKeyCell;
+                if (absent == null) {
+                    absent = evaluate(JsonValue.EMPTY_JSON_OBJECT, row);
+                    m_absentFirstKeyCell = absent;
+                }
+                return absent;
+            }
+
+            /**
+             * @param jsonValue The input JSON value.
+             * @param row The input row.
+             * @return The result of the path on {@code jsonValue}.
+             */
+            private DataCell evaluate(final JsonValue jsonValue, final DataRow row) {
+                final Object document;
+                try {
+                    document = jacksonProvider ? conv.toJackson(jsonValue) : jsonValue.toString();
+                } catch (RuntimeException e) {
+                    return new MissingCell(e.getMessage());
+                }
+                return evaluateDocument(document, row);
+            }
+
+            /**
+             * @param document The input JSON as a {@link JsonNode} for the Jackson provider, otherwise as a
+             *            {@link String}.
+             * @param row The input row.
+             * @return The result of the path on {@code document}.
+             */
+            private DataCell evaluateDocument(final Object document, final DataRow row) {
+                Object readObject;
+                try {
+                    if (document instanceof String) {
+                        readObject = jsonPath.read((String)document, config);
                     } else {
-                        for (final Object object : values) {
-                            cells.add(convertObjectToReturnType(object));
+                        readObject = jsonPath.read(document, config);
+                    }
+                } catch (RuntimeException e) {
+                    return new MissingCell(e.getMessage());
+                }
+                Iterable<?> read = config.jsonProvider().toIterable(readObject);
+                List<Object> values = new ArrayList<>();
+                for (Object object : read) {
+                    values.add(object);
+                }
+                List<DataCell> cells = new ArrayList<>();
+                if (setting.isReturnPaths() || (returnType == OutputType.String && resultIsList)) {
+                    for (Object v : values) {
+                        if (v != null) {
+                            cells.add(new StringCell(v.toString()));
+                        } else {
+                            cells.add(DataType.getMissingCell());
                         }
                     }
-                    if (resultIsList) {
-                        return CollectionCellFactory.createListCell(cells);
+                    return CollectionCellFactory.createListCell(cells);
+                }
+                if (!resultIsList && values.size() > 1) {
+                    if (returnType == OutputType.Json) {
+                        JsonNodeFactory nodeFactory = JacksonUtils.nodeFactory();
+                        ArrayNode array = nodeFactory.arrayNode();
+                        for (Object value : values) {
+                            array.add(org.knime.json.node.jsonpath.JsonPathUtil.toJackson(
+                                nodeFactory, value));
+                        }
+                        return convertObjectToReturnType(array);
                     }
-                    //At most one element
-                    if (cells.size() == 1) {
-                        return cells.get(0);
+                    throw new IllegalStateException("Expected at most one result, but got: " + values.size() + " ["
+                        + shorten(values.toString()) + "]" + "\n   in row: " + row.getKey());
+                } else {
+                    for (final Object object : values) {
+                        cells.add(convertObjectToReturnType(object));
                     }
                 }
+                if (resultIsList) {
+                    return CollectionCellFactory.createListCell(cells);
+                }
+                //At most one element
+                if (cells.size() == 1) {
+                    return cells.get(0);
+                }
                 return DataType.getMissingCell();
             }
 
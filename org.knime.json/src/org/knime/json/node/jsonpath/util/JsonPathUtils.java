@@ -634,4 +634,56 @@ public static String unescapeCommas(final String jsonPath) {
 
         return writer.toString();
     }
+
+    /**
+     * Finds the object keys a {@link JsonPath} starts with. The result of the path depends only on the value at the
+     * end of these keys (and on whether the values on the way are objects), so the rest of the document does not have
+     * to be read.
+     *
+     * @param jsonPath A (not escaped) JsonPath String.
+     * @return The leading object keys of {@code jsonPath}, empty if it might depend on the whole document (also when
+     *         it refers to the root in a filter or is not supported).
+     */
+    public static List<String> leadingKeys(final String jsonPath) {
+        final String path = jsonPath == null ? "" : jsonPath.trim();
+        if (path.isEmpty() || path.charAt(0) != '$' || path.indexOf('$', 1) >= 0) {
+            return Collections.emptyList();
+        }
+        final List<String> keys = new ArrayList<>();
+        final int len = path.length();
+        int i = 1;
+        while (i + 1 < len) {
+            final int end;
+            final String key;
+            if (path.charAt(i) == '.') {
+                end = endOfDotKey(path, i + 1);
+                key = path.substring(i + 1, end);
+            } else if (path.charAt(i) == '[' && (path.charAt(i + 1) == '\'' || path.charAt(i + 1) == '"')) {
+                final int close = path.indexOf(path.charAt(i + 1), i + 2);
+                if (close < 0 || close + 1 >= len || path.charAt(close + 1) != ']') {
+                    break;
+                }
+                end = close + 2;
+                key = path.substring(i + 2, close);
+            } else {
+                break;
+            }
+            if (key.isEmpty() || "*".equals(key) || key.chars().anyMatch(c -> "\\,()@?'\"[]*".indexOf(c) >= 0
+                || Character.isWhitespace(c))) {
+                //deep scan, wildcard, function or escapes
+                break;
+            }
+            keys.add(key);
+            i = end;
+        }
+        return keys;
+    }
+
+    private static int endOfDotKey(final String path, final int from) {
+        int i = from;
+        while (i < path.length() && path.charAt(i) != '.' && path.charAt(i) != '[') {
+            i++;
+        }
+        return i;
+    }
 }
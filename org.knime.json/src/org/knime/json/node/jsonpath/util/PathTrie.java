@@ -0,0 +1,409 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+
+package org.knime.json.node.jsonpath.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.knime.json.node.jsonpath.util.TokenPath.Step;
+
+import com.jayway.jsonpath.JsonPath;
+
+/**
+ * Interned representation of canonical {@link JsonPath} paths (like {@code $['store']['book'][0]['isbn']}) as the
+ * nodes of a trie. Each distinct path is represented by exactly one {@link Path}, so paths can be compared by
+ * identity, used as map keys without building {@link String}s, and extended by a key, an array index or {@code [*]}
+ * without allocation when the extension was seen before. Each node keeps the nodes of its prefixes (by depth), so
+ * {@link Path#startsWith(Path)} takes constant time and {@link Path#compareTo(Path)} a binary search over the depth,
+ * at the cost of one array per distinct path (linear in its depth).
+ * <p>
+ * The order of the {@link Path}s is the same as the order of {@link SimplePathParser.Path}: parts are compared one by
+ * one (keys before {@code [*]} before indices), and a path precedes its extensions.
+ * <p>
+ * Instances are not thread-safe.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public final class PathTrie {
+    /** Part kinds, in comparison order. */
+    private static final int ROOT = -1, KEY = 0, STAR = 1, INDEX = 2;
+
+    private final Path m_root;
+
+    private int m_size;
+
+    /**
+     * Creates a trie containing only the root path ({@code $}).
+     */
+    public PathTrie() {
+        m_root = new Path(this, null, ROOT, null, -1);
+    }
+
+    /**
+     * @return The root path ({@code $}).
+     */
+    public Path root() {
+        return m_root;
+    }
+
+    /**
+     * @return The number of distinct paths (including the root) in this trie.
+     */
+    public int size() {
+        return m_size;
+    }
+
+    /**
+     * Finds or creates the node of a canonical JSONPath as returned by {@link JsonPath} with
+     * {@link com.jayway.jsonpath.Option#AS_PATH_LIST} (commas in keys might be escaped).
+     *
+     * @param canonicalPath A canonical {@link JsonPath} in {@link String} representation.
+     * @return The interned node of {@code canonicalPath}.
+     * @throws IllegalArgumentException When {@code canonicalPath} is not a path of keys, indices and {@code [*]}s.
+     */
+    public Path intern(final String canonicalPath) {
+        return intern(TokenPath.fromJsonPath(canonicalPath)
+            .orElseThrow(() -> new IllegalArgumentException(canonicalPath + " is not a canonical path")));
+    }
+
+    /**
+     * Finds or creates the node of a parsed path.
+     *
+     * @param path A path of keys, indices and wildcards ({@code [*]}).
+     * @return The interned node of {@code path}.
+     * @throws IllegalArgumentException When {@code path} has steps selecting both a key and an index (numeric JSON
+     *             Pointer segments).
+     */
+    public Path intern(final TokenPath path) {
+        Path node = m_root;
+        for (final Step step : path.getSteps()) {
+            if (step.isWildcard()) {
+                node = node.star();
+            } else if (step.getIndex() < 0) {
+                node = node.key(step.getKey());
+            } else if (step.getKey() == null) {
+                node = node.index(step.getIndex());
+            } else {
+                throw new IllegalArgumentException("Ambiguous step " + step.getKey() + " in " + path);
+            }
+        }
+        return node;
+    }
+
+    /**
+     * A path in a {@link PathTrie}.
+     */
+    public static final class Path implements Comparable<Path> {
+        private static final Path[] NO_PATHS = new Path[0];
+
+        private final PathTrie m_trie;
+
+        private final Path m_parent;
+
+        private final int m_kind;
+
+        private final String m_key;
+
+        private final int m_index;
+
+        private final int m_id;
+
+        private final int m_depth;
+
+        /** The nodes from the root to this one (inclusive), indexed by their depth. */
+        private final Path[] m_parts;
+
+        private Map<String, Path> m_keys;
+
+        private Path[] m_indices = NO_PATHS;
+
+        private Path m_star;
+
+        private String m_string;
+
+        private Path(final PathTrie trie, final Path parent, final int kind, final String key, final int index) {
+            m_trie = trie;
+            m_parent = parent;
+            m_kind = kind;
+            m_key = key;
+            m_index = index;
+            m_id = trie.m_size++;
+            m_depth = parent == null ? 0 : parent.m_depth + 1;
+            m_parts = parent == null ? new Path[1] : Arrays.copyOf(parent.m_parts, m_depth + 1);
+            m_parts[m_depth] = this;
+        }
+
+        /**
+         * @return The canonical id of this path, unique within its trie (the root has {@code 0}).
+         */
+        public int getId() {
+            return m_id;
+        }
+
+        /**
+         * @return The number of parts of the path ({@code 0} for the root).
+         */
+        public int getDepth() {
+            return m_depth;
+        }
+
+        /**
+         * @return The path without its last part, {@code null} for the root.
+         */
+        public Path getParent() {
+            return m_parent;
+        }
+
+        /**
+         * @return Whether the last part is an object key.
+         */
+        public boolean isKey() {
+            return m_kind == KEY;
+        }
+
+        /**
+         * @return Whether the last part is {@code [*]}.
+         */
+        public boolean isStar() {
+            return m_kind == STAR;
+        }
+
+        /**
+         * @return {@code true} if it ends with an array index part.
+         */
+        public boolean endsWithIndex() {
+            return m_kind == INDEX;
+        }
+
+        /**
+         * @return The key of the last part if {@link #isKey()}, otherwise {@code null}.
+         */
+        public String getKey() {
+            return m_key;
+        }
+
+        /**
+         * @return The array index of the last part if {@link #endsWithIndex()}, otherwise {@code -1}.
+         */
+        public int getIndex() {
+            return m_index;
+        }
+
+        /**
+         * @param key An object key (not escaped).
+         * @return The path extended with {@code key}.
+         */
+        public Path key(final String key) {
+            if (m_keys == null) {
+                m_keys = new HashMap<>(4);
+            }
+            Path child = m_keys.get(key);
+            if (child == null) {
+                child = new Path(m_trie, this, KEY, key, -1);
+                m_keys.put(key, child);
+            }
+            return child;
+        }
+
+        /**
+         * @param key An object key (not escaped).
+         * @return The path extended with {@code key} if it is already in the trie, otherwise {@code null}.
+         */
+        public Path findKey(final String key) {
+            return m_keys == null ? null : m_keys.get(key);
+        }
+
+        /**
+         * @param index A non-negative array index.
+         * @return The path extended with {@code index}.
+         */
+        public Path index(final int index) {
+            if (index >= m_indices.length) {
+                m_indices = Arrays.copyOf(m_indices, Math.max(index + 1, m_indices.length * 2));
+            }
+            Path child = m_indices[index];
+            if (child == null) {
+                child = new Path(m_trie, this, INDEX, null, index);
+                m_indices[index] = child;
+            }
+            return child;
+        }
+
+        /**
+         * @return The path extended with {@code [*]}.
+         */
+        public Path star() {
+            if (m_star == null) {
+                m_star = new Path(m_trie, this, STAR, null, -1);
+            }
+            return m_star;
+        }
+
+        /**
+         * @return A path where the last part is replaced with a star (in case there are any).
+         */
+        public Path replaceLastWithStar() {
+            return m_parent == null ? this : m_parent.star();
+        }
+
+        /**
+         * @return A path where the last array index was replaced with a star.
+         */
+        public Path lastIndexToStar() {
+            final List<Path> suffix = new ArrayList<>();
+            for (Path node = this; node.m_parent != null; node = node.m_parent) {
+                if (node.m_kind == INDEX) {
+                    Path ret = node.m_parent.star();
+                    for (int i = suffix.size(); i-- > 0;) {
+                        ret = ret.extend(suffix.get(i));
+                    }
+                    return ret;
+                }
+                suffix.add(node);
+            }
+            return this;
+        }
+
+        /**
+         * @param prefix Another path of the same trie.
+         * @return {@code true} iff this path starts with {@code prefix}.
+         */
+        public boolean startsWith(final Path prefix) {
+            return prefix.m_depth <= m_depth && m_parts[prefix.m_depth] == prefix;
+        }
+
+        /**
+         * @return The object keys at the beginning of the path, up to the first array part (not escaped).
+         */
+        public List<String> getLeadingKeys() {
+            final List<String> ret = new ArrayList<>();
+            for (int i = 1; i < m_parts.length && m_parts[i].m_kind == KEY; i++) {
+                ret.add(m_parts[i].m_key);
+            }
+            return ret;
+        }
+
+        private Path extend(final Path part) {
+            switch (part.m_kind) {
+                case KEY:
+                    return key(part.m_key);
+                case STAR:
+                    return star();
+                case INDEX:
+                    return index(part.m_index);
+                default:
+                    throw new IllegalStateException("Root cannot be appended");
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int compareTo(final Path o) {
+            if (this == o) {
+                return 0;
+            }
+            final int depth = Math.min(m_depth, o.m_depth);
+            if (m_parts[depth] == o.m_parts[depth]) {
+                // one is a prefix of the other
+                return m_depth - o.m_depth;
+            }
+            // the prefixes are shared, so the parts differ from the first differing depth on
+            int same = 0, differs = depth;
+            while (differs - same > 1) {
+                final int middle = (same + differs) >>> 1;
+                if (m_parts[middle] == o.m_parts[middle]) {
+                    same = middle;
+                } else {
+                    differs = middle;
+                }
+            }
+            return comparePart(m_parts[differs], o.m_parts[differs]);
+        }
+
+        private static int comparePart(final Path p, final Path o) {
+            if (p.m_kind != o.m_kind) {
+                return Integer.compare(p.m_kind, o.m_kind);
+            }
+            return p.m_kind == KEY ? p.m_key.compareTo(o.m_key) : Integer.compare(p.m_index, o.m_index);
+        }
+
+        /**
+         * @return The canonical {@link JsonPath} of this node, with commas escaped (see
+         *         {@link JsonPathUtils#escapeCommas(String)}).
+         */
+        @Override
+        public String toString() {
+            if (m_string == null) {
+                if (m_parent == null) {
+                    m_string = "$";
+                } else {
+                    final StringBuilder sb = new StringBuilder("$");
+                    for (int i = 1; i < m_parts.length; i++) {
+                        final Path part = m_parts[i];
+                        switch (part.m_kind) {
+                            case KEY:
+                                sb.append("['").append(part.m_key).append("']");
+                                break;
+                            case STAR:
+                                sb.append("[*]");
+                                break;
+                            default:
+                                sb.append('[').append(part.m_index).append(']');
+                        }
+                    }
+                    m_string = JsonPathUtils.escapeCommas(sb.toString());
+                }
+            }
+            return m_string;
+        }
+    }
+}
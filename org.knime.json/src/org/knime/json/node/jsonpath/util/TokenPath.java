@@ -0,0 +1,382 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+
+package org.knime.json.node.jsonpath.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import com.fasterxml.jackson.core.JsonParser;
+
+/**
+ * A path built only from object key, array index and wildcard steps. Such paths can be followed directly on a
+ * {@link JsonParser} token stream, so the subtrees not on the path can be skipped without building them.
+ * <p>
+ * Instances can be created from a JSON Pointer ({@code /a/0/b}) or from the simple subset of JSONPath
+ * ({@code $.a[0].b}, {@code $['a'][*]['b']}, {@code $.a.*}). Deep scans, filters, unions and slices are not part of
+ * that subset.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public final class TokenPath {
+    /**
+     * A single step of a {@link TokenPath}.
+     */
+    public static final class Step {
+        private static final Step WILDCARD = new Step(null, -1);
+
+        private final String m_key;
+
+        private final int m_index;
+
+        private Step(final String key, final int index) {
+            m_key = key;
+            m_index = index;
+        }
+
+        /**
+         * @return {@code true} iff this step selects every field of an object and every element of an array.
+         */
+        public boolean isWildcard() {
+            return m_key == null && m_index < 0;
+        }
+
+        /**
+         * @return The object key selected by this step, {@code null} for wildcards and pure array indices.
+         */
+        public String getKey() {
+            return m_key;
+        }
+
+        /**
+         * @return The array index selected by this step, {@code -1} if it cannot select array elements.
+         */
+        public int getIndex() {
+            return m_index;
+        }
+
+        /**
+         * @param fieldName An object key.
+         * @return Whether this step selects the field {@code fieldName}.
+         */
+        public boolean matchesField(final String fieldName) {
+            return isWildcard() || (m_key != null && m_key.equals(fieldName));
+        }
+
+        /**
+         * @param index An array index.
+         * @return Whether this step selects the array element at {@code index}.
+         */
+        public boolean matchesIndex(final int index) {
+            return isWildcard() || m_index == index;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString() {
+            if (isWildcard()) {
+                return "[*]";
+            }
+            return m_key != null ? "['" + m_key + "']" : "[" + m_index + "]";
+        }
+    }
+
+    private static final TokenPath ROOT = new TokenPath(Collections.<Step> emptyList());
+
+    private final List<Step> m_steps;
+
+    private final int m_firstWildcard;
+
+    private TokenPath(final List<Step> steps) {
+        m_steps = Collections.unmodifiableList(steps);
+        int firstWildcard = steps.size();
+        for (int i = 0; i < steps.size(); i++) {
+            if (steps.get(i).isWildcard()) {
+                firstWildcard = i;
+                break;
+            }
+        }
+        m_firstWildcard = firstWildcard;
+    }
+
+    /**
+     * @return The number of steps.
+     */
+    public int size() {
+        return m_steps.size();
+    }
+
+    /**
+     * @param i The ({@code 0}-based) position of the step.
+     * @return The step at position {@code i}.
+     */
+    public Step getStep(final int i) {
+        return m_steps.get(i);
+    }
+
+    /**
+     * @return The steps of this path (unmodifiable).
+     */
+    public List<Step> getSteps() {
+        return m_steps;
+    }
+
+    /**
+     * @return The position of the first wildcard step, or {@link #size()} if there is none (the path is definite).
+     */
+    public int getFirstWildcard() {
+        return m_firstWildcard;
+    }
+
+    /**
+     * @return {@code true} iff the path selects at most a single value.
+     */
+    public boolean isDefinite() {
+        return m_firstWildcard == m_steps.size();
+    }
+
+    /**
+     * The leading steps of this path in the form used by {@link org.knime.core.data.json.JSONPathIndex}: object keys,
+     * and {@code null} for array indices. Stops before the first wildcard and before steps that can select both a
+     * field and an array element (numeric JSON Pointer segments).
+     *
+     * @return The indexable prefix of this path (might be empty).
+     */
+    public List<String> getIndexSteps() {
+        final List<String> ret = new ArrayList<>(m_steps.size());
+        for (final Step step : m_steps) {
+            if (step.isWildcard() || (step.getKey() != null && step.getIndex() >= 0)) {
+                break;
+            }
+            ret.add(step.getKey());
+        }
+        return ret;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("$");
+        for (Step step : m_steps) {
+            sb.append(step);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Parses a JSON Pointer (RFC 6901). Segments consisting only of digits select both the array element with that
+     * index and the object field with that name.
+     *
+     * @param pointer A JSON Pointer, like {@code /a/0/b}. The empty {@link String} refers to the whole document.
+     * @return The parsed {@link TokenPath}.
+     * @throws IllegalArgumentException When {@code pointer} is not a valid JSON Pointer.
+     */
+    public static TokenPath fromPointer(final String pointer) {
+        if (pointer == null || pointer.isEmpty()) {
+            return ROOT;
+        }
+        if (pointer.charAt(0) != '/') {
+            throw new IllegalArgumentException("JSON Pointer must start with '/': " + pointer);
+        }
+        final List<Step> steps = new ArrayList<>();
+        for (String raw : pointer.substring(1).split("/", -1)) {
+            final String segment = unescapePointerSegment(raw, pointer);
+            steps.add(new Step(segment, parseIndex(segment)));
+        }
+        return new TokenPath(steps);
+    }
+
+    /**
+     * Parses the simple subset of JSONPath that can be followed on a token stream.
+     *
+     * @param jsonPath A JSONPath expression.
+     * @return The parsed {@link TokenPath}, or {@link Optional#empty()} when {@code jsonPath} uses features outside
+     *         the supported subset (deep scan, filters, unions, slices, functions) or is invalid.
+     */
+    public static Optional<TokenPath> fromJsonPath(final String jsonPath) {
+        if (jsonPath == null) {
+            return Optional.empty();
+        }
+        final String path = jsonPath.trim();
+        if (path.isEmpty() || path.charAt(0) != '$') {
+            return Optional.empty();
+        }
+        final List<Step> steps = new ArrayList<>();
+        int i = 1;
+        final int len = path.length();
+        while (i < len) {
+            final char c = path.charAt(i);
+            if (c == '.') {
+                i++;
+                if (i >= len || path.charAt(i) == '.' || path.charAt(i) == '[') {
+                    //deep scan or malformed
+                    return Optional.empty();
+                }
+                if (path.charAt(i) == '*') {
+                    steps.add(Step.WILDCARD);
+                    i++;
+                    continue;
+                }
+                final int start = i;
+                while (i < len && path.charAt(i) != '.' && path.charAt(i) != '[') {
+                    final char n = path.charAt(i);
+                    if (n == '(' || n == ')' || n == '@' || n == '?' || n == ',' || n == '\'' || n == '"'
+                        || Character.isWhitespace(n)) {
+                        return Optional.empty();
+                    }
+                    i++;
+                }
+                steps.add(new Step(path.substring(start, i), -1));
+            } else if (c == '[') {
+                final int end = parseBracket(path, i + 1, steps);
+                if (end < 0) {
+                    return Optional.empty();
+                }
+                i = end;
+            } else {
+                return Optional.empty();
+            }
+        }
+        return Optional.of(new TokenPath(steps));
+    }
+
+    /**
+     * Parses the content of a bracket step starting at {@code from} (after the {@code [}).
+     *
+     * @return The position after the closing {@code ]}, or {@code -1} if not supported.
+     */
+    private static int parseBracket(final String path, final int from, final List<Step> steps) {
+        final int len = path.length();
+        if (from >= len) {
+            return -1;
+        }
+        final char c = path.charAt(from);
+        if (c == '\'' || c == '"') {
+            final StringBuilder key = new StringBuilder();
+            int i = from + 1;
+            while (i < len && path.charAt(i) != c) {
+                char k = path.charAt(i);
+                if (k == '\\' && i + 1 < len) {
+                    //escaped quote or escaped comma (see JsonPathUtils#escapeCommas)
+                    k = path.charAt(++i);
+                    if ("'\"\\,/".indexOf(k) < 0) {
+                        //other escape sequences (like unicode escapes) are left to the JSONPath implementation
+                        return -1;
+                    }
+                }
+                key.append(k);
+                i++;
+            }
+            if (i + 1 >= len || path.charAt(i + 1) != ']') {
+                //unterminated or union of keys
+                return -1;
+            }
+            steps.add(new Step(key.toString(), -1));
+            return i + 2;
+        }
+        final int close = path.indexOf(']', from);
+        if (close < 0) {
+            return -1;
+        }
+        final String content = path.substring(from, close).trim();
+        if ("*".equals(content)) {
+            steps.add(Step.WILDCARD);
+            return close + 1;
+        }
+        final int index = parseIndex(content);
+        if (index < 0) {
+            //slices, unions, filters, negative indices
+            return -1;
+        }
+        steps.add(new Step(null, index));
+        return close + 1;
+    }
+
+    /**
+     * @return The non-negative index represented by {@code segment}, or {@code -1}.
+     */
+    private static int parseIndex(final String segment) {
+        if (segment.isEmpty() || segment.length() > 9 || (segment.length() > 1 && segment.charAt(0) == '0')) {
+            return -1;
+        }
+        for (int i = 0; i < segment.length(); i++) {
+            if (!Character.isDigit(segment.charAt(i))) {
+                return -1;
+            }
+        }
+        return Integer.parseInt(segment);
+    }
+
+    private static String unescapePointerSegment(final String segment, final String pointer) {
+        if (segment.indexOf('~') < 0) {
+            return segment;
+        }
+        final StringBuilder sb = new StringBuilder(segment.length());
+        for (int i = 0; i < segment.length(); i++) {
+            final char c = segment.charAt(i);
+            if (c == '~') {
+                final char next = i + 1 < segment.length() ? segment.charAt(i + 1) : ' ';
+                if (next == '0') {
+                    sb.append('~');
+                } else if (next == '1') {
+                    sb.append('/');
+                } else {
+                    throw new IllegalArgumentException("Invalid escape sequence in JSON Pointer: " + pointer);
+                }
+                i++;
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -50,6 +50,8 @@
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.stream.Collectors;
 
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataColumnSpec;
@@ -65,6 +67,7 @@
 import org.knime.core.data.def.IntCell;
 import org.knime.core.data.def.StringCell;
 import org.knime.core.data.json.JSONCellFactory;
+import org.knime.core.data.json.JSONProjection;
 import org.knime.core.data.json.JSONValue;
 import org.knime.core.data.json.JacksonConversions;
 import org.knime.core.node.CanceledExecutionException;
@@ -73,6 +76,7 @@
 import org.knime.core.node.NodeLogger;
 import org.knime.core.node.NodeSettingsRO;
 import org.knime.core.node.NodeSettingsWO;
+import org.knime.json.node.jsonpath.util.TokenPath;
 import org.knime.json.node.util.OutputType;
 import org.knime.json.node.util.SingleColumnReplaceOrAddNodeModel;
 
@@ -81,8 +85,6 @@
 import com.github.fge.jackson.jsonpointer.JsonPointer;
 import com.github.fge.jackson.jsonpointer.JsonPointerException;
 
-import jakarta.json.JsonValue;
-
 /**
  * This is the model implementation of JSONPointer. Selects certain pointers from the selected JSON column.
  *
@@ -160,6 +162,11 @@ protected CellFactory createCellFactory(final DataColumnSpec output, final int i
         } catch (JsonPointerException e) {
             throw new IllegalStateException("Invalid pointer: " + e.getMessage(), e);
         }
+        // only the values on the pointer are read (a numeric segment can be an object key too)
+        final JSONProjection projection = JSONProjection
+            .of(Collections.singleton(TokenPath.fromPointer(getSettings().getJsonPointer()).getSteps().stream()
+                .map(TokenPath.Step::getKey).collect(Collectors.toList())))
+            .orElse(null);
         final OutputType returnType = getSettings().getReturnType();
         return new SingleCellFactory(output) {
 
@@ -168,9 +175,9 @@ public DataCell getCell(final DataRow row) {
                 DataCell cell = row.getCell(inputIndex);
                 if (cell instanceof JSONValue) {
                     JSONValue jsonCell = (JSONValue)cell;
-                    JsonValue jsonValue = jsonCell.getJsonValue();
                     try {
-                        JsonNode value = pointer.path(conv.toJackson(jsonValue));
+                        JsonNode value = pointer.path(
+                            projection == null ? conv.toJackson(jsonCell.getJsonValue()) : projection.project(jsonCell));
                         if (value.isMissingNode()) {
                             return DataType.getMissingCell();
                         }
@@ -62,6 +62,7 @@
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -265,8 +266,9 @@ protected CellFactory createCellFactory(final DataColumnSpec output, final int i
             default:
                 throw new IllegalStateException("Not supported patch type: " + getSettings().getPatchType());
         }
-        return new SingleCellFactory(output) {
-            private int m_patchFailedCount = 0;
+        // the patches are immutable, rows can be processed concurrently
+        return new SingleCellFactory(true, output) {
+            private final AtomicInteger m_patchFailedCount = new AtomicInteger();
 
             @Override
             public DataCell getCell(final DataRow row) {
@@ -290,8 +292,7 @@ public DataCell getCell(final DataRow row) {
                         }
                         return JSONCellFactory.create(conv.toJSR353(applied));
                     } catch (JsonPatchException e) {
-                        m_patchFailedCount++;
-                        logError(e, m_patchFailedCount);
+                        logError(e, m_patchFailedCount.incrementAndGet());
                         return keepOriginalForFailedTests ? cell : new MissingCell(e.getMessage());
                     }
                 }
@@ -302,8 +303,9 @@ public DataCell getCell(final DataRow row) {
             @Override
             public void afterProcessing() {
                 super.afterProcessing();
-                if (m_patchFailedCount > 0) {
-                    setWarningMessage("There were " + m_patchFailedCount + " rows where the transformation failed.");
+                if (m_patchFailedCount.get() > 0) {
+                    setWarningMessage(
+                        "There were " + m_patchFailedCount.get() + " rows where the transformation failed.");
                 }
             }
         };
@@ -0,0 +1,515 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+
+package org.knime.json.node.profile;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.ModelContentRO;
+import org.knime.core.node.ModelContentWO;
+import org.knime.json.node.jsonpath.util.JsonPathUtils;
+import org.knime.json.node.jsonpath.util.OutputKind;
+import org.knime.json.node.jsonpath.util.PathTrie;
+import org.knime.json.node.jsonpath.util.PathTrie.Path;
+import org.knime.json.util.OutputType;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * The structure of the documents of a JSON column: the paths found (as returned by the {@code $..*} JSONPath query,
+ * with the array indices replaced by {@code [*]}), the kinds of their values, the lengths of the arrays and the number
+ * of values at them. The profile is built in a single pass over the documents, and contains enough information to
+ * find the columns of the JSON to Table node for any of its settings without reading the documents again. As the
+ * elements of the arrays share their paths, the size of the profile depends on the structure of the documents, not
+ * on the lengths of their arrays.
+ * <p>
+ * Instances are not thread-safe.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public final class JSONStructureProfile {
+    /** How the collections are represented, this affects the kinds of the values. */
+    public enum KindVariant {
+            /** Arrays are KNIME collections. */
+            COLLECTIONS,
+            /** Arrays are KNIME collections, objects in arrays are left out. */
+            COLLECTIONS_WITHOUT_OBJECTS,
+            /** Arrays are JSON values. */
+            ARRAYS_AS_JSON;
+    }
+
+    /** Prefix of the collection kinds in the {@link String} form of {@link OutputKind}s. */
+    private static final String LIST_PREFIX = "List:";
+
+    private static final String DOCUMENTS = "documents", ROOT = "root", PATHS = "paths", PARENT = "parent",
+            KEY = "key", INDEX = "index", STAR = "star", SEQUENCE = "sequence",
+            LEAF_SEQUENCE = "leafSequence", MIN_LENGTH = "minLength", MAX_LENGTH = "maxLength";
+
+    private static final String[] AGGREGATES = {"all", "leaves", "withElements", "withLeafElements"};
+
+    /**
+     * The number and the merged kinds of the values of a path for a subset of the values.
+     */
+    public static final class Aggregate {
+        private long m_count;
+
+        private final OutputKind[] m_kinds = new OutputKind[KindVariant.values().length];
+
+        private Aggregate() {
+            for (int i = 0; i < m_kinds.length; i++) {
+                m_kinds[i] = new OutputKind(true, null);
+            }
+        }
+
+        private void add(final JsonNode value) {
+            m_count++;
+            for (final KindVariant variant : KindVariant.values()) {
+                m_kinds[variant.ordinal()] = merge(m_kinds[variant.ordinal()], kindOf(value, variant, w -> {}));
+            }
+        }
+
+        /**
+         * @return The number of values.
+         */
+        public long getCount() {
+            return m_count;
+        }
+
+        /**
+         * @param variant The representation of the collections.
+         * @return The kind representing all the values (in document order).
+         */
+        public OutputKind getKind(final KindVariant variant) {
+            return m_kinds[variant.ordinal()];
+        }
+
+        private void save(final ModelContentWO content) {
+            content.addLong(DOCUMENTS, m_count);
+            for (final KindVariant variant : KindVariant.values()) {
+                content.addString(variant.name(), toString(m_kinds[variant.ordinal()]));
+            }
+        }
+
+        private void load(final ModelContentRO content) throws InvalidSettingsException {
+            m_count = content.getLong(DOCUMENTS);
+            for (final KindVariant variant : KindVariant.values()) {
+                m_kinds[variant.ordinal()] = parseKind(content.getString(variant.name()));
+            }
+        }
+
+        private static String toString(final OutputKind kind) {
+            return (kind.isSingle() ? "" : LIST_PREFIX) + (kind.getType() == null ? "" : kind.getType().name());
+        }
+    }
+
+    /**
+     * The profile of a single path.
+     */
+    public static final class PathProfile {
+        private final Path m_path;
+
+        private long m_sequence, m_leafSequence = -1;
+
+        private int m_minLength = Integer.MAX_VALUE, m_maxLength = -1;
+
+        /** All values, the leaf values, the non-empty arrays and the arrays with leaf elements. */
+        private final Aggregate[] m_aggregates = new Aggregate[AGGREGATES.length];
+
+        private PathProfile(final Path path, final long sequence) {
+            m_path = path;
+            m_sequence = sequence;
+            for (int i = 0; i < m_aggregates.length; i++) {
+                m_aggregates[i] = new Aggregate();
+            }
+        }
+
+        /**
+         * @return The path (of {@link JSONStructureProfile#getTrie()}).
+         */
+        public Path getPath() {
+            return m_path;
+        }
+
+        /**
+         * @return The position of the first occurrence of the path, the paths are ordered as found by a
+         *         {@code $..*} query over the documents.
+         */
+        public long getSequence() {
+            return m_sequence;
+        }
+
+        /**
+         * @return The position of the first occurrence as a leaf (a value other than a non-empty object or array),
+         *         comparable with {@link #getSequence()}, or {@code -1} if the path is never a leaf.
+         */
+        public long getLeafSequence() {
+            return m_leafSequence;
+        }
+
+        /**
+         * @return The number of values at the path: the number of documents containing it, or the number of array
+         *         elements for paths with {@code [*]}.
+         */
+        public long getCount() {
+            return getValues().getCount();
+        }
+
+        /**
+         * @return The minimal length of the arrays at this path, or {@code -1} if no array was found.
+         */
+        public int getMinLength() {
+            return m_maxLength < 0 ? -1 : m_minLength;
+        }
+
+        /**
+         * @return The maximal length of the arrays at this path, or {@code -1} if no array was found.
+         */
+        public int getMaxLength() {
+            return m_maxLength;
+        }
+
+        /**
+         * @return The aggregate of every value.
+         */
+        public Aggregate getValues() {
+            return m_aggregates[0];
+        }
+
+        /**
+         * @return The aggregate of the values that are not non-empty objects or arrays.
+         */
+        public Aggregate getLeaves() {
+            return m_aggregates[1];
+        }
+
+        /**
+         * @return The aggregate of the non-empty arrays.
+         */
+        public Aggregate getArraysWithElements() {
+            return m_aggregates[2];
+        }
+
+        /**
+         * @return The aggregate of the arrays having an element that is a leaf.
+         */
+        public Aggregate getArraysWithLeafElements() {
+            return m_aggregates[3];
+        }
+    }
+
+    private final PathTrie m_trie = new PathTrie();
+
+    private final Map<Path, PathProfile> m_paths = new LinkedHashMap<>();
+
+    private final PathProfile m_root = new PathProfile(m_trie.root(), 0);
+
+    private long m_documents;
+
+    private long m_sequence = 1;
+
+    /**
+     * Adds a document to the profile.
+     *
+     * @param document A parsed JSON document.
+     */
+    public void update(final JsonNode document) {
+        m_documents++;
+        add(m_root, document);
+        scan(document, m_trie.root());
+    }
+
+    /**
+     * @return The trie of the paths, it should not be extended.
+     */
+    public PathTrie getTrie() {
+        return m_trie;
+    }
+
+    /**
+     * @return The number of documents in the profile.
+     */
+    public long getDocumentCount() {
+        return m_documents;
+    }
+
+    /**
+     * @return The profile of the root value of the documents.
+     */
+    public PathProfile getRoot() {
+        return m_root;
+    }
+
+    /**
+     * @param path A path of {@link #getTrie()}.
+     * @return The profile of {@code path}, or {@code null} if it was not found in the documents.
+     */
+    public PathProfile getProfile(final Path path) {
+        return path == m_trie.root() ? m_root : m_paths.get(path);
+    }
+
+    /**
+     * @return The profiles of the paths below the root, in the order of their first occurrence.
+     */
+    public Collection<PathProfile> getPaths() {
+        return Collections.unmodifiableCollection(m_paths.values());
+    }
+
+    /**
+     * Collects the descendant paths of {@code node} in the order of the {@code $..*} JSONPath query: first the
+     * children of a container, then the descendants of each child. Every element of an array is added to the
+     * {@code [*]} path.
+     */
+    private void scan(final JsonNode node, final Path path) {
+        if (node.isObject()) {
+            for (Iterator<Entry<String, JsonNode>> it = node.fields(); it.hasNext();) {
+                final Entry<String, JsonNode> field = it.next();
+                add(profile(path.key(field.getKey())), field.getValue());
+            }
+            for (Iterator<Entry<String, JsonNode>> it = node.fields(); it.hasNext();) {
+                final Entry<String, JsonNode> field = it.next();
+                scan(field.getValue(), path.key(field.getKey()));
+            }
+        } else if (node.isArray()) {
+            if (node.size() == 0) {
+                return;
+            }
+            final PathProfile elements = profile(path.star());
+            for (final JsonNode element : node) {
+                add(elements, element);
+            }
+            for (final JsonNode element : node) {
+                scan(element, path.star());
+            }
+        }
+    }
+
+    private PathProfile profile(final Path path) {
+        PathProfile ret = m_paths.get(path);
+        if (ret == null) {
+            ret = new PathProfile(path, m_sequence++);
+            m_paths.put(path, ret);
+        }
+        return ret;
+    }
+
+    private void add(final PathProfile profile, final JsonNode value) {
+        profile.getValues().add(value);
+        if (isLeaf(value)) {
+            profile.getLeaves().add(value);
+            if (profile.m_leafSequence < 0) {
+                profile.m_leafSequence = m_sequence++;
+            }
+        }
+        if (value.isArray()) {
+            profile.m_minLength = Math.min(profile.m_minLength, value.size());
+            profile.m_maxLength = Math.max(profile.m_maxLength, value.size());
+            if (value.size() > 0) {
+                profile.getArraysWithElements().add(value);
+            }
+            for (final JsonNode element : value) {
+                if (isLeaf(element)) {
+                    profile.getArraysWithLeafElements().add(value);
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return Whether {@code value} has no descendants.
+     */
+    private static boolean isLeaf(final JsonNode value) {
+        return !value.isContainerNode() || value.size() == 0;
+    }
+
+    /**
+     * Finds the {@link OutputKind} of a value.
+     *
+     * @param value A JSON value.
+     * @param variant The representation of the collections.
+     * @param warnings Receives the warnings of the conversion.
+     * @return The {@link OutputKind} of {@code value}.
+     */
+    public static OutputKind kindOf(final JsonNode value, final KindVariant variant,
+        final Consumer<String> warnings) {
+        final AtomicReference<String> warning = new AtomicReference<>();
+        final OutputKind kind = JsonPathUtils.kindOfJackson(value, warning);
+        if (warning.get() != null) {
+            warnings.accept(warning.get());
+        }
+        if (!kind.isSingle() && variant == KindVariant.ARRAYS_AS_JSON) {
+            return new OutputKind(true, OutputType.Json);
+        }
+        if (variant == KindVariant.COLLECTIONS_WITHOUT_OBJECTS && value.isArray()) {
+            OutputType type = null;
+            for (JsonNode jsonNode : value) {
+                OutputKind kindOfJackson = JsonPathUtils.kindOfJackson(jsonNode, warning);
+                if (warning.get() != null) {
+                    warnings.accept(warning.get());
+                }
+                if (kindOfJackson.getType() == OutputType.Json) {
+                    continue;
+                }
+                type = kindOfJackson.isSingle() ? JsonPathUtils.commonRepresentation(type, kindOfJackson.getType())
+                    : OutputType.Json;
+            }
+            return new OutputKind(false, type);
+        }
+        return kind;
+    }
+
+    /**
+     * @param orig The kind of the earlier values.
+     * @param kind The kind of the later values.
+     * @return The kind that can represent the values of both {@code orig} and {@code kind}.
+     */
+    public static OutputKind merge(final OutputKind orig, final OutputKind kind) {
+        return new OutputKind(orig.isSingle() && kind.isSingle(),
+            JsonPathUtils.commonRepresentation(orig.getType(), kind.getType()));
+    }
+
+    /**
+     * Saves the profile.
+     *
+     * @param content To save to.
+     */
+    public void save(final ModelContentWO content) {
+        content.addLong(DOCUMENTS, m_documents);
+        save(m_root, content.addModelContent(ROOT));
+        // parents precede their children, so the paths are saved as a parent position and a key or index
+        final Map<Path, Integer> positions = new HashMap<>();
+        positions.put(m_trie.root(), -1);
+        final ModelContentWO paths = content.addModelContent(PATHS);
+        for (final PathProfile profile : m_paths.values()) {
+            final Path path = profile.m_path;
+            final ModelContentWO pathContent = paths.addModelContent(Integer.toString(positions.size() - 1));
+            pathContent.addInt(PARENT, positions.get(path.getParent()));
+            if (path.isKey()) {
+                pathContent.addString(KEY, path.getKey());
+            } else if (path.isStar()) {
+                pathContent.addBoolean(STAR, true);
+            } else {
+                pathContent.addInt(INDEX, path.getIndex());
+            }
+            positions.put(path, positions.size() - 1);
+            save(profile, pathContent);
+        }
+    }
+
+    private static void save(final PathProfile profile, final ModelContentWO content) {
+        content.addLong(SEQUENCE, profile.m_sequence);
+        content.addLong(LEAF_SEQUENCE, profile.m_leafSequence);
+        content.addInt(MIN_LENGTH, profile.m_minLength);
+        content.addInt(MAX_LENGTH, profile.m_maxLength);
+        for (int i = 0; i < AGGREGATES.length; i++) {
+            profile.m_aggregates[i].save(content.addModelContent(AGGREGATES[i]));
+        }
+    }
+
+    /**
+     * Loads a profile.
+     *
+     * @param content To load from.
+     * @return The loaded profile.
+     * @throws InvalidSettingsException When the content is not a valid profile.
+     */
+    public static JSONStructureProfile load(final ModelContentRO content) throws InvalidSettingsException {
+        final JSONStructureProfile ret = new JSONStructureProfile();
+        ret.m_documents = content.getLong(DOCUMENTS);
+        load(ret.m_root, content.getModelContent(ROOT));
+        final ModelContentRO paths = content.getModelContent(PATHS);
+        final List<Path> positions = new ArrayList<>();
+        for (final String key : paths.keySet()) {
+            final ModelContentRO pathContent = paths.getModelContent(key);
+            final int parentPosition = pathContent.getInt(PARENT);
+            if (parentPosition < -1 || parentPosition >= positions.size()) {
+                throw new InvalidSettingsException("Invalid parent of path " + key + ": " + parentPosition);
+            }
+            final Path parent = parentPosition < 0 ? ret.m_trie.root() : positions.get(parentPosition);
+            // profiles of earlier versions have the array indices
+            final Path path = pathContent.containsKey(KEY) ? parent.key(pathContent.getString(KEY))
+                : pathContent.containsKey(STAR) ? parent.star() : parent.index(pathContent.getInt(INDEX));
+            positions.add(path);
+            final PathProfile profile = new PathProfile(path, 0);
+            load(profile, pathContent);
+            ret.m_paths.put(profile.m_path, profile);
+            ret.m_sequence = Math.max(ret.m_sequence, Math.max(profile.m_sequence, profile.m_leafSequence) + 1);
+        }
+        return ret;
+    }
+
+    private static void load(final PathProfile profile, final ModelContentRO content)
+        throws InvalidSettingsException {
+        profile.m_sequence = content.getLong(SEQUENCE);
+        profile.m_leafSequence = content.getLong(LEAF_SEQUENCE);
+        profile.m_minLength = content.getInt(MIN_LENGTH);
+        profile.m_maxLength = content.getInt(MAX_LENGTH);
+        for (int i = 0; i < AGGREGATES.length; i++) {
+            profile.m_aggregates[i].load(content.getModelContent(AGGREGATES[i]));
+        }
+    }
+
+    private static OutputKind parseKind(final String kind) throws InvalidSettingsException {
+        final boolean single = !kind.startsWith(LIST_PREFIX);
+        final String type = single ? kind : kind.substring(LIST_PREFIX.length());
+        try {
+            return new OutputKind(single, type.isEmpty() ? null : OutputType.valueOf(type));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidSettingsException("Unknown kind: " + kind, e);
+        }
+    }
+}
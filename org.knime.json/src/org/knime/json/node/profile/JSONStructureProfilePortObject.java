@@ -0,0 +1,182 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+
+package org.knime.json.node.profile;
+
+import javax.swing.JComponent;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.table.DefaultTableModel;
+
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.ModelContentRO;
+import org.knime.core.node.ModelContentWO;
+import org.knime.core.node.port.AbstractSimplePortObject;
+import org.knime.core.node.port.PortObjectSpec;
+import org.knime.core.node.port.PortType;
+import org.knime.core.node.port.PortTypeRegistry;
+import org.knime.json.node.jsonpath.util.JsonPathUtils;
+import org.knime.json.node.jsonpath.util.OutputKind;
+import org.knime.json.node.profile.JSONStructureProfile.KindVariant;
+import org.knime.json.node.profile.JSONStructureProfile.PathProfile;
+
+/**
+ * Port object holding a {@link JSONStructureProfile}, so the structure of a JSON column can be computed once and
+ * reused by the nodes that would otherwise infer it from the documents.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public final class JSONStructureProfilePortObject extends AbstractSimplePortObject {
+    /**
+     * The serializer of the port object.
+     */
+    public static final class Serializer extends AbstractSimplePortObjectSerializer<JSONStructureProfilePortObject> {
+    }
+
+    /** The type of the port object. */
+    public static final PortType TYPE =
+        PortTypeRegistry.getInstance().getPortType(JSONStructureProfilePortObject.class);
+
+    /** The type of the optional port object. */
+    public static final PortType TYPE_OPTIONAL =
+        PortTypeRegistry.getInstance().getPortType(JSONStructureProfilePortObject.class, true);
+
+    private static final String PROFILE = "profile";
+
+    private JSONStructureProfilePortObjectSpec m_spec;
+
+    private JSONStructureProfile m_profile;
+
+    /**
+     * Constructor used when loading.
+     */
+    public JSONStructureProfilePortObject() {
+    }
+
+    /**
+     * @param spec The spec.
+     * @param profile The profile, it should not be updated afterwards.
+     */
+    public JSONStructureProfilePortObject(final JSONStructureProfilePortObjectSpec spec,
+        final JSONStructureProfile profile) {
+        m_spec = spec;
+        m_profile = profile;
+    }
+
+    /**
+     * @return The profile (should not be updated).
+     */
+    public JSONStructureProfile getProfile() {
+        return m_profile;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getSummary() {
+        return "Structure of " + m_profile.getDocumentCount() + " document(s) of column \"" + m_spec.getColumnName()
+            + "\", " + m_profile.getPaths().size() + " path(s)";
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public JSONStructureProfilePortObjectSpec getSpec() {
+        return m_spec;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public JComponent[] getViews() {
+        final DefaultTableModel model = new DefaultTableModel(
+            new Object[]{"Path", "Values", "Leaf values", "Kind", "Min array length", "Max array length"}, 0) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public boolean isCellEditable(final int row, final int column) {
+                return false;
+            }
+        };
+        addRow(model, m_profile.getRoot());
+        for (final PathProfile path : m_profile.getPaths()) {
+            addRow(model, path);
+        }
+        final JScrollPane view = new JScrollPane(new JTable(model));
+        view.setName("Structure Profile");
+        return new JComponent[]{view};
+    }
+
+    private static void addRow(final DefaultTableModel model, final PathProfile path) {
+        final OutputKind kind = path.getValues().getKind(KindVariant.COLLECTIONS);
+        model.addRow(new Object[]{JsonPathUtils.unescapeCommas(path.getPath().toString()), path.getCount(), path.getLeaves().getCount(),
+            (kind.isSingle() ? "" : "List of ") + (kind.getType() == null ? "null" : kind.getType()),
+            path.getMinLength() < 0 ? "" : path.getMinLength(), path.getMaxLength() < 0 ? "" : path.getMaxLength()});
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void save(final ModelContentWO model, final ExecutionMonitor exec) throws CanceledExecutionException {
+        m_profile.save(model.addModelContent(PROFILE));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void load(final ModelContentRO model, final PortObjectSpec spec, final ExecutionMonitor exec)
+        throws InvalidSettingsException, CanceledExecutionException {
+        m_spec = (JSONStructureProfilePortObjectSpec)spec;
+        m_profile = JSONStructureProfile.load(model.getModelContent(PROFILE));
+    }
+}
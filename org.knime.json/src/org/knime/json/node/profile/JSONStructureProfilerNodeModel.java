@@ -0,0 +1,210 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+
+package org.knime.json.node.profile;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.container.CloseableRowIterator;
+import org.knime.core.data.json.JSONValue;
+import org.knime.core.data.json.JacksonConversions;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NodeModel;
+import org.knime.core.node.NodeSettingsRO;
+import org.knime.core.node.NodeSettingsWO;
+import org.knime.core.node.port.PortObject;
+import org.knime.core.node.port.PortObjectSpec;
+import org.knime.core.node.port.PortType;
+import org.knime.json.node.util.RemoveOrAddColumnSettings;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * This is the model implementation of the JSON Structure Profiler node. Reads the JSON values of a column once and
+ * collects their {@link JSONStructureProfile}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class JSONStructureProfilerNodeModel extends NodeModel {
+    private static final ObjectMapper MAPPER = JacksonConversions.getInstance().newMapper();
+
+    private final JSONStructureProfilerSettings m_settings = new JSONStructureProfilerSettings();
+
+    /**
+     * Constructor for the node model.
+     */
+    JSONStructureProfilerNodeModel() {
+        super(new PortType[]{BufferedDataTable.TYPE}, new PortType[]{JSONStructureProfilePortObject.TYPE});
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected PortObjectSpec[] configure(final PortObjectSpec[] inSpecs) throws InvalidSettingsException {
+        findInputColumn((DataTableSpec)inSpecs[0]);
+        return new PortObjectSpec[]{new JSONStructureProfilePortObjectSpec(m_settings.getInputColumn())};
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected PortObject[] execute(final PortObject[] inObjects, final ExecutionContext exec)
+        throws InvalidSettingsException, CanceledExecutionException, IOException {
+        final BufferedDataTable table = (BufferedDataTable)inObjects[0];
+        final int index = findInputColumn(table.getDataTableSpec());
+        final JSONStructureProfile profile = new JSONStructureProfile();
+        final long rowCount = table.size();
+        long rowIndex = 0;
+        try (CloseableRowIterator it = table.iterator()) {
+            while (it.hasNext()) {
+                final DataRow row = it.next();
+                exec.checkCanceled();
+                final long current = ++rowIndex;
+                exec.setProgress(current / (double)rowCount, () -> "Profiling row " + current + "/" + rowCount);
+                final DataCell cell = row.getCell(index);
+                if (cell instanceof JSONValue) {
+                    try {
+                        profile.update(MAPPER.readTree(cell.toString()));
+                    } catch (IOException e) {
+                        throw new IOException("Failed to read the JSON value in row: " + row.getKey() + "\n"
+                            + e.getMessage(), e);
+                    }
+                }
+            }
+        }
+        return new PortObject[]{new JSONStructureProfilePortObject(
+            new JSONStructureProfilePortObjectSpec(m_settings.getInputColumn()), profile)};
+    }
+
+    /**
+     * Finds (or guesses) the selected JSON column.
+     *
+     * @param spec The input table spec.
+     * @return The index of the input column.
+     * @throws InvalidSettingsException No JSON column available.
+     */
+    private int findInputColumn(final DataTableSpec spec) throws InvalidSettingsException {
+        final String selected = m_settings.getInputColumn();
+        final DataColumnSpec selectedSpec = selected == null ? null : spec.getColumnSpec(selected);
+        if (selectedSpec != null && selectedSpec.getType().isCompatible(JSONValue.class)) {
+            return spec.findColumnIndex(selected);
+        }
+        if (selected != null && !selected.isEmpty()) {
+            throw new InvalidSettingsException("Selected input column \"" + selected + "\" is not available.");
+        }
+        for (int i = 0; i < spec.getNumColumns(); i++) {
+            if (spec.getColumnSpec(i).getType().isCompatible(JSONValue.class)) {
+                final String name = spec.getColumnSpec(i).getName();
+                m_settings.setInputColumn(name);
+                setWarningMessage("Auto guessing: using column \"" + name + "\".");
+                return i;
+            }
+        }
+        throw new InvalidSettingsException(
+            RemoveOrAddColumnSettings.NO_JSON_COLUMNS_USE_FOR_EXAMPLE_THE_STRING_TO_JSON_NODE_TO_CREATE_ONE);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void reset() {
+        // No internal state
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void saveSettingsTo(final NodeSettingsWO settings) {
+        m_settings.saveSettings(settings);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void loadValidatedSettingsFrom(final NodeSettingsRO settings) throws InvalidSettingsException {
+        m_settings.loadSettingsModel(settings);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void validateSettings(final NodeSettingsRO settings) throws InvalidSettingsException {
+        new JSONStructureProfilerSettings().loadSettingsModel(settings);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void loadInternals(final File internDir, final ExecutionMonitor exec)
+        throws IOException, CanceledExecutionException {
+        // No internal state
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void saveInternals(final File internDir, final ExecutionMonitor exec)
+        throws IOException, CanceledExecutionException {
+        // No internal state
+    }
+}
@@ -48,16 +48,19 @@
  */
 package org.knime.json.node.tojson;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.TreeMap;
 
 import org.knime.core.data.BooleanValue;
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataColumnSpecCreator;
 import org.knime.core.data.DataRow;
 import org.knime.core.data.DataTableSpec;
-import org.knime.core.data.DataValue;
 import org.knime.core.data.DoubleValue;
 import org.knime.core.data.LongValue;
 import org.knime.core.data.StringValue;
@@ -77,14 +80,17 @@
 import org.knime.json.util.OutputType;
 import org.knime.json.util.RootKeyType;
 
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.JsonNodeFactory;
-import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.github.fge.jackson.JacksonUtils;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
  * Was previously an inline, anonymous {@link SingleCellFactory} in the {@link ColumnsToJsonNodeModel}.
  * It was extracted for readability and maintainability.
+ * <p>
+ * The writers of the keys are selected once (from the output types and depths of the columns), and they write the
+ * values of a row with a {@link JsonGenerator} to a reused buffer, without building JSON trees. The rows are processed
+ * concurrently, each thread has its own generator and buffer.
  *
  * @author Gabor Bakos
  * @author Leon Wenzler, KNIME GmbH, Konstanz, Germany
@@ -93,45 +99,71 @@ final class ColumnsToJsonCellFactory extends SingleCellFactory {
 
     private static final JacksonConversions JSON_CONVERTER = JacksonConversions.getInstance();
 
-    private static final JsonNodeFactory JSON_FACTORY = JacksonUtils.nodeFactory();
+    private static final ObjectMapper MAPPER =
+        JSON_CONVERTER.newMapper().configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
 
-    //sparse, from column indices to output types.
-    private final Map<Integer, OutputType> m_types = new TreeMap<>();
+    /**
+     * Writes a value of the output.
+     */
+    @FunctionalInterface
+    private interface ValueWriter {
+        /**
+         * @param row The input row.
+         * @param generator The output.
+         * @throws IOException When writing fails.
+         */
+        void write(DataRow row, JsonGenerator generator) throws IOException;
+    }
 
-    //sparse, from column indices to expected depths.
-    private final Map<Integer, Integer> m_depths = new TreeMap<>();
+    /**
+     * Writes the JSON value of a cell.
+     */
+    @FunctionalInterface
+    private interface CellWriter {
+        /**
+         * @param cell The input cell.
+         * @param generator The output.
+         * @throws IOException When writing fails.
+         */
+        void write(DataCell cell, JsonGenerator generator) throws IOException;
+    }
 
-    private final String[] m_dataBoundKeys;
+    /** The keys of the output object (distinct, in the order of their first occurrence). */
+    private final String[] m_keys;
 
-    private final int[] m_indices;
+    /** The writers of the values of {@link #m_keys}. */
+    private final ValueWriter[] m_writers;
 
     private final int m_keyIndex;
 
     private final ColumnsToJsonSettings m_settings;
 
+    /** Reused for the rows of a thread, writes the values without separators to a {@link ByteArrayOutputStream}. */
+    private final ThreadLocal<JsonGenerator> m_generators = new ThreadLocal<>();
+
     public ColumnsToJsonCellFactory(final DataTableSpec spec, final ColumnsToJsonSettings settings)
         throws InvalidSettingsException {
-        super(new DataColumnSpecCreator(DataTableSpec.getUniqueColumnName(spec, settings.getOutputColumnName()), //
-            JSONCell.TYPE).createSpec());
+        super(true, new DataColumnSpecCreator(DataTableSpec.getUniqueColumnName(spec,
+            settings.getOutputColumnName()), JSONCell.TYPE).createSpec());
         m_settings = settings;
 
         final FilterResult result = m_settings.getDataBoundColumnsAutoConfiguration().applyTo(spec);
         final String[] includes = result.getIncludes();
         int customKeyDataBoundValueLength = m_settings.getDataBoundKeyColumns().length;
-        m_indices = new int[customKeyDataBoundValueLength + includes.length];
+        final int[] indices = new int[customKeyDataBoundValueLength + includes.length];
         for (int i = customKeyDataBoundValueLength - 1; i >= 0; i--) {
             final var colName = m_settings.getDataBoundKeyColumns()[i];
             final var index = spec.findColumnIndex(colName);
             CheckUtils.checkSetting(index >= 0,
                 "Could not determine the index of column \"%s\", it is not available anymore. "
                     + "Ensure that \"%s\" is present in the input.", colName, colName);
-            m_indices[i] = index;
+            indices[i] = index;
         }
-        m_dataBoundKeys = new String[customKeyDataBoundValueLength + includes.length];
-        System.arraycopy(m_settings.getDataBoundKeyNames(), 0, m_dataBoundKeys, 0, customKeyDataBoundValueLength);
+        final String[] dataBoundKeys = new String[customKeyDataBoundValueLength + includes.length];
+        System.arraycopy(m_settings.getDataBoundKeyNames(), 0, dataBoundKeys, 0, customKeyDataBoundValueLength);
         for (int i = customKeyDataBoundValueLength - 1; i >= 0; i--) {
-            if (m_dataBoundKeys[i] == null || m_dataBoundKeys[i].isEmpty()) {
-                m_dataBoundKeys[i] = m_settings.getDataBoundKeyColumns()[i];
+            if (dataBoundKeys[i] == null || dataBoundKeys[i].isEmpty()) {
+                dataBoundKeys[i] = m_settings.getDataBoundKeyColumns()[i];
             }
         }
         for (int i = includes.length - 1; i >= 0; i--) {
@@ -140,18 +172,27 @@ public ColumnsToJsonCellFactory(final DataTableSpec spec, final ColumnsToJsonSet
             CheckUtils.checkSetting(index >= 0,
                 "Could not determine the index of column \"%s\", it is not available anymore. "
                     + "Ensure that \"%s\" is present in the input.", colName, colName);
-            m_indices[customKeyDataBoundValueLength + i] = index;
-            m_dataBoundKeys[customKeyDataBoundValueLength + i] = colName;
+            indices[customKeyDataBoundValueLength + i] = index;
+            dataBoundKeys[customKeyDataBoundValueLength + i] = colName;
         }
-        for (int i = m_indices.length - 1; i >= 0; i--) {
-            final var colSpec = spec.getColumnSpec(m_indices[i]);
+        // a later value with the same key replaces the previous one at its position (like in an ObjectNode)
+        final Map<String, ValueWriter> writers = new LinkedHashMap<>();
+        for (var i = 0; i < indices.length; i++) {
+            final var colSpec = spec.getColumnSpec(indices[i]);
             Pair<OutputType, Integer> pair = ColumnsToJsonNodeModel.outputType(colSpec);
             CheckUtils.checkNotNull(pair.getFirst(),
                 "Could not determine the output type (as JSON) for the column \"%s\". "
                     + "The input type \"%s\" may not be supported.", colSpec.getName(), colSpec.getType());
-            m_types.put(m_indices[i], pair.getFirst());
-            m_depths.put(m_indices[i], pair.getSecond());
+            final var index = indices[i];
+            final CellWriter cellWriter = cellWriter(pair.getFirst(), pair.getSecond());
+            writers.put(dataBoundKeys[i], (row, generator) -> cellWriter.write(row.getCell(index), generator));
+        }
+        for (var i = 0; i < m_settings.getKeyNames().length; ++i) {
+            final var value = m_settings.getKeyValues()[i];
+            writers.put(m_settings.getKeyNames()[i], (row, generator) -> generator.writeString(value));
         }
+        m_keys = writers.keySet().toArray(new String[0]);
+        m_writers = writers.values().toArray(new ValueWriter[0]);
 
         m_keyIndex = spec.findColumnIndex(m_settings.getKeyNameColumn());
     }
@@ -163,185 +204,130 @@ public DataCell getCell(final DataRow row) {
             case DataBound -> row.getCell(m_keyIndex).toString();
             case Unnamed -> null;
         };
-        final var json = JSON_FACTORY.objectNode();
-        final var inner = json.objectNode();
-        for (var i = 0; i < m_indices.length; ++i) {
-            final var cell = row.getCell(m_indices[i]);
-            final var key = m_dataBoundKeys[i];
-            final var outputType = m_types.get(m_indices[i]);
-            final var depth = m_depths.get(m_indices[i]);
-            setValue(inner, cell, key, outputType, depth);
-        }
-        for (var i = 0; i < m_settings.getKeyNames().length; ++i) {
-            inner.put(m_settings.getKeyNames()[i], m_settings.getKeyValues()[i]);
-        }
-        if (m_settings.getRootKeyType() == RootKeyType.Unnamed) {
-            return JSONCellFactory.create(JSON_CONVERTER.toJSR353(inner));
+        try {
+            var generator = m_generators.get();
+            if (generator == null) {
+                generator = MAPPER.createGenerator(new ByteArrayOutputStream())
+                    .setPrettyPrinter(new DefaultPrettyPrinter().withRootSeparator((String)null));
+                m_generators.set(generator);
+            }
+            if (m_settings.getRootKeyType() != RootKeyType.Unnamed) {
+                generator.writeStartObject();
+                generator.writeFieldName(rootKey);
+            }
+            generator.writeStartObject();
+            for (var i = 0; i < m_keys.length; ++i) {
+                generator.writeFieldName(m_keys[i]);
+                m_writers[i].write(row, generator);
+            }
+            generator.writeEndObject();
+            if (m_settings.getRootKeyType() != RootKeyType.Unnamed) {
+                generator.writeEndObject();
+            }
+            generator.flush();
+            final var buffer = (ByteArrayOutputStream)generator.getOutputTarget();
+            final var json = buffer.toString(StandardCharsets.UTF_8);
+            buffer.reset();
+            return JSONCellFactory.create(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        json.set(rootKey, inner);
-        return JSONCellFactory.create(JSON_CONVERTER.toJSR353(json));
     }
 
     /**
-     * Sets a simple value at {@code depth == 0}, else delves deeper (missings and wrong types are represented
-     * as {@code null}).
+     * Selects the writer of a simple value at {@code depth == 0}, else of the nested arrays (missings and wrong types
+     * are represented as {@code null}).
      *
-     * @param json The output value.
-     * @param cell The input.
-     * @param key The key for the output.
      * @param outputType The expected output type.
      * @param depth The expected output depth.
+     * @return The writer of the cells.
      */
-    private static void setValue(final ObjectNode json, final DataCell cell, final String key,
-        final OutputType outputType, final int depth) {
+    private static CellWriter cellWriter(final OutputType outputType, final int depth) {
         if (depth == 0) {
-            switch (outputType) {
-                case Base64:
+            return valueWriter(outputType);
+        }
+        final CellWriter elementWriter = cellWriter(outputType, depth - 1);
+        return (cell, generator) -> {
+            if (cell.isMissing() || !(cell instanceof CollectionDataValue)) {
+                generator.writeNull();
+            } else {
+                generator.writeStartArray();
+                for (DataCell element : (CollectionDataValue)cell) {
+                    elementWriter.write(element, generator);
+                }
+                generator.writeEndArray();
+            }
+        };
+    }
+
+    /**
+     * @param outputType The expected output type.
+     * @return The writer of simple values (missings and wrong types are represented as {@code null}).
+     */
+    private static CellWriter valueWriter(final OutputType outputType) {
+        switch (outputType) {
+            case Base64:
+                return (cell, generator) -> {
                     if (cell.isMissing()) {
-                        json.set(key, JSON_FACTORY.nullNode());
+                        generator.writeNull();
                     } else if (cell instanceof ByteVectorValue bvv) {
-                        byte[] bytes = JsonPathUtils.toBytes(bvv);
-                        json.put(key, bytes);
+                        generator.writeBinary(JsonPathUtils.toBytes(bvv));
                     } else if (cell instanceof BinaryObjectDataValue bodv) {
+                        final byte[] bytes;
                         try {
-                            json.put(key, JsonPathUtils.toBytes(bodv));
+                            bytes = JsonPathUtils.toBytes(bodv);
                         } catch (IOException e) {
                             throw new RuntimeException(e.getMessage(), e);
                         }
+                        generator.writeBinary(bytes);
                     } else {
-                        json.set(key, JSON_FACTORY.nullNode());
+                        generator.writeNull();
                     }
-                    break;
-                case Boolean:
+                };
+            case Boolean:
+                return (cell, generator) -> {
                     if (cell.isMissing() || !(cell instanceof BooleanValue)) {
-                        json.set(key, JSON_FACTORY.nullNode());
+                        generator.writeNull();
                     } else {
-                        json.put(key, ((BooleanValue)cell).getBooleanValue());
+                        generator.writeBoolean(((BooleanValue)cell).getBooleanValue());
                     }
-                    break;
-                case Long, Integer:
+                };
+            case Long, Integer:
+                return (cell, generator) -> {
                     if (cell.isMissing() || !(cell instanceof LongValue)) {
-                        json.set(key, JSON_FACTORY.nullNode());
+                        generator.writeNull();
                     } else {
-                        json.put(key, ((LongValue)cell).getLongValue());
+                        generator.writeNumber(((LongValue)cell).getLongValue());
                     }
-                    break;
-                case Double:
+                };
+            case Double:
+                return (cell, generator) -> {
                     if (cell.isMissing() || !(cell instanceof DoubleValue)) {
-                        json.set(key, JSON_FACTORY.nullNode());
+                        generator.writeNull();
                     } else {
-                        json.put(key, ((DoubleValue)cell).getDoubleValue());
+                        // the same number as with the previous conversion from a DoubleNode to a JSON-P value
+                        generator.writeNumber(BigDecimal.valueOf(((DoubleValue)cell).getDoubleValue()));
                     }
-                    break;
-                case String:
+                };
+            case String:
+                return (cell, generator) -> {
                     if (cell.isMissing() || !(cell instanceof StringValue)) {
-                        json.set(key, JSON_FACTORY.nullNode());
+                        generator.writeNull();
                     } else {
-                        json.put(key, ((StringValue)cell).getStringValue());
+                        generator.writeString(((StringValue)cell).getStringValue());
                     }
-                    break;
-                case Json:
+                };
+            case Json:
+                return (cell, generator) -> {
                     if (cell.isMissing() || !(cell instanceof JSONValue)) {
-                        json.set(key, JSON_FACTORY.nullNode());
+                        generator.writeNull();
                     } else {
-                        json.set(key, JSON_CONVERTER.toJackson(((JSONValue)cell).getJsonValue()));
+                        // converted to Jackson to keep the normalization of the numbers
+                        MAPPER.writeValue(generator, JSON_CONVERTER.toJackson(((JSONValue)cell).getJsonValue()));
                     }
-                    break;
-                default:
-                    throw new UnsupportedOperationException("Not supported output type: " + outputType);
-            }
-        } else {
-            if (cell.isMissing() || !(cell instanceof CollectionDataValue)) {
-                json.set(key, JSON_FACTORY.nullNode());
-            } else {
-                final var cdv = (CollectionDataValue)cell;
-                final var array = JSON_FACTORY.arrayNode();
-                json.set(key, array);
-                setArrayValue(array, cdv, outputType, depth - 1);
-            }
-        }
-    }
-
-    /**
-     * Sets the array value at {@code depth == 0}, else goes down (missings, invalids are represented as
-     * {@code null}).
-     *
-     * @param array An {@link ArrayNode}.
-     * @param dataCell The {@link DataValue} to transform.
-     * @param outputType Expected output type.
-     * @param depth The expected depth.
-     */
-    private static void setArrayValue(final ArrayNode array, final CollectionDataValue dataCell,
-        final OutputType outputType, final int depth) {
-        for (DataCell cell : dataCell) {
-            if (cell.isMissing()) {
-                array.addNull();
-            } else if (depth == 0) {
-                switch (outputType) {
-                    case Base64:
-                        if (cell.isMissing()) {
-                            array.add(JSON_FACTORY.nullNode());
-                        } else if (cell instanceof ByteVectorValue bvv) {
-                            byte[] bytes = JsonPathUtils.toBytes(bvv);
-                            array.add(bytes);
-                        } else if (cell instanceof BinaryObjectDataValue bodv) {
-                            try {
-                                array.add(JsonPathUtils.toBytes(bodv));
-                            } catch (IOException e) {
-                                throw new RuntimeException(e.getMessage(), e);
-                            }
-                        } else {
-                            array.add(JSON_FACTORY.nullNode());
-                        }
-                        break;
-                    case Boolean:
-                        if (cell.isMissing() || !(cell instanceof BooleanValue)) {
-                            array.add(JSON_FACTORY.nullNode());
-                        } else {
-                            array.add(((BooleanValue)cell).getBooleanValue());
-                        }
-                        break;
-                    case Long, Integer:
-                        if (cell.isMissing() || !(cell instanceof LongValue)) {
-                            array.add(JSON_FACTORY.nullNode());
-                        } else {
-                            array.add(((LongValue)cell).getLongValue());
-                        }
-                        break;
-                    case Json:
-                        if (cell.isMissing() || !(cell instanceof JSONValue)) {
-                            array.add(JSON_FACTORY.nullNode());
-                        } else {
-                            array.add(JSON_CONVERTER.toJackson(((JSONValue)cell).getJsonValue()));
-                        }
-                        break;
-                    case Double:
-                        if (cell.isMissing() || !(cell instanceof DoubleValue)) {
-                            array.add(JSON_FACTORY.nullNode());
-                        } else {
-                            array.add(((DoubleValue)cell).getDoubleValue());
-                        }
-                        break;
-                    case String:
-                        if (cell.isMissing() || !(cell instanceof StringValue)) {
-                            array.add(JSON_FACTORY.nullNode());
-                        } else {
-                            array.add(((StringValue)cell).getStringValue());
-                        }
-                        break;
-                    default:
-                        throw new UnsupportedOperationException("Unknown type: " + outputType);
-                }
-            } else {
-                if (cell instanceof CollectionDataValue cdv) {
-                    final var newArray = JSON_FACTORY.arrayNode();
-                    array.add(newArray);
-                    setArrayValue(newArray, cdv, outputType, depth - 1);
-                } else {
-                    array.addNull();
-                }
-            }
+                };
+            default:
+                throw new UnsupportedOperationException("Not supported output type: " + outputType);
         }
     }
-
 }
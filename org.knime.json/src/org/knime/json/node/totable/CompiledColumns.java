@@ -0,0 +1,420 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+
+package org.knime.json.node.totable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataType;
+import org.knime.core.data.MissingCell;
+import org.knime.core.data.def.BooleanCell;
+import org.knime.core.data.json.JSONCellFactory;
+import org.knime.core.data.json.JSONValue;
+import org.knime.core.data.json.JacksonConversions;
+import org.knime.json.node.jsonpath.util.JsonPathUtils;
+import org.knime.json.node.jsonpath.util.OutputKind;
+import org.knime.json.node.jsonpath.util.PathTrie.Path;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.fge.jackson.JacksonUtils;
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.spi.json.JacksonJsonNodeJsonProvider;
+import com.jayway.jsonpath.spi.json.JsonProvider;
+import com.jayway.jsonpath.spi.mapper.JacksonMappingProvider;
+
+/**
+ * The output columns of the JSON to Table node compiled to a trie of their paths. Each document is converted once and
+ * the trie is walked once along it, filling every column whose path is found on the way. The results are built with
+ * the {@link JsonProvider} the same way as {@link JsonPath#read(Object, Configuration)} builds them; the columns whose
+ * path is not found (or goes through a value of an unexpected type) are evaluated with their {@link JsonPath}, so
+ * they get the same errors as before.
+ * <p>
+ * The columns of objects without the first key of their path get the same result as for an empty object, which is
+ * evaluated only once.
+ * <p>
+ * When the columns were inferred from a sample of the rows, the values not covered by any column can be collected
+ * to an additional JSON object keyed by their paths, or just detected.
+ * <p>
+ * Instances are thread-safe.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class CompiledColumns {
+    /** What to do with the values not covered by the columns. */
+    enum Unmatched {
+            /** No additional cell is returned. */
+            IGNORE,
+            /** The additional cell is a missing cell when every value is covered, otherwise {@code true}. */
+            DETECT,
+            /** The additional cell is the JSON object of the values not covered, or missing when there are none. */
+            COLLECT;
+    }
+
+    /** A node of the compiled trie. */
+    private static final class Step {
+        /** The column of this path, or {@code -1}. */
+        private int m_column = -1;
+
+        /** The column of this path followed by {@code [*]}, or {@code -1}. */
+        private int m_starColumn = -1;
+
+        private Map<String, Step> m_keys;
+
+        private Map<Integer, Step> m_indices;
+    }
+
+    private final JacksonConversions m_conv = JacksonConversions.getInstance();
+
+    private final Configuration m_configuration;
+
+    private final JsonProvider m_provider;
+
+    private final boolean m_omitNestedObjects;
+
+    private final Unmatched m_unmatched;
+
+    private final Step m_root = new Step();
+
+    private final List<Path> m_paths;
+
+    private final OutputKind[] m_kinds;
+
+    private final JsonPath[] m_jsonPaths;
+
+    /** The first keys of the paths, {@code null} for paths starting with an array part. */
+    private final String[] m_firstKeys;
+
+    /** The results of the paths for objects without their first key, created on first use. */
+    private final AtomicReferenceArray<DataCell> m_absentFirstKeyCells;
+
+    /**
+     * @param kinds The kinds of the column paths, in column order.
+     * @param omitNestedObjects Whether the objects in arrays should be left out from the collections.
+     * @param unmatched Whether an additional cell for the values not covered by the columns should be returned.
+     */
+    CompiledColumns(final Map<Path, OutputKind> kinds, final boolean omitNestedObjects, final Unmatched unmatched) {
+        m_configuration = Configuration.defaultConfiguration()
+            .jsonProvider(new JacksonJsonNodeJsonProvider(JacksonUtils.newMapper()))
+            .mappingProvider(new JacksonMappingProvider(JacksonUtils.newMapper())).setOptions();
+        m_provider = m_configuration.jsonProvider();
+        m_omitNestedObjects = omitNestedObjects;
+        m_unmatched = unmatched;
+        m_paths = new ArrayList<>(kinds.keySet());
+        m_kinds = kinds.values().toArray(new OutputKind[0]);
+        m_jsonPaths = new JsonPath[m_kinds.length];
+        m_firstKeys = new String[m_kinds.length];
+        m_absentFirstKeyCells = new AtomicReferenceArray<>(m_kinds.length);
+        final Map<Path, Step> steps = new IdentityHashMap<>();
+        for (int i = 0; i < m_kinds.length; i++) {
+            final Path path = m_paths.get(i);
+            m_jsonPaths[i] = JsonPath.compile(path.toString());
+            final List<String> keys = path.getLeadingKeys();
+            m_firstKeys[i] = keys.isEmpty() ? null : keys.get(0);
+            if (path.isStar()) {
+                final Step parent = compile(path.getParent(), steps);
+                if (parent != null) {
+                    parent.m_starColumn = i;
+                }
+            } else {
+                final Step step = compile(path, steps);
+                if (step != null) {
+                    step.m_column = i;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The step of {@code path}, or {@code null} when it contains {@code [*]} (only evaluated as a
+     *         {@link JsonPath}).
+     */
+    private Step compile(final Path path, final Map<Path, Step> steps) {
+        if (path.getParent() == null) {
+            return m_root;
+        }
+        Step step = steps.get(path);
+        if (step == null && !path.isStar()) {
+            final Step parent = compile(path.getParent(), steps);
+            if (parent == null) {
+                return null;
+            }
+            step = new Step();
+            if (path.isKey()) {
+                if (parent.m_keys == null) {
+                    parent.m_keys = new LinkedHashMap<>();
+                }
+                parent.m_keys.put(path.getKey(), step);
+            } else {
+                if (parent.m_indices == null) {
+                    parent.m_indices = new HashMap<>();
+                }
+                parent.m_indices.put(path.getIndex(), step);
+            }
+            steps.put(path, step);
+        }
+        return step;
+    }
+
+    /**
+     * @param jv A JSON value.
+     * @return The cells of the columns for {@code jv}, followed by the cell for the unmatched values unless they are
+     *         ignored.
+     */
+    DataCell[] getCells(final JSONValue jv) {
+        final DataCell[] ret = new DataCell[m_kinds.length + (m_unmatched == Unmatched.IGNORE ? 0 : 1)];
+        final JsonNode tree;
+        final Object document;
+        final Object[] values = new Object[m_kinds.length];
+        final boolean[] found = new boolean[m_kinds.length];
+        try {
+            tree = m_conv.toJackson(jv.getJsonValue());
+            if (m_unmatched == Unmatched.COLLECT) {
+                final ObjectNode unmatched = JsonNodeFactory.instance.objectNode();
+                unmatched(m_root, tree, "$", unmatched);
+                ret[m_kinds.length] = unmatched.isEmpty() ? DataType.getMissingCell()
+                    : JSONCellFactory.create(m_conv.toJSR353(unmatched));
+            } else if (m_unmatched == Unmatched.DETECT) {
+                ret[m_kinds.length] = hasUnmatched(m_root, tree) ? BooleanCell.TRUE : DataType.getMissingCell();
+            }
+            document = m_provider.unwrap(tree);
+            walk(m_root, document, values, found);
+        } catch (RuntimeException e) {
+            for (int i = 0; i < ret.length; i++) {
+                if (ret[i] == null) {
+                    ret[i] = new MissingCell(e.getMessage());
+                }
+            }
+            return ret;
+        }
+        for (int i = 0; i < m_kinds.length; i++) {
+            if (found[i]) {
+                ret[i] = convert(values[i], i);
+            } else if (m_firstKeys[i] != null && tree.isObject() && !tree.has(m_firstKeys[i])) {
+                ret[i] = absentFirstKeyCell(i);
+            } else {
+                ret[i] = evaluate(document, i);
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * @param column The index of a column.
+     * @return The cell of {@code column} for objects without the first key of its path, the same as for an empty
+     *         object (including the error message of the {@link JsonPath}).
+     */
+    private DataCell absentFirstKeyCell(final int column) {
+        DataCell cell = m_absentFirstKeyCells.get(column);
+        if (cell == null) {
+            cell = evaluate(m_provider.createMap(), column);
+            m_absentFirstKeyCells.set(column, cell);
+        }
+        return cell;
+    }
+
+    /**
+     * @param document The (unwrapped) JSON value.
+     * @param column The index of a column.
+     * @return The cell of {@code column} read with its {@link JsonPath}.
+     */
+    private DataCell evaluate(final Object document, final int column) {
+        final Object read;
+        try {
+            read = m_jsonPaths[column].read(document, m_configuration);
+        } catch (RuntimeException e) {
+            return new MissingCell(e.getMessage());
+        }
+        return convert(read, column);
+    }
+
+    /**
+     * @param read The result of the path of {@code column}.
+     * @param column The index of a column.
+     * @return The cell of {@code column} for {@code read}.
+     */
+    private DataCell convert(final Object read, final int column) {
+        try {
+            return m_omitNestedObjects
+                ? JsonPathUtils.convertObjectToReturnTypeWithoutNestedObjects(read, m_kinds[column], m_configuration,
+                    m_conv)
+                : JsonPathUtils.convertObjectToReturnType(read, m_kinds[column], m_configuration, m_conv);
+        } catch (RuntimeException e) {
+            return new MissingCell(e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the values of the columns below {@code step}.
+     *
+     * @param step The current step.
+     * @param model The (unwrapped) value at {@code step}.
+     * @param values The read values of the columns.
+     * @param found Whether the value of the column was read.
+     */
+    private void walk(final Step step, final Object model, final Object[] values, final boolean[] found) {
+        if (step.m_column >= 0) {
+            // a definite path has its single result unwrapped
+            final Object result = m_provider.createArray();
+            m_provider.setArrayIndex(result, 0, model);
+            final Object value = m_provider.getArrayIndex(result, 0);
+            values[step.m_column] = value == null ? null : m_provider.unwrap(value);
+            found[step.m_column] = true;
+        }
+        final boolean isArray = m_provider.isArray(model);
+        if (step.m_starColumn >= 0 && isArray) {
+            final Object result = m_provider.createArray();
+            for (int i = 0, length = m_provider.length(model); i < length; i++) {
+                m_provider.setArrayIndex(result, i, m_provider.getArrayIndex(model, i));
+            }
+            values[step.m_starColumn] = result;
+            found[step.m_starColumn] = true;
+        }
+        if (step.m_keys != null && m_provider.isMap(model)) {
+            for (final Entry<String, Step> entry : step.m_keys.entrySet()) {
+                final Object child = m_provider.getMapValue(model, entry.getKey());
+                if (child != JsonProvider.UNDEFINED) {
+                    walk(entry.getValue(), child, values, found);
+                }
+            }
+        }
+        if (step.m_indices != null && isArray) {
+            final int length = m_provider.length(model);
+            for (final Entry<Integer, Step> entry : step.m_indices.entrySet()) {
+                if (entry.getKey() < length) {
+                    walk(entry.getValue(), m_provider.getArrayIndex(model, entry.getKey()), values, found);
+                }
+            }
+        }
+    }
+
+    /**
+     * Detects values not covered by the columns, the same way as {@link #unmatched(Step, JsonNode, String, ObjectNode)}
+     * collects them.
+     *
+     * @param step The current step, {@code null} when no column path continues here.
+     * @param node The value at {@code step}.
+     * @return Whether {@code node} has a value not covered by the columns.
+     */
+    private static boolean hasUnmatched(final Step step, final JsonNode node) {
+        if (node.isNull()) {
+            return false;
+        }
+        if (step == null) {
+            return true;
+        }
+        if (step.m_column >= 0 || (step.m_starColumn >= 0 && node.isArray())) {
+            return false;
+        }
+        if (node.isObject()) {
+            for (final Iterator<Entry<String, JsonNode>> it = node.fields(); it.hasNext();) {
+                final Entry<String, JsonNode> field = it.next();
+                if (hasUnmatched(step.m_keys == null ? null : step.m_keys.get(field.getKey()), field.getValue())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (node.isArray()) {
+            for (int i = 0; i < node.size(); i++) {
+                if (hasUnmatched(step.m_indices == null ? null : step.m_indices.get(i), node.get(i))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        // a value where only nested values were expected
+        return true;
+    }
+
+    /**
+     * Collects the values not covered by the columns.
+     *
+     * @param step The current step, {@code null} when no column path continues here.
+     * @param node The value at {@code step}.
+     * @param path The path of {@code node} (without escaped commas).
+     * @param unmatched The values not covered so far, keyed by their paths.
+     */
+    private static void unmatched(final Step step, final JsonNode node, final String path,
+        final ObjectNode unmatched) {
+        if (node.isNull()) {
+            return;
+        }
+        if (step == null) {
+            unmatched.set(path, node);
+            return;
+        }
+        if (step.m_column >= 0 || (step.m_starColumn >= 0 && node.isArray())) {
+            return;
+        }
+        if (node.isObject()) {
+            for (final Iterator<Entry<String, JsonNode>> it = node.fields(); it.hasNext();) {
+                final Entry<String, JsonNode> field = it.next();
+                unmatched(step.m_keys == null ? null : step.m_keys.get(field.getKey()), field.getValue(),
+                    path + "['" + field.getKey() + "']", unmatched);
+            }
+        } else if (node.isArray()) {
+            for (int i = 0; i < node.size(); i++) {
+                unmatched(step.m_indices == null ? null : step.m_indices.get(i), node.get(i), path + "[" + i + "]",
+                    unmatched);
+            }
+        } else {
+            // a value where only nested values were expected
+            unmatched.set(path, node);
+        }
+    }
+}
@@ -4,10 +4,14 @@
 import java.awt.GridBagLayout;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.io.IOException;
+import java.util.Map;
 
 import javax.swing.BoxLayout;
 import javax.swing.ButtonGroup;
+import javax.swing.JButton;
 import javax.swing.JCheckBox;
+import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JRadioButton;
 import javax.swing.JSpinner;
@@ -17,19 +21,27 @@
 
 import org.knime.core.data.DataTableSpec;
 import org.knime.core.data.json.JSONValue;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.DataAwareNodeDialogPane;
+import org.knime.core.node.ExecutionMonitor;
 import org.knime.core.node.InvalidSettingsException;
-import org.knime.core.node.NodeDialogPane;
 import org.knime.core.node.NodeSettingsRO;
 import org.knime.core.node.NodeSettingsWO;
 import org.knime.core.node.NotConfigurableException;
+import org.knime.core.node.port.PortObject;
+import org.knime.core.node.port.PortObjectSpec;
 import org.knime.core.node.util.ColumnSelectionPanel;
+import org.knime.json.node.jsonpath.util.OutputKind;
+import org.knime.json.node.jsonpath.util.PathTrie;
+import org.knime.json.node.jsonpath.util.PathTrie.Path;
 
 /**
  * <code>NodeDialog</code> for the "JSONToTable" Node. Converts JSON values to new columns.
  *
  * @author Gabor Bakos
  */
-class JSONToTableNodeDialog extends NodeDialogPane {
+class JSONToTableNodeDialog extends DataAwareNodeDialogPane {
     @SuppressWarnings("unchecked")
     private final ColumnSelectionPanel m_inputColumn = new ColumnSelectionPanel("Input JSON column",
         JSONValue.class);
@@ -55,6 +67,30 @@ class JSONToTableNodeDialog extends NodeDialogPane {
 
     private JCheckBox m_omitNestedObjects = new JCheckBox("Omit nested objects");
 
+    private final JRadioButton m_allRows = new JRadioButton("All rows"), m_firstRows = new JRadioButton("First rows"),
+            m_randomRows = new JRadioButton("Random sample of rows");
+
+    private final ButtonGroup m_sampling = new ButtonGroup();
+
+    private final JSpinner m_sampleSize = new JSpinner(
+        new SpinnerNumberModel(JSONToTableSettings.DEFAULT_SAMPLE_SIZE, 1, Integer.MAX_VALUE, 100));
+
+    private final JCheckBox m_unmatchedColumn = new JCheckBox("Collect unmatched values to column: ");
+
+    private final JTextField m_unmatchedColumnName =
+        new JTextField(JSONToTableSettings.DEFAULT_UNMATCHED_COLUMN_NAME, 12);
+
+    private final JCheckBox m_fixedColumns = new JCheckBox("Use fixed columns (no inference, streamable)");
+
+    private final JButton m_learnColumns = new JButton("Learn columns from input");
+
+    private final JLabel m_fixedColumnsInfo = new JLabel();
+
+    private BufferedDataTable m_inputTable;
+
+    /** Whether a structure profile is connected to the optional input. */
+    private boolean m_profiled;
+
     /**
      * New pane for configuring the JSONToTable node.
      */
@@ -66,6 +102,9 @@ protected JSONToTableNodeDialog() {
         m_arrayHandling.add(m_expandToColumn);
         m_expansion.add(m_onlyLeaves);
         m_expansion.add(m_onlyUpTo);
+        m_sampling.add(m_allRows);
+        m_sampling.add(m_firstRows);
+        m_sampling.add(m_randomRows);
         JPanel panel = new JPanel(new GridBagLayout());
         GridBagConstraints c = new GridBagConstraints();
         c.fill = GridBagConstraints.HORIZONTAL;
@@ -86,6 +125,10 @@ protected JSONToTableNodeDialog() {
         c.gridy++;
         panel.add(expansion, c);
         c.gridy++;
+        panel.add(sampling(), c);
+        c.gridy++;
+        panel.add(fixedColumns(), c);
+        c.gridy++;
         c.fill = GridBagConstraints.BOTH;
         panel.add(new JPanel(), c);
         addTab("Settings", panel);
@@ -129,6 +172,114 @@ public void actionPerformed(final ActionEvent e) {
         return ret;
     }
 
+    /**
+     * @return The panel of the rows used for the column inference.
+     */
+    private JPanel sampling() {
+        JPanel ret = new JPanel(new GridBagLayout());
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.fill = GridBagConstraints.HORIZONTAL;
+        gbc.anchor = GridBagConstraints.LINE_START;
+        gbc.gridx = 0;
+        gbc.gridy = 0;
+        gbc.weightx = 0;
+        ret.add(m_allRows, gbc);
+        gbc.gridx = 1;
+        ret.add(m_firstRows, gbc);
+        gbc.gridx = 2;
+        ret.add(m_randomRows, gbc);
+        gbc.gridx = 3;
+        gbc.weightx = 1;
+        ret.add(m_sampleSize, gbc);
+        gbc.gridx = 0;
+        gbc.gridy++;
+        gbc.weightx = 0;
+        gbc.gridwidth = 2;
+        ret.add(m_unmatchedColumn, gbc);
+        gbc.gridx = 2;
+        gbc.weightx = 1;
+        ret.add(m_unmatchedColumnName, gbc);
+        ActionListener samplingListener = new ActionListener() {
+            @Override
+            public void actionPerformed(final ActionEvent e) {
+                updateSamplingEnablement();
+            }
+        };
+        m_allRows.addActionListener(samplingListener);
+        m_firstRows.addActionListener(samplingListener);
+        m_randomRows.addActionListener(samplingListener);
+        m_unmatchedColumn.addActionListener(samplingListener);
+        ret.setBorder(new TitledBorder("Column Inference"));
+        return ret;
+    }
+
+    private void updateSamplingEnablement() {
+        final boolean sampled = !m_allRows.isSelected();
+        m_sampleSize.setEnabled(sampled);
+        // the values not covered can only be present when some rows were not analysed
+        final boolean partial = sampled || m_fixedColumns.isSelected() || m_profiled;
+        m_unmatchedColumn.setEnabled(partial);
+        m_unmatchedColumnName.setEnabled(partial && m_unmatchedColumn.isSelected());
+    }
+
+    /**
+     * @return The panel of the columns fixed in the settings.
+     */
+    private JPanel fixedColumns() {
+        JPanel ret = new JPanel(new GridBagLayout());
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.fill = GridBagConstraints.HORIZONTAL;
+        gbc.anchor = GridBagConstraints.LINE_START;
+        gbc.gridx = 0;
+        gbc.gridy = 0;
+        gbc.gridwidth = 2;
+        gbc.weightx = 1;
+        ret.add(m_fixedColumns, gbc);
+        gbc.gridy++;
+        gbc.gridwidth = 1;
+        gbc.weightx = 0;
+        ret.add(m_learnColumns, gbc);
+        gbc.gridx = 1;
+        gbc.weightx = 1;
+        ret.add(m_fixedColumnsInfo, gbc);
+        m_learnColumns.addActionListener(e -> learnColumns());
+        m_fixedColumns.addActionListener(e -> {
+            updateFixedColumnsInfo();
+            updateSamplingEnablement();
+        });
+        ret.setBorder(new TitledBorder("Fixed Columns"));
+        return ret;
+    }
+
+    /**
+     * Infers the columns from the input table with the current settings and fixes them.
+     */
+    private void learnColumns() {
+        updateSettings();
+        try {
+            final Map<Path, OutputKind> kinds =
+                JSONToTableNodeModel.inferColumns(m_inputTable, m_settings, new ExecutionMonitor(), warning -> {});
+            m_settings.setFixedColumns(kinds);
+            m_fixedColumns.setSelected(true);
+            updateFixedColumnsInfo();
+            updateSamplingEnablement();
+        } catch (CanceledExecutionException | IOException | RuntimeException e) {
+            m_fixedColumnsInfo.setText("Failed to learn the columns: " + e.getMessage());
+        }
+    }
+
+    private void updateFixedColumnsInfo() {
+        m_learnColumns.setEnabled(m_inputTable != null);
+        m_learnColumns
+            .setToolTipText(m_inputTable == null ? "Execute the predecessor node to learn the columns" : null);
+        try {
+            final int count = m_settings.getFixedColumns(new PathTrie()).size();
+            m_fixedColumnsInfo.setText(count + " column(s) fixed" + (m_fixedColumns.isSelected() ? "" : " (not used)"));
+        } catch (InvalidSettingsException e) {
+            m_fixedColumnsInfo.setText(e.getMessage());
+        }
+    }
+
     /**
      * @return
      */
@@ -179,6 +330,14 @@ public void actionPerformed(final ActionEvent e) {
      */
     @Override
     protected void saveSettingsTo(final NodeSettingsWO settings) throws InvalidSettingsException {
+        updateSettings();
+        m_settings.saveSettings(settings);
+    }
+
+    /**
+     * Updates the settings from the controls.
+     */
+    private void updateSettings() {
         m_settings.setInputColumn(m_inputColumn.getSelectedColumn());
         m_settings.setArrayHandling(selectedArrayHandling());
         m_settings.setExpansion(selectedExpansion());
@@ -187,7 +346,12 @@ protected void saveSettingsTo(final NodeSettingsWO settings) throws InvalidSetti
         m_settings.setSeparator(m_pathSeparator.getText());
         m_settings.setRemoveSourceColumn(m_removeSourceChecker.isSelected());
         m_settings.setOmitNestedObjects(m_omitNestedObjects.isSelected());
-        m_settings.saveSettings(settings);
+        m_settings.setInferenceSampling(m_firstRows.isSelected() ? InferenceSampling.FirstRows
+            : m_randomRows.isSelected() ? InferenceSampling.RandomRows : InferenceSampling.AllRows);
+        m_settings.setSampleSize(((Number)m_sampleSize.getValue()).intValue());
+        m_settings.setUnmatchedColumn(m_unmatchedColumn.isSelected());
+        m_settings.setUnmatchedColumnName(m_unmatchedColumnName.getText());
+        m_settings.setFixedColumns(m_fixedColumns.isSelected());
     }
 
     /**
@@ -226,12 +390,45 @@ private ArrayHandling selectedArrayHandling() {
         return ArrayHandling.GenerateColumns;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void loadSettingsFrom(final NodeSettingsRO settings, final PortObjectSpec[] specs)
+        throws NotConfigurableException {
+        m_profiled = specs[1] != null;
+        loadSettingsFrom(settings, new DataTableSpec[]{(DataTableSpec)specs[0]});
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void loadSettingsFrom(final NodeSettingsRO settings, final PortObject[] input)
+        throws NotConfigurableException {
+        // the optional structure profile is not a table
+        m_profiled = input[1] != null;
+        loadSettingsFrom(settings, new BufferedDataTable[]{(BufferedDataTable)input[0]});
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void loadSettingsFrom(final NodeSettingsRO settings, final BufferedDataTable[] inputs)
+        throws NotConfigurableException {
+        loadSettingsFrom(settings, new DataTableSpec[]{inputs[0].getSpec()});
+        m_inputTable = inputs[0];
+        updateFixedColumnsInfo();
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     protected void loadSettingsFrom(final NodeSettingsRO settings, final DataTableSpec[] specs)
         throws NotConfigurableException {
+        m_inputTable = null;
         m_settings.loadSettingsDialog(settings, specs[0]);
         m_inputColumn.update(specs[0], m_settings.getInputColumn(), false);
         m_pathSeparator.setText(m_settings.getSeparator());
@@ -276,5 +473,25 @@ protected void loadSettingsFrom(final NodeSettingsRO settings, final DataTableSp
         m_upToN.setEnabled(m_onlyUpTo.isSelected());
         m_removeSourceChecker.setSelected(m_settings.isRemoveSourceColumn());
         m_omitNestedObjects.setSelected(m_settings.isOmitNestedObjects());
+        switch (m_settings.getInferenceSampling()) {
+            case AllRows:
+                m_allRows.setSelected(true);
+                break;
+            case FirstRows:
+                m_firstRows.setSelected(true);
+                break;
+            case RandomRows:
+                m_randomRows.setSelected(true);
+                break;
+            default:
+                throw new UnsupportedOperationException(
+                    "Unknown inference sampling: " + m_settings.getInferenceSampling());
+        }
+        m_sampleSize.setValue(m_settings.getSampleSize());
+        m_unmatchedColumn.setSelected(m_settings.isUnmatchedColumn());
+        m_unmatchedColumnName.setText(m_settings.getUnmatchedColumnName());
+        m_fixedColumns.setSelected(m_settings.isFixedColumns());
+        updateSamplingEnablement();
+        updateFixedColumnsInfo();
     }
 }
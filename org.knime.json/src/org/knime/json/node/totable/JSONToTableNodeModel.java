@@ -2,20 +2,12 @@
 
 import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.Iterator;
-import java.util.LinkedHashMap;
-import java.util.LinkedHashSet;
-import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Set;
-import java.util.SortedMap;
-import java.util.TreeMap;
-import java.util.TreeSet;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataColumnSpec;
@@ -23,47 +15,56 @@
 import org.knime.core.data.DataRow;
 import org.knime.core.data.DataTableSpec;
 import org.knime.core.data.DataType;
-import org.knime.core.data.MissingCell;
 import org.knime.core.data.container.AbstractCellFactory;
+import org.knime.core.data.container.CloseableRowIterator;
 import org.knime.core.data.container.ColumnRearranger;
+import org.knime.core.data.json.JSONCellFactory;
 import org.knime.core.data.json.JSONValue;
-import org.knime.core.data.json.JacksonConversions;
 import org.knime.core.node.BufferedDataTable;
 import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.ExecutionContext;
 import org.knime.core.node.ExecutionMonitor;
 import org.knime.core.node.InvalidSettingsException;
-import org.knime.core.node.NodeLogger;
 import org.knime.core.node.NodeModel;
 import org.knime.core.node.NodeSettingsRO;
 import org.knime.core.node.NodeSettingsWO;
+import org.knime.core.node.port.PortObject;
+import org.knime.core.node.port.PortObjectSpec;
+import org.knime.core.node.port.PortType;
+import org.knime.core.node.streamable.InputPortRole;
+import org.knime.core.node.streamable.OutputPortRole;
+import org.knime.core.node.streamable.PartitionInfo;
+import org.knime.core.node.streamable.PortInput;
+import org.knime.core.node.streamable.PortOutput;
+import org.knime.core.node.streamable.StreamableFunction;
+import org.knime.core.node.streamable.StreamableOperator;
 import org.knime.core.util.UniqueNameGenerator;
-import org.knime.json.node.jsonpath.JsonPathUtil;
 import org.knime.json.node.jsonpath.util.JsonPathUtils;
 import org.knime.json.node.jsonpath.util.OutputKind;
+import org.knime.json.node.jsonpath.util.PathTrie;
+import org.knime.json.node.jsonpath.util.PathTrie.Path;
 import org.knime.json.node.jsonpath.util.SimplePathParser;
-import org.knime.json.node.jsonpath.util.SimplePathParser.Path;
-import org.knime.json.util.OutputType;
-
-import com.fasterxml.jackson.databind.JsonNode;
-import com.github.fge.jackson.JacksonUtils;
-import com.jayway.jsonpath.Configuration;
-import com.jayway.jsonpath.JsonPath;
-import com.jayway.jsonpath.Option;
-import com.jayway.jsonpath.PathNotFoundException;
-import com.jayway.jsonpath.spi.json.JacksonJsonNodeJsonProvider;
-import com.jayway.jsonpath.spi.mapper.JacksonMappingProvider;
+import org.knime.json.node.profile.JSONStructureProfilePortObject;
+import org.knime.json.node.profile.JSONStructureProfilePortObjectSpec;
+import org.knime.json.node.totable.CompiledColumns.Unmatched;
+import org.knime.json.node.util.PayloadAwareParallelism;
 
 /**
  * This is the model implementation of JSONToTable. Converts JSON values to new columns.
  * <p/>
- * It uses {@link TreeSet}/{@link TreeMap}s, so probably it were more efficient with tries, although jetty 6 did not
- * contain trie implementation, commons collection4 was not used previously, so it is not in the target platform.
+ * The columns are inferred by {@link SchemaInference} and filled by {@link CompiledColumns}, both walking each document
+ * once. The columns can also be inferred from a sample of the rows, in that case the values not covered by the
+ * inferred columns are either collected to a JSON column or reported in a warning.
+ * <p/>
+ * When the columns are fixed in the settings, no inference is needed, the output spec is known in advance and the
+ * node can be streamed. When a {@link JSONStructureProfilePortObject} is connected to the optional input, the columns
+ * are derived from the profile instead of reading the documents twice.
  *
  * @author Gabor Bakos
  */
 public class JSONToTableNodeModel extends NodeModel {
-    private static final NodeLogger LOGGER = NodeLogger.getLogger(JSONToTableNodeModel.class);
+    /** The seed of the random sample, so the inferred columns are reproducible. */
+    private static final long SAMPLING_SEED = 0x4a534f4eL;
 
     private final JSONToTableSettings m_settings = new JSONToTableSettings();
 
@@ -71,87 +72,125 @@ public class JSONToTableNodeModel extends NodeModel {
      * Constructor for the node model.
      */
     protected JSONToTableNodeModel() {
-        super(1, 1);
+        super(new PortType[]{BufferedDataTable.TYPE, JSONStructureProfilePortObject.TYPE_OPTIONAL},
+            new PortType[]{BufferedDataTable.TYPE});
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    protected BufferedDataTable[] execute(final BufferedDataTable[] inData, final ExecutionContext exec)
-        throws CanceledExecutionException {
-        ExecutionContext columnSelectionContext = exec.createSubExecutionContext(.5);
-        final DataTableSpec spec = inData[0].getSpec();
-        ColumnRearranger rearranger = new ColumnRearranger(spec);
+    protected PortObject[] execute(final PortObject[] inObjects, final ExecutionContext exec)
+        throws CanceledExecutionException, IOException, InvalidSettingsException {
+        final BufferedDataTable table = (BufferedDataTable)inObjects[0];
+        final JSONStructureProfilePortObject profile = (JSONStructureProfilePortObject)inObjects[1];
+        final long all = table.size();
+        final Map<Path, OutputKind> kinds;
+        final boolean partial;
+        final String columnsOrigin;
+        final ExecutionContext columnApplyContext;
+        if (m_settings.isFixedColumns()) {
+            kinds = m_settings.getFixedColumns(new PathTrie());
+            partial = true;
+            columnsOrigin = "fixed in the settings";
+            columnApplyContext = exec;
+        } else if (profile != null) {
+            kinds = SchemaInference.kindsOf(profile.getProfile(), m_settings);
+            // the profile might describe other documents
+            partial = true;
+            columnsOrigin = "derived from the structure profile";
+            columnApplyContext = exec;
+        } else {
+            kinds = inferColumns(table, m_settings, exec.createSubExecutionContext(.5), this::setWarningMessage);
+            partial = sampleSize(m_settings, all) < all;
+            columnsOrigin = "inferred from " + sampleSize(m_settings, all) + " sampled rows";
+            columnApplyContext = exec.createSubExecutionContext(.5);
+        }
+        final AtomicLong unmatchedRows = new AtomicLong();
+        final ColumnRearranger rearranger =
+            createColumnRearranger(table.getSpec(), kinds, partial, profile != null, unmatchedRows, table);
+        final BufferedDataTable result =
+            columnApplyContext.createColumnRearrangeTable(table, rearranger, columnApplyContext);
+        warnUnmatched(unmatchedRows.get(), columnsOrigin);
+        return new BufferedDataTable[]{result};
+    }
 
-        long r = 0, all = inData[0].size();
-        final int jsonIndex = spec.findColumnIndex(m_settings.getInputColumn());
-        final JsonPath jsonPath = JsonPath.compile("$..*");
-        final JacksonConversions conv = JacksonConversions.getInstance();
-        final Configuration conf = Configuration.builder().options(Option.AS_PATH_LIST).build();
-        final Map<String, OutputKind> kinds = new LinkedHashMap<>();
-        boolean wasRoot = false;
-        OutputKind rootKind = new OutputKind(true, null);
-        kinds.put("$", rootKind);
-        for (DataRow row : inData[0]) {
-            columnSelectionContext.checkCanceled();
-            columnSelectionContext.setProgress(r++ / (double)all,
-                "Analysing: " + r + "/" + all + " (\"" + row.getKey() + "\")");
-            DataCell cell = row.getCell(jsonIndex);
-            if (cell instanceof JSONValue) {
-                JSONValue jv = (JSONValue)cell;
-                List<Path> paths;
-                try {
-                    List<String> rawPaths = jsonPath.read(jv.getJsonValue().toString(), conf);
-                    paths = new ArrayList<>(rawPaths.size());
-                    for (String rawPath : rawPaths) {
-                        // currently, a bug in the JsonPath library requires commas in quotes to be (un)escaped manually, see
-                        // - AP-10014
-                        // - https://github.com/json-path/JsonPath/issues/400
-                        // - https://github.com/json-path/JsonPath/issues/487
-                        paths.add(new SimplePathParser.Path(JsonPathUtils.escapeCommas(rawPath)));
-                    }
-                } catch (PathNotFoundException e) {
-                    LOGGER.debug("Warning: " + e.getMessage(), e);
-                    paths = Collections.emptyList();
-                    wasRoot = true;
+    /**
+     * Infers the columns from the rows selected by the sampling settings, using multiple workers for large inputs.
+     *
+     * @param table The input table.
+     * @param settings The settings of the node.
+     * @param exec To report progress and check cancellation.
+     * @param warnings The consumer of the warnings.
+     * @return The kinds of the column paths, in column order.
+     * @throws CanceledExecutionException When cancelled.
+     * @throws IOException When a JSON value cannot be read.
+     */
+    static Map<Path, OutputKind> inferColumns(final BufferedDataTable table, final JSONToTableSettings settings,
+        final ExecutionMonitor exec, final Consumer<String> warnings) throws CanceledExecutionException, IOException {
+        final long all = table.size();
+        final int jsonIndex = table.getSpec().findColumnIndex(settings.getInputColumn());
+        final ParallelSchemaInference inference = new ParallelSchemaInference(
+            new SchemaInference(settings, warnings), ParallelSchemaInference.defaultWorkers());
+        final long sampleSize = sampleSize(settings, all);
+        final Random random = new Random(SAMPLING_SEED);
+        try (CloseableRowIterator it = table.iterator()) {
+            long selected = 0;
+            for (long r = 0; selected < sampleSize && it.hasNext(); r++) {
+                final DataRow row = it.next();
+                // selection sampling: every subset of sampleSize rows is equally likely to be selected
+                if (settings.getInferenceSampling() == InferenceSampling.RandomRows
+                    && random.nextDouble() * (all - r) >= sampleSize - selected) {
+                    continue;
                 }
-                TreeSet<Path> origPaths = new TreeSet<>(paths);
-                filterArrays(paths);
-                filterNonLeaves(paths, origPaths);
-                for (Path path : paths) {
-                    OutputKind kind = processValueAndPath(jv, path);
-                    if (kinds.containsKey(path.toString())) {
-                        OutputKind orig = kinds.get(path.toString());
-                        boolean single = kind.isSingle() && orig.isSingle();
-                        OutputType type = JsonPathUtils.commonRepresentation(orig.getType(), kind.getType());
-                        kinds.put(path.toString(), new OutputKind(single, type));
-                    } else {
-                        kinds.put(path.toString(), kind);
-                    }
+                exec.checkCanceled();
+                exec.setProgress(selected++ / (double)sampleSize,
+                    "Analysing: " + selected + "/" + sampleSize + " (\"" + row.getKey() + "\")");
+                DataCell cell = row.getCell(jsonIndex);
+                if (cell instanceof JSONValue) {
+                    inference.add((JSONValue)cell);
                 }
-                OutputKind kind = processValueAndPath(jv, new Path("$"));
-                rootKind = new OutputKind(rootKind.isSingle() && kind.isSingle(), JsonPathUtils.commonRepresentation(rootKind.getType(), kind.getType()));
-            }
-        }
-        if (wasRoot) {
-            //For root, we do not want collection of JSON values, that would be confusing.
-            if (!rootKind.isSingle() && rootKind.getType() != null && rootKind.getType() == OutputType.Json) {
-                rootKind = new OutputKind(true, OutputType.Json);
             }
-            kinds.put("$", rootKind);
-        } else {
-            kinds.remove("$");
+        } catch (CanceledExecutionException | IOException | RuntimeException e) {
+            inference.cancel();
+            throw e;
         }
-        removeRedundant(kinds);
-        DataColumnSpec[] specs = new DataColumnSpec[kinds.size()];
-        final Map<String, JsonPath> jsonPaths = new LinkedHashMap<>();
+        return inference.finish().getKinds();
+    }
+
+    /**
+     * @return The number of rows used to infer the columns.
+     */
+    private static long sampleSize(final JSONToTableSettings settings, final long all) {
+        return settings.getInferenceSampling() == InferenceSampling.AllRows ? all
+            : Math.min(all, settings.getSampleSize());
+    }
+
+    /**
+     * @param spec The input table spec.
+     * @param kinds The kinds of the column paths, in column order.
+     * @param partial Whether the columns were not inferred from every row, so values might be left uncovered.
+     * @param profiled Whether a structure profile is connected.
+     * @param unmatchedRows The counter of the rows with uncovered values (when not collected to a column).
+     * @param table The input table to adjust the parallelism to, or {@code null} when not known (streaming).
+     * @return The {@link ColumnRearranger} appending the columns.
+     */
+    private ColumnRearranger createColumnRearranger(final DataTableSpec spec, final Map<Path, OutputKind> kinds,
+        final boolean partial, final boolean profiled, final AtomicLong unmatchedRows, final BufferedDataTable table) {
+        final ColumnRearranger rearranger = new ColumnRearranger(spec);
+        final int jsonIndex = spec.findColumnIndex(m_settings.getInputColumn());
+        final boolean unmatchedColumn = (m_settings.isFixedColumns() || profiled
+            || m_settings.getInferenceSampling() != InferenceSampling.AllRows) && m_settings.isUnmatchedColumn();
+        // values not covered by the columns can only be present when some rows were not analysed
+        final boolean collectUnmatched = unmatchedColumn || partial;
+        final Unmatched unmatched =
+            unmatchedColumn ? Unmatched.COLLECT : (collectUnmatched ? Unmatched.DETECT : Unmatched.IGNORE);
+        final DataColumnSpec[] specs = new DataColumnSpec[kinds.size() + (unmatchedColumn ? 1 : 0)];
         {
             final UniqueNameGenerator nameGenerator = new UniqueNameGenerator(spec);
             int i = 0;
-            for (Entry<String, OutputKind> kindEntry : kinds.entrySet()) {
-                columnSelectionContext.checkCanceled();
-                final String proposedName = proposedName(kindEntry.getKey());
+            for (Entry<Path, OutputKind> kindEntry : kinds.entrySet()) {
+                final String proposedName = proposedName(kindEntry.getKey().toString());
 
                 // currently, a bug in the JsonPath library requires commas in quotes to be (un)escaped manually, see
                 // - AP-10014
@@ -160,62 +199,56 @@ protected BufferedDataTable[] execute(final BufferedDataTable[] inData, final Ex
                 final String realName = nameGenerator.newName(JsonPathUtils.unescapeCommas(proposedName));
 
                 specs[i++] = new DataColumnSpecCreator(realName, kindEntry.getValue().getDataType()).createSpec();
-                jsonPaths.put(kindEntry.getKey(), JsonPath.compile(kindEntry.getKey()));
+            }
+            if (unmatchedColumn) {
+                specs[i] = new DataColumnSpecCreator(nameGenerator.newName(m_settings.getUnmatchedColumnName()),
+                    JSONCellFactory.TYPE).createSpec();
             }
         }
-        rearranger.append(new AbstractCellFactory(true, specs) {
-            private final DataCell[] m_missingCells = new DataCell[kinds.size()];
+        final CompiledColumns columns =
+            new CompiledColumns(kinds, m_settings.isOmitNestedObjects(), unmatched);
+        final AbstractCellFactory factory = new AbstractCellFactory(true, specs) {
+            private final DataCell[] m_missingCells = new DataCell[specs.length];
             {
                 Arrays.fill(m_missingCells, DataType.getMissingCell());
             }
 
             @Override
             public DataCell[] getCells(final DataRow row) {
-                Configuration defaultConfiguration =
-                    Configuration.defaultConfiguration()
-                        .jsonProvider(new JacksonJsonNodeJsonProvider(JacksonUtils.newMapper()))
-                        .mappingProvider(new JacksonMappingProvider(JacksonUtils.newMapper())).setOptions()/*.addOptions(Option.SUPPRESS_EXCEPTIONS)*/;
                 DataCell cell = row.getCell(jsonIndex);
                 if (cell instanceof JSONValue) {
-                    final JSONValue jv = (JSONValue)cell;
-                    final DataCell[] ret = new DataCell[kinds.size()];
-                    int i = 0;
-                    for (Entry<String, JsonPath> entry : jsonPaths.entrySet()) {
-                        try {
-                            Object unwrap = defaultConfiguration.jsonProvider().unwrap(conv.toJackson(jv.getJsonValue()));
-                            Object read = entry.getValue().read(unwrap, defaultConfiguration);
-                            ret[i++] =
-                                m_settings.isOmitNestedObjects() ? JsonPathUtils.convertObjectToReturnTypeWithoutNestedObjects(read, kinds.get(entry.getKey()),
-                                    defaultConfiguration, conv) : JsonPathUtils.convertObjectToReturnType(read, kinds.get(entry.getKey()),
-                                    defaultConfiguration, conv);
-                        } catch (RuntimeException e) {
-                            ret[i++] = new MissingCell(e.getMessage());
+                    final DataCell[] cells = columns.getCells((JSONValue)cell);
+                    if (collectUnmatched && !unmatchedColumn) {
+                        if (!cells[kinds.size()].isMissing()) {
+                            unmatchedRows.incrementAndGet();
                         }
+                        return Arrays.copyOf(cells, kinds.size());
                     }
-                    return ret;
+                    return cells;
                 }
                 return m_missingCells;
             }
-        });
+        };
+        if (table != null) {
+            PayloadAwareParallelism.sample(table, jsonIndex).configure(factory);
+        }
+        rearranger.append(factory);
         if (m_settings.isRemoveSourceColumn()) {
             rearranger.remove(jsonIndex);
         }
-        ExecutionContext columnApplyContext = exec.createSubExecutionContext(.5);
-        return new BufferedDataTable[]{columnApplyContext.createColumnRearrangeTable(inData[0], rearranger,
-            columnApplyContext)};
+        return rearranger;
     }
 
     /**
-     * @param kinds
+     * Warns about the ignored values not covered by the columns.
+     *
+     * @param unmatchedRows The number of rows with ignored values.
+     * @param columnsOrigin Where the columns come from, like {@code "fixed in the settings"}.
      */
-    private void removeRedundant(final Map<String, OutputKind> kinds) {
-        for (Iterator<Entry<String, OutputKind>> it = kinds.entrySet().iterator(); it.hasNext();) {
-            String next = it.next().getKey();
-            if (next.endsWith("[*]")) {
-                if (kinds.containsKey(next.substring(0, next.length() - "[*]".length()))) {
-                    it.remove();
-                }
-            }
+    private void warnUnmatched(final long unmatchedRows, final String columnsOrigin) {
+        if (unmatchedRows > 0) {
+            setWarningMessage(unmatchedRows + " row(s) contain values not covered by the columns " + columnsOrigin
+                + ", these values were ignored.");
         }
     }
 
@@ -225,56 +258,12 @@ private void removeRedundant(final Map<String, OutputKind> kinds) {
      * @param jv A {@link JSONValue}.
      * @param path The path to select.
      * @return The {@link OutputKind} of the values at that position.
+     * @deprecated The columns are inferred by a single walk over each document, this method is no longer called
+     *             during inference, so overriding it has no effect.
      */
-    protected OutputKind processValueAndPath(final JSONValue jv, final Path path) {
-        Object object = JsonPath.read(jv.toString(), path.toString());
-        JsonNode jackson = JsonPathUtil.toJackson(JacksonUtils.nodeFactory(), object);
-        final AtomicReference<String> warning = new AtomicReference<>();
-        OutputKind kind = JsonPathUtils.kindOfJackson(jackson, warning);
-        if (warning.get() != null) {
-            setWarningMessage(warning.get());
-        }
-        if (!kind.isSingle() && m_settings.getArrayHandling() == ArrayHandling.KeepAllArrayAsJsonArray) {
-            return new OutputKind(true, OutputType.Json);
-        }
-        if (m_settings.isOmitNestedObjects() && jackson.isArray()) {
-                OutputType type = null;
-                for (JsonNode jsonNode : jackson) {
-                    OutputKind kindOfJackson = JsonPathUtils.kindOfJackson(jsonNode, warning);
-                    if (warning.get() != null) {
-                        setWarningMessage(warning.get());
-                    }
-                    if (kindOfJackson.getType() == OutputType.Json) {
-                        continue;
-                    }
-                    type = kindOfJackson.isSingle() ? JsonPathUtils.commonRepresentation(type, kindOfJackson.getType()) : OutputType.Json;
-                }
-                return new OutputKind(false, type);
-        }
-        return kind;
-    }
-
-    /**
-     * @param paths
-     */
-    private void filterArrays(final List<Path> paths) {
-        switch (m_settings.getArrayHandling()) {
-            case KeepAllArrayAsJsonArray://intentional fall through
-            case GenerateCollectionCells: {
-                final LinkedHashSet<Path> result = new LinkedHashSet<>();
-                for (Path path : paths) {
-                    result.add(path.endsWithIndex() ? path.replaceLastWithStar() : path);
-                }
-                paths.clear();
-                paths.addAll(result);
-                LOGGER.debug(paths);
-            }
-                break;
-            case GenerateColumns:
-                break;
-            default:
-                break;
-        }
+    @Deprecated(since = "5.12", forRemoval = true)
+    protected OutputKind processValueAndPath(final JSONValue jv, final SimplePathParser.Path path) {
+        return SchemaInference.kindOf(jv, path.toString(), m_settings, this::setWarningMessage);
     }
 
     /**
@@ -332,77 +321,6 @@ private String proposedName(final String path) {
         }
     }
 
-    /**
-     * @param paths The JSONPath paths containing possibly non-leaf paths too (which get remove when only leaves should
-     *            be used).
-     * @param origPaths The {@link Set} of original paths.
-     * @see #m_onlyLeaves
-     */
-    private void filterNonLeaves(final List<Path> paths, final TreeSet<Path> origPaths) {
-        switch (m_settings.getExpansion()) {
-            case OnlyLeaves: {
-                SortedMap<Path, List<Path>> origMap = new TreeMap<>();
-                for (Path origPath : origPaths) {
-                    //String starred = lastArrayIndicesToStar(origPath);
-                    Path starred = origPath.lastIndexToStar();
-                    if (!origMap.containsKey(starred)) {
-                        origMap.put(starred, new ArrayList<Path>());
-                    }
-                    origMap.get(starred).add(origPath);
-                }
-                final TreeSet<Path> set = new TreeSet<>();
-                for (Path path : paths) {
-                    Path higher = set.higher(path);
-                    Path lower = set.lower(path);
-                    if (lower != null && (path.startsWith(lower) || path.lastIndexToStar().startsWith(lower))) {
-                        //check whether all branches has a descendant or not
-                        boolean allHasDescendant = true;
-                        for (Path orig: origMap.containsKey(lower) ? origMap.get(lower) : Collections.<Path>emptyList()) {
-                            Path h = origPaths.higher(orig);
-                            allHasDescendant &= h != null && h.startsWith(orig);
-                        }
-                        //we have to keep if we have a leaf descendant
-                        if (allHasDescendant) {
-                            set.remove(lower);
-                        }
-                    }
-                    if (higher == null || !higher.startsWith(path)) {
-                        set.add(path);
-                    }
-                }
-                paths.retainAll(set);
-//                LOGGER.debug(set);
-            }
-                break;
-            case OnlyUpTo: {
-                final TreeSet<Path> set = new TreeSet<>();
-                for (Path path : paths) {
-                    if (countOf("][", path) < m_settings.getUpToNLevel()) {
-                        set.add(path);
-                    }
-                }
-                paths.retainAll(set);
-            }
-                break;
-            default:
-                break;
-        }
-    }
-
-    /**
-     * @param what
-     * @param in
-     * @return
-     */
-    private static int countOf(final String what, final Path in) {
-        int lastIdx = 0, ret = 0;
-        String path = in.toString();
-        while ((lastIdx = path.indexOf(what, lastIdx + 1)) >= 0) {
-            ret++;
-        }
-        return ret;
-    }
-
     /**
      * {@inheritDoc}
      */
@@ -415,15 +333,16 @@ protected void reset() {
      * {@inheritDoc}
      */
     @Override
-    protected DataTableSpec[] configure(final DataTableSpec[] inSpecs) throws InvalidSettingsException {
-        if (!inSpecs[0].containsCompatibleType(JSONValue.class)) {
+    protected PortObjectSpec[] configure(final PortObjectSpec[] inSpecs) throws InvalidSettingsException {
+        final DataTableSpec inSpec = (DataTableSpec)inSpecs[0];
+        if (!inSpec.containsCompatibleType(JSONValue.class)) {
             throw new InvalidSettingsException("No JSON columns are available.");
         }
-        DataColumnSpec selectedColumn = inSpecs[0].getColumnSpec(m_settings.getInputColumn());
+        DataColumnSpec selectedColumn = inSpec.getColumnSpec(m_settings.getInputColumn());
         if (selectedColumn == null || !selectedColumn.getType().isCompatible(JSONValue.class)) {
             DataColumnSpec inputColumn = null;
-            for (int i = 0; i < inSpecs[0].getNumColumns(); i++) {
-                final DataColumnSpec spec = inSpecs[0].getColumnSpec(i);
+            for (int i = 0; i < inSpec.getNumColumns(); i++) {
+                final DataColumnSpec spec = inSpec.getColumnSpec(i);
                 if (spec.getType().isCompatible(JSONValue.class)) {
                     if (inputColumn != null) {
                         setWarningMessage("There are multiple JSON columns. Automatically selected \"" + spec.getName()
@@ -432,13 +351,62 @@ protected DataTableSpec[] configure(final DataTableSpec[] inSpecs) throws Invali
                     inputColumn = spec;
                 }
             }
-            assert inputColumn != null : inSpecs[0];
+            assert inputColumn != null : inSpec;
             m_settings.setInputColumn(inputColumn == null ?/* should not happen */ null : inputColumn.getName());
         }
+        if (m_settings.isFixedColumns()) {
+            return new DataTableSpec[]{createColumnRearranger(inSpec, m_settings.getFixedColumns(new PathTrie()),
+                true, false, new AtomicLong(), null).createSpec()};
+        }
+        final JSONStructureProfilePortObjectSpec profileSpec = (JSONStructureProfilePortObjectSpec)inSpecs[1];
+        if (profileSpec != null && !profileSpec.getColumnName().equals(m_settings.getInputColumn())) {
+            setWarningMessage("The structure profile was collected from column \"" + profileSpec.getColumnName()
+                + "\", not from the input column \"" + m_settings.getInputColumn() + "\".");
+        }
         //Cannot predict the new column names in advance.
         return new DataTableSpec[]{null};
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public InputPortRole[] getInputPortRoles() {
+        return new InputPortRole[]{m_settings.isFixedColumns() ? InputPortRole.DISTRIBUTED_STREAMABLE
+            : InputPortRole.NONDISTRIBUTED_NONSTREAMABLE, InputPortRole.NONDISTRIBUTED_NONSTREAMABLE};
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public OutputPortRole[] getOutputPortRoles() {
+        return new OutputPortRole[]{
+            m_settings.isFixedColumns() ? OutputPortRole.DISTRIBUTED : OutputPortRole.NONDISTRIBUTED};
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public StreamableOperator createStreamableOperator(final PartitionInfo partitionInfo,
+        final PortObjectSpec[] inSpecs) throws InvalidSettingsException {
+        if (!m_settings.isFixedColumns()) {
+            return super.createStreamableOperator(partitionInfo, inSpecs);
+        }
+        final AtomicLong unmatchedRows = new AtomicLong();
+        final StreamableFunction function = createColumnRearranger((DataTableSpec)inSpecs[0],
+            m_settings.getFixedColumns(new PathTrie()), true, false, unmatchedRows, null).createStreamableFunction();
+        return new StreamableOperator() {
+            @Override
+            public void runFinal(final PortInput[] inputs, final PortOutput[] outputs, final ExecutionContext exec)
+                throws Exception {
+                function.runFinal(inputs, outputs, exec);
+                warnUnmatched(unmatchedRows.get(), "fixed in the settings");
+            }
+        };
+    }
+
     /**
      * {@inheritDoc}
      */
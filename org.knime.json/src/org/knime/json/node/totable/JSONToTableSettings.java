@@ -48,12 +48,28 @@
  */
 package org.knime.json.node.totable;
 
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
 import org.knime.core.data.DataColumnSpec;
 import org.knime.core.data.DataTableSpec;
 import org.knime.core.data.json.JSONValue;
+import org.knime.core.data.json.JacksonConversions;
 import org.knime.core.node.InvalidSettingsException;
 import org.knime.core.node.NodeSettingsRO;
 import org.knime.core.node.NodeSettingsWO;
+import org.knime.json.node.jsonpath.util.JsonPathUtils;
+import org.knime.json.node.jsonpath.util.OutputKind;
+import org.knime.json.node.jsonpath.util.PathTrie;
+import org.knime.json.node.jsonpath.util.PathTrie.Path;
+import org.knime.json.util.OutputType;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 
 /**
  * Settings for the JSON to Table node.
@@ -71,16 +87,33 @@ final class JSONToTableSettings {
     private static final String UP_TO_N = "up.to.n.levels";
     private static final String DEFAULT_PATH_SEGMENT_SEPARATOR = ".";
     private static final String OMIT_NESTED_OBJECTS = "omit.nested.objects";
+    private static final String INFERENCE_SAMPLING = "inference.sampling", SAMPLE_SIZE = "inference.sample.size";
+    private static final String UNMATCHED_COLUMN = "unmatched.column", UNMATCHED_COLUMN_NAME = "unmatched.column.name";
+    private static final String FIXED_COLUMNS = "fixed.columns", FIXED_COLUMNS_SCHEMA = "fixed.columns.schema";
+    /** Prefix of the collection kinds in the fixed columns schema. */
+    private static final String LIST_PREFIX = "List:";
+    private static final ObjectMapper MAPPER = JacksonConversions.getInstance().newMapper();
     /** Default value for removing source column. */
     static final boolean DEFAULT_REMOVE_SOURCE_COLUMN = true;
     /** Default value for omit nested objects */
     static final boolean DEFAULT_OMIT_NESTED_OBJECTS = true;
+    /** Default number of rows to infer the columns from when sampling. */
+    static final int DEFAULT_SAMPLE_SIZE = 1000;
+    /** Default name of the column with the values not covered by the inferred columns. */
+    static final String DEFAULT_UNMATCHED_COLUMN_NAME = "Unmatched values";
     private String m_inputColumn = "", m_separator = DEFAULT_PATH_SEGMENT_SEPARATOR;
     private ColumnNamePattern m_columnNameStrategy = ColumnNamePattern.UniquifiedLeafNames;
     private ArrayHandling m_arrayHandling = ArrayHandling.GenerateCollectionCells;
     private Expansion m_expansion = Expansion.OnlyLeaves;
     private int m_upToNLevel = DEFAULT_UP_TO_N_LEVELS;
     private boolean m_removeSourceColumn = DEFAULT_REMOVE_SOURCE_COLUMN, m_omitNestedObjects = DEFAULT_OMIT_NESTED_OBJECTS;
+    private InferenceSampling m_inferenceSampling = InferenceSampling.AllRows;
+    private int m_sampleSize = DEFAULT_SAMPLE_SIZE;
+    private boolean m_unmatchedColumn;
+    private String m_unmatchedColumnName = DEFAULT_UNMATCHED_COLUMN_NAME;
+    private boolean m_fixedColumns;
+    /** The fixed columns: a JSON object from the paths to their kinds (like {@code "List:Integer"}). */
+    private String m_fixedColumnsSchema = "{}";
 
     /**
      * Constructs the default settings.
@@ -200,6 +233,138 @@ final void setOmitNestedObjects(final boolean omitNestedObjects) {
         this.m_omitNestedObjects = omitNestedObjects;
     }
 
+    /**
+     * @return the inferenceSampling
+     */
+    final InferenceSampling getInferenceSampling() {
+        return m_inferenceSampling;
+    }
+
+    /**
+     * @param inferenceSampling the inferenceSampling to set
+     */
+    final void setInferenceSampling(final InferenceSampling inferenceSampling) {
+        this.m_inferenceSampling = inferenceSampling;
+    }
+
+    /**
+     * @return the number of rows to infer the columns from (unless all rows are used)
+     */
+    final int getSampleSize() {
+        return m_sampleSize;
+    }
+
+    /**
+     * @param sampleSize the sampleSize to set
+     */
+    final void setSampleSize(final int sampleSize) {
+        this.m_sampleSize = sampleSize;
+    }
+
+    /**
+     * @return whether the values not covered by the inferred columns are collected to a JSON column (otherwise only
+     *         a warning is given)
+     */
+    final boolean isUnmatchedColumn() {
+        return m_unmatchedColumn;
+    }
+
+    /**
+     * @param unmatchedColumn the unmatchedColumn to set
+     */
+    final void setUnmatchedColumn(final boolean unmatchedColumn) {
+        this.m_unmatchedColumn = unmatchedColumn;
+    }
+
+    /**
+     * @return the unmatchedColumnName
+     */
+    final String getUnmatchedColumnName() {
+        return m_unmatchedColumnName;
+    }
+
+    /**
+     * @param unmatchedColumnName the unmatchedColumnName to set
+     */
+    final void setUnmatchedColumnName(final String unmatchedColumnName) {
+        this.m_unmatchedColumnName = unmatchedColumnName;
+    }
+
+    /**
+     * @return whether the columns are fixed in the settings instead of inferred from the input
+     */
+    final boolean isFixedColumns() {
+        return m_fixedColumns;
+    }
+
+    /**
+     * @param fixedColumns the fixedColumns to set
+     */
+    final void setFixedColumns(final boolean fixedColumns) {
+        this.m_fixedColumns = fixedColumns;
+    }
+
+    /**
+     * @return the fixed columns as a JSON object from the paths to their kinds
+     */
+    final String getFixedColumnsSchema() {
+        return m_fixedColumnsSchema;
+    }
+
+    /**
+     * @param fixedColumnsSchema the fixed columns as a JSON object from the paths to their kinds
+     */
+    final void setFixedColumnsSchema(final String fixedColumnsSchema) {
+        this.m_fixedColumnsSchema = fixedColumnsSchema;
+    }
+
+    /**
+     * @param trie The trie to intern the paths to.
+     * @return The kinds of the fixed column paths, in column order.
+     * @throws InvalidSettingsException When the schema is not valid.
+     */
+    final Map<Path, OutputKind> getFixedColumns(final PathTrie trie) throws InvalidSettingsException {
+        final JsonNode schema;
+        try {
+            schema = MAPPER.readTree(m_fixedColumnsSchema);
+        } catch (IOException e) {
+            throw new InvalidSettingsException("The fixed columns are not valid JSON: " + e.getMessage(), e);
+        }
+        if (schema == null || !schema.isObject()) {
+            throw new InvalidSettingsException("The fixed columns must be a JSON object: " + m_fixedColumnsSchema);
+        }
+        final Map<Path, OutputKind> ret = new LinkedHashMap<>();
+        for (final Iterator<Entry<String, JsonNode>> it = schema.fields(); it.hasNext();) {
+            final Entry<String, JsonNode> entry = it.next();
+            String kind = entry.getValue().asText();
+            final boolean single = !kind.startsWith(LIST_PREFIX);
+            if (!single) {
+                kind = kind.substring(LIST_PREFIX.length());
+            }
+            try {
+                final OutputType type = kind.isEmpty() ? null : OutputType.valueOf(kind);
+                ret.put(trie.intern(entry.getKey()), new OutputKind(single, type));
+            } catch (IllegalArgumentException e) {
+                throw new InvalidSettingsException("Invalid fixed column \"" + entry.getKey() + "\": "
+                    + entry.getValue() + " (" + e.getMessage() + ")", e);
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * @param kinds The kinds of the column paths to fix, in column order.
+     */
+    final void setFixedColumns(final Map<Path, OutputKind> kinds) {
+        final ObjectNode schema = MAPPER.createObjectNode();
+        for (final Entry<Path, OutputKind> entry : kinds.entrySet()) {
+            final OutputKind kind = entry.getValue();
+            schema.put(JsonPathUtils.unescapeCommas(entry.getKey().toString()),
+                (kind.isSingle() ? "" : LIST_PREFIX) + (kind.getType() == null ? "" : kind.getType().name()));
+        }
+        m_fixedColumnsSchema = schema.toString();
+    }
+
     /**
      * Called from dialog when settings are to be loaded.
      *
@@ -216,6 +381,20 @@ void loadSettingsDialog(final NodeSettingsRO settings, final DataTableSpec inSpe
         m_arrayHandling = ArrayHandling.valueOf(settings.getString(ARRAY_HANDLING, ArrayHandling.KeepAllArrayAsJsonArray.name()));
         m_removeSourceColumn = settings.getBoolean(REMOVE_SOURCE_COLUMN, DEFAULT_REMOVE_SOURCE_COLUMN);
         m_omitNestedObjects = settings.getBoolean(OMIT_NESTED_OBJECTS, DEFAULT_OMIT_NESTED_OBJECTS);
+        loadSampling(settings);
+    }
+
+    /**
+     * Loads the sampling settings, with defaults for the settings of older versions.
+     */
+    private void loadSampling(final NodeSettingsRO settings) {
+        m_inferenceSampling =
+            InferenceSampling.valueOf(settings.getString(INFERENCE_SAMPLING, InferenceSampling.AllRows.name()));
+        m_sampleSize = settings.getInt(SAMPLE_SIZE, DEFAULT_SAMPLE_SIZE);
+        m_unmatchedColumn = settings.getBoolean(UNMATCHED_COLUMN, false);
+        m_unmatchedColumnName = settings.getString(UNMATCHED_COLUMN_NAME, DEFAULT_UNMATCHED_COLUMN_NAME);
+        m_fixedColumns = settings.getBoolean(FIXED_COLUMNS, false);
+        m_fixedColumnsSchema = settings.getString(FIXED_COLUMNS_SCHEMA, "{}");
     }
 
     /**
@@ -250,6 +429,16 @@ void loadSettingsModel(final NodeSettingsRO settings) throws InvalidSettingsExce
         m_arrayHandling = ArrayHandling.valueOf(settings.getString(ARRAY_HANDLING));
         m_removeSourceColumn = settings.getBoolean(REMOVE_SOURCE_COLUMN);
         m_omitNestedObjects = settings.getBoolean(OMIT_NESTED_OBJECTS);
+        loadSampling(settings);
+        if (m_sampleSize < 1) {
+            throw new InvalidSettingsException("The number of rows to sample must be positive: " + m_sampleSize);
+        }
+        if (m_unmatchedColumn && (m_unmatchedColumnName == null || m_unmatchedColumnName.trim().isEmpty())) {
+            throw new InvalidSettingsException("The name of the column for unmatched values must not be empty.");
+        }
+        if (m_fixedColumns) {
+            getFixedColumns(new PathTrie());
+        }
     }
 
     /**
@@ -266,5 +455,11 @@ void saveSettings(final NodeSettingsWO settings) {
         settings.addString(ARRAY_HANDLING, m_arrayHandling.name());
         settings.addBoolean(REMOVE_SOURCE_COLUMN, m_removeSourceColumn);
         settings.addBoolean(OMIT_NESTED_OBJECTS, m_omitNestedObjects);
+        settings.addString(INFERENCE_SAMPLING, m_inferenceSampling.name());
+        settings.addInt(SAMPLE_SIZE, m_sampleSize);
+        settings.addBoolean(UNMATCHED_COLUMN, m_unmatchedColumn);
+        settings.addString(UNMATCHED_COLUMN_NAME, m_unmatchedColumnName);
+        settings.addBoolean(FIXED_COLUMNS, m_fixedColumns);
+        settings.addString(FIXED_COLUMNS_SCHEMA, m_fixedColumnsSchema);
     }
 }
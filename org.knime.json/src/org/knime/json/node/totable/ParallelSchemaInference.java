@@ -0,0 +1,195 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+
+package org.knime.json.node.totable;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.knime.core.data.json.JSONValue;
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.util.ThreadPool;
+import org.knime.core.util.ThreadUtils;
+
+/**
+ * Infers the columns of the JSON to Table node with multiple workers. The documents are split to chunks of consecutive
+ * rows, each chunk is inferred independently by {@link SchemaInference#newPartial()}, and the partial results are
+ * {@link SchemaInference#merge(SchemaInference) merged} in chunk order. As the merge of the kinds is associative and
+ * the first occurrences of the paths keep their order, the result is the same as the sequential inference.
+ * <p>
+ * Instances are not thread-safe, they should be fed from a single thread.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class ParallelSchemaInference {
+    /** The number of documents inferred by a single task. */
+    static final int CHUNK_SIZE = 256;
+
+    private final SchemaInference m_result;
+
+    private final ThreadPool m_pool;
+
+    /** The number of chunks inferred or waiting, more chunks are not read until the oldest is merged. */
+    private final int m_maxPending;
+
+    private final Deque<Future<SchemaInference>> m_pending = new ArrayDeque<>();
+
+    private List<JSONValue> m_chunk = new ArrayList<>(CHUNK_SIZE);
+
+    /**
+     * @param result The inference to merge the partial results to.
+     * @param workers The number of workers, with {@code 1} the documents are inferred in the calling thread.
+     */
+    ParallelSchemaInference(final SchemaInference result, final int workers) {
+        m_result = result;
+        m_pool = workers > 1 ? KNIMEConstants.GLOBAL_THREAD_POOL.createSubPool(workers) : null;
+        m_maxPending = 2 * workers;
+    }
+
+    /**
+     * The system property setting the number of workers. Parallel inference is not enabled by default: the only
+     * measurement (on a single core) found no benefit, so it is opt-in until a multi-core measurement shows one.
+     */
+    static final String WORKERS_PROPERTY = "org.knime.json.totable.inferenceworkers";
+
+    /**
+     * @return The default number of workers: the value of the {@value #WORKERS_PROPERTY} system property, {@code 1}
+     *         (inference in the calling thread) if it is not set.
+     */
+    static int defaultWorkers() {
+        return Math.max(1, Integer.getInteger(WORKERS_PROPERTY, 1));
+    }
+
+    /**
+     * Adds a document to the inference.
+     *
+     * @param jv A JSON value.
+     * @throws IOException When a value cannot be parsed.
+     */
+    void add(final JSONValue jv) throws IOException {
+        if (m_pool == null) {
+            m_result.update(jv);
+            return;
+        }
+        m_chunk.add(jv);
+        if (m_chunk.size() == CHUNK_SIZE) {
+            submit();
+            while (m_pending.size() > m_maxPending) {
+                mergeOldest();
+            }
+        }
+    }
+
+    /**
+     * Waits for the pending chunks and merges them.
+     *
+     * @return The inference with every added document.
+     * @throws IOException When a value cannot be parsed.
+     */
+    SchemaInference finish() throws IOException {
+        if (!m_chunk.isEmpty()) {
+            submit();
+        }
+        while (!m_pending.isEmpty()) {
+            mergeOldest();
+        }
+        return m_result;
+    }
+
+    /**
+     * Cancels the pending chunks (when the inference is aborted).
+     */
+    void cancel() {
+        for (final Future<SchemaInference> future : m_pending) {
+            future.cancel(true);
+        }
+        m_pending.clear();
+    }
+
+    private void submit() {
+        final List<JSONValue> chunk = m_chunk;
+        m_chunk = new ArrayList<>(CHUNK_SIZE);
+        final SchemaInference partial = m_result.newPartial();
+        m_pending.addLast(m_pool.enqueue(ThreadUtils.callableWithContext(() -> {
+            for (final JSONValue jv : chunk) {
+                partial.update(jv);
+            }
+            return partial;
+        })));
+    }
+
+    private void mergeOldest() throws IOException {
+        final Future<SchemaInference> future = m_pending.removeFirst();
+        final Callable<SchemaInference> get = future::get;
+        final ThreadPool current = ThreadPool.currentPool();
+        try {
+            // do not count the waiting thread as running, so the workers can use its slot in the pool
+            m_result.merge(current == null ? get.call() : current.runInvisible(get));
+        } catch (Exception e) { // NOSONAR the exceptions of the task are unwrapped below
+            cancel();
+            Throwable cause = e;
+            while (cause instanceof ExecutionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            if (cause instanceof IOException) {
+                throw (IOException)cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
+            }
+            throw new IOException(cause.getMessage(), cause);
+        }
+    }
+}
@@ -0,0 +1,484 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+
+package org.knime.json.node.totable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+import org.knime.core.data.json.JSONValue;
+import org.knime.core.data.json.JacksonConversions;
+import org.knime.core.node.NodeLogger;
+import org.knime.json.node.jsonpath.JsonPathUtil;
+import org.knime.json.node.jsonpath.util.OutputKind;
+import org.knime.json.node.jsonpath.util.PathTrie;
+import org.knime.json.node.jsonpath.util.PathTrie.Path;
+import org.knime.json.node.profile.JSONStructureProfile;
+import org.knime.json.node.profile.JSONStructureProfile.Aggregate;
+import org.knime.json.node.profile.JSONStructureProfile.KindVariant;
+import org.knime.json.node.profile.JSONStructureProfile.PathProfile;
+import org.knime.json.util.OutputType;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.fge.jackson.JacksonUtils;
+import com.jayway.jsonpath.JsonPath;
+
+/**
+ * Infers the columns of the JSON to Table node. Each document is parsed once and walked once: the walk finds the paths
+ * of the values in the same order as the {@code $..*} JSONPath query and records the value for each of them, so the
+ * {@link OutputKind}s of all paths are computed without evaluating a JSONPath per path.
+ * <p>
+ * Instances are not thread-safe, but the documents can be inferred in parallel by {@link #newPartial() partial}
+ * inferences which are {@link #merge(SchemaInference) merged} afterwards (see {@link ParallelSchemaInference}).
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class SchemaInference {
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(SchemaInference.class);
+
+    private static final ObjectMapper MAPPER = JacksonConversions.getInstance().newMapper();
+
+    private final JSONToTableSettings m_settings;
+
+    private final Consumer<String> m_warnings;
+
+    private final PathTrie m_trie = new PathTrie();
+
+    private final Map<Path, OutputKind> m_kinds = new LinkedHashMap<>();
+
+    private OutputKind m_rootKind = new OutputKind(true, null);
+
+    private boolean m_wasRoot;
+
+    /** The warnings of a partial inference, forwarded when merged, {@code null} for non-partial inferences. */
+    private final Set<String> m_partialWarnings;
+
+    /**
+     * @param settings The node settings.
+     * @param warnings Receives the warnings found during inference.
+     */
+    SchemaInference(final JSONToTableSettings settings, final Consumer<String> warnings) {
+        m_settings = settings;
+        m_warnings = warnings;
+        m_partialWarnings = null;
+        m_kinds.put(m_trie.root(), m_rootKind);
+    }
+
+    private SchemaInference(final JSONToTableSettings settings) {
+        m_settings = settings;
+        m_partialWarnings = new LinkedHashSet<>();
+        m_warnings = m_partialWarnings::add;
+        m_kinds.put(m_trie.root(), m_rootKind);
+    }
+
+    /**
+     * @return A new, empty inference with the same settings, that can be used in another thread and later
+     *         {@link #merge(SchemaInference) merged} to this one.
+     */
+    SchemaInference newPartial() {
+        return new SchemaInference(m_settings);
+    }
+
+    /**
+     * Merges the kinds inferred by {@code partial} after the ones already inferred, as if its documents were
+     * {@link #update(JSONValue) updated} after the documents of this inference.
+     * (The merge of the types is associative for every type inferred from parsed documents, only
+     * {@link OutputType#Base64}, which is never inferred, would differ.)
+     *
+     * @param partial An inference created by {@link #newPartial()}.
+     */
+    void merge(final SchemaInference partial) {
+        if (partial.m_partialWarnings != null) {
+            partial.m_partialWarnings.forEach(m_warnings);
+        }
+        final Map<Path, Path> translated = new IdentityHashMap<>();
+        for (final Entry<Path, OutputKind> entry : partial.m_kinds.entrySet()) {
+            final Path path = translate(entry.getKey(), m_trie.root(), translated);
+            if (path == m_trie.root()) {
+                continue;
+            }
+            final OutputKind orig = m_kinds.get(path);
+            m_kinds.put(path, orig == null ? entry.getValue() : JSONStructureProfile.merge(orig, entry.getValue()));
+        }
+        m_rootKind = JSONStructureProfile.merge(m_rootKind, partial.m_rootKind);
+        m_wasRoot |= partial.m_wasRoot;
+    }
+
+    /**
+     * @return The path of the trie of {@code root} representing {@code path} of another trie.
+     */
+    private static Path translate(final Path path, final Path root, final Map<Path, Path> translated) {
+        if (path.getParent() == null) {
+            return root;
+        }
+        Path ret = translated.get(path);
+        if (ret == null) {
+            final Path parent = translate(path.getParent(), root, translated);
+            ret = path.isKey() ? parent.key(path.getKey())
+                : path.isStar() ? parent.star() : parent.index(path.getIndex());
+            translated.put(path, ret);
+        }
+        return ret;
+    }
+
+    /**
+     * Updates the inferred kinds with the paths of a document.
+     *
+     * @param jv A JSON value.
+     * @throws IOException When the value cannot be parsed.
+     */
+    void update(final JSONValue jv) throws IOException {
+        final JsonNode document = MAPPER.readTree(jv.toString());
+        final List<Path> paths = new ArrayList<>();
+        final Map<Path, JsonNode> values = new IdentityHashMap<>();
+        // the elements of a top level array are selected by $[*], its kind is the kind of the whole document
+        values.put(m_trie.root(), document);
+        scan(document, m_trie.root(), paths, values);
+        if (paths.isEmpty()) {
+            // no descendants, only the root can be a column
+            LOGGER.debug("No paths found in " + jv);
+            m_wasRoot = true;
+        }
+        TreeSet<Path> origPaths = new TreeSet<>(paths);
+        filterArrays(paths);
+        filterNonLeaves(paths, origPaths);
+        for (Path path : paths) {
+            // a trailing [*] selects the elements of the array at the parent
+            OutputKind kind = kindOf(values.get(path.isStar() ? path.getParent() : path));
+            OutputKind orig = m_kinds.get(path);
+            m_kinds.put(path, orig == null ? kind : JSONStructureProfile.merge(orig, kind));
+        }
+        m_rootKind = JSONStructureProfile.merge(m_rootKind, kindOf(document));
+    }
+
+    /**
+     * @return The inferred kinds of the paths that should be converted to columns, in column order.
+     */
+    Map<Path, OutputKind> getKinds() {
+        final Map<Path, OutputKind> kinds = new LinkedHashMap<>(m_kinds);
+        if (m_wasRoot) {
+            OutputKind rootKind = m_rootKind;
+            //For root, we do not want collection of JSON values, that would be confusing.
+            if (!rootKind.isSingle() && rootKind.getType() != null && rootKind.getType() == OutputType.Json) {
+                rootKind = new OutputKind(true, OutputType.Json);
+            }
+            kinds.put(m_trie.root(), rootKind);
+        } else {
+            kinds.remove(m_trie.root());
+        }
+        removeRedundant(kinds);
+        return kinds;
+    }
+
+    /**
+     * Collects the descendant paths of {@code node} in the order of the {@code $..*} JSONPath query: first the
+     * children of a container, then the descendants of each child.
+     */
+    private static void scan(final JsonNode node, final Path path, final List<Path> paths,
+        final Map<Path, JsonNode> values) {
+        if (node.isObject()) {
+            for (Iterator<Entry<String, JsonNode>> it = node.fields(); it.hasNext();) {
+                final Entry<String, JsonNode> field = it.next();
+                final Path child = path.key(field.getKey());
+                paths.add(child);
+                values.put(child, field.getValue());
+            }
+            for (Iterator<Entry<String, JsonNode>> it = node.fields(); it.hasNext();) {
+                final Entry<String, JsonNode> field = it.next();
+                scan(field.getValue(), path.key(field.getKey()), paths, values);
+            }
+        } else if (node.isArray()) {
+            for (int i = 0; i < node.size(); i++) {
+                final Path child = path.index(i);
+                paths.add(child);
+                values.put(child, node.get(i));
+            }
+            for (int i = 0; i < node.size(); i++) {
+                scan(node.get(i), path.index(i), paths, values);
+            }
+        }
+    }
+
+    /**
+     * Finds the {@link OutputKind} of a value.
+     *
+     * @param jackson The value.
+     * @return The {@link OutputKind} of the value.
+     */
+    private OutputKind kindOf(final JsonNode jackson) {
+        return JSONStructureProfile.kindOf(jackson, variantOf(m_settings), m_warnings);
+    }
+
+    /**
+     * Finds the {@link OutputKind} of the values selected by a JSONPath in a single document, evaluating the path
+     * (the way the columns were inferred before the single walk).
+     *
+     * @param jv A JSON value.
+     * @param path A JSONPath.
+     * @param settings The node settings.
+     * @param warnings Receives the warnings.
+     * @return The {@link OutputKind} of the values at {@code path}.
+     */
+    static OutputKind kindOf(final JSONValue jv, final String path, final JSONToTableSettings settings,
+        final Consumer<String> warnings) {
+        final Object object = JsonPath.read(jv.toString(), path);
+        return JSONStructureProfile.kindOf(JsonPathUtil.toJackson(JacksonUtils.nodeFactory(), object),
+            variantOf(settings), warnings);
+    }
+
+    /**
+     * @return The representation of the collections selected by {@code settings}.
+     */
+    private static KindVariant variantOf(final JSONToTableSettings settings) {
+        if (settings.getArrayHandling() == ArrayHandling.KeepAllArrayAsJsonArray) {
+            return KindVariant.ARRAYS_AS_JSON;
+        }
+        return settings.isOmitNestedObjects() ? KindVariant.COLLECTIONS_WITHOUT_OBJECTS : KindVariant.COLLECTIONS;
+    }
+
+    /**
+     * Derives the columns from a {@link JSONStructureProfile} instead of reading the documents: the result is the
+     * same as {@link #getKinds()} after {@link #update(JSONValue) updating} with the profiled documents when the
+     * elements of each array have the same structure. The profile merges the elements of the arrays, so every
+     * {@code [*]} of a profiled path is expanded to the indices up to the longest array found there, with the kinds
+     * merged over the elements.
+     *
+     * @param profile The profile of the documents.
+     * @param settings The node settings.
+     * @return The kinds of the paths that should be converted to columns, in column order (the paths are of a new
+     *         {@link PathTrie}).
+     */
+    static Map<Path, OutputKind> kindsOf(final JSONStructureProfile profile, final JSONToTableSettings settings) {
+        final KindVariant variant = variantOf(settings);
+        final boolean collections = settings.getArrayHandling() != ArrayHandling.GenerateColumns;
+        final boolean onlyLeaves = settings.getExpansion() == Expansion.OnlyLeaves;
+        final PathTrie trie = new PathTrie();
+        final Map<Path, List<Path>> expanded = new IdentityHashMap<>();
+        final Map<Path, OutputKind> kinds = new HashMap<>();
+        // the position of the first document keeping the column (and the position within that document)
+        final Map<Path, Long> sequences = new HashMap<>();
+        for (final PathProfile pathProfile : profile.getPaths()) {
+            final long sequence = onlyLeaves ? pathProfile.getLeafSequence() : pathProfile.getSequence();
+            for (final Path path : expand(profile, pathProfile.getPath(), trie.root(), expanded)) {
+                // a trailing index is the [*] selecting the elements of the array at the parent
+                final boolean star = collections && path.endsWithIndex();
+                final Path column = star ? path.replaceLastWithStar() : path;
+                if (onlyLeaves ? sequence < 0 : Math.max(0, column.getDepth() - 1) >= settings.getUpToNLevel()) {
+                    continue;
+                }
+                final Long orig = sequences.get(column);
+                sequences.put(column, orig == null ? sequence : Math.min(orig, sequence));
+                if (!kinds.containsKey(column)) {
+                    final Aggregate aggregate;
+                    if (star) {
+                        final PathProfile parent = profile.getProfile(pathProfile.getPath().getParent());
+                        aggregate = onlyLeaves ? parent.getArraysWithLeafElements() : parent.getArraysWithElements();
+                    } else {
+                        aggregate = onlyLeaves ? pathProfile.getLeaves() : pathProfile.getValues();
+                    }
+                    kinds.put(column, aggregate.getKind(variant));
+                }
+            }
+        }
+        final List<Path> columns = new ArrayList<>(kinds.keySet());
+        // the indices of the same profiled path are in the order of the $..* query
+        columns.sort(Comparator.<Path, Long> comparing(sequences::get).thenComparing(Comparator.naturalOrder()));
+        final Map<Path, OutputKind> ret = new LinkedHashMap<>();
+        if (profile.getRoot().getLeaves().getCount() > 0) {
+            OutputKind rootKind = profile.getRoot().getValues().getKind(variant);
+            //For root, we do not want collection of JSON values, that would be confusing.
+            if (!rootKind.isSingle() && rootKind.getType() == OutputType.Json) {
+                rootKind = new OutputKind(true, OutputType.Json);
+            }
+            ret.put(trie.root(), rootKind);
+        }
+        columns.forEach(column -> ret.put(column, kinds.get(column)));
+        removeRedundant(ret);
+        return ret;
+    }
+
+    /**
+     * @param profile The profile of {@code path}.
+     * @param path A path of the profile.
+     * @param root The root of the trie of the result.
+     * @param expanded The already expanded paths.
+     * @return The paths of the trie of {@code root} representing {@code path}, with each {@code [*]} replaced by the
+     *         indices up to the longest array found at its parent.
+     */
+    private static List<Path> expand(final JSONStructureProfile profile, final Path path, final Path root,
+        final Map<Path, List<Path>> expanded) {
+        if (path.getParent() == null) {
+            return Collections.singletonList(root);
+        }
+        List<Path> ret = expanded.get(path);
+        if (ret == null) {
+            ret = new ArrayList<>();
+            final int length = path.isStar() ? profile.getProfile(path.getParent()).getMaxLength() : 0;
+            for (final Path parent : expand(profile, path.getParent(), root, expanded)) {
+                if (path.isKey()) {
+                    ret.add(parent.key(path.getKey()));
+                } else if (path.isStar()) {
+                    for (int i = 0; i < length; i++) {
+                        ret.add(parent.index(i));
+                    }
+                } else {
+                    ret.add(parent.index(path.getIndex()));
+                }
+            }
+            expanded.put(path, ret);
+        }
+        return ret;
+    }
+
+    /**
+     * @param kinds
+     */
+    private static void removeRedundant(final Map<Path, OutputKind> kinds) {
+        for (Iterator<Entry<Path, OutputKind>> it = kinds.entrySet().iterator(); it.hasNext();) {
+            Path next = it.next().getKey();
+            if (next.isStar()) {
+                if (kinds.containsKey(next.getParent())) {
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * @param paths
+     */
+    private void filterArrays(final List<Path> paths) {
+        switch (m_settings.getArrayHandling()) {
+            case KeepAllArrayAsJsonArray://intentional fall through
+            case GenerateCollectionCells: {
+                final LinkedHashSet<Path> result = new LinkedHashSet<>();
+                for (Path path : paths) {
+                    result.add(path.endsWithIndex() ? path.replaceLastWithStar() : path);
+                }
+                paths.clear();
+                paths.addAll(result);
+                LOGGER.debug(paths);
+            }
+                break;
+            case GenerateColumns:
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * @param paths The JSONPath paths containing possibly non-leaf paths too (which get remove when only leaves should
+     *            be used).
+     * @param origPaths The {@link TreeSet} of original paths.
+     */
+    private void filterNonLeaves(final List<Path> paths, final TreeSet<Path> origPaths) {
+        switch (m_settings.getExpansion()) {
+            case OnlyLeaves: {
+                SortedMap<Path, List<Path>> origMap = new TreeMap<>();
+                for (Path origPath : origPaths) {
+                    //String starred = lastArrayIndicesToStar(origPath);
+                    Path starred = origPath.lastIndexToStar();
+                    if (!origMap.containsKey(starred)) {
+                        origMap.put(starred, new ArrayList<Path>());
+                    }
+                    origMap.get(starred).add(origPath);
+                }
+                final TreeSet<Path> set = new TreeSet<>();
+                for (Path path : paths) {
+                    Path higher = set.higher(path);
+                    Path lower = set.lower(path);
+                    if (lower != null && (path.startsWith(lower) || path.lastIndexToStar().startsWith(lower))) {
+                        //check whether all branches has a descendant or not
+                        boolean allHasDescendant = true;
+                        for (Path orig: origMap.containsKey(lower) ? origMap.get(lower) : Collections.<Path>emptyList()) {
+                            Path h = origPaths.higher(orig);
+                            allHasDescendant &= h != null && h.startsWith(orig);
+                        }
+                        //we have to keep if we have a leaf descendant
+                        if (allHasDescendant) {
+                            set.remove(lower);
+                        }
+                    }
+                    if (higher == null || !higher.startsWith(path)) {
+                        set.add(path);
+                    }
+                }
+                paths.retainAll(set);
+//                LOGGER.debug(set);
+            }
+                break;
+            case OnlyUpTo: {
+                final TreeSet<Path> set = new TreeSet<>();
+                for (Path path : paths) {
+                    if (Math.max(0, path.getDepth() - 1) < m_settings.getUpToNLevel()) {
+                        set.add(path);
+                    }
+                }
+                paths.retainAll(set);
+            }
+                break;
+            default:
+                break;
+        }
+    }
+}
@@ -60,6 +60,8 @@
 import org.knime.core.data.container.ColumnRearranger;
 import org.knime.core.data.container.SingleCellFactory;
 import org.knime.core.data.json.JSONCell;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.ExecutionContext;
 import org.knime.core.node.InvalidSettingsException;
 import org.knime.core.node.NodeModel;
 import org.knime.core.node.NodeSettingsRO;
@@ -197,6 +199,29 @@ protected DataColumnSpec handleNonSetColumn(final DataTableSpec tableSpec) throw
      */
     @Override
     protected ColumnRearranger createColumnRearranger(final DataTableSpec inSpecs) throws InvalidSettingsException {
+        return createColumnRearranger(inSpecs, null);
+    }
+
+    /**
+     * {@inheritDoc} Concurrent cell factories get their number of rows in flight adapted to the payload sizes of the
+     * input column (see {@link PayloadAwareParallelism}).
+     */
+    @Override
+    protected BufferedDataTable[] execute(final BufferedDataTable[] inData, final ExecutionContext exec)
+        throws Exception {
+        final BufferedDataTable table = inData[0];
+        final ColumnRearranger rearranger = createColumnRearranger(table.getDataTableSpec(), table);
+        return new BufferedDataTable[]{exec.createColumnRearrangeTable(table, rearranger, exec)};
+    }
+
+    /**
+     * @param inSpecs The input table spec.
+     * @param table The input table when executing (not streaming), otherwise {@code null}.
+     * @return The {@link ColumnRearranger}.
+     * @throws InvalidSettingsException Same as {@link #createColumnRearranger(DataTableSpec)}.
+     */
+    private ColumnRearranger createColumnRearranger(final DataTableSpec inSpecs, final BufferedDataTable table)
+        throws InvalidSettingsException {
         ColumnRearranger ret = new ColumnRearranger(inSpecs);
         String input = m_settings.getInputColumnName();
         if (input == null) {
@@ -221,6 +246,9 @@ protected ColumnRearranger createColumnRearranger(final DataTableSpec inSpecs) t
         CellFactory factory;
         try {
             factory = createCellFactory(output, inputIndex, otherIndices);
+            if (table != null && PayloadAwareParallelism.isConcurrent(factory)) {
+                PayloadAwareParallelism.sample(table, inputIndex).configure(factory);
+            }
             applyFactory(ret, input, factory);
         } catch (IOException e) {
             throw new InvalidSettingsException(e);
@@ -0,0 +1,165 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+
+package org.knime.json.node.util;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.StringValue;
+import org.knime.core.data.json.JSONCellFactory;
+import org.knime.core.data.json.JSONValue;
+import org.knime.core.data.json.JacksonConversions;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.util.FileUtil;
+import org.knime.core.util.JsonUtil;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsonp.JSONPModule;
+
+/**
+ * Helper methods to create large JSON cells by writing them with a {@link JsonGenerator} to a temporary file, instead
+ * of building the whole value as a JSR-353 tree first. The values of JSON cells are copied token by token from their
+ * texts ({@link #writeValue(JsonGenerator, JSONValue)}), without building their trees either.
+ * <p>
+ * The created cells keep their text in memory (like all JSON cells), so the text of the whole value still has to fit
+ * into the heap, only the (much larger) tree of the value and the builders are avoided.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ * @since 5.12
+ */
+public final class StreamedJSONCells {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /**
+     * Writes a JSON value with a {@link JsonGenerator}.
+     */
+    @FunctionalInterface
+    public interface Content {
+        /**
+         * @param generator The generator to write the value with.
+         * @param out The {@link OutputStream} of {@code generator}.
+         * @throws IOException When writing fails.
+         * @throws CanceledExecutionException When the execution was cancelled.
+         */
+        void writeTo(JsonGenerator generator, OutputStream out) throws IOException, CanceledExecutionException;
+    }
+
+    private StreamedJSONCells() {
+        // hidden
+    }
+
+    /**
+     * @return A new {@link ObjectMapper} configured like the writer of the JSON cells (so the written text is the same
+     *         as the text of a cell created from the whole value), which does not close or flush its targets.
+     */
+    public static ObjectMapper newMapper() {
+        return JacksonConversions.getInstance().newMapper().configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false)
+            .configure(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT, false)
+            .disable(SerializationFeature.CLOSE_CLOSEABLE, SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+            .registerModule(new JSONPModule(JsonUtil.getProvider()));
+    }
+
+    /**
+     * Creates a JSON cell by writing its content to a temporary file first. The text is read back from the file to
+     * create the cell, so it is held in memory once.
+     *
+     * @param mapper The {@link ObjectMapper} creating the {@link JsonGenerator} (see {@link #newMapper()}).
+     * @param content The JSON value to write.
+     * @return The JSON cell (a blob cell for large values) with the content.
+     * @throws IOException When writing or reading the temporary file fails.
+     * @throws CanceledExecutionException When the execution was cancelled.
+     */
+    public static DataCell create(final ObjectMapper mapper, final Content content)
+        throws IOException, CanceledExecutionException {
+        final File file = FileUtil.createTempFile("json-cell", ".json");
+        try {
+            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file));
+                    JsonGenerator generator = mapper.createGenerator(out)) {
+                content.writeTo(generator, out);
+            }
+            return JSONCellFactory.create(Files.readString(file.toPath(), StandardCharsets.UTF_8));
+        } finally {
+            Files.deleteIfExists(file.toPath());
+        }
+    }
+
+    /**
+     * Writes a JSON value as the next value of {@code generator} by copying the tokens of its text, without building
+     * the tree of the value. The layout is left to the pretty printer of {@code generator} and the floating point
+     * numbers are written as {@link java.math.BigDecimal}s (like the JSON cell writer does), so the output does not
+     * depend on how the text of the value was stored.
+     *
+     * @param generator The output (see {@link #newMapper()}).
+     * @param value A JSON value.
+     * @throws IOException When the value is not valid JSON or writing fails.
+     */
+    public static void writeValue(final JsonGenerator generator, final JSONValue value) throws IOException {
+        // the cells and the values read from a table keep their text, other values have to be serialized first
+        final String text =
+            value instanceof StringValue stringValue ? stringValue.getStringValue() : value.getJsonValue().toString();
+        try (JsonParser parser = JSON_FACTORY.createParser(text)) {
+            for (JsonToken token = parser.nextToken(); token != null; token = parser.nextToken()) {
+                if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+                    generator.writeNumber(parser.getDecimalValue());
+                } else {
+                    generator.copyCurrentEvent(parser);
+                }
+            }
+        }
+    }
+}